@@ -20,6 +20,7 @@ package it.geosolutions.jaiext.algebra.constant;
 import it.geosolutions.jaiext.algebra.AlgebraDescriptor.Operator;
 import it.geosolutions.jaiext.iterators.RandomIterFactory;
 import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.simd.PointKernels;
 
 import java.awt.Rectangle;
 import java.awt.image.DataBuffer;
@@ -89,6 +90,9 @@ public final class OperationConstOpImage extends ColormapOpImage {
 
     private Operator op;
 
+    /** Row kernel performing the operation on float and double images, null if there is none */
+    private PointKernels.Arithmetic arithmetic;
+
     private byte destNoDataByte;
 
     private short destNoDataShort;
@@ -136,6 +140,7 @@ public final class OperationConstOpImage extends ColormapOpImage {
             if (!op.supportsMultipleValues()) {
                 throw new IllegalArgumentException("Wrong Operation Defined");
             }
+            this.arithmetic = toArithmetic(op);
         }
 
         // DataType check
@@ -227,6 +232,21 @@ public final class OperationConstOpImage extends ColormapOpImage {
         }
     }
 
+    private static PointKernels.Arithmetic toArithmetic(Operator op) {
+        switch (op) {
+        case SUM:
+            return PointKernels.Arithmetic.ADD;
+        case SUBTRACT:
+            return PointKernels.Arithmetic.SUBTRACT;
+        case MULTIPLY:
+            return PointKernels.Arithmetic.MULTIPLY;
+        case DIVIDE:
+            return PointKernels.Arithmetic.DIVIDE;
+        default:
+            return null;
+        }
+    }
+
     private void initByteTable() {
 
         if (byteLookupTable != null) {
@@ -1048,6 +1068,12 @@ public final class OperationConstOpImage extends ColormapOpImage {
                     dstLineOffset += dLineStride;
                     srcLineOffset += srcLineStride;
 
+                    if (arithmetic != null) {
+                        PointKernels.arithmetic(arithmetic, s, srcPixelOffset, srcPixelStride, d,
+                                dstPixelOffset, dPixelStride, dstWidth, constants[b]);
+                        continue;
+                    }
+
                     for (int w = 0; w < dstWidth; w++) {
 
                         d[dstPixelOffset] = ImageUtil.clampFloat(op.calculate(s[srcPixelOffset],
@@ -1203,6 +1229,12 @@ public final class OperationConstOpImage extends ColormapOpImage {
                     dstLineOffset += dLineStride;
                     srcLineOffset += srcLineStride;
 
+                    if (arithmetic != null) {
+                        PointKernels.arithmetic(arithmetic, s, srcPixelOffset, srcPixelStride, d,
+                                dstPixelOffset, dPixelStride, dstWidth, constants[b]);
+                        continue;
+                    }
+
                     for (int w = 0; w < dstWidth; w++) {
 
                         d[dstPixelOffset] = op.calculate(s[srcPixelOffset], constants[b]);
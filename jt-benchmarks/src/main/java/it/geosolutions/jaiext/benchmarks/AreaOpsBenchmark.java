@@ -0,0 +1,200 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.border.BorderDescriptor;
+import it.geosolutions.jaiext.convolve.ConvolveDescriptor;
+import it.geosolutions.jaiext.crop.CropDescriptor;
+import it.geosolutions.jaiext.mosaic.MosaicDescriptor;
+import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.stats.Statistics;
+import it.geosolutions.jaiext.stats.Statistics.StatsType;
+import it.geosolutions.jaiext.stats.StatisticsDescriptor;
+
+import java.awt.geom.AffineTransform;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.BorderExtender;
+import javax.media.jai.KernelJAI;
+import javax.media.jai.ROI;
+import javax.media.jai.RenderedOp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the area, statistical and mosaicking operations, comparing the JAI-EXT implementations with the legacy JAI ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AreaOpsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class AreaState extends ImageState {
+
+        @Param({ "JAI", "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        @Param({ "BYTE", "USHORT", "SHORT", "INT", "FLOAT", "DOUBLE" })
+        public String dataType;
+
+        /** 3x3 averaging kernel */
+        KernelJAI kernel;
+
+        /** Mosaic sources, overlapping on half of their area */
+        RenderedImage[] mosaicSources;
+
+        /** Mosaic ROIs, null if not requested by the variant */
+        ROI[] mosaicROIs;
+
+        /** Mosaic NoData, null if not requested by the variant */
+        Range[] mosaicNoData;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return toDataType(dataType);
+        }
+
+        @Override
+        protected void prepare() {
+            float[] data = new float[9];
+            Arrays.fill(data, 1f / 9);
+            kernel = new KernelJAI(3, 3, data);
+            mosaicSources = new RenderedImage[] { source,
+                    createImage(getDataType(), 1, IMAGE_SIZE / 2, 0) };
+            mosaicROIs = roi != null ? new ROI[] { roi,
+                    roi.transform(AffineTransform.getTranslateInstance(IMAGE_SIZE / 2, 0)) }
+                    : null;
+            mosaicNoData = noData != null ? new Range[] { noData, noData } : null;
+        }
+    }
+
+    private static final double[] BACKGROUND = new double[] { 0 };
+
+    private static final int[] BANDS = new int[] { 0 };
+
+    private static final int[] NUM_BINS = new int[] { 256 };
+
+    private static final double[] LOW_VALUES = new double[] { 0 };
+
+    private static final double[] HIGH_VALUES = new double[] { 256 };
+
+    @Benchmark
+    public Raster[] convolve(AreaState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ConvolveDescriptor.create(state.source, state.kernel, state.roi, state.noData,
+                    ImageState.DEST_NODATA, false, state.hints);
+        } else {
+            op = javax.media.jai.operator.ConvolveDescriptor.create(state.source, state.kernel,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] crop(AreaState state) {
+        float offset = ImageState.IMAGE_SIZE / 4;
+        float size = ImageState.IMAGE_SIZE / 2;
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = CropDescriptor.create(state.source, offset, offset, size, size, state.roi,
+                    state.noData, BACKGROUND, state.hints);
+        } else {
+            op = javax.media.jai.operator.CropDescriptor.create(state.source, offset, offset,
+                    size, size, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] border(AreaState state) {
+        BorderExtender extender = BorderExtender.createInstance(BorderExtender.BORDER_COPY);
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = BorderDescriptor.create(state.source, 16, 16, 16, 16, extender, state.noData,
+                    ImageState.DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.BorderDescriptor.create(state.source, 16, 16, 16, 16,
+                    extender, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Object extrema(AreaState state) {
+        if (state.variant.isJAIExt()) {
+            RenderedOp op = StatisticsDescriptor.create(state.source, 1, 1, state.roi,
+                    state.noData, false, BANDS, new StatsType[] { StatsType.EXTREMA },
+                    state.hints);
+            return state.property(op, Statistics.STATS_PROPERTY);
+        } else {
+            RenderedOp op = javax.media.jai.operator.ExtremaDescriptor.create(state.source,
+                    null, 1, 1, false, 1, state.hints);
+            return state.property(op, "extrema");
+        }
+    }
+
+    @Benchmark
+    public Object histogram(AreaState state) {
+        if (state.variant.isJAIExt()) {
+            RenderedOp op = StatisticsDescriptor.create(state.source, 1, 1, state.roi,
+                    state.noData, false, BANDS, new StatsType[] { StatsType.HISTOGRAM },
+                    LOW_VALUES, HIGH_VALUES, NUM_BINS, state.hints);
+            return state.property(op, Statistics.STATS_PROPERTY);
+        } else {
+            RenderedOp op = javax.media.jai.operator.HistogramDescriptor.create(state.source,
+                    null, 1, 1, NUM_BINS, LOW_VALUES, HIGH_VALUES, state.hints);
+            return state.property(op, "histogram");
+        }
+    }
+
+    @Benchmark
+    public Raster[] mosaic(AreaState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = MosaicDescriptor.create(state.mosaicSources,
+                    javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY, null,
+                    state.mosaicROIs, null, BACKGROUND, state.mosaicNoData, state.hints);
+        } else {
+            op = javax.media.jai.operator.MosaicDescriptor.create(state.mosaicSources,
+                    javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY, null, null,
+                    null, BACKGROUND, state.hints);
+        }
+        return state.compute(op);
+    }
+}
@@ -0,0 +1,129 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.colorconvert.ColorConvertDescriptor;
+import it.geosolutions.jaiext.errordiffusion.ErrorDiffusionDescriptor;
+import it.geosolutions.jaiext.orderdither.OrderedDitherDescriptor;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.ColorCube;
+import javax.media.jai.KernelJAI;
+import javax.media.jai.RenderedOp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the color operations, comparing the JAI-EXT implementations with the legacy JAI ones on a byte RGB image.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ColorOpsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ColorState extends ImageState {
+
+        @Param({ "JAI", "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        /** Gray color model used as ColorConvert target */
+        ColorModel grayModel;
+
+        /** Dithering masks, one for each band */
+        KernelJAI[] ditherMask;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return DataBuffer.TYPE_BYTE;
+        }
+
+        @Override
+        protected void prepare() {
+            grayModel = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), false,
+                    false, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+            ditherMask = KernelJAI.DITHER_MASK_443;
+        }
+    }
+
+    private static final double[] DEST_NODATA = new double[] { ImageState.DEST_NODATA };
+
+    @Benchmark
+    public Raster[] colorConvert(ColorState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ColorConvertDescriptor.create(state.multiband, state.grayModel, state.roi,
+                    state.noData, DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.ColorConvertDescriptor.create(state.multiband,
+                    state.grayModel, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] errorDiffusion(ColorState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ErrorDiffusionDescriptor.create(state.multiband, ColorCube.BYTE_496,
+                    KernelJAI.ERROR_FILTER_FLOYD_STEINBERG, state.roi, state.noData,
+                    DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.ErrorDiffusionDescriptor.create(state.multiband,
+                    ColorCube.BYTE_496, KernelJAI.ERROR_FILTER_FLOYD_STEINBERG, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] orderedDither(ColorState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = OrderedDitherDescriptor.create(state.multiband, ColorCube.BYTE_496,
+                    state.ditherMask, state.hints, state.roi, state.noData,
+                    ImageState.DEST_NODATA);
+        } else {
+            op = javax.media.jai.operator.OrderedDitherDescriptor.create(state.multiband,
+                    ColorCube.BYTE_496, state.ditherMask, state.hints);
+        }
+        return state.compute(op);
+    }
+}
@@ -0,0 +1,140 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.bandmerge.BandMergeDescriptor;
+import it.geosolutions.jaiext.jiffleop.JiffleDescriptor;
+import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.range.RangeFactory;
+import it.geosolutions.jaiext.rlookup.RangeLookupDescriptor;
+import it.geosolutions.jaiext.rlookup.RangeLookupTable;
+import it.geosolutions.jaiext.scale.Scale2Descriptor;
+import it.geosolutions.jaiext.shadedrelief.ShadedReliefAlgorithm;
+import it.geosolutions.jaiext.shadedrelief.ShadedReliefDescriptor;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.Interpolation;
+import javax.media.jai.RenderedOp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the operations which have no legacy JAI counterpart. Only the JAI-EXT variants are measured, so that the cost of the ROI
+ * and NoData checks can be tracked across releases.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExtensionOpsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ExtensionState extends ImageState {
+
+        @Param({ "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        @Param({ "BYTE", "USHORT", "SHORT", "INT", "FLOAT", "DOUBLE" })
+        public String dataType;
+
+        /** NoData for each BandMerge source, null if not requested by the variant */
+        Range[] bandMergeNoData;
+
+        /** NoData for the Jiffle source, null if not requested by the variant */
+        Range[] jiffleNoData;
+
+        /** Table classifying the source values in three classes */
+        RangeLookupTable<Double, Integer> table;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return toDataType(dataType);
+        }
+
+        @Override
+        protected void prepare() {
+            bandMergeNoData = noData != null ? new Range[] { noData, noData } : null;
+            jiffleNoData = noData != null ? new Range[] { noData } : null;
+            RangeLookupTable.Builder<Double, Integer> builder =
+                    new RangeLookupTable.Builder<Double, Integer>();
+            builder.add(RangeFactory.create(Double.NEGATIVE_INFINITY, false, 50d, false), 1);
+            builder.add(RangeFactory.create(50d, true, 200d, false), 2);
+            builder.add(RangeFactory.create(200d, true, Double.POSITIVE_INFINITY, false), 3);
+            table = builder.build();
+        }
+    }
+
+    private static final double[] BACKGROUND = new double[] { 0 };
+
+    @Benchmark
+    public Raster[] bandMerge(ExtensionState state) {
+        RenderedOp op = BandMergeDescriptor.create(state.bandMergeNoData,
+                ImageState.DEST_NODATA, false, state.hints, state.source, state.source);
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] scale2(ExtensionState state) {
+        RenderedOp op = Scale2Descriptor.create(state.source, 2d, 2d, 0d, 0d,
+                Interpolation.getInstance(Interpolation.INTERP_BILINEAR), state.roi, false,
+                state.noData, BACKGROUND, state.hints);
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] shadedRelief(ExtensionState state) {
+        RenderedOp op = ShadedReliefDescriptor.create(state.source, state.roi, state.noData,
+                ImageState.DEST_NODATA, 1, 1, 1, 1, 45, 315,
+                ShadedReliefAlgorithm.ZEVENBERGEN_THORNE, state.hints);
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] rangeLookup(ExtensionState state) {
+        RenderedOp op = RangeLookupDescriptor.create(state.source, state.table, 0, state.roi,
+                state.hints);
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] jiffle(ExtensionState state) {
+        RenderedOp op = JiffleDescriptor.create(new RenderedImage[] { state.source },
+                new String[] { "src" }, "dest", "dest = src > 125 ? src * 2 : src / 2;", null,
+                DataBuffer.TYPE_DOUBLE, 1, null, null, state.jiffleNoData, state.hints);
+        return state.compute(op);
+    }
+}
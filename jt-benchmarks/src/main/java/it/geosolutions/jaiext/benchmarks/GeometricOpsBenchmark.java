@@ -0,0 +1,162 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.affine.AffineDescriptor;
+import it.geosolutions.jaiext.scale.ScaleDescriptor;
+import it.geosolutions.jaiext.translate.TranslateDescriptor;
+import it.geosolutions.jaiext.warp.WarpDescriptor;
+
+import java.awt.geom.AffineTransform;
+import java.awt.geom.NoninvertibleTransformException;
+import java.awt.image.Raster;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.Interpolation;
+import javax.media.jai.RenderedOp;
+import javax.media.jai.Warp;
+import javax.media.jai.WarpAffine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the geometric operations, comparing the JAI-EXT implementations with the legacy JAI ones for each interpolation type.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeometricOpsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GeometricState extends ImageState {
+
+        @Param({ "JAI", "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        @Param({ "BYTE", "USHORT", "SHORT", "INT", "FLOAT", "DOUBLE" })
+        public String dataType;
+
+        @Param({ "NEAREST", "BILINEAR", "BICUBIC" })
+        public String interpolation;
+
+        /** Interpolation to use */
+        Interpolation interp;
+
+        /** Rotation and scale used by Affine and Warp */
+        AffineTransform transform;
+
+        /** Warp equivalent to the inverse of the transform */
+        Warp warp;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return toDataType(dataType);
+        }
+
+        @Override
+        protected void prepare() {
+            if ("NEAREST".equals(interpolation)) {
+                interp = Interpolation.getInstance(Interpolation.INTERP_NEAREST);
+            } else if ("BILINEAR".equals(interpolation)) {
+                interp = Interpolation.getInstance(Interpolation.INTERP_BILINEAR);
+            } else if ("BICUBIC".equals(interpolation)) {
+                interp = Interpolation.getInstance(Interpolation.INTERP_BICUBIC);
+            } else {
+                throw new IllegalArgumentException("Wrong interpolation: " + interpolation);
+            }
+            transform = AffineTransform.getRotateInstance(Math.PI / 6, IMAGE_SIZE / 2,
+                    IMAGE_SIZE / 2);
+            transform.scale(1.5, 1.5);
+            try {
+                warp = new WarpAffine(transform.createInverse());
+            } catch (NoninvertibleTransformException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final double[] BACKGROUND = new double[] { 0 };
+
+    @Benchmark
+    public Raster[] scale(GeometricState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ScaleDescriptor.create(state.source, 2f, 2f, 0f, 0f, state.interp, state.roi,
+                    false, state.noData, BACKGROUND, state.hints);
+        } else {
+            op = javax.media.jai.operator.ScaleDescriptor.create(state.source, 2f, 2f, 0f, 0f,
+                    state.interp, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] affine(GeometricState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = AffineDescriptor.create(state.source, state.transform, state.interp,
+                    BACKGROUND, state.roi, false, false, state.noData, state.hints);
+        } else {
+            op = javax.media.jai.operator.AffineDescriptor.create(state.source,
+                    state.transform, state.interp, BACKGROUND, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] translate(GeometricState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = TranslateDescriptor.create(state.source, 10.5f, 10.5f, state.interp,
+                    state.hints);
+        } else {
+            op = javax.media.jai.operator.TranslateDescriptor.create(state.source, 10.5f,
+                    10.5f, state.interp, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] warp(GeometricState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = WarpDescriptor.create(state.source, state.warp, state.interp, BACKGROUND,
+                    state.roi, state.noData, state.hints);
+        } else {
+            op = javax.media.jai.operator.WarpDescriptor.create(state.source, state.warp,
+                    state.interp, BACKGROUND, state.hints);
+        }
+        return state.compute(op);
+    }
+}
@@ -0,0 +1,158 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.imagefunction.ImageFunctionDescriptor;
+import it.geosolutions.jaiext.imagefunction.ImageFunctionJAIEXT;
+import it.geosolutions.jaiext.range.Range;
+
+import java.awt.Rectangle;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.ROI;
+import javax.media.jai.RenderedOp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the ImageFunction operation, comparing the JAI-EXT implementation with the legacy JAI one. The operation has no source,
+ * so the data type is fixed to the float type generated by the function.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ImageFunctionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class FunctionState extends ImageState {
+
+        @Param({ "JAI", "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        /** Function to evaluate */
+        GradientFunction function;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return DataBuffer.TYPE_FLOAT;
+        }
+
+        @Override
+        protected void prepare() {
+            function = new GradientFunction();
+        }
+    }
+
+    /**
+     * Simple function returning the sum of the pixel coordinates.
+     */
+    static class GradientFunction implements ImageFunctionJAIEXT {
+
+        public boolean isComplex() {
+            return false;
+        }
+
+        public int getNumElements() {
+            return 1;
+        }
+
+        public void getElements(float startX, float startY, float deltaX, float deltaY,
+                int countX, int countY, int element, float[] real, float[] imag) {
+            int index = 0;
+            for (int j = 0; j < countY; j++) {
+                float y = startY + j * deltaY;
+                for (int i = 0; i < countX; i++) {
+                    real[index++] = startX + i * deltaX + y;
+                }
+            }
+        }
+
+        public void getElements(double startX, double startY, double deltaX, double deltaY,
+                int countX, int countY, int element, double[] real, double[] imag) {
+            int index = 0;
+            for (int j = 0; j < countY; j++) {
+                double y = startY + j * deltaY;
+                for (int i = 0; i < countX; i++) {
+                    real[index++] = startX + i * deltaX + y;
+                }
+            }
+        }
+
+        public void getElements(float startX, float startY, float deltaX, float deltaY,
+                int countX, int countY, int element, float[] real, float[] imag,
+                Rectangle destRect, ROI roi, Range nodata, float destNoData) {
+            int index = 0;
+            for (int j = 0; j < countY; j++) {
+                float y = startY + j * deltaY;
+                for (int i = 0; i < countX; i++) {
+                    float value = startX + i * deltaX + y;
+                    boolean valid = (roi == null || roi.contains(destRect.x + i, destRect.y + j))
+                            && (nodata == null || !nodata.contains(value));
+                    real[index++] = valid ? value : destNoData;
+                }
+            }
+        }
+
+        public void getElements(double startX, double startY, double deltaX, double deltaY,
+                int countX, int countY, int element, double[] real, double[] imag,
+                Rectangle destRect, ROI roi, Range nodata, float destNoData) {
+            int index = 0;
+            for (int j = 0; j < countY; j++) {
+                double y = startY + j * deltaY;
+                for (int i = 0; i < countX; i++) {
+                    double value = startX + i * deltaX + y;
+                    boolean valid = (roi == null || roi.contains(destRect.x + i, destRect.y + j))
+                            && (nodata == null || !nodata.contains(value));
+                    real[index++] = valid ? value : destNoData;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Raster[] imageFunction(FunctionState state) {
+        int size = ImageState.IMAGE_SIZE;
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ImageFunctionDescriptor.create(state.function, size, size, 1f, 1f, 0f, 0f,
+                    state.roi, state.noData, (float) ImageState.DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.ImageFunctionDescriptor.create(state.function, size,
+                    size, 1f, 1f, 0f, 0f, state.hints);
+        }
+        return state.compute(op);
+    }
+}
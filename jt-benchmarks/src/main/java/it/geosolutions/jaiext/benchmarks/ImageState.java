@@ -0,0 +1,180 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.JAIExt;
+import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.range.RangeFactory;
+
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+
+import javax.media.jai.ImageLayout;
+import javax.media.jai.JAI;
+import javax.media.jai.PlanarImage;
+import javax.media.jai.ROI;
+import javax.media.jai.ROIShape;
+import javax.media.jai.RasterFactory;
+import javax.media.jai.RenderedOp;
+import javax.media.jai.TiledImage;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Base benchmark state. It registers the JAI or JAI-EXT operations depending on the {@link Variant} under test and prepares a deterministic
+ * source image together with the ROI, NoData range and rendering hints to use. Subclasses declare the variant and data type parameters, so
+ * that each benchmark can restrict them to the values its operations support.
+ * <p>
+ * The rendering hints contain a tile cache with no capacity, so that every invocation computes all the destination tiles.
+ */
+@State(Scope.Benchmark)
+public abstract class ImageState {
+
+    /** Width and height of the source images */
+    public static final int IMAGE_SIZE = 1024;
+
+    /** Value of the source pixels marked as NoData */
+    public static final double NODATA_VALUE = 100;
+
+    /** Value to set on the destination pixels outside ROI or NoData */
+    public static final double DEST_NODATA = 0;
+
+    /** Number of bands of the multibanded source image */
+    public static final int NUM_BANDS = 3;
+
+    @Param({ "256", "512" })
+    public int tileSize;
+
+    /** Single banded source image */
+    public TiledImage source;
+
+    /** Multibanded source image */
+    public TiledImage multiband;
+
+    /** ROI to pass to the operation, null if not requested by the variant */
+    public ROI roi;
+
+    /** NoData range to pass to the operation, null if not requested by the variant */
+    public Range noData;
+
+    /** Hints to pass to the operation */
+    public RenderingHints hints;
+
+    /** Returns the {@link Variant} to measure */
+    protected abstract Variant getVariant();
+
+    /** Returns the data type of the source images */
+    protected abstract int getDataType();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Variant variant = getVariant();
+        int dataType = getDataType();
+        // Register either the JAI or the JAI-EXT operations under the common names
+        JAIExt.initJAIEXT(variant.isJAIExt(), true);
+
+        source = createImage(dataType, 1, 0, 0);
+        multiband = createImage(dataType, NUM_BANDS, 0, 0);
+
+        roi = variant.hasROI() ? new ROIShape(new Ellipse2D.Double(IMAGE_SIZE / 8, IMAGE_SIZE / 8,
+                IMAGE_SIZE * 3 / 4, IMAGE_SIZE * 3 / 4)) : null;
+        noData = variant.hasNoData() ? RangeFactory.convert(
+                RangeFactory.create(NODATA_VALUE, true, NODATA_VALUE, true), dataType) : null;
+
+        ImageLayout layout = new ImageLayout();
+        layout.setTileWidth(tileSize).setTileHeight(tileSize);
+        hints = new RenderingHints(JAI.KEY_IMAGE_LAYOUT, layout);
+        hints.put(JAI.KEY_TILE_CACHE, JAI.createTileCache(0L));
+
+        prepare();
+    }
+
+    /** Hook for the subclasses needing operation specific parameters */
+    protected void prepare() {
+    }
+
+    /**
+     * Creates a tiled image filled with a deterministic pattern containing the NoData value.
+     */
+    protected TiledImage createImage(int dataType, int numBands, int minX, int minY) {
+        SampleModel sm = RasterFactory.createPixelInterleavedSampleModel(dataType, tileSize,
+                tileSize, numBands);
+        TiledImage image = new TiledImage(minX, minY, IMAGE_SIZE, IMAGE_SIZE, minX, minY, sm,
+                PlanarImage.createColorModel(sm));
+        Rectangle bounds = image.getBounds();
+        for (int ty = image.getMinTileY(); ty <= image.getMaxTileY(); ty++) {
+            for (int tx = image.getMinTileX(); tx <= image.getMaxTileX(); tx++) {
+                WritableRaster tile = image.getWritableTile(tx, ty);
+                Rectangle area = tile.getBounds().intersection(bounds);
+                double[] pixels = new double[area.width * area.height * numBands];
+                int index = 0;
+                for (int y = area.y; y < area.y + area.height; y++) {
+                    for (int x = area.x; x < area.x + area.width; x++) {
+                        for (int b = 0; b < numBands; b++) {
+                            pixels[index++] = (x * 7 + y * 13 + b * 29) % 251;
+                        }
+                    }
+                }
+                tile.setPixels(area.x, area.y, area.width, area.height, pixels);
+                image.releaseWritableTile(tx, ty);
+            }
+        }
+        return image;
+    }
+
+    /** Computes all the tiles of the operation and disposes it */
+    public Raster[] compute(RenderedOp op) {
+        Raster[] tiles = op.getTiles();
+        op.dispose();
+        return tiles;
+    }
+
+    /** Computes the operation and returns the requested property */
+    public Object property(RenderedOp op, String name) {
+        Object property = op.getProperty(name);
+        op.dispose();
+        return property;
+    }
+
+    /** Returns the {@link DataBuffer} type related to the input name */
+    public static int toDataType(String name) {
+        if ("BYTE".equals(name)) {
+            return DataBuffer.TYPE_BYTE;
+        } else if ("USHORT".equals(name)) {
+            return DataBuffer.TYPE_USHORT;
+        } else if ("SHORT".equals(name)) {
+            return DataBuffer.TYPE_SHORT;
+        } else if ("INT".equals(name)) {
+            return DataBuffer.TYPE_INT;
+        } else if ("FLOAT".equals(name)) {
+            return DataBuffer.TYPE_FLOAT;
+        } else if ("DOUBLE".equals(name)) {
+            return DataBuffer.TYPE_DOUBLE;
+        }
+        throw new IllegalArgumentException("Wrong data type: " + name);
+    }
+}
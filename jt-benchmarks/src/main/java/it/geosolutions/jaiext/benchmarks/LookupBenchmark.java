@@ -0,0 +1,99 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.lookup.LookupDescriptor;
+import it.geosolutions.jaiext.lookup.LookupTable;
+
+import java.awt.image.Raster;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.LookupTableJAI;
+import javax.media.jai.RenderedOp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the Lookup operation, comparing the JAI-EXT implementation with the legacy JAI one. Only the integral data types are
+ * measured since the legacy operation does not accept floating point sources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LookupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LookupState extends ImageState {
+
+        @Param({ "JAI", "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        @Param({ "BYTE", "USHORT", "SHORT", "INT" })
+        public String dataType;
+
+        /** Legacy table, inverting the source values */
+        LookupTableJAI tableJAI;
+
+        /** JAI-EXT table, with the same content of the legacy one */
+        LookupTable table;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return toDataType(dataType);
+        }
+
+        @Override
+        protected void prepare() {
+            byte[] data = new byte[256];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) (255 - i);
+            }
+            tableJAI = new LookupTableJAI(data);
+            table = new LookupTable(new byte[][] { data });
+        }
+    }
+
+    @Benchmark
+    public Raster[] lookup(LookupState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = LookupDescriptor.create(state.source, state.table, ImageState.DEST_NODATA,
+                    state.roi, state.noData, false, state.hints);
+        } else {
+            op = javax.media.jai.operator.LookupDescriptor.create(state.source, state.tableJAI,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+}
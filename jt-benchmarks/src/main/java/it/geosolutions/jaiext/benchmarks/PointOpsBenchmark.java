@@ -0,0 +1,241 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+import it.geosolutions.jaiext.algebra.AlgebraDescriptor;
+import it.geosolutions.jaiext.algebra.AlgebraDescriptor.Operator;
+import it.geosolutions.jaiext.algebra.constant.OperationConstDescriptor;
+import it.geosolutions.jaiext.bandcombine.BandCombineDescriptor;
+import it.geosolutions.jaiext.bandselect.BandSelectDescriptor;
+import it.geosolutions.jaiext.binarize.BinarizeDescriptor;
+import it.geosolutions.jaiext.clamp.ClampDescriptor;
+import it.geosolutions.jaiext.format.FormatDescriptor;
+import it.geosolutions.jaiext.nullop.NullDescriptor;
+import it.geosolutions.jaiext.rescale.RescaleDescriptor;
+import it.geosolutions.jaiext.threshold.ThresholdDescriptor;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.util.concurrent.TimeUnit;
+
+import javax.media.jai.RenderedOp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the point operations, comparing the JAI-EXT implementations with the legacy JAI ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PointOpsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PointState extends ImageState {
+
+        @Param({ "JAI", "JAIEXT", "JAIEXT_ROI", "JAIEXT_NODATA", "JAIEXT_ROI_NODATA" })
+        public Variant variant;
+
+        @Param({ "BYTE", "USHORT", "SHORT", "INT", "FLOAT", "DOUBLE" })
+        public String dataType;
+
+        /** Combination matrix used by BandCombine */
+        double[][] matrix;
+
+        /** Data type used by Format */
+        Integer formatType;
+
+        @Override
+        protected Variant getVariant() {
+            return variant;
+        }
+
+        @Override
+        protected int getDataType() {
+            return toDataType(dataType);
+        }
+
+        @Override
+        protected void prepare() {
+            matrix = new double[][] { { 0.25, 0.5, 0.25, 0 } };
+            formatType = getDataType() == DataBuffer.TYPE_DOUBLE ? DataBuffer.TYPE_FLOAT
+                    : DataBuffer.TYPE_DOUBLE;
+        }
+    }
+
+    private static final double[] CONSTANTS = new double[] { 2 };
+
+    private static final double[] OFFSETS = new double[] { 1 };
+
+    private static final double[] LOW = new double[] { 50 };
+
+    private static final double[] HIGH = new double[] { 200 };
+
+    private static final double[] THRESHOLD_VALUES = new double[] { 0 };
+
+    @Benchmark
+    public Raster[] rescale(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = RescaleDescriptor.create(state.source, CONSTANTS, OFFSETS, state.roi,
+                    state.noData, false, ImageState.DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.RescaleDescriptor.create(state.source, CONSTANTS,
+                    OFFSETS, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] clamp(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ClampDescriptor.create(state.noData, ImageState.DEST_NODATA, state.roi, LOW,
+                    HIGH, state.hints, state.source);
+        } else {
+            op = javax.media.jai.operator.ClampDescriptor.create(state.source, LOW, HIGH,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] threshold(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = ThresholdDescriptor.create(state.noData, ImageState.DEST_NODATA, state.roi,
+                    LOW, HIGH, THRESHOLD_VALUES, state.hints, state.source);
+        } else {
+            op = javax.media.jai.operator.ThresholdDescriptor.create(state.source, LOW, HIGH,
+                    THRESHOLD_VALUES, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] binarize(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = BinarizeDescriptor.create(state.source, 125d, state.roi, state.noData,
+                    state.hints);
+        } else {
+            op = javax.media.jai.operator.BinarizeDescriptor.create(state.source, 125d,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] addConst(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = OperationConstDescriptor.create(state.source, CONSTANTS, Operator.SUM,
+                    state.roi, state.noData, ImageState.DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.AddConstDescriptor.create(state.source, CONSTANTS,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] add(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = AlgebraDescriptor.create(Operator.SUM, state.roi, state.noData,
+                    ImageState.DEST_NODATA, state.hints, state.source, state.source);
+        } else {
+            op = javax.media.jai.operator.AddDescriptor.create(state.source, state.source,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] multiply(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = AlgebraDescriptor.create(Operator.MULTIPLY, state.roi, state.noData,
+                    ImageState.DEST_NODATA, state.hints, state.source, state.source);
+        } else {
+            op = javax.media.jai.operator.MultiplyDescriptor.create(state.source, state.source,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] format(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = FormatDescriptor.create(state.source, state.formatType, state.hints);
+        } else {
+            op = javax.media.jai.operator.FormatDescriptor.create(state.source,
+                    state.formatType, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] nullOp(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = NullDescriptor.create(state.source, state.hints);
+        } else {
+            op = javax.media.jai.operator.NullDescriptor.create(state.source, state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] bandSelect(PointState state) {
+        int[] bands = new int[] { 2, 0 };
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = BandSelectDescriptor.create(state.multiband, bands, state.hints);
+        } else {
+            op = javax.media.jai.operator.BandSelectDescriptor.create(state.multiband, bands,
+                    state.hints);
+        }
+        return state.compute(op);
+    }
+
+    @Benchmark
+    public Raster[] bandCombine(PointState state) {
+        RenderedOp op;
+        if (state.variant.isJAIExt()) {
+            op = BandCombineDescriptor.create(state.multiband, state.matrix, state.roi,
+                    state.noData, ImageState.DEST_NODATA, state.hints);
+        } else {
+            op = javax.media.jai.operator.BandCombineDescriptor.create(state.multiband,
+                    state.matrix, state.hints);
+        }
+        return state.compute(op);
+    }
+}
@@ -0,0 +1,62 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
+
+/**
+ * Implementation being measured by a benchmark. The {@link #JAI} variant runs the legacy JAI operation, while the JAI-EXT variants run the
+ * JAI-EXT one, optionally with a ROI and/or a NoData range so that the cost of those checks can be compared with the plain path.
+ */
+public enum Variant {
+
+    JAI(false, false, false),
+
+    JAIEXT(true, false, false),
+
+    JAIEXT_ROI(true, true, false),
+
+    JAIEXT_NODATA(true, false, true),
+
+    JAIEXT_ROI_NODATA(true, true, true);
+
+    private final boolean jaiext;
+
+    private final boolean roi;
+
+    private final boolean nodata;
+
+    private Variant(boolean jaiext, boolean roi, boolean nodata) {
+        this.jaiext = jaiext;
+        this.roi = roi;
+        this.nodata = nodata;
+    }
+
+    /** Returns true if the JAI-EXT operations must be registered for this variant */
+    public boolean isJAIExt() {
+        return jaiext;
+    }
+
+    /** Returns true if a ROI must be passed to the operation */
+    public boolean hasROI() {
+        return roi;
+    }
+
+    /** Returns true if a NoData range must be passed to the operation */
+    public boolean hasNoData() {
+        return nodata;
+    }
+}
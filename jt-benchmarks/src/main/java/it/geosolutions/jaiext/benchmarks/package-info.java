@@ -0,0 +1,35 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/**
+ * JMH benchmarks comparing the JAI-EXT operations with the legacy JAI ones. Each benchmark is parameterized by {@link
+ * it.geosolutions.jaiext.benchmarks.Variant} (legacy JAI, or JAI-EXT with and without ROI and NoData), source data type and tile size, plus
+ * the interpolation type for the geometric operations.
+ * <p>
+ * Build the module and run all the benchmarks, saving the results as JSON so that they can be compared across releases:
+ * 
+ * <pre>
+ * mvn -pl jt-benchmarks -am package -DskipTests
+ * java -jar jt-benchmarks/target/benchmarks.jar -rf json -rff results.json
+ * </pre>
+ * 
+ * The usual JMH options restrict the run, e.g. {@code java -jar benchmarks.jar PointOpsBenchmark.rescale -p dataType=BYTE,FLOAT -p
+ * tileSize=512}.
+ */
+
+package it.geosolutions.jaiext.benchmarks;
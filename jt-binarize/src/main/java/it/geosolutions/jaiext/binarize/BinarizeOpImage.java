@@ -19,6 +19,7 @@ package it.geosolutions.jaiext.binarize;
 
 import it.geosolutions.jaiext.iterators.RandomIterFactory;
 import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.simd.PointKernels;
 
 import java.awt.Rectangle;
 import java.awt.image.ColorModel;
@@ -560,12 +561,8 @@ public class BinarizeOpImage extends PointOpImage {
         // Cycles
         if (caseA || (caseB && roiContainsTile)) {
             for (int h = 0; h < destRect.height; h++) {
-                int indE = ind0 + destRect.width;
-                for (int b = ind0, s = srcOffset; b < indE; b++, s += pixelStride) {
-                    if ((srcData[s]) >= threshold) {
-                        pid.data[offset + (b >> 3)] |= byteTable[b % 8];
-                    }
-                }
+                PointKernels.binarize(srcData, srcOffset, pixelStride, pid.data, offset, ind0,
+                        destRect.width, threshold);
                 offset += pid.lineStride;
                 srcOffset += srcImD.lineStride;
             }
@@ -658,12 +655,8 @@ public class BinarizeOpImage extends PointOpImage {
         // Cycles
         if (caseA || (caseB && roiContainsTile)) {
             for (int h = 0; h < destRect.height; h++) {
-                int indE = ind0 + destRect.width;
-                for (int b = ind0, s = srcOffset; b < indE; b++, s += pixelStride) {
-                    if ((srcData[s]) >= threshold) {
-                        pid.data[offset + (b >> 3)] |= byteTable[b % 8];
-                    }
-                }
+                PointKernels.binarize(srcData, srcOffset, pixelStride, pid.data, offset, ind0,
+                        destRect.width, threshold);
                 offset += pid.lineStride;
                 srcOffset += srcImD.lineStride;
             }
@@ -756,12 +749,8 @@ public class BinarizeOpImage extends PointOpImage {
         // Cycles
         if (caseA || (caseB && roiContainsTile)) {
             for (int h = 0; h < destRect.height; h++) {
-                int indE = ind0 + destRect.width;
-                for (int b = ind0, s = srcOffset; b < indE; b++, s += pixelStride) {
-                    if ((srcData[s]) >= threshold) {
-                        pid.data[offset + (b >> 3)] |= byteTable[b % 8];
-                    }
-                }
+                PointKernels.binarize(srcData, srcOffset, pixelStride, pid.data, offset, ind0,
+                        destRect.width, threshold);
                 offset += pid.lineStride;
                 srcOffset += srcImD.lineStride;
             }
@@ -19,6 +19,7 @@ package it.geosolutions.jaiext.clamp;
 
 import it.geosolutions.jaiext.iterators.RandomIterFactory;
 import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.simd.PointKernels;
 
 import java.awt.Rectangle;
 import java.awt.image.ColorModel;
@@ -299,36 +300,17 @@ public class ClampOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-
-                        byte flo = (byte) lo;
-                        byte fhi = (byte) hi;
-
-                        byte sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample < flo) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = flo;
-                        } else if (sample > fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fhi;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                byte lo = (byte) low[b];
+                byte hi = (byte) high[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.clamp(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -667,36 +649,17 @@ public class ClampOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-
-                        short flo = (short) lo;
-                        short fhi = (short) hi;
-
-                        short sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample < flo) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = flo;
-                        } else if (sample > fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fhi;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                short lo = (short) low[b];
+                short hi = (short) high[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.clamp(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -849,36 +812,17 @@ public class ClampOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-
-                        int flo = (int) lo;
-                        int fhi = (int) hi;
-
-                        int sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample < flo) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = flo;
-                        } else if (sample > fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fhi;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                int lo = (int) low[b];
+                int hi = (int) high[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.clamp(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -1031,36 +975,17 @@ public class ClampOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-
-                        float flo = (float) lo;
-                        float fhi = (float) hi;
-
-                        float sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample < flo) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = flo;
-                        } else if (sample > fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fhi;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                float lo = (float) low[b];
+                float hi = (float) high[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.clamp(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -1215,36 +1140,17 @@ public class ClampOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-
-                        double flo = (double) lo;
-                        double fhi = (double) hi;
-
-                        double sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample < flo) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = flo;
-                        } else if (sample > fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fhi;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                double lo = (double) low[b];
+                double hi = (double) high[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.clamp(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -0,0 +1,321 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Adapts the memory capacity of a {@link ConcurrentTileCacheMultiMap} to the heap usage, between a lower and an upper bound. After each
+ * old generation or full collection the cache shrinks if the live heap is above the high usage ratio. If it is below the low one, the cache
+ * grows to what it holds plus a fraction of the headroom, so it only grows when it is actually filled. Young collections are ignored, as
+ * they say nothing about the live heap. The usage thresholds of the tenured pool shrink the cache as soon as the heap gets close to its
+ * maximum, without waiting for the next collection.
+ * <p>
+ * The resizes keep the cached tiles only when the cache has an eviction policy, such as a {@link CostAwareTinyLfuPolicy}, so the cache must
+ * have one before creating the sizer, as setting it later flushes the cache.
+ * 
+ * @since 1.1
+ */
+public class AdaptiveCacheSizer implements NotificationListener {
+
+    /** The default ratio of the heap below which the cache grows */
+    public static final float DEFAULT_LOW_USAGE = 0.6F;
+
+    /** The default ratio of the heap above which the cache shrinks */
+    public static final float DEFAULT_HIGH_USAGE = 0.85F;
+
+    /** The default factor applied to the capacity when shrinking */
+    public static final float DEFAULT_SHRINK_FACTOR = 0.5F;
+
+    /** The default fraction of the headroom below the low usage added to the cached tiles when growing */
+    public static final float DEFAULT_GROWTH_FACTOR = 0.25F;
+
+    /** Action of the HotSpot GC notifications sent for the young collections */
+    private static final String MINOR_GC_ACTION = "end of minor GC";
+
+    private final static Logger LOGGER = Logger.getLogger(AdaptiveCacheSizer.class.toString());
+
+    private final ConcurrentTileCacheMultiMap cache;
+
+    private final long minCapacity;
+
+    private final long maxCapacity;
+
+    private volatile float lowUsage = DEFAULT_LOW_USAGE;
+
+    private volatile float highUsage = DEFAULT_HIGH_USAGE;
+
+    private volatile float shrinkFactor = DEFAULT_SHRINK_FACTOR;
+
+    private volatile float growthFactor = DEFAULT_GROWTH_FACTOR;
+
+    /** The tenured heap pool, null if not found */
+    private volatile MemoryPoolMXBean pool;
+
+    /** The tenured pool thresholds found at start, restored at stop */
+    private long previousUsageThreshold;
+
+    private long previousCollectionUsageThreshold;
+
+    /** The emitters this sizer is listening to */
+    private final List<NotificationEmitter> emitters = new ArrayList<NotificationEmitter>();
+
+    /**
+     * @param cache the cache to size, with an eviction policy
+     * @param minCapacity the lower bound of the cache memory capacity
+     * @param maxCapacity the upper bound of the cache memory capacity
+     * @throws IllegalArgumentException if the cache has no eviction policy
+     */
+    public AdaptiveCacheSizer(ConcurrentTileCacheMultiMap cache, long minCapacity,
+            long maxCapacity) {
+        if (cache == null) {
+            throw new IllegalArgumentException("Cache should not be null");
+        }
+        if (cache.getEvictionPolicy() == null) {
+            throw new IllegalArgumentException("Cache should have an eviction policy");
+        }
+        if (minCapacity < 0 || maxCapacity < minCapacity) {
+            throw new IllegalArgumentException("Capacity bounds should be positive and ordered");
+        }
+        this.cache = cache;
+        this.minCapacity = minCapacity;
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * Starts listening to the memory and GC notifications, bringing the cache capacity within the bounds.
+     */
+    public synchronized void start() {
+        if (!emitters.isEmpty()) {
+            return;
+        }
+        resize(clamp(cache.getMemoryCapacity()));
+
+        pool = findTenuredPool();
+        if (pool != null) {
+            previousUsageThreshold = pool.getUsageThreshold();
+            previousCollectionUsageThreshold = pool.getCollectionUsageThreshold();
+            updateThresholds();
+            addListener((NotificationEmitter) ManagementFactory.getMemoryMXBean());
+        }
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                addListener((NotificationEmitter) gc);
+            }
+        }
+    }
+
+    /** Stops listening to the notifications, leaving the cache with its current capacity */
+    public synchronized void stop() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(this);
+            } catch (ListenerNotFoundException e) {
+                // already removed
+            }
+        }
+        emitters.clear();
+        if (pool != null) {
+            pool.setUsageThreshold(previousUsageThreshold);
+            pool.setCollectionUsageThreshold(previousCollectionUsageThreshold);
+            pool = null;
+        }
+    }
+
+    private void addListener(NotificationEmitter emitter) {
+        emitter.addNotificationListener(this, null, null);
+        emitters.add(emitter);
+    }
+
+    /** Looks for the heap pool supporting the thresholds with the largest maximum, the old generation on the HotSpot collectors */
+    private static MemoryPoolMXBean findTenuredPool() {
+        MemoryPoolMXBean tenured = null;
+        for (MemoryPoolMXBean candidate : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (candidate.getType() == MemoryType.HEAP && candidate.isUsageThresholdSupported()
+                    && candidate.isCollectionUsageThresholdSupported()
+                    && (tenured == null || candidate.getUsage().getMax() > tenured.getUsage()
+                            .getMax())) {
+                tenured = candidate;
+            }
+        }
+        return tenured;
+    }
+
+    /**
+     * Sets the collection usage threshold at the high usage, and the usage one halfway between the high usage and the maximum, so that only an
+     * allocation burst close to an OOM shrinks the cache before the next collection.
+     */
+    private synchronized void updateThresholds() {
+        if (pool == null) {
+            return;
+        }
+        long max = pool.getUsage().getMax();
+        if (max > 0) {
+            pool.setCollectionUsageThreshold((long) (max * highUsage));
+            pool.setUsageThreshold((long) (max * (1 + highUsage) / 2));
+        }
+    }
+
+    public void handleNotification(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (MemoryNotificationInfo.MEMORY_THRESHOLD_EXCEEDED.equals(type)
+                || MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+            onThresholdExceeded();
+        } else if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(type)) {
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                    .from((CompositeData) notification.getUserData());
+            if (MINOR_GC_ACTION.equals(info.getGcAction())) {
+                return;
+            }
+            // the tenured pool usage right after this collection
+            MemoryPoolMXBean tenured = pool;
+            MemoryUsage usage = tenured != null ? info.getGcInfo().getMemoryUsageAfterGc()
+                    .get(tenured.getName()) : null;
+            if (usage != null && usage.getMax() > 0) {
+                onMemoryUsage(usage.getUsed(), usage.getMax());
+            } else {
+                Runtime runtime = Runtime.getRuntime();
+                onMemoryUsage(runtime.totalMemory() - runtime.freeMemory(),
+                        runtime.maxMemory());
+            }
+        }
+    }
+
+    /**
+     * Adapts the cache capacity to the heap usage measured after an old generation or full collection.
+     * 
+     * @param used the used heap memory
+     * @param maximum the maximum heap memory
+     */
+    public void onMemoryUsage(long used, long maximum) {
+        if (maximum <= 0) {
+            return;
+        }
+        if (used > maximum * highUsage) {
+            onThresholdExceeded();
+        } else if (used < maximum * lowUsage) {
+            // room for the cached tiles plus part of the headroom, never shrinking the cache here
+            long headroom = (long) (maximum * lowUsage) - used;
+            TileEvictionPolicy policy = cache.getEvictionPolicy();
+            long cached = policy != null ? policy.getWeightedSize() : cache.getCacheMemoryUsed();
+            long target = (long) ((cached + headroom * (double) growthFactor)
+                    / cache.getMemoryThreshold());
+            if (target > cache.getMemoryCapacity()) {
+                resize(clamp(target));
+            }
+        }
+    }
+
+    /** Shrinks the cache, as the heap is close to its maximum */
+    public void onThresholdExceeded() {
+        resize(clamp((long) (cache.getMemoryCapacity() * shrinkFactor)));
+    }
+
+    private long clamp(long capacity) {
+        return Math.max(minCapacity, Math.min(maxCapacity, capacity));
+    }
+
+    private void resize(long capacity) {
+        if (capacity != cache.getMemoryCapacity()) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Resizing the tile cache to " + capacity + " bytes");
+            }
+            cache.resize(capacity);
+        }
+    }
+
+    /** Retrieve the lower bound of the cache capacity */
+    public long getMinCapacity() {
+        return minCapacity;
+    }
+
+    /** Retrieve the upper bound of the cache capacity */
+    public long getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /** Sets the ratio of the heap below which the cache grows */
+    public void setLowUsage(float lowUsage) {
+        if (lowUsage <= 0 || lowUsage >= highUsage) {
+            throw new IllegalArgumentException("Low usage should be between 0 and the high usage");
+        }
+        this.lowUsage = lowUsage;
+    }
+
+    /** Retrieve the ratio of the heap below which the cache grows */
+    public float getLowUsage() {
+        return lowUsage;
+    }
+
+    /** Sets the ratio of the heap above which the cache shrinks */
+    public void setHighUsage(float highUsage) {
+        if (highUsage <= lowUsage || highUsage >= 1) {
+            throw new IllegalArgumentException("High usage should be between the low usage and 1");
+        }
+        this.highUsage = highUsage;
+        updateThresholds();
+    }
+
+    /** Retrieve the ratio of the heap above which the cache shrinks */
+    public float getHighUsage() {
+        return highUsage;
+    }
+
+    /** Sets the factor applied to the capacity when shrinking */
+    public void setShrinkFactor(float shrinkFactor) {
+        if (shrinkFactor <= 0 || shrinkFactor >= 1) {
+            throw new IllegalArgumentException("Shrink factor should be between 0 and 1");
+        }
+        this.shrinkFactor = shrinkFactor;
+    }
+
+    /** Retrieve the factor applied to the capacity when shrinking */
+    public float getShrinkFactor() {
+        return shrinkFactor;
+    }
+
+    /** Sets the fraction of the headroom added to the cached tiles when growing */
+    public void setGrowthFactor(float growthFactor) {
+        if (growthFactor <= 0 || growthFactor > 1) {
+            throw new IllegalArgumentException("Growth factor should be between 0 and 1");
+        }
+        this.growthFactor = growthFactor;
+    }
+
+    /** Retrieve the fraction of the headroom added to the cached tiles when growing */
+    public float getGrowthFactor() {
+        return growthFactor;
+    }
+}
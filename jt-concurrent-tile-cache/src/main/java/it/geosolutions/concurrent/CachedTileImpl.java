@@ -52,11 +52,19 @@ public final class CachedTileImpl implements CachedTile {
     private long timeStamp; // the last time this tile is accessed (if diagnosticEnable==false it is set only at the creation time)
 
     final Object key; // the key used to hash this tile
+
+    final long tileKey; // the primitive value of the key
     
     private final Object imageKey; // Key of the associated image
 
     final long tileSize; // the memory of this tile in bytes
 
+    long computeCost = -1; // the cost of computing this tile, -1 if unknown
+
+    volatile boolean evicted; // set when the tile is evicted by a TileEvictionPolicy
+
+    final String operation; // the operation name used for the metrics
+
     private Actions action; // every action done by the tile cache
 
     /**
@@ -74,10 +82,14 @@ public final class CachedTileImpl implements CachedTile {
 
         this.tileCacheMetric = tileCacheMetric; // may be null
 
-        key = hashKey(owner, tileX, tileY);
+        tileKey = tileKey(owner, tileX, tileY);
+
+        key = Long.valueOf(tileKey);
         
         imageKey = hashKey(owner);
 
+        operation = TileCacheMetrics.operationName(owner);
+
         DataBuffer db = tile.getDataBuffer();
         tileSize = db.getDataTypeSize(db.getDataType()) / 8L * db.getSize() * db.getNumBanks() + CACHED_TILE_OVERHEAD;
         updateTileTimeStamp();
@@ -104,10 +116,35 @@ public final class CachedTileImpl implements CachedTile {
      * Returns the hash table "key" as a <code>Object</code> for this tile.
      */
     public static Object hashKey(RenderedImage owner, int tileX, int tileY) {
+        return Long.valueOf(tileKey(owner, tileX, tileY));
+    }
+
+    /**
+     * Returns the primitive key for this tile. The upper 32 bits contain an ordinal assigned to the image, distinct among the live images,
+     * and the lower ones the tile index in the image grid, so that the keys of the image tiles never collide.
+     * 
+     * @since 1.1
+     */
+    public static long tileKey(RenderedImage owner, int tileX, int tileY) {
+        return tileKey(ImageOrdinals.ordinal(owner), owner, tileX, tileY);
+    }
+
+    /**
+     * Returns the primitive key for this tile, or -1 if the owner has never been used for creating a key, without allocating anything.
+     */
+    static long lookupKey(RenderedImage owner, int tileX, int tileY) {
+        int ordinal = ImageOrdinals.lookup(owner);
+        if (ordinal == ImageOrdinals.NONE) {
+            return -1;
+        }
+        return tileKey(ordinal, owner, tileX, tileY);
+    }
+
+    private static long tileKey(int ordinal, RenderedImage owner, int tileX, int tileY) {
         long idx = tileY * (long) owner.getNumXTiles() + tileX;
 
         idx = idx & 0x00000000ffffffffL;
-        return Long.valueOf((((long) owner.hashCode() << 32) | idx));
+        return ((long) ordinal << 32) | idx;
     }
 
     /**
@@ -126,7 +163,8 @@ public final class CachedTileImpl implements CachedTile {
             return new BigInteger(buf);
         }
 
-        return owner.hashCode();
+        // the hash code is not unique among the live images
+        return ImageOrdinals.ordinal(owner);
     }
 
     /** Returns the value of the cached tile. */
@@ -149,6 +187,15 @@ public final class CachedTileImpl implements CachedTile {
         return tileCacheMetric;
     }
 
+    /**
+     * Returns the cost of computing this tile, in nanoseconds unless provided through the tile cache metric, or -1 if unknown.
+     * 
+     * @since 1.1
+     */
+    public long getComputeCost() {
+        return computeCost;
+    }
+
     /** Returns the tile memory size */
     public long getTileSize() {
         return tileSize;
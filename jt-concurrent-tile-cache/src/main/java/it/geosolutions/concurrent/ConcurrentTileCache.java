@@ -20,12 +20,13 @@ package it.geosolutions.concurrent;
 import java.awt.Point;
 import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Observable;
-import java.util.Vector;
-
-import javax.media.jai.TileCache;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -35,7 +36,7 @@ import com.google.common.cache.RemovalNotification;
 import com.google.common.cache.Weigher;
 import com.sun.media.jai.util.CacheDiagnostics;
 
-public class ConcurrentTileCache extends Observable implements TileCache, CacheDiagnostics {
+public class ConcurrentTileCache extends Observable implements SingleFlightTileCache, CacheDiagnostics {
 
     /** The default memory threshold of the cache. */
     public static final float DEFAULT_MEMORY_THRESHOLD = 0.75F;
@@ -66,6 +67,30 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
     /** diagnosticEnabled enable/disable */
     private volatile boolean diagnosticEnabled = DEFAULT_DIAGNOSTIC;
 
+    /** Optional off-heap tier receiving the tiles evicted from the cache */
+    private volatile OffHeapTileStore offHeapStore;
+
+    /**
+     * Index of the keys of the cached tiles for each image, so that the bulk operations do not need to scan the whole tile grid. The keys of the
+     * tiles moved to the off-heap tier are kept too.
+     */
+    private volatile ConcurrentHashMap<Object, Set<Object>> ownerIndex = new ConcurrentHashMap<Object, Set<Object>>();
+
+    /** Map from the primitive tile keys to the cached tiles, so that getTile does not allocate the key */
+    private volatile LongTileMap tileMap;
+
+    /** Optional policy selecting the tiles to evict, instead of the size-weighted LRU of the cache */
+    private volatile TileEvictionPolicy evictionPolicy;
+
+    /** Optional registry receiving the cache metrics */
+    private volatile TileCacheMetricsRegistry metrics;
+
+    /** The tile computations in progress through computeIfAbsent */
+    private final InFlightTiles inFlight = new InFlightTiles();
+
+    /** Optional prefetcher computing the tiles in background */
+    private volatile TilePrefetcher prefetcher;
+
     /**
      * The listener is used for receiving notification about the removal of a tile for size constraints
      */
@@ -89,6 +114,52 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
         }
     };
 
+    /**
+     * The listener updating the owner index when the off-heap tier discards a tile
+     */
+    private final OffHeapTileStore.DiscardListener discardListener = new OffHeapTileStore.DiscardListener() {
+        public void tileDiscarded(Object key, Object imageKey) {
+            if (!cacheObject.asMap().containsKey(key)) {
+                removeFromIndex(key, imageKey);
+            }
+        }
+    };
+
+    /**
+     * The listener keeping the owner index updated and moving the tiles evicted for size constraints to the off-heap tier
+     */
+    private final RemovalListener<Object, CachedTileImpl> indexListener = new RemovalListener<Object, CachedTileImpl>() {
+        public void onRemoval(RemovalNotification<Object, CachedTileImpl> n) {
+            Object key = n.getKey();
+            CachedTileImpl cti = n.getValue();
+            tileMap.remove(cti.tileKey, cti);
+            TileEvictionPolicy policy = evictionPolicy;
+            if (policy != null && !cti.evicted) {
+                policy.onRemove(cti);
+            }
+            TileCacheMetricsRegistry registry = metrics;
+            if (registry != null) {
+                registry.recordRemoval(cti.operation, cti.getTileSize(),
+                        cti.evicted ? RemovalCause.SIZE : n.getCause());
+            }
+            if (n.getCause() == RemovalCause.REPLACED) {
+                // the key is still cached
+                return;
+            }
+            if (cti.evicted || n.getCause() == RemovalCause.SIZE) {
+                OffHeapTileStore store = offHeapStore;
+                if (store != null && store.put(key, cti)) {
+                    // the tile is still reachable from the index
+                    return;
+                }
+            }
+            // the tile may have been added again in the meantime
+            if (!cacheObject.asMap().containsKey(key)) {
+                removeFromIndex(key, cti.getImageKey());
+            }
+        }
+    };
+
     // diagnostic actions
     /** A list of all the possible diagnostic actions */
     public enum Actions {
@@ -110,14 +181,21 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
     /** Private cache creation method */
     private Cache<Object, CachedTileImpl> buildCache() {
         CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
-        builder.maximumWeight((long) (memoryCacheCapacity * memoryCacheThreshold))
-                .concurrencyLevel(concurrencyLevel).weigher(new Weigher<Object, CachedTileImpl>() {
-                    public int weigh(Object o, CachedTileImpl cti) {
-                        return (int) cti.getTileSize();
-                    }
-                });
+        long maximumWeight = (long) (memoryCacheCapacity * memoryCacheThreshold);
+        builder.concurrencyLevel(concurrencyLevel);
+        TileEvictionPolicy policy = evictionPolicy;
+        if (policy != null) {
+            // the policy bounds the cache weight
+            policy.reset(maximumWeight);
+        } else {
+            builder.maximumWeight(maximumWeight).weigher(new Weigher<Object, CachedTileImpl>() {
+                public int weigh(Object o, CachedTileImpl cti) {
+                    return (int) cti.getTileSize();
+                }
+            });
+        }
 
-        return builder.build();
+        return builder.removalListener(indexListener).build();
 
     }
 
@@ -138,6 +216,18 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
 
         // cache creation
         cacheObject = buildCache();
+        tileMap = new LongTileMap(concurrencyLevel);
+    }
+
+    /**
+     * Creates a cache moving the evicted tiles to the provided off-heap store
+     * 
+     * @since 1.1
+     */
+    public ConcurrentTileCache(long memoryCacheCapacity, boolean diagnostic, float mem_threshold,
+            int concurrencyLevel, OffHeapTileStore offHeapStore) {
+        this(memoryCacheCapacity, diagnostic, mem_threshold, concurrencyLevel);
+        setOffHeapStore(offHeapStore);
     }
 
     /** Add a new tile to the cache */
@@ -156,38 +246,78 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
         
         // This tile is not in the cache; create a new CachedTileImpl.
         // else just update.
-        Object key = CachedTileImpl.hashKey(owner, tileX, tileY);
         // old tile
         CachedTileImpl cti;
         // create a new tile
         CachedTileImpl cti_new = new CachedTileImpl(owner, tileX, tileY, data, tileCacheMetric);
+        Object key = cti_new.key;
+        // the off-heap copy, if any, is now stale
+        OffHeapTileStore store = offHeapStore;
+        if (store != null) {
+            store.remove(key);
+        }
+        TileEvictionPolicy policy = evictionPolicy;
+        TileCacheMetricsRegistry registry = metrics;
+        if (tileCacheMetric instanceof Number) {
+            cti_new.computeCost = ((Number) tileCacheMetric).longValue();
+        } else if (policy != null || registry != null) {
+            cti_new.computeCost = TileComputeTimer.elapsed(cti_new.tileKey);
+        }
+        if (policy != null) {
+            policy.onAdd(cti_new);
+        }
+        if (registry != null) {
+            // recorded before caching, as the removal may happen at once
+            registry.recordAdd(cti_new.operation, cti_new.getTileSize());
+        }
 
         // if the tile is already cached
         if (diagnosticEnabled) {
+            // mapped before caching, so that the removal listener always finds it
+            tileMap.put(cti_new.tileKey, cti_new);
             cti = (CachedTileImpl) cacheObject.asMap().put(key, cti_new);
+            indexTile(key, cti_new.getImageKey());
             synchronized (this) {
                 if (cti != null) {
                     cti.updateTileTimeStamp();
                     cti.setAction(Actions.SUBSTITUTION_FROM_ADD);
                     setChanged();
                     notifyObservers(cti);
-                    return;
+                } else {
+                    cti_new.setAction(Actions.ADDITION);
+                    setChanged();
+                    notifyObservers(cti_new);
                 }
-
-                cti_new.setAction(Actions.ADDITION);
-                setChanged();
-                notifyObservers(cti_new);
             }
         } else {
             // new tile insertion
+            // mapped before caching, so that the removal listener always finds it
+            tileMap.put(cti_new.tileKey, cti_new);
             cacheObject.put(key, cti_new);
+            indexTile(key, cti_new.getImageKey());
 
         }
+        if (policy != null) {
+            evict(policy);
+        }
     }
 
     /** Removes the selected tile from the cache */
     public void remove(RenderedImage owner, int tileX, int tileY) {
-        Object key = CachedTileImpl.hashKey(owner, tileX, tileY);
+        long key = CachedTileImpl.lookupKey(owner, tileX, tileY);
+        // no key has ever been created for the image
+        if (key < 0) {
+            return;
+        }
+        removeTileByKey(Long.valueOf(key));
+    }
+
+    /** Removes the tile associated to the key from the cache and from the off-heap tier */
+    private void removeTileByKey(Object key) {
+        OffHeapTileStore store = offHeapStore;
+        if (store != null) {
+            store.remove(key);
+        }
         // check if the tile is still in cache
         CachedTileImpl cti = (CachedTileImpl) cacheObject.getIfPresent(key);
         // if so the tile is deleted (even if another thread write on it)
@@ -217,14 +347,114 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
 
     /** Retrieves the selected tile from the cache */
     public Raster getTile(RenderedImage owner, int tileX, int tileY) {
+        long key = CachedTileImpl.lookupKey(owner, tileX, tileY);
+        // a negative key means that no key has ever been created for the image
+        Raster tile = key < 0 ? null : getTileFromKey(key, owner);
+        if (tile == null) {
+            TileCacheMetricsRegistry registry = metrics;
+            if (registry != null) {
+                registry.recordMiss(TileCacheMetrics.operationName(owner));
+            }
+            if (evictionPolicy != null || registry != null) {
+                // the compute cost of the tile is measured until it is added
+                TileComputeTimer.missed(key < 0 ? CachedTileImpl.tileKey(owner, tileX, tileY)
+                        : key);
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Returns the tile from the cache, or computes it with the loader and adds it to the cache. Concurrent calls for the same tile wait for
+     * the computation already in progress instead of repeating it.
+     * 
+     * @since 1.1
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader) {
+        return computeIfAbsent(owner, tileX, tileY, loader, null);
+    }
+
+    /**
+     * Same as {@link #computeIfAbsent(RenderedImage, int, int, TileLoader)}, adding the computed tile with the metric.
+     * 
+     * @since 1.1
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader,
+            Object tileCacheMetric) {
+        return inFlight.computeIfAbsent(this, owner, tileX, tileY, loader, tileCacheMetric);
+    }
+
+    /**
+     * Checks if the tile is being computed through <code>computeIfAbsent</code>.
+     * 
+     * @since 1.1
+     */
+    public boolean isInFlight(RenderedImage owner, int tileX, int tileY) {
+        return inFlight.contains(owner, tileX, tileY);
+    }
+
+    /**
+     * Schedules the background computation of the image tiles not yet cached, see {@link TilePrefetcher}.
+     * 
+     * @return the number of the scheduled tiles, 0 if no prefetcher is set
+     * @since 1.1
+     */
+    public int prefetch(RenderedImage owner, Point[] tileIndices) {
+        TilePrefetcher tilePrefetcher = prefetcher;
+        if (tilePrefetcher == null) {
+            return 0;
+        }
+        return tilePrefetcher.prefetch(this, owner, tileIndices);
+    }
+
+    /**
+     * Checks if the tile is cached, without updating the cache statistics and access order.
+     * 
+     * @since 1.1
+     */
+    public boolean containsTile(RenderedImage owner, int tileX, int tileY) {
+        long key = CachedTileImpl.lookupKey(owner, tileX, tileY);
+        if (key < 0) {
+            return false;
+        }
+        Long boxed = Long.valueOf(key);
+        if (cacheObject.asMap().containsKey(boxed)) {
+            return true;
+        }
+        OffHeapTileStore store = offHeapStore;
+        return store != null && store.contains(boxed);
+    }
+
+    /** Retrieves the tile associated to the key, promoting it from the off-heap tier if needed */
+    private Raster getTileFromKey(long key, RenderedImage owner) {
         // instantiation of the result raster
         Raster tileData = null;
 
-        Object key = CachedTileImpl.hashKey(owner, tileX, tileY);
         // check if the tile is present
-        CachedTileImpl cti = (CachedTileImpl) cacheObject.getIfPresent(key);
+        CachedTileImpl cti = tileMap.get(key);
+        if (cti != null) {
+            // the cache lookup updates the access order, reusing the boxed key of the tile
+            CachedTileImpl cached = (CachedTileImpl) cacheObject.getIfPresent(cti.key);
+            if (cached != cti) {
+                // removed or replaced in the meantime
+                tileMap.remove(key, cti);
+            }
+            cti = cached;
+        }
         if (cti == null) {
-            return null;
+            cti = promote(key, owner);
+            if (cti == null) {
+                return null;
+            }
+        } else {
+            TileEvictionPolicy policy = evictionPolicy;
+            if (policy != null) {
+                policy.onAccess(cti);
+            }
+        }
+        TileCacheMetricsRegistry registry = metrics;
+        if (registry != null) {
+            registry.recordHit(cti.operation, cti.computeCost);
         }
         if (diagnosticEnabled) {
             synchronized (this) {
@@ -241,75 +471,92 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
         return tileData;
     }
 
+    /** Moves the tile from the off-heap tier back to the cache, if present */
+    private CachedTileImpl promote(long key, RenderedImage owner) {
+        OffHeapTileStore store = offHeapStore;
+        if (store == null) {
+            return null;
+        }
+        CachedTileImpl cti = store.remove(Long.valueOf(key), owner);
+        if (cti == null) {
+            return null;
+        }
+        // a tile added in the meantime wins over the promoted one
+        TileCacheMetricsRegistry registry = metrics;
+        if (registry != null) {
+            registry.recordAdd(cti.operation, cti.getTileSize());
+        }
+        CachedTileImpl current = cacheObject.asMap().putIfAbsent(cti.key, cti);
+        if (current != null) {
+            if (registry != null) {
+                registry.recordRemoval(cti.operation, cti.getTileSize(), RemovalCause.REPLACED);
+            }
+            return current;
+        }
+        mapTile(cti);
+        indexTile(cti.key, cti.getImageKey());
+        TileEvictionPolicy policy = evictionPolicy;
+        if (policy != null) {
+            policy.onAdd(cti);
+            evict(policy);
+        }
+        return cti;
+    }
+
+    /** Evicts the tiles selected by the policy */
+    private void evict(TileEvictionPolicy policy) {
+        CachedTileImpl victim;
+        while ((victim = policy.evict()) != null) {
+            // the removal listener handles it as a size eviction
+            victim.evicted = true;
+            cacheObject.asMap().remove(victim.key, victim);
+        }
+    }
+
     /**
      * Retrieves an array of all tiles in the cache which are owned by the image. May be <code>null</code> if there were no tiles in the cache. The
      * array contains no null entries.
      */
     public Raster[] getTiles(RenderedImage owner) {
-        // instantiation of the result array
-        Raster[] tilesData = null;
-        // total number of tiles present in the cache
-        int tileCount = (int) cacheObject.size();
-
-        int size = Math.min(owner.getNumXTiles() * owner.getNumYTiles(), tileCount);
-
-        if (size > 0) {
-            int minTx = owner.getMinTileX();
-            int minTy = owner.getMinTileY();
-            int maxTx = minTx + owner.getNumXTiles();
-            int maxTy = minTy + owner.getNumYTiles();
-
-            // arbitrarily set a temporary vector size
-            Vector<Raster> tempData = new Vector<Raster>(10, 20);
-            // cycle through all the tile in the image and check if they are in the
-            // cache...
-            for (int y = minTy; y < maxTy; y++) {
-                for (int x = minTx; x < maxTx; x++) {
-
-                    Raster rasterTile = getTile(owner, x, y);
-
-                    // ...then add to the vector if present
-                    if (rasterTile != null) {
-                        tempData.add(rasterTile);
-                    }
-                }
-            }
+        // Selection of the tile keys for the image
+        Set<Object> keys = ownerIndex.get(CachedTileImpl.hashKey(owner));
+        if (keys == null) {
+            return null;
+        }
 
-            int tmpsize = tempData.size();
-            if (tmpsize > 0) {
-                tilesData = (Raster[]) tempData.toArray(new Raster[tmpsize]);
+        List<Raster> tiles = new ArrayList<Raster>(keys.size());
+        Iterator<Object> it = keys.iterator();
+        while (it.hasNext()) {
+            Raster rasterTile = getTileFromKey(((Long) it.next()).longValue(), owner);
+            if (rasterTile != null) {
+                tiles.add(rasterTile);
             }
         }
-
-        return tilesData;
-
+        return tiles.isEmpty() ? null : tiles.toArray(new Raster[tiles.size()]);
     }
 
     /**
      * Removes all tiles in the cache which are owned by the image.
      */
     public void removeTiles(RenderedImage owner) {
-
+        TilePrefetcher tilePrefetcher = prefetcher;
+        if (tilePrefetcher != null) {
+            tilePrefetcher.cancel(owner);
+        }
+        Set<Object> keys = ownerIndex.remove(CachedTileImpl.hashKey(owner));
+        if (keys == null) {
+            return;
+        }
         if (diagnosticEnabled) {
-            int minTx = owner.getMinTileX();
-            int minTy = owner.getMinTileY();
-            int maxTx = minTx + owner.getNumXTiles();
-            int maxTy = minTy + owner.getNumYTiles();
-
-            for (int y = minTy; y < maxTy; y++) {
-                for (int x = minTx; x < maxTx; x++) {
-                    remove(owner, x, y);
-                }
+            for (Object key : keys) {
+                removeTileByKey(key);
             }
         } else {
-            int minTx = owner.getMinTileX();
-            int minTy = owner.getMinTileY();
-            int maxTx = minTx + owner.getNumXTiles();
-            int maxTy = minTy + owner.getNumYTiles();
-
-            for (int y = minTy; y < maxTy; y++) {
-                for (int x = minTx; x < maxTx; x++) {
-                    remove(owner, x, y);
+            cacheObject.invalidateAll(keys);
+            OffHeapTileStore store = offHeapStore;
+            if (store != null) {
+                for (Object key : keys) {
+                    store.remove(key);
                 }
             }
         }
@@ -381,6 +628,12 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
         }
         // cache.invalidateAll();
         cacheObject = buildCache();
+        tileMap = new LongTileMap(concurrencyLevel);
+        ownerIndex = new ConcurrentHashMap<Object, Set<Object>>();
+        // the off-heap tier is flushed too
+        if (offHeapStore != null) {
+            offHeapStore.clear();
+        }
 
     }
 
@@ -463,6 +716,75 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
         return concurrencyLevel;
     }
 
+    /**
+     * Sets the off-heap tier receiving the tiles evicted from the cache, and then flush and rebuild the cache. A null value disables the
+     * off-heap tier. The previous store, if any, is cleared but not disposed.
+     */
+    public synchronized void setOffHeapStore(OffHeapTileStore store) {
+        if (offHeapStore != null) {
+            offHeapStore.setDiscardListener(null);
+            offHeapStore.clear();
+        }
+        offHeapStore = store;
+        if (store != null) {
+            store.setDiscardListener(discardListener);
+        }
+        flush();
+    }
+
+    /**
+     * Sets the policy selecting the tiles to evict, and then flush and rebuild the cache. A null value restores the size-weighted LRU
+     * eviction of the cache.
+     * 
+     * @since 1.1
+     */
+    public synchronized void setEvictionPolicy(TileEvictionPolicy policy) {
+        evictionPolicy = policy;
+        flush();
+    }
+
+    /** Retrieve the eviction policy, null if the default one is used */
+    public TileEvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Sets the registry receiving the cache metrics, and then flush the cache so that the occupancy starts from zero. Unlike the diagnostics,
+     * the metrics do not need any synchronization. A null value disables them.
+     * 
+     * @since 1.1
+     */
+    public synchronized void setMetricsRegistry(TileCacheMetricsRegistry registry) {
+        metrics = null;
+        flush();
+        metrics = registry;
+    }
+
+    /** Retrieve the metrics registry, null if not enabled */
+    public TileCacheMetricsRegistry getMetricsRegistry() {
+        return metrics;
+    }
+
+    /**
+     * Sets the prefetcher computing the tiles requested through {@link #prefetch(RenderedImage, Point[])}. The pending requests of an image
+     * are cancelled when its tiles are removed, as done when it is disposed.
+     * 
+     * @since 1.1
+     */
+    public void setPrefetcher(TilePrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    /** Retrieve the prefetcher, null if not set */
+    public TilePrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /** Retrieve the off-heap tier, null if not enabled. Its own capacity and statistics are available from the store. */
+    public OffHeapTileStore getOffHeapStore() {
+        return offHeapStore;
+    }
+
     /**
      * Not Supported
      * 
@@ -539,4 +861,55 @@ public class ConcurrentTileCache extends Observable implements TileCache, CacheD
         throw new UnsupportedOperationException("Operation not supported");
     }
 
+    /** Maps a tile inserted in the cache, unless it has been removed in the meantime */
+    private void mapTile(CachedTileImpl cti) {
+        tileMap.put(cti.tileKey, cti);
+        if (cacheObject.asMap().get(cti.key) != cti) {
+            tileMap.remove(cti.tileKey, cti);
+        }
+    }
+
+    /**
+     * Indexes a tile inserted in the cache. The tile may have been removed, and its removal already
+     * handled, before it is indexed, so the key is dropped again if the tile is no longer found.
+     */
+    private void indexTile(Object key, Object imageKey) {
+        addToIndex(key, imageKey);
+        if (!cacheObject.asMap().containsKey(key)) {
+            OffHeapTileStore store = offHeapStore;
+            if (store == null || !store.contains(key)) {
+                removeFromIndex(key, imageKey);
+            }
+        }
+    }
+
+    /** Adds the tile key to the keys of its image */
+    private void addToIndex(Object key, Object imageKey) {
+        ConcurrentHashMap<Object, Set<Object>> index = ownerIndex;
+        while (true) {
+            Set<Object> keys = index.get(imageKey);
+            if (keys == null) {
+                keys = ConcurrentHashMap.<Object> newKeySet();
+                Set<Object> previous = index.putIfAbsent(imageKey, keys);
+                if (previous != null) {
+                    keys = previous;
+                }
+            }
+            keys.add(key);
+            // retry if the set has been dropped, being empty, in the meantime
+            if (index.get(imageKey) == keys) {
+                return;
+            }
+        }
+    }
+
+    /** Removes the tile key from the keys of its image, dropping them if empty */
+    private void removeFromIndex(Object key, Object imageKey) {
+        ConcurrentHashMap<Object, Set<Object>> index = ownerIndex;
+        Set<Object> keys = index.get(imageKey);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            index.remove(imageKey, keys);
+        }
+    }
+
 }
@@ -54,7 +54,7 @@ import com.sun.media.jai.util.CacheDiagnostics;
  * @author Nicola Lagomarsini GeoSolutions S.A.S.
  * 
  */
-public class ConcurrentTileCacheMultiMap extends Observable implements TileCache, CacheDiagnostics {
+public class ConcurrentTileCacheMultiMap extends Observable implements SingleFlightTileCache, CacheDiagnostics {
 
     /** The default memory threshold of the cache. */
     public static final float DEFAULT_MEMORY_THRESHOLD = 0.75F;
@@ -78,8 +78,23 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
      */
     private ConcurrentHashMap<Object, Set<Object>> multimap;
 
+    /** Map from the primitive tile keys to the cached tiles, so that getTile does not allocate the key */
+    private LongTileMap tileMap;
+
+    /** Optional policy selecting the tiles to evict, instead of the size-weighted LRU of the cache */
+    private volatile TileEvictionPolicy evictionPolicy;
+
+    /** Optional registry receiving the cache metrics */
+    private volatile TileCacheMetricsRegistry metrics;
+
+    /** The tile computations in progress through computeIfAbsent */
+    private final InFlightTiles inFlight = new InFlightTiles();
+
+    /** Optional prefetcher computing the tiles in background */
+    private volatile TilePrefetcher prefetcher;
+
     /** The memory capacity of the cache. */
-    private long memoryCacheCapacity;
+    private volatile long memoryCacheCapacity;
 
     /** The concurrency level of the cache. */
     private int concurrencyLevel;
@@ -121,6 +136,7 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
 
         // multimap creation
         multimap = new ConcurrentHashMap<Object, Set<Object>>();
+        tileMap = new LongTileMap(concurrencyLevel);
     }
 
     /** Add a new tile to the cache */
@@ -146,10 +162,19 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
         CachedTileImpl cti;
         // create a new tile
         CachedTileImpl cti_new = new CachedTileImpl(owner, tileX, tileY, data, tileCacheMetric);
+        TileEvictionPolicy policy = evictionPolicy;
+        if (tileCacheMetric instanceof Number) {
+            cti_new.computeCost = ((Number) tileCacheMetric).longValue();
+        } else if (policy != null || metrics != null) {
+            cti_new.computeCost = TileComputeTimer.elapsed(cti_new.tileKey);
+        }
 
         if (diagnosticEnabled) {
             // if the tile is already cached
             cti = (CachedTileImpl) cacheObject.asMap().putIfAbsent(cti_new.key, cti_new);
+            if (cti == null) {
+                mapTile(cti_new);
+            }
             synchronized (cacheObject) {
                 if (cti != null) {
                     cti.updateTileTimeStamp();
@@ -169,10 +194,15 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
                 LOGGER.fine("Added new Tile Image key " + imageKey);
             }
             // new tile insertion
-            cacheObject.asMap().putIfAbsent(cti_new.key, cti_new);
+            if (cacheObject.asMap().putIfAbsent(cti_new.key, cti_new) == null) {
+                mapTile(cti_new);
+            }
             // Atomically adds a new Map if needed and then adds a new tile inside the MultiMap.
             updateMultiMap(cti_new.key, imageKey);
         }
+        if (policy != null) {
+            evict(policy);
+        }
     }
 
     private long getTileSize(CachedTileImpl cti) {
@@ -189,10 +219,91 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
 
     /** Retrieves the selected tile from the cache */
     public Raster getTile(RenderedImage owner, int tileX, int tileY) {
-        // Calculation of the tile key
-        Object key = CachedTileImpl.hashKey(owner, tileX, tileY);
-        // Get operation
-        return getTileFromKey(key);
+        // Calculation of the tile key, negative if no key has ever been created for the image
+        long tileKey = CachedTileImpl.lookupKey(owner, tileX, tileY);
+        CachedTileImpl cti = tileKey < 0 ? null : tileMap.get(tileKey);
+        Raster tile = null;
+        if (cti != null || diagnosticEnabled) {
+            // The cache lookup updates the access order and the statistics, reusing the boxed key of the tile
+            Object key = cti != null ? cti.key : CachedTileImpl.hashKey(owner, tileX, tileY);
+            // Get operation
+            tile = getTileFromKey(key);
+        }
+        if (tile == null) {
+            TileCacheMetricsRegistry registry = metrics;
+            tile = tileMissing(owner, tileX, tileY);
+            if (tile != null) {
+                if (registry != null) {
+                    registry.recordHit(TileCacheMetrics.operationName(owner), -1);
+                }
+                return tile;
+            }
+            if (registry != null) {
+                registry.recordMiss(TileCacheMetrics.operationName(owner));
+            }
+            if (evictionPolicy != null || registry != null) {
+                // the compute cost of the tile is measured until it is added
+                TileComputeTimer.missed(tileKey < 0 ? CachedTileImpl.tileKey(owner, tileX,
+                        tileY) : tileKey);
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Returns the tile from the cache, or computes it with the loader and adds it to the cache. Concurrent calls for the same tile wait for
+     * the computation already in progress instead of repeating it.
+     * 
+     * @since 1.1
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader) {
+        return computeIfAbsent(owner, tileX, tileY, loader, null);
+    }
+
+    /**
+     * Same as {@link #computeIfAbsent(RenderedImage, int, int, TileLoader)}, adding the computed tile with the metric.
+     * 
+     * @since 1.1
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader,
+            Object tileCacheMetric) {
+        return inFlight.computeIfAbsent(this, owner, tileX, tileY, loader, tileCacheMetric);
+    }
+
+    /**
+     * Checks if the tile is being computed through <code>computeIfAbsent</code>.
+     * 
+     * @since 1.1
+     */
+    public boolean isInFlight(RenderedImage owner, int tileX, int tileY) {
+        return inFlight.contains(owner, tileX, tileY);
+    }
+
+    /**
+     * Schedules the background computation of the image tiles not yet cached, see {@link TilePrefetcher}.
+     * 
+     * @return the number of the scheduled tiles, 0 if no prefetcher is set
+     * @since 1.1
+     */
+    public int prefetch(RenderedImage owner, Point[] tileIndices) {
+        TilePrefetcher tilePrefetcher = prefetcher;
+        if (tilePrefetcher == null) {
+            return 0;
+        }
+        return tilePrefetcher.prefetch(this, owner, tileIndices);
+    }
+
+    /**
+     * Checks if the tile is cached, without updating the cache statistics and access order.
+     * 
+     * @since 1.1
+     */
+    public boolean containsTile(RenderedImage owner, int tileX, int tileY) {
+        long key = CachedTileImpl.lookupKey(owner, tileX, tileY);
+        if (key < 0) {
+            return false;
+        }
+        return cacheObject.asMap().containsKey(Long.valueOf(key));
     }
 
     /**
@@ -248,6 +359,10 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
      * Removes all tiles in the cache which are owned by the image.
      */
     public void removeTiles(RenderedImage owner) {
+        TilePrefetcher tilePrefetcher = prefetcher;
+        if (tilePrefetcher != null) {
+            tilePrefetcher.cancel(owner);
+        }
 
         // Calculation of the key associated to the image
         Object imageKey = CachedTileImpl.hashKey(owner);
@@ -353,6 +468,7 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
             cacheObject = buildCache();
             // multimap creation
             multimap = new ConcurrentHashMap<Object, Set<Object>>();
+            tileMap = new LongTileMap(concurrencyLevel);
         }
     }
 
@@ -396,6 +512,29 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
         }
     }
 
+    /**
+     * Changes the cache memory capacity. With an eviction policy the cached tiles are kept, evicting the ones over the new capacity; otherwise
+     * the cache is flushed and rebuilt as in {@link #setMemoryCapacity(long)}.
+     * 
+     * @since 1.1
+     */
+    public void resize(long memoryCacheCapacity) {
+        if (memoryCacheCapacity < 0) {
+            throw new IllegalArgumentException("Memory capacity too small");
+        }
+        TileEvictionPolicy policy;
+        synchronized (cacheObject) {
+            policy = evictionPolicy;
+            if (policy == null) {
+                setMemoryCapacity(memoryCacheCapacity);
+                return;
+            }
+            this.memoryCacheCapacity = memoryCacheCapacity;
+            policy.setMaximumWeight((long) (memoryCacheCapacity * memoryCacheThreshold));
+        }
+        evict(policy);
+    }
+
     /** Retrieve the cache memory capacity */
     public long getMemoryCapacity() {
         return memoryCacheCapacity;
@@ -439,6 +578,59 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
         return concurrencyLevel;
     }
 
+    /**
+     * Sets the policy selecting the tiles to evict, and then flush and rebuild the cache. A null value restores the size-weighted LRU
+     * eviction of the cache.
+     * 
+     * @since 1.1
+     */
+    public void setEvictionPolicy(TileEvictionPolicy policy) {
+        synchronized (cacheObject) {
+            evictionPolicy = policy;
+            // The flush is done in order to rebuild the cache with the new settings
+            flush();
+        }
+    }
+
+    /** Retrieve the eviction policy, null if the default one is used */
+    public TileEvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Sets the registry receiving the cache metrics, and then flush the cache so that the occupancy starts from zero. Unlike the diagnostics,
+     * the metrics do not need any synchronization. A null value disables them.
+     * 
+     * @since 1.1
+     */
+    public void setMetricsRegistry(TileCacheMetricsRegistry registry) {
+        synchronized (cacheObject) {
+            metrics = null;
+            flush();
+            metrics = registry;
+        }
+    }
+
+    /** Retrieve the metrics registry, null if not enabled */
+    public TileCacheMetricsRegistry getMetricsRegistry() {
+        return metrics;
+    }
+
+    /**
+     * Sets the prefetcher computing the tiles requested through {@link #prefetch(RenderedImage, Point[])}. The pending requests of an image
+     * are cancelled when its tiles are removed, as done when it is disposed.
+     * 
+     * @since 1.1
+     */
+    public void setPrefetcher(TilePrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
+    /** Retrieve the prefetcher, null if not set */
+    public TilePrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
     /**
      * Not Supported
      * 
@@ -529,11 +721,29 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
                 // it in
                 // the remove() method
 
+                tileMap.remove(n.getValue().tileKey, n.getValue());
+
+                // the tiles evicted by the policy are explicitly removed
+                boolean evicted = n.getValue().evicted;
+                TileEvictionPolicy policy = evictionPolicy;
+                if (policy != null && !evicted) {
+                    policy.onRemove(n.getValue());
+                }
+                TileCacheMetricsRegistry registry = metrics;
+                if (registry != null) {
+                    registry.recordRemoval(n.getValue().operation, getTileSize(n.getValue()),
+                            evicted ? RemovalCause.SIZE : n.getCause());
+                }
+
+                if (evicted || n.getCause() == RemovalCause.SIZE) {
+                    tileEvicted(n.getKey(), n.getValue());
+                }
+
                 if (diagnostic) {
                     synchronized (cacheObject) {
                         CachedTileImpl cti = n.getValue();
                         // Update of the tile action
-                        if (n.wasEvicted()) {
+                        if (evicted || n.wasEvicted()) {
                             cti.setAction(Actions.REMOVAL_FROM_EVICTION);
                         } else {
                             cti.setAction(Actions.MANUAL_REMOVAL);
@@ -545,7 +755,7 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
                     }
                 } else {
                     CachedTileImpl cti = n.getValue();
-                    if (n.getCause() == RemovalCause.SIZE) {
+                    if (evicted || n.getCause() == RemovalCause.SIZE) {
                         // Logging if the tile is removed because the size is exceeded
                         if (LOGGER.isLoggable(Level.FINE)) {
                             LOGGER.fine("Removing from MultiMap for size");
@@ -557,6 +767,26 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
         };
     }
 
+    /**
+     * Called when a tile is evicted because the cache memory capacity has been exceeded. Subclasses may override it in order to keep the
+     * tile somewhere else.
+     * 
+     * @param key
+     * @param cti
+     */
+    protected void tileEvicted(Object key, CachedTileImpl cti) {
+    }
+
+    /**
+     * Called when a tile is not found in memory, before recording the miss. Subclasses keeping the evicted tiles somewhere else may return
+     * the tile from there, which is then counted as a hit.
+     * 
+     * @return the tile, or null if not available
+     */
+    protected Raster tileMissing(RenderedImage owner, int tileX, int tileY) {
+        return null;
+    }
+
     /**
      * Method for removing the tile keys from the multimap. If the KeySet associated to the image is empty, it is removed from the multimap.
      * 
@@ -593,12 +823,19 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
     /** Private cache creation method */
     private Cache<Object, CachedTileImpl> buildCache() {
         CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder();
-        builder.maximumWeight((long) (memoryCacheCapacity * memoryCacheThreshold))
-                .concurrencyLevel(concurrencyLevel).weigher(new Weigher<Object, CachedTileImpl>() {
-                    public int weigh(Object o, CachedTileImpl cti) {
-                        return (int) getTileSize(cti);
-                    }
-                });
+        long maximumWeight = (long) (memoryCacheCapacity * memoryCacheThreshold);
+        builder.concurrencyLevel(concurrencyLevel);
+        TileEvictionPolicy policy = evictionPolicy;
+        if (policy != null) {
+            // the policy bounds the cache weight
+            policy.reset(maximumWeight);
+        } else {
+            builder.maximumWeight(maximumWeight).weigher(new Weigher<Object, CachedTileImpl>() {
+                public int weigh(Object o, CachedTileImpl cti) {
+                    return (int) getTileSize(cti);
+                }
+            });
+        }
         // Setting of the listener
         builder.removalListener(createListener(diagnosticEnabled));
         // Enable statistics only when the diagnostic flag is set to true;
@@ -641,6 +878,43 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
         tileKeys.add(key);
     }
 
+    /**
+     * Maps a tile inserted in the cache and reports it to the eviction policy, unless it has been removed in the meantime.
+     * 
+     * @param cti
+     */
+    private void mapTile(CachedTileImpl cti) {
+        TileCacheMetricsRegistry registry = metrics;
+        if (registry != null) {
+            registry.recordAdd(cti.operation, getTileSize(cti));
+        }
+        tileMap.put(cti.tileKey, cti);
+        TileEvictionPolicy policy = evictionPolicy;
+        if (policy != null) {
+            policy.onAdd(cti);
+        }
+        if (cacheObject.asMap().get(cti.key) != cti) {
+            tileMap.remove(cti.tileKey, cti);
+            if (policy != null) {
+                policy.onRemove(cti);
+            }
+        }
+    }
+
+    /**
+     * Evicts the tiles selected by the policy.
+     * 
+     * @param policy
+     */
+    private void evict(TileEvictionPolicy policy) {
+        CachedTileImpl victim;
+        while ((victim = policy.evict()) != null) {
+            // the removal listener handles it as a size eviction
+            victim.evicted = true;
+            cacheObject.asMap().remove(victim.key, victim);
+        }
+    }
+
     /**
      * Removes the tile associated to the key.
      * 
@@ -693,6 +967,14 @@ public class ConcurrentTileCacheMultiMap extends Observable implements TileCache
             }
             return null;
         }
+        TileEvictionPolicy policy = evictionPolicy;
+        if (policy != null) {
+            policy.onAccess(cti);
+        }
+        TileCacheMetricsRegistry registry = metrics;
+        if (registry != null) {
+            registry.recordHit(cti.operation, cti.computeCost);
+        }
         if (diagnosticEnabled) {
             synchronized (cacheObject) {
 
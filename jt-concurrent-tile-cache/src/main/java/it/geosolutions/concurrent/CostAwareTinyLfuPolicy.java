@@ -0,0 +1,374 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.util.IdentityHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link TileEvictionPolicy} implementing W-TinyLFU weighted by the tile compute cost. New tiles enter a small LRU admission window; when
+ * the window overflows, its eldest tile competes with the eldest tile of the main space, which is a segmented LRU made of a probation and a
+ * protected segment. The winner is the tile with the highest frequency, estimated by a count-min sketch which also remembers the recently
+ * evicted tiles, multiplied by its compute cost per byte relative to the average one. This way a tile which is cheap to compute does not
+ * evict a frequently used or expensive one.
+ * <p>
+ * The compute cost of a tile is the tile cache metric passed to the cache, when it is a {@link Number}, otherwise the time measured by the
+ * cache between the miss of the tile and its addition. Tiles with an unknown cost are ranked by frequency only.
+ */
+public class CostAwareTinyLfuPolicy implements TileEvictionPolicy {
+
+    /** The default share of the maximum weight kept by the admission window */
+    public static final float DEFAULT_WINDOW_RATIO = 0.01F;
+
+    /** Share of the main space kept by the protected segment */
+    private static final float PROTECTED_RATIO = 0.8F;
+
+    /** Bound of the cost factor, and of its inverse */
+    private static final double MAX_COST_FACTOR = 16;
+
+    private static final int WINDOW = 0;
+
+    private static final int PROBATION = 1;
+
+    private static final int PROTECTED = 2;
+
+    private static final class Node {
+
+        CachedTileImpl tile;
+
+        long weight;
+
+        int queue;
+
+        Node prev;
+
+        Node next;
+    }
+
+    /** Circular doubly linked list, the first node is the most recently used one */
+    private static final class AccessQueue {
+
+        final Node head = new Node();
+
+        long weight;
+
+        AccessQueue() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void addFirst(Node node) {
+            node.prev = head;
+            node.next = head.next;
+            head.next.prev = node;
+            head.next = node;
+            weight += node.weight;
+        }
+
+        void remove(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            weight -= node.weight;
+        }
+
+        Node last() {
+            return head.prev == head ? null : head.prev;
+        }
+
+        void clear() {
+            head.prev = head;
+            head.next = head;
+            weight = 0;
+        }
+    }
+
+    /** Count-min sketch of 4-bit counters, halved periodically so that old accesses fade out */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+                0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private long[] table = new long[0];
+
+        private int sampleSize;
+
+        private int additions;
+
+        /** Grows the sketch for the provided number of tiles, forgetting the frequencies */
+        void ensureCapacity(int maximumSize) {
+            int length = Integer.highestOneBit(Math.max(64, maximumSize - 1)) << 1;
+            if (table.length >= length) {
+                return;
+            }
+            table = new long[length];
+            sampleSize = 10 * length;
+            additions = 0;
+        }
+
+        int frequency(long key) {
+            int hash = spread(key);
+            int start = (hash & 3) << 2;
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                int offset = (start + i) << 2;
+                int count = (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        void increment(long key) {
+            int hash = spread(key);
+            int start = (hash & 3) << 2;
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = (start + i) << 2;
+                if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & RESET_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        private int indexOf(int hash, int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return ((int) h) & (table.length - 1);
+        }
+
+        private static int spread(long key) {
+            long h = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final IdentityHashMap<CachedTileImpl, Node> nodes = new IdentityHashMap<CachedTileImpl, Node>();
+
+    private final AccessQueue[] queues = { new AccessQueue(), new AccessQueue(),
+            new AccessQueue() };
+
+    private final FrequencySketch sketch = new FrequencySketch();
+
+    private final float windowRatio;
+
+    private long maximumWeight;
+
+    private long windowMaximum;
+
+    private long protectedMaximum;
+
+    private long weightedSize;
+
+    /** Running average of the compute cost per byte of the tiles */
+    private double averageCost;
+
+    public CostAwareTinyLfuPolicy() {
+        this(DEFAULT_WINDOW_RATIO);
+    }
+
+    /**
+     * @param windowRatio the share of the maximum weight kept by the admission window
+     */
+    public CostAwareTinyLfuPolicy(float windowRatio) {
+        if (windowRatio <= 0 || windowRatio >= 1) {
+            throw new IllegalArgumentException("Window ratio should be between 0 and 1");
+        }
+        this.windowRatio = windowRatio;
+    }
+
+    public void reset(long maximumWeight) {
+        lock.lock();
+        try {
+            nodes.clear();
+            for (AccessQueue queue : queues) {
+                queue.clear();
+            }
+            weightedSize = 0;
+            resize(maximumWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setMaximumWeight(long maximumWeight) {
+        lock.lock();
+        try {
+            resize(maximumWeight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sizes the queues for the maximum weight, the protected overflow is moved back to probation on the next accesses */
+    private void resize(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+        windowMaximum = Math.max(1, (long) (maximumWeight * windowRatio));
+        protectedMaximum = (long) ((maximumWeight - windowMaximum) * PROTECTED_RATIO);
+    }
+
+    public void onAdd(CachedTileImpl tile) {
+        lock.lock();
+        try {
+            if (nodes.containsKey(tile)) {
+                return;
+            }
+            Node node = new Node();
+            node.tile = tile;
+            node.weight = tile.getTileSize();
+            node.queue = WINDOW;
+            nodes.put(tile, node);
+            queues[WINDOW].addFirst(node);
+            weightedSize += node.weight;
+            sketch.ensureCapacity(nodes.size());
+            sketch.increment(tile.tileKey);
+
+            long cost = tile.getComputeCost();
+            if (cost >= 0) {
+                double costPerByte = (double) cost / node.weight;
+                averageCost = averageCost == 0 ? costPerByte : averageCost
+                        + (costPerByte - averageCost) / 16;
+            }
+            // while there is room, the window overflow goes to the main space without competing
+            if (weightedSize <= maximumWeight) {
+                AccessQueue window = queues[WINDOW];
+                while (window.weight > windowMaximum && window.last() != node) {
+                    move(window.last(), PROBATION);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onAccess(CachedTileImpl tile) {
+        // accesses are dropped rather than waiting for the lock
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(tile.tileKey);
+            Node node = nodes.get(tile);
+            if (node == null) {
+                return;
+            }
+            switch (node.queue) {
+            case WINDOW:
+                move(node, WINDOW);
+                break;
+            case PROBATION:
+                move(node, PROTECTED);
+                // the protected overflow goes back to probation
+                AccessQueue protectedQueue = queues[PROTECTED];
+                while (protectedQueue.weight > protectedMaximum && protectedQueue.last() != node) {
+                    move(protectedQueue.last(), PROBATION);
+                }
+                break;
+            default:
+                move(node, PROTECTED);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onRemove(CachedTileImpl tile) {
+        lock.lock();
+        try {
+            Node node = nodes.remove(tile);
+            if (node != null) {
+                queues[node.queue].remove(node);
+                weightedSize -= node.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CachedTileImpl evict() {
+        lock.lock();
+        try {
+            if (weightedSize <= maximumWeight) {
+                return null;
+            }
+            Node candidate = queues[WINDOW].last();
+            Node victim = queues[PROBATION].last();
+            if (victim == null) {
+                victim = queues[PROTECTED].last();
+            }
+            Node evicted;
+            if (candidate == null || (victim != null && queues[WINDOW].weight <= windowMaximum)) {
+                evicted = victim;
+            } else if (victim == null) {
+                evicted = candidate;
+            } else if (score(candidate) > score(victim)) {
+                // the candidate is admitted to the main space
+                evicted = victim;
+                move(candidate, PROBATION);
+            } else {
+                evicted = candidate;
+            }
+            nodes.remove(evicted.tile);
+            queues[evicted.queue].remove(evicted);
+            weightedSize -= evicted.weight;
+            return evicted.tile;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return weightedSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Moves the node to the front of the queue */
+    private void move(Node node, int queue) {
+        queues[node.queue].remove(node);
+        node.queue = queue;
+        queues[queue].addFirst(node);
+    }
+
+    /** Returns the frequency of the tile weighted by its relative compute cost */
+    private double score(Node node) {
+        double score = sketch.frequency(node.tile.tileKey) + 1;
+        long cost = node.tile.getComputeCost();
+        if (cost >= 0 && averageCost > 0) {
+            double factor = (double) cost / node.weight / averageCost;
+            score *= Math.max(1 / MAX_COST_FACTOR, Math.min(MAX_COST_FACTOR, factor));
+        }
+        return score;
+    }
+}
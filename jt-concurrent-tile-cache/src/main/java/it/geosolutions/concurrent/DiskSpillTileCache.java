@@ -0,0 +1,125 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+
+/**
+ * This extension of {@link ConcurrentTileCacheMultiMap} spills the tiles evicted for lack of memory to a {@link MappedTileStore}, instead of
+ * discarding them. A tile not found in memory is looked up in the store, which returns a copy read from the memory-mapped file, so that
+ * expensive tiles are read back from disk rather than computed again. The tile read back is counted as a hit and moved back to the memory
+ * tier. The spilled tiles are kept in LRU order, and are dropped together with the in-memory ones when the tile or its image is removed,
+ * when the cache is flushed or when the image is garbage collected.
+ */
+public class DiskSpillTileCache extends ConcurrentTileCacheMultiMap {
+
+    /** The store of the spilled tiles */
+    private final MappedTileStore spillStore;
+
+    public DiskSpillTileCache(MappedTileStore spillStore) {
+        this(DEFAULT_MEMORY_CACHE, DEFAULT_DIAGNOSTIC, DEFAULT_MEMORY_THRESHOLD,
+                DEFAULT_CONCURRENCY_LEVEL, spillStore);
+    }
+
+    public DiskSpillTileCache(long memoryCacheCapacity, boolean diagnostic, float mem_threshold,
+            int concurrencyLevel, MappedTileStore spillStore) {
+        super(memoryCacheCapacity, diagnostic, mem_threshold, concurrencyLevel);
+        if (spillStore == null) {
+            throw new IllegalArgumentException("The spill store must be provided");
+        }
+        this.spillStore = spillStore;
+    }
+
+    /** Add a new tile to the cache, replacing the spilled one if present */
+    @Override
+    public void add(RenderedImage owner, int tileX, int tileY, Raster data, Object tileCacheMetric) {
+        if (data == null) {
+            return;
+        }
+        spillStore.remove(CachedTileImpl.hashKey(owner, tileX, tileY));
+        super.add(owner, tileX, tileY, data, tileCacheMetric);
+    }
+
+    /** Removes the selected tile from the cache and from the spill store */
+    @Override
+    public void remove(RenderedImage owner, int tileX, int tileY) {
+        super.remove(owner, tileX, tileY);
+        spillStore.remove(CachedTileImpl.hashKey(owner, tileX, tileY));
+    }
+
+    /** Checks if the tile is in memory or in the spill store */
+    @Override
+    public boolean containsTile(RenderedImage owner, int tileX, int tileY) {
+        return super.containsTile(owner, tileX, tileY)
+                || spillStore.contains(CachedTileImpl.hashKey(owner, tileX, tileY));
+    }
+
+    /**
+     * Retrieves an array of all tiles in memory and in the spill store which are owned by the image. May be <code>null</code> if there were
+     * no tiles. The array contains no null entries.
+     */
+    @Override
+    public Raster[] getTiles(RenderedImage owner) {
+        Raster[] tiles = super.getTiles(owner);
+        Raster[] spilled = spillStore.getTiles(owner);
+        if (tiles == null) {
+            return spilled;
+        } else if (spilled == null) {
+            return tiles;
+        }
+        Raster[] result = new Raster[tiles.length + spilled.length];
+        System.arraycopy(tiles, 0, result, 0, tiles.length);
+        System.arraycopy(spilled, 0, result, tiles.length, spilled.length);
+        return result;
+    }
+
+    /** Removes all tiles in memory and in the spill store which are owned by the image */
+    @Override
+    public void removeTiles(RenderedImage owner) {
+        super.removeTiles(owner);
+        spillStore.removeTiles(owner);
+    }
+
+    /** Removes all tiles present in memory and in the spill store */
+    @Override
+    public void flush() {
+        super.flush();
+        spillStore.clear();
+    }
+
+    /** Retrieves the store of the spilled tiles */
+    public MappedTileStore getSpillStore() {
+        return spillStore;
+    }
+
+    @Override
+    protected void tileEvicted(Object key, CachedTileImpl cti) {
+        spillStore.put(key, cti);
+    }
+
+    /** Reads the tile back from the spill store, moving it to the memory tier */
+    @Override
+    protected Raster tileMissing(RenderedImage owner, int tileX, int tileY) {
+        Raster tile = spillStore.getTile(CachedTileImpl.hashKey(owner, tileX, tileY), owner);
+        if (tile != null) {
+            add(owner, tileX, tileY, tile);
+        }
+        return tile;
+    }
+}
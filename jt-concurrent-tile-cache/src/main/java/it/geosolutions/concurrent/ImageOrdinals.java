@@ -0,0 +1,221 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.RenderedImage;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Registry assigning a distinct ordinal to each image used as tile owner. Unlike the identity hash code, two live images never share the
+ * same ordinal, so that the ordinal can be packed into the tile keys without collisions. Images are compared by identity and weakly
+ * referenced, the ordinals of the collected images are not reused until the counter wraps around after 2^31 registrations. From then
+ * on, the ordinals still held by registered images are skipped.
+ * <p>
+ * Lookups of registered images are lock-free in the common case and do not allocate.
+ */
+final class ImageOrdinals {
+
+    /** Ordinal returned for the images not registered yet */
+    static final int NONE = 0;
+
+    private static final class OwnerRef extends WeakReference<RenderedImage> {
+
+        final int hash;
+
+        final int ordinal;
+
+        OwnerRef(RenderedImage owner, int hash, int ordinal, ReferenceQueue<RenderedImage> queue) {
+            super(owner, queue);
+            this.hash = hash;
+            this.ordinal = ordinal;
+        }
+    }
+
+    private static final StampedLock LOCK = new StampedLock();
+
+    private static final ReferenceQueue<RenderedImage> QUEUE = new ReferenceQueue<RenderedImage>();
+
+    /** Open addressing table of the registered images, modified under the write lock */
+    private static volatile OwnerRef[] table = new OwnerRef[64];
+
+    private static int size;
+
+    private static int nextOrdinal = NONE + 1;
+
+    /** Whether the counter wrapped around, so that the next ordinals may still be in use */
+    private static boolean wrapped;
+
+    private ImageOrdinals() {
+    }
+
+    /** Returns the ordinal of the image, or {@link #NONE} if it has not been registered */
+    static int lookup(RenderedImage owner) {
+        int hash = System.identityHashCode(owner);
+        long stamp = LOCK.tryOptimisticRead();
+        int ordinal = find(table, owner, hash);
+        if (!LOCK.validate(stamp)) {
+            stamp = LOCK.readLock();
+            try {
+                ordinal = find(table, owner, hash);
+            } finally {
+                LOCK.unlockRead(stamp);
+            }
+        }
+        return ordinal;
+    }
+
+    /** Returns the ordinal of the image, registering it if needed */
+    static int ordinal(RenderedImage owner) {
+        int ordinal = lookup(owner);
+        if (ordinal != NONE) {
+            return ordinal;
+        }
+        int hash = System.identityHashCode(owner);
+        long stamp = LOCK.writeLock();
+        try {
+            expunge();
+            ordinal = find(table, owner, hash);
+            if (ordinal != NONE) {
+                return ordinal;
+            }
+            if ((size + 1) * 2 > table.length) {
+                resize();
+            }
+            ordinal = nextOrdinal();
+            OwnerRef[] tab = table;
+            tab[free(tab, hash)] = new OwnerRef(owner, hash, ordinal, QUEUE);
+            size++;
+            return ordinal;
+        } finally {
+            LOCK.unlockWrite(stamp);
+        }
+    }
+
+    /** Returns the next ordinal not held by a registered image, called under the write lock */
+    private static int nextOrdinal() {
+        while (true) {
+            int ordinal = nextOrdinal++;
+            if (nextOrdinal < 0) {
+                // ordinals are kept positive, so that the tile keys are never negative
+                nextOrdinal = NONE + 1;
+                wrapped = true;
+            }
+            if (!wrapped || !inUse(ordinal)) {
+                return ordinal;
+            }
+        }
+    }
+
+    /** Checks if the ordinal is held by an image in the table, including the collected ones not expunged yet */
+    private static boolean inUse(int ordinal) {
+        for (OwnerRef ref : table) {
+            if (ref != null && ref.ordinal == ordinal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int find(OwnerRef[] tab, RenderedImage owner, int hash) {
+        int mask = tab.length - 1;
+        int i = mix(hash) & mask;
+        for (int n = 0; n < tab.length; n++) {
+            OwnerRef ref = tab[i];
+            if (ref == null) {
+                return NONE;
+            }
+            if (ref.hash == hash && ref.get() == owner) {
+                return ref.ordinal;
+            }
+            i = (i + 1) & mask;
+        }
+        return NONE;
+    }
+
+    /** Returns the first empty slot for the hash */
+    private static int free(OwnerRef[] tab, int hash) {
+        int mask = tab.length - 1;
+        int i = mix(hash) & mask;
+        while (tab[i] != null) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /** Removes the collected images from the table */
+    private static void expunge() {
+        Reference<? extends RenderedImage> ref;
+        while ((ref = QUEUE.poll()) != null) {
+            OwnerRef[] tab = table;
+            int mask = tab.length - 1;
+            int i = mix(((OwnerRef) ref).hash) & mask;
+            while (tab[i] != null) {
+                if (tab[i] == ref) {
+                    delete(tab, i);
+                    size--;
+                    break;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+    }
+
+    /** Empties the slot, moving back the following entries of the probe sequence */
+    private static void delete(OwnerRef[] tab, int i) {
+        int mask = tab.length - 1;
+        tab[i] = null;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            OwnerRef ref = tab[j];
+            if (ref == null) {
+                return;
+            }
+            int home = mix(ref.hash) & mask;
+            // the entry can be moved if its home slot is not cyclically within (i, j]
+            if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+                tab[i] = ref;
+                tab[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    private static void resize() {
+        OwnerRef[] tab = table;
+        OwnerRef[] newTab = new OwnerRef[tab.length * 2];
+        int count = 0;
+        for (OwnerRef ref : tab) {
+            // collected images are dropped, their queued references will not be found
+            if (ref != null && ref.get() != null) {
+                newTab[free(newTab, ref.hash)] = ref;
+                count++;
+            }
+        }
+        size = count;
+        table = newTab;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,126 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Registry of the tile computations in progress, so that the concurrent misses on the same tile wait on a single computation instead of
+ * computing the tile on their own.
+ */
+final class InFlightTiles {
+
+    /** A tile computation in progress */
+    private static final class Flight {
+
+        final Thread thread = Thread.currentThread();
+
+        final CountDownLatch done = new CountDownLatch(1);
+
+        Raster tile;
+
+        Throwable failure;
+
+        /** The metric of the computed tile, possibly provided by a loader asking for its own tile */
+        Object metric;
+
+        /** Waits for the computation, even if interrupted, and returns its result */
+        Raster await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return tile;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Flight> flights = new ConcurrentHashMap<Long, Flight>();
+
+    /**
+     * Returns the cached tile, or computes it with the loader and adds it to the cache with the metric. Only one thread computes the tile,
+     * the others wait for its result, which is shared with them even if the cache does not keep it.
+     */
+    Raster computeIfAbsent(SingleFlightTileCache cache, RenderedImage owner, int tileX, int tileY,
+            TileLoader loader, Object tileCacheMetric) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Tile loader should not be null");
+        }
+        Raster tile = cache.getTile(owner, tileX, tileY);
+        if (tile != null) {
+            return tile;
+        }
+        Long key = Long.valueOf(CachedTileImpl.tileKey(owner, tileX, tileY));
+        Flight flight = new Flight();
+        flight.metric = tileCacheMetric;
+        Flight current = flights.putIfAbsent(key, flight);
+        if (current != null) {
+            if (current.thread == flight.thread) {
+                // the loader requested its own tile, waiting would never end. Its metric is
+                // the one of the image computing the tile, used when caching it
+                if (tileCacheMetric != null) {
+                    current.metric = tileCacheMetric;
+                }
+                return loader.loadTile(owner, tileX, tileY);
+            }
+            return current.await();
+        }
+        try {
+            // the tile may have been added before the flight was registered
+            tile = cache.getTile(owner, tileX, tileY);
+            if (tile == null) {
+                tile = loader.loadTile(owner, tileX, tileY);
+                // the loader may have cached the tile itself, e.g. through the image getTile
+                if (tile != null && !cache.containsTile(owner, tileX, tileY)) {
+                    cache.add(owner, tileX, tileY, tile, flight.metric);
+                }
+            }
+            flight.tile = tile;
+            return tile;
+        } catch (RuntimeException e) {
+            flight.failure = e;
+            throw e;
+        } catch (Error e) {
+            flight.failure = e;
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+            flight.done.countDown();
+        }
+    }
+
+    /** Checks if the tile is being computed */
+    boolean contains(RenderedImage owner, int tileX, int tileY) {
+        return flights.containsKey(Long.valueOf(CachedTileImpl.tileKey(owner, tileX, tileY)));
+    }
+}
@@ -0,0 +1,234 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Concurrent map from the primitive tile keys to the cached tiles, used by the tile caches for finding the tiles without boxing the keys.
+ * The map is split in segments, each one an open addressing table guarded by a {@link StampedLock}: lookups are optimistic reads which
+ * neither block nor allocate unless they race with a writer of the same segment.
+ */
+final class LongTileMap {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private static final class Table {
+
+        final long[] keys;
+
+        /** The tiles, a null value marks an empty slot */
+        final CachedTileImpl[] values;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            values = new CachedTileImpl[capacity];
+        }
+    }
+
+    private static final class Segment {
+
+        final StampedLock lock = new StampedLock();
+
+        volatile Table table = new Table(INITIAL_CAPACITY);
+
+        int size;
+    }
+
+    private final Segment[] segments;
+
+    private final int segmentShift;
+
+    /**
+     * @param concurrencyLevel the expected number of concurrent writers
+     */
+    LongTileMap(int concurrencyLevel) {
+        int bits = 0;
+        while ((1 << bits) < concurrencyLevel && bits < 16) {
+            bits++;
+        }
+        segments = new Segment[1 << bits];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+        // the segment is selected by the upper hash bits, the slot by the lower ones
+        segmentShift = 32 - bits;
+    }
+
+    /** Returns the tile associated to the key, or null */
+    CachedTileImpl get(long key) {
+        int hash = mix(key);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.lock.tryOptimisticRead();
+        CachedTileImpl value = find(segment.table, key, hash);
+        if (!segment.lock.validate(stamp)) {
+            stamp = segment.lock.readLock();
+            try {
+                value = find(segment.table, key, hash);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /** Associates the tile to the key, returning the previous one */
+    CachedTileImpl put(long key, CachedTileImpl value) {
+        int hash = mix(key);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int mask = table.keys.length - 1;
+            int i = hash & mask;
+            while (table.values[i] != null) {
+                if (table.keys[i] == key) {
+                    CachedTileImpl previous = table.values[i];
+                    table.values[i] = value;
+                    return previous;
+                }
+                i = (i + 1) & mask;
+            }
+            if ((segment.size + 1) * 2 > table.keys.length) {
+                table = resize(segment);
+                mask = table.keys.length - 1;
+                i = hash & mask;
+                while (table.values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+            }
+            table.keys[i] = key;
+            table.values[i] = value;
+            segment.size++;
+            return null;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Removes the key only if it is associated to the provided tile */
+    boolean remove(long key, CachedTileImpl value) {
+        int hash = mix(key);
+        Segment segment = segmentFor(hash);
+        long stamp = segment.lock.writeLock();
+        try {
+            Table table = segment.table;
+            int mask = table.keys.length - 1;
+            int i = hash & mask;
+            while (table.values[i] != null) {
+                if (table.keys[i] == key) {
+                    if (table.values[i] != value) {
+                        return false;
+                    }
+                    delete(table, i);
+                    segment.size--;
+                    return true;
+                }
+                i = (i + 1) & mask;
+            }
+            return false;
+        } finally {
+            segment.lock.unlockWrite(stamp);
+        }
+    }
+
+    /** Retrieves the number of mapped tiles */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    private Segment segmentFor(int hash) {
+        return segments[segments.length == 1 ? 0 : hash >>> segmentShift];
+    }
+
+    private static CachedTileImpl find(Table table, long key, int hash) {
+        long[] keys = table.keys;
+        CachedTileImpl[] values = table.values;
+        int mask = keys.length - 1;
+        int i = hash & mask;
+        // bounded, an optimistic read may see a table being modified
+        for (int n = 0; n < keys.length; n++) {
+            CachedTileImpl value = values[i];
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /** Empties the slot, moving back the following entries of the probe sequence */
+    private static void delete(Table table, int i) {
+        long[] keys = table.keys;
+        CachedTileImpl[] values = table.values;
+        int mask = keys.length - 1;
+        values[i] = null;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (values[j] == null) {
+                return;
+            }
+            int home = mix(keys[j]) & mask;
+            // the entry can be moved if its home slot is not cyclically within (i, j]
+            if (i <= j ? (home <= i || home > j) : (home <= i && home > j)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                values[j] = null;
+                i = j;
+            }
+        }
+    }
+
+    private static Table resize(Segment segment) {
+        Table table = segment.table;
+        Table newTable = new Table(table.keys.length * 2);
+        int mask = newTable.keys.length - 1;
+        for (int j = 0; j < table.keys.length; j++) {
+            CachedTileImpl value = table.values[j];
+            if (value != null) {
+                long key = table.keys[j];
+                int i = mix(key) & mask;
+                while (newTable.values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                newTable.keys[i] = key;
+                newTable.values[i] = value;
+            }
+        }
+        segment.table = newTable;
+        return newTable;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
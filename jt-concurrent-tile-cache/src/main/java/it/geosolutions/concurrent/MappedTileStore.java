@@ -0,0 +1,590 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Disk storage for the tiles evicted by a {@link DiskSpillTileCache}. Each tile is written into a contiguous region of a memory-mapped
+ * temporary file, using the same keys of {@link CachedTileImpl#hashKey(RenderedImage, int, int)}, and the operating system page cache is in
+ * charge of keeping the most used regions in memory. The tiles read back are copied into the standard {@link DataBuffer} implementations,
+ * so that any operation can use them and changing them does not alter the stored copy.
+ * <p>
+ * The store has its own capacity and is kept in LRU order: when there is not enough room for a new tile, the least recently used tiles are
+ * discarded. The region of a discarded tile is reused once the tile copies being read from it are done. The tiles of an image are dropped
+ * when {@link #removeTiles(RenderedImage)} is called or when the image is garbage collected.
+ */
+public class MappedTileStore {
+
+    /** The default size of each mapped file (256 MB). */
+    public static final int DEFAULT_SLAB_SIZE = 256 * 1024 * 1024;
+
+    /** Region alignment, so that every bank starts at a multiple of the element size */
+    private static final int ALIGNMENT = 8;
+
+    /** Weak reference to the owner of the stored tiles, keeping the keys of its tiles */
+    private static final class OwnerRef extends WeakReference<RenderedImage> {
+
+        final Object imageKey;
+
+        final Set<Object> keys = new HashSet<Object>();
+
+        OwnerRef(RenderedImage owner, Object imageKey, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.imageKey = imageKey;
+        }
+    }
+
+    /** The stored tile, keeping the raster layout and the region holding its data */
+    private static final class StoredTile {
+
+        final Object key;
+
+        final OwnerRef owner;
+
+        final SampleModel sampleModel;
+
+        final int translateX;
+
+        final int translateY;
+
+        final int minX;
+
+        final int minY;
+
+        final int width;
+
+        final int height;
+
+        final int dataType;
+
+        final int numBanks;
+
+        final int bankSize;
+
+        final int slab;
+
+        final int offset;
+
+        final int length;
+
+        /** Number of threads copying the tile out of its region, which cannot be reused meanwhile */
+        int readers;
+
+        /** Set when the tile is no more in the store */
+        boolean removed;
+
+        /** Set when the region has been given back */
+        boolean freed;
+
+        StoredTile(Object key, OwnerRef owner, Raster tile, int slab, int offset, int length) {
+            DataBuffer db = tile.getDataBuffer();
+            this.key = key;
+            this.owner = owner;
+            this.sampleModel = tile.getSampleModel();
+            this.translateX = tile.getSampleModelTranslateX();
+            this.translateY = tile.getSampleModelTranslateY();
+            this.minX = tile.getMinX();
+            this.minY = tile.getMinY();
+            this.width = tile.getWidth();
+            this.height = tile.getHeight();
+            this.dataType = db.getDataType();
+            this.numBanks = db.getNumBanks();
+            this.bankSize = db.getSize();
+            this.slab = slab;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /** Directory of the mapped files, null for the default temporary directory */
+    private final File directory;
+
+    private final int slabSize;
+
+    private final long capacity;
+
+    /** Mapped files, created when needed */
+    private final ByteBuffer[] slabs;
+
+    private final File[] files;
+
+    /** Free regions of each mapped file, by offset */
+    private final List<TreeMap<Integer, Integer>> freeRegions = new ArrayList<TreeMap<Integer, Integer>>();
+
+    /** The stored tiles, in access order */
+    private final LinkedHashMap<Object, StoredTile> tiles = new LinkedHashMap<Object, StoredTile>(
+            16, 0.75f, true);
+
+    /** The owners of the stored tiles, by image key */
+    private final Map<Object, OwnerRef> owners = new HashMap<Object, OwnerRef>();
+
+    /** Queue of the collected owners */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    private long memoryUsed;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    /**
+     * Creates a store whose files are created in the default temporary directory.
+     *
+     * @param capacity the maximum number of bytes to store
+     */
+    public MappedTileStore(long capacity) {
+        this(capacity, null, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a store whose files are created in the provided directory.
+     *
+     * @param capacity the maximum number of bytes to store
+     * @param directory the directory of the temporary files, or null for the default temporary directory
+     */
+    public MappedTileStore(long capacity, File directory) {
+        this(capacity, directory, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a store with the provided file size. Tiles bigger than a single file are not stored.
+     *
+     * @param capacity the maximum number of bytes to store
+     * @param directory the directory of the temporary files, or null for the default temporary directory
+     * @param slabSize the size of each mapped file
+     */
+    public MappedTileStore(long capacity, File directory, int slabSize) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Memory capacity too small");
+        }
+        if (slabSize < ALIGNMENT) {
+            throw new IllegalArgumentException("Slab size too small");
+        }
+        if (directory != null && !directory.isDirectory()) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        this.directory = directory;
+        this.slabSize = slabSize - slabSize % ALIGNMENT;
+        this.capacity = capacity - capacity % ALIGNMENT;
+        long numSlabs = (this.capacity + this.slabSize - 1) / this.slabSize;
+        if (numSlabs > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Memory capacity too big for the slab size");
+        }
+        this.slabs = new ByteBuffer[(int) numSlabs];
+        this.files = new File[(int) numSlabs];
+    }
+
+    /**
+     * Writes the tile into the mapped files, discarding the least recently used tiles if needed. Tiles bigger than a mapped file, or whose
+     * owner has been collected, are ignored.
+     *
+     * @return true if the tile has been stored
+     */
+    public boolean put(Object key, CachedTileImpl cti) {
+        RenderedImage owner = cti.getOwner();
+        if (owner == null) {
+            return false;
+        }
+        Raster tile = cti.getTile();
+        DataBuffer db = tile.getDataBuffer();
+        int elementSize = DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+        long bankBytes = align((long) elementSize * db.getSize());
+        long bytes = bankBytes * db.getNumBanks();
+        if (bytes > slabSize || bytes > capacity) {
+            return false;
+        }
+        StoredTile stored;
+        synchronized (this) {
+            expunge();
+            // A tile already stored with the same key is stale
+            discard(tiles.remove(key));
+            OwnerRef ref = owners.get(cti.getImageKey());
+            if (ref != null && ref.get() != owner) {
+                if (ref.get() != null) {
+                    // Another image with the same key, its tiles cannot be told apart
+                    return false;
+                }
+                discardOwner(ref);
+                ref = null;
+            }
+            long region = allocate((int) bytes);
+            if (region < 0) {
+                return false;
+            }
+            if (ref == null) {
+                ref = new OwnerRef(owner, cti.getImageKey(), queue);
+                owners.put(ref.imageKey, ref);
+            }
+            stored = new StoredTile(key, ref, tile, (int) (region >>> 32), (int) region,
+                    (int) bytes);
+            memoryUsed += bytes;
+        }
+        // Data copy is done outside the lock, the region is not visible to other threads yet
+        ByteBuffer view = view(stored);
+        for (int bank = 0; bank < stored.numBanks; bank++) {
+            Object array = OffHeapTileStore.bankData(db, bank);
+            int offset = array != null ? db.getOffsets()[bank] : 0;
+            if (array == null) {
+                array = OffHeapTileStore.copyBank(db, bank, stored.bankSize, stored.dataType);
+            }
+            view.limit((int) (bank * bankBytes) + stored.bankSize * elementSize);
+            view.position((int) (bank * bankBytes));
+            OffHeapTileStore.copy(view.slice().order(ByteOrder.nativeOrder()), array, offset,
+                    stored.bankSize, stored.dataType, true);
+        }
+        synchronized (this) {
+            OwnerRef ref = stored.owner;
+            OwnerRef current = owners.get(ref.imageKey);
+            if (ref.get() == null || (current != null && current != ref)) {
+                // the owner has been collected, or replaced by another image, in the meantime
+                stored.removed = true;
+                free(stored);
+                return false;
+            }
+            if (current == null) {
+                // the last tile of the owner has been discarded in the meantime
+                owners.put(ref.imageKey, ref);
+            }
+            StoredTile previous = tiles.put(key, stored);
+            ref.keys.add(key);
+            discard(previous);
+        }
+        return true;
+    }
+
+    /**
+     * Returns a copy of the stored tile.
+     *
+     * @return the tile, or null if it is not stored or its owner is not the provided one
+     */
+    public Raster getTile(Object key, RenderedImage owner) {
+        StoredTile stored;
+        synchronized (this) {
+            expunge();
+            stored = tiles.get(key);
+            if (stored == null || stored.owner.get() != owner) {
+                missCount++;
+                return null;
+            }
+            hitCount++;
+            stored.readers++;
+        }
+        try {
+            return read(stored);
+        } finally {
+            release(stored);
+        }
+    }
+
+    /**
+     * Returns all the stored tiles of the provided image.
+     *
+     * @return the tiles, or null if there are none
+     */
+    public Raster[] getTiles(RenderedImage owner) {
+        StoredTile[] stored;
+        synchronized (this) {
+            expunge();
+            OwnerRef ref = owners.get(CachedTileImpl.hashKey(owner));
+            if (ref == null || ref.get() != owner || ref.keys.isEmpty()) {
+                return null;
+            }
+            stored = new StoredTile[ref.keys.size()];
+            int i = 0;
+            for (Object key : ref.keys) {
+                // no access order update, this is not a tile request
+                stored[i] = tiles.get(key);
+                stored[i++].readers++;
+            }
+        }
+        Raster[] result = new Raster[stored.length];
+        try {
+            for (int i = 0; i < stored.length; i++) {
+                result[i] = read(stored[i]);
+            }
+        } finally {
+            for (StoredTile tile : stored) {
+                release(tile);
+            }
+        }
+        return result;
+    }
+
+    /** Discards the tile, if stored */
+    public synchronized void remove(Object key) {
+        discard(tiles.remove(key));
+    }
+
+    /** Discards all the stored tiles of the provided image */
+    public synchronized void removeTiles(RenderedImage owner) {
+        expunge();
+        OwnerRef ref = owners.get(CachedTileImpl.hashKey(owner));
+        if (ref != null && ref.get() == owner) {
+            discardOwner(ref);
+        }
+    }
+
+    /** Returns true if a tile is stored under the provided key */
+    public synchronized boolean contains(Object key) {
+        return tiles.containsKey(key);
+    }
+
+    /** Discards all the stored tiles, keeping the mapped files for later use */
+    public synchronized void clear() {
+        Iterator<StoredTile> it = tiles.values().iterator();
+        while (it.hasNext()) {
+            StoredTile stored = it.next();
+            it.remove();
+            discard(stored);
+        }
+        owners.clear();
+        expunge();
+    }
+
+    /**
+     * Discards all the stored tiles and deletes the mapped files. It must not be called while the store is still in use.
+     */
+    public synchronized void dispose() {
+        clear();
+        for (int i = 0; i < slabs.length; i++) {
+            slabs[i] = null;
+            if (files[i] != null) {
+                files[i].delete();
+                files[i] = null;
+            }
+        }
+        freeRegions.clear();
+        memoryUsed = 0;
+    }
+
+    /** Retrieves the store capacity in bytes */
+    public long getMemoryCapacity() {
+        return capacity;
+    }
+
+    /** Retrieves the bytes used by the stored tiles, including the discarded ones still being read */
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    /** Retrieves the number of stored tiles */
+    public synchronized long getTileCount() {
+        expunge();
+        return tiles.size();
+    }
+
+    /** Retrieves the number of tiles read back from the store */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /** Retrieves the number of requests for tiles not in the store */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /** Retrieves the number of tiles discarded for making room to new ones */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Copies the tile out of its region into a raster using a standard data buffer */
+    private WritableRaster read(StoredTile stored) {
+        int elementSize = DataBuffer.getDataTypeSize(stored.dataType) / 8;
+        int bankBytes = (int) align((long) elementSize * stored.bankSize);
+        DataBuffer db = OffHeapTileStore.createDataBuffer(stored.dataType, stored.bankSize,
+                stored.numBanks);
+        ByteBuffer view = view(stored);
+        for (int bank = 0; bank < stored.numBanks; bank++) {
+            view.limit(bank * bankBytes + stored.bankSize * elementSize);
+            view.position(bank * bankBytes);
+            OffHeapTileStore.copy(view.slice().order(ByteOrder.nativeOrder()),
+                    OffHeapTileStore.bankData(db, bank), 0, stored.bankSize, stored.dataType,
+                    false);
+        }
+        return OffHeapTileStore.createRaster(stored.sampleModel, db, stored.translateX,
+                stored.translateY, stored.minX, stored.minY, stored.width, stored.height);
+    }
+
+    /** Ends a tile read, freeing its region if the tile has been discarded in the meantime */
+    private synchronized void release(StoredTile stored) {
+        stored.readers--;
+        if (stored.removed && stored.readers == 0) {
+            free(stored);
+        }
+    }
+
+    /** Returns a view of the whole tile region */
+    private ByteBuffer view(StoredTile stored) {
+        ByteBuffer slab = slabs[stored.slab].duplicate();
+        slab.limit(stored.offset + stored.length);
+        slab.position(stored.offset);
+        return slab.slice();
+    }
+
+    /** Drops the tiles of the collected owners */
+    private void expunge() {
+        Reference<?> ref;
+        while ((ref = queue.poll()) != null) {
+            OwnerRef owner = (OwnerRef) ref;
+            if (owners.get(owner.imageKey) == owner) {
+                discardOwner(owner);
+            }
+        }
+    }
+
+    private void discardOwner(OwnerRef owner) {
+        owners.remove(owner.imageKey);
+        for (Object key : owner.keys.toArray()) {
+            StoredTile stored = tiles.get(key);
+            if (stored != null && stored.owner == owner) {
+                discard(tiles.remove(key));
+            }
+        }
+        owner.keys.clear();
+    }
+
+    /** Marks the tile as removed, freeing its region if no thread is reading it */
+    private void discard(StoredTile stored) {
+        if (stored == null) {
+            return;
+        }
+        stored.removed = true;
+        // the key may already be used by the tile replacing this one
+        OwnerRef owner = stored.owner;
+        if (!tiles.containsKey(stored.key) && owner.keys.remove(stored.key)
+                && owner.keys.isEmpty() && owners.get(owner.imageKey) == owner) {
+            owners.remove(owner.imageKey);
+        }
+        if (stored.readers == 0) {
+            free(stored);
+        }
+    }
+
+    /**
+     * Finds a free region of the requested size, evicting the least recently used tiles if needed.
+     *
+     * @return the slab index in the upper 32 bits and the offset in the lower ones, or -1 if no room can be made
+     */
+    private long allocate(int bytes) {
+        while (true) {
+            for (int i = 0; i < freeRegions.size(); i++) {
+                TreeMap<Integer, Integer> free = freeRegions.get(i);
+                for (Map.Entry<Integer, Integer> region : free.entrySet()) {
+                    int offset = region.getKey();
+                    int length = region.getValue();
+                    if (length >= bytes) {
+                        free.remove(offset);
+                        if (length > bytes) {
+                            free.put(offset + bytes, length - bytes);
+                        }
+                        return ((long) i << 32) | offset;
+                    }
+                }
+            }
+            if (freeRegions.size() < slabs.length) {
+                allocateSlab();
+            } else if (!tiles.isEmpty()) {
+                Iterator<StoredTile> it = tiles.values().iterator();
+                StoredTile eldest = it.next();
+                it.remove();
+                discard(eldest);
+                evictionCount++;
+            } else {
+                // Remaining regions are being read by other threads
+                return -1;
+            }
+        }
+    }
+
+    /** Gives the region back, merging it with the adjacent free ones */
+    private void free(StoredTile stored) {
+        if (stored.freed || slabs[stored.slab] == null) {
+            return;
+        }
+        stored.freed = true;
+        memoryUsed -= stored.length;
+        TreeMap<Integer, Integer> free = freeRegions.get(stored.slab);
+        int offset = stored.offset;
+        int length = stored.length;
+        Map.Entry<Integer, Integer> previous = free.lowerEntry(offset);
+        if (previous != null && previous.getKey() + previous.getValue() == offset) {
+            free.remove(previous.getKey());
+            offset = previous.getKey();
+            length += previous.getValue();
+        }
+        Integer next = free.get(offset + length);
+        if (next != null) {
+            free.remove(offset + length);
+            length += next;
+        }
+        free.put(offset, length);
+    }
+
+    private void allocateSlab() {
+        int index = freeRegions.size();
+        int size = (int) Math.min(slabSize, capacity - (long) index * slabSize);
+        try {
+            File file = File.createTempFile("tilecache", ".tiles", directory);
+            file.deleteOnExit();
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(size);
+                slabs[index] = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } finally {
+                // the mapping stays valid after the channel is closed
+                raf.close();
+            }
+            files[index] = file;
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to map the tile cache file", e);
+        }
+        TreeMap<Integer, Integer> free = new TreeMap<Integer, Integer>();
+        free.put(0, size);
+        freeRegions.add(free);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
@@ -0,0 +1,624 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.concurrent;
+
+import java.awt.Point;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Off-heap storage for the tiles evicted by a {@link ConcurrentTileCache}. The {@link DataBuffer} contents of each tile are copied into
+ * fixed size blocks carved out of large {@link ByteBuffer} slabs, which are either direct buffers or memory-mapped temporary files. This
+ * keeps the evicted tiles out of the Java heap, so that they do not add to the garbage collection work, and allows to cache more tiles than
+ * the heap could hold.
+ * <p>
+ * The store has its own capacity and is kept in LRU order: when there is not enough room for a new tile, the least recently stored tiles
+ * are discarded. A tile is removed from the store when it is read back, since the cache promotes it to the on-heap tier.
+ */
+public class OffHeapTileStore {
+
+    /** The default size of each slab (64 MB). */
+    public static final int DEFAULT_SLAB_SIZE = 64 * 1024 * 1024;
+
+    /** The default size of each block (64 KB). */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /** Receives the tiles discarded by the store without being requested */
+    interface DiscardListener {
+
+        void tileDiscarded(Object key, Object imageKey);
+    }
+
+    /** The stored tile, keeping the raster layout and the blocks holding its data */
+    static final class StoredTile {
+
+        final Object key;
+
+        final Object imageKey;
+
+        final WeakReference<RenderedImage> owner;
+
+        final int tileX;
+
+        final int tileY;
+
+        final Object tileCacheMetric;
+
+        final SampleModel sampleModel;
+
+        final int translateX;
+
+        final int translateY;
+
+        final int minX;
+
+        final int minY;
+
+        final int width;
+
+        final int height;
+
+        final int dataType;
+
+        final int numBanks;
+
+        final int bankSize;
+
+        final int[] blocks;
+
+        StoredTile(Object key, CachedTileImpl cti, RenderedImage owner, int[] blocks) {
+            Raster tile = cti.getTile();
+            DataBuffer db = tile.getDataBuffer();
+            this.key = key;
+            this.imageKey = cti.getImageKey();
+            this.owner = new WeakReference<RenderedImage>(owner);
+            this.tileX = cti.tileX;
+            this.tileY = cti.tileY;
+            this.tileCacheMetric = cti.getTileCacheMetric();
+            this.sampleModel = tile.getSampleModel();
+            this.translateX = tile.getSampleModelTranslateX();
+            this.translateY = tile.getSampleModelTranslateY();
+            this.minX = tile.getMinX();
+            this.minY = tile.getMinY();
+            this.width = tile.getWidth();
+            this.height = tile.getHeight();
+            this.dataType = db.getDataType();
+            this.numBanks = db.getNumBanks();
+            this.bankSize = db.getSize();
+            this.blocks = blocks;
+        }
+    }
+
+    /** Slabs used for storing the tiles, allocated when needed */
+    private final ByteBuffer[] slabs;
+
+    /** Directory of the memory-mapped slabs, null for direct slabs */
+    private final File directory;
+
+    /** Files backing the memory-mapped slabs */
+    private final File[] files;
+
+    private final int slabSize;
+
+    private final int blockSize;
+
+    private final int blocksPerSlab;
+
+    private final long capacity;
+
+    /** Stack of the free block indices */
+    private int[] freeBlocks;
+
+    private int freeCount;
+
+    /** Number of slabs already allocated */
+    private int allocatedSlabs;
+
+    /** The stored tiles, in access order */
+    private final LinkedHashMap<Object, StoredTile> tiles = new LinkedHashMap<Object, StoredTile>(
+            16, 0.75f, true);
+
+    private long memoryUsed;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    /** Notified of the evicted and stale tiles, it is called while holding the store lock */
+    private volatile DiscardListener discardListener;
+
+    /**
+     * Creates a store backed by direct buffers.
+     *
+     * @param capacity the maximum number of bytes to store
+     */
+    public OffHeapTileStore(long capacity) {
+        this(capacity, null, DEFAULT_SLAB_SIZE, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a store backed by memory-mapped temporary files inside the provided directory.
+     *
+     * @param capacity the maximum number of bytes to store
+     * @param directory the directory of the temporary files
+     */
+    public OffHeapTileStore(long capacity, File directory) {
+        this(capacity, directory, DEFAULT_SLAB_SIZE, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a store with the provided slab and block sizes.
+     *
+     * @param capacity the maximum number of bytes to store
+     * @param directory the directory of the memory-mapped temporary files, or null for using direct buffers
+     * @param slabSize the size of each slab
+     * @param blockSize the size of each block, it must be a multiple of 8 and must divide the slab size
+     */
+    public OffHeapTileStore(long capacity, File directory, int slabSize, int blockSize) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Memory capacity too small");
+        }
+        if (blockSize <= 0 || blockSize % 8 != 0 || slabSize < blockSize
+                || slabSize % blockSize != 0) {
+            throw new IllegalArgumentException("Block size must be a multiple of 8 dividing the slab size");
+        }
+        if (directory != null && !directory.isDirectory()) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        this.directory = directory;
+        this.slabSize = slabSize;
+        this.blockSize = blockSize;
+        this.blocksPerSlab = slabSize / blockSize;
+        long totalBlocks = capacity / blockSize;
+        if (totalBlocks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Memory capacity too big for the block size");
+        }
+        this.capacity = totalBlocks * blockSize;
+        int numSlabs = (int) ((totalBlocks + blocksPerSlab - 1) / blocksPerSlab);
+        this.slabs = new ByteBuffer[numSlabs];
+        this.files = new File[numSlabs];
+        this.freeBlocks = new int[0];
+    }
+
+    /**
+     * Copies the tile data off-heap, discarding the least recently stored tiles if needed. Tiles bigger than the store capacity, or whose
+     * owner has been collected, are ignored.
+     *
+     * @return true if the tile has been stored
+     */
+    public boolean put(Object key, CachedTileImpl cti) {
+        RenderedImage owner = cti.getOwner();
+        if (owner == null) {
+            return false;
+        }
+        DataBuffer db = cti.getTile().getDataBuffer();
+        int elementSize = DataBuffer.getDataTypeSize(db.getDataType()) / 8;
+        long bytes = (long) elementSize * db.getSize() * db.getNumBanks();
+        if (bytes > capacity) {
+            return false;
+        }
+        int numBlocks = (int) ((bytes + blockSize - 1) / blockSize);
+        int[] blocks;
+        synchronized (this) {
+            // A tile already stored with the same key is stale
+            release(tiles.remove(key));
+            blocks = allocate(numBlocks);
+            if (blocks == null) {
+                return false;
+            }
+        }
+        StoredTile stored = new StoredTile(key, cti, owner, blocks);
+        // Data copy is done outside the lock, the blocks are not visible to other threads yet
+        write(db, stored);
+        synchronized (this) {
+            release(tiles.put(key, stored));
+            memoryUsed += (long) numBlocks * blockSize;
+        }
+        return true;
+    }
+
+    /**
+     * Removes the tile from the store and returns it, rebuilding its raster on the heap.
+     *
+     * @return the tile, or null if it is not stored or its owner is not the provided one
+     */
+    public CachedTileImpl remove(Object key, RenderedImage owner) {
+        StoredTile stored;
+        synchronized (this) {
+            stored = tiles.get(key);
+            if (stored == null || stored.owner.get() != owner) {
+                if (stored != null && stored.owner.get() == null) {
+                    // the owner has been collected, the tile cannot be used anymore
+                    release(tiles.remove(key));
+                    discarded(stored);
+                }
+                missCount++;
+                return null;
+            }
+            tiles.remove(key);
+            hitCount++;
+        }
+        try {
+            WritableRaster raster = read(stored);
+            return new CachedTileImpl(owner, stored.tileX, stored.tileY, raster,
+                    stored.tileCacheMetric);
+        } finally {
+            synchronized (this) {
+                release(stored);
+            }
+        }
+    }
+
+    /** Discards the tile, if stored */
+    public synchronized void remove(Object key) {
+        release(tiles.remove(key));
+    }
+
+    /** Returns true if a tile is stored under the provided key */
+    public synchronized boolean contains(Object key) {
+        return tiles.containsKey(key);
+    }
+
+    /** Discards all the stored tiles, keeping the slabs for later use */
+    public synchronized void clear() {
+        Iterator<StoredTile> it = tiles.values().iterator();
+        while (it.hasNext()) {
+            release(it.next());
+            it.remove();
+        }
+    }
+
+    /** Discards all the stored tiles and releases the slabs. It must not be called while the store is still in use. */
+    public synchronized void dispose() {
+        clear();
+        for (int i = 0; i < allocatedSlabs; i++) {
+            slabs[i] = null;
+            if (files[i] != null) {
+                files[i].delete();
+                files[i] = null;
+            }
+        }
+        allocatedSlabs = 0;
+        freeBlocks = new int[0];
+        freeCount = 0;
+    }
+
+    /** Retrieves the store capacity in bytes */
+    public long getMemoryCapacity() {
+        return capacity;
+    }
+
+    /** Retrieves the bytes used by the stored tiles */
+    public synchronized long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    /** Retrieves the number of stored tiles */
+    public synchronized long getTileCount() {
+        return tiles.size();
+    }
+
+    /** Retrieves the number of tiles read back from the store */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /** Retrieves the number of requests for tiles not in the store */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /** Retrieves the number of tiles discarded for making room to new ones */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Returns true if the slabs are memory-mapped files */
+    public boolean isMemoryMapped() {
+        return directory != null;
+    }
+
+    /** Sets the listener of the evicted and stale tiles */
+    void setDiscardListener(DiscardListener listener) {
+        this.discardListener = listener;
+    }
+
+    private void discarded(StoredTile stored) {
+        DiscardListener listener = discardListener;
+        if (listener != null) {
+            listener.tileDiscarded(stored.key, stored.imageKey);
+        }
+    }
+
+    /** Takes the requested number of blocks from the free ones, evicting the eldest tiles if needed */
+    private int[] allocate(int numBlocks) {
+        while (freeCount < numBlocks) {
+            if (allocatedSlabs < slabs.length) {
+                allocateSlab();
+            } else if (!tiles.isEmpty()) {
+                Iterator<StoredTile> it = tiles.values().iterator();
+                StoredTile eldest = it.next();
+                it.remove();
+                release(eldest);
+                discarded(eldest);
+                evictionCount++;
+            } else {
+                // Remaining blocks are being read or written by other threads
+                return null;
+            }
+        }
+        int[] blocks = new int[numBlocks];
+        for (int i = 0; i < numBlocks; i++) {
+            blocks[i] = freeBlocks[--freeCount];
+        }
+        return blocks;
+    }
+
+    /** Gives the blocks of the tile back to the free ones */
+    private void release(StoredTile stored) {
+        if (stored == null) {
+            return;
+        }
+        for (int block : stored.blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+        memoryUsed -= (long) stored.blocks.length * blockSize;
+    }
+
+    private void allocateSlab() {
+        int index = allocatedSlabs;
+        long remaining = capacity - (long) index * slabSize;
+        int size = (int) Math.min(slabSize, remaining);
+        ByteBuffer slab;
+        if (directory == null) {
+            slab = ByteBuffer.allocateDirect(size);
+        } else {
+            try {
+                File file = File.createTempFile("tilecache", ".slab", directory);
+                file.deleteOnExit();
+                RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                try {
+                    raf.setLength(size);
+                    slab = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+                } finally {
+                    // the mapping stays valid after the channel is closed
+                    raf.close();
+                }
+                files[index] = file;
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to map the tile cache slab", e);
+            }
+        }
+        slabs[index] = slab;
+        allocatedSlabs++;
+
+        int blocks = size / blockSize;
+        if (freeBlocks.length < freeCount + blocks) {
+            int[] newFree = new int[freeCount + blocks];
+            System.arraycopy(freeBlocks, 0, newFree, 0, freeCount);
+            freeBlocks = newFree;
+        }
+        // pushed in reverse order so that the first blocks are taken first
+        int first = index * blocksPerSlab;
+        for (int i = blocks - 1; i >= 0; i--) {
+            freeBlocks[freeCount++] = first + i;
+        }
+    }
+
+    /** Returns a view of the block portion starting at the provided byte offset */
+    private ByteBuffer view(int block, int offset, int length) {
+        ByteBuffer slab = slabs[block / blocksPerSlab].duplicate();
+        int start = (block % blocksPerSlab) * blockSize + offset;
+        slab.limit(start + length);
+        slab.position(start);
+        return slab.slice().order(ByteOrder.nativeOrder());
+    }
+
+    private void write(DataBuffer db, StoredTile stored) {
+        transfer(db, null, stored);
+    }
+
+    private WritableRaster read(StoredTile stored) {
+        DataBuffer db = createDataBuffer(stored.dataType, stored.bankSize, stored.numBanks);
+        transfer(null, db, stored);
+        return createRaster(stored.sampleModel, db, stored.translateX, stored.translateY,
+                stored.minX, stored.minY, stored.width, stored.height);
+    }
+
+    /** Creates a standard data buffer of the provided type, with empty banks */
+    static DataBuffer createDataBuffer(int dataType, int size, int banks) {
+        switch (dataType) {
+        case DataBuffer.TYPE_BYTE:
+            return new DataBufferByte(new byte[banks][size], size);
+        case DataBuffer.TYPE_USHORT:
+            return new DataBufferUShort(new short[banks][size], size);
+        case DataBuffer.TYPE_SHORT:
+            return new DataBufferShort(new short[banks][size], size);
+        case DataBuffer.TYPE_INT:
+            return new DataBufferInt(new int[banks][size], size);
+        case DataBuffer.TYPE_FLOAT:
+            return new DataBufferFloat(new float[banks][size], size);
+        case DataBuffer.TYPE_DOUBLE:
+            return new DataBufferDouble(new double[banks][size], size);
+        default:
+            throw new IllegalArgumentException("Wrong data type");
+        }
+    }
+
+    /** Rebuilds a stored tile raster over the provided data buffer */
+    static WritableRaster createRaster(SampleModel sampleModel, DataBuffer db, int translateX,
+            int translateY, int minX, int minY, int width, int height) {
+        WritableRaster raster = Raster.createWritableRaster(sampleModel, db, new Point(
+                translateX, translateY));
+        if (raster.getMinX() != minX || raster.getMinY() != minY
+                || raster.getWidth() != width || raster.getHeight() != height) {
+            raster = raster.createWritableChild(minX, minY, width, height, minX, minY, null);
+        }
+        return raster;
+    }
+
+    /**
+     * Copies the banks of the source buffer into the tile blocks when writing, or the tile blocks into the banks of the destination buffer
+     * when reading. The bank elements are stored one after the other, starting from the buffer offsets.
+     */
+    private void transfer(DataBuffer src, DataBuffer dst, StoredTile stored) {
+        DataBuffer db = src != null ? src : dst;
+        int elementSize = DataBuffer.getDataTypeSize(stored.dataType) / 8;
+        int perBlock = blockSize / elementSize;
+        long position = 0;
+        for (int bank = 0; bank < stored.numBanks; bank++) {
+            Object array = bankData(db, bank);
+            int offset = array != null ? db.getOffsets()[bank] : 0;
+            if (array == null) {
+                // Not a standard buffer, go through a temporary array
+                array = copyBank(src, bank, stored.bankSize, stored.dataType);
+            }
+            int done = 0;
+            while (done < stored.bankSize) {
+                int block = (int) (position / perBlock);
+                int inBlock = (int) (position % perBlock);
+                int n = Math.min(stored.bankSize - done, perBlock - inBlock);
+                ByteBuffer view = view(stored.blocks[block], inBlock * elementSize, n
+                        * elementSize);
+                copy(view, array, offset + done, n, stored.dataType, src != null);
+                done += n;
+                position += n;
+            }
+        }
+    }
+
+    /** Returns the bank array of the standard data buffers, null otherwise */
+    static Object bankData(DataBuffer db, int bank) {
+        if (db instanceof DataBufferByte) {
+            return ((DataBufferByte) db).getData(bank);
+        } else if (db instanceof DataBufferUShort) {
+            return ((DataBufferUShort) db).getData(bank);
+        } else if (db instanceof DataBufferShort) {
+            return ((DataBufferShort) db).getData(bank);
+        } else if (db instanceof DataBufferInt) {
+            return ((DataBufferInt) db).getData(bank);
+        } else if (db instanceof DataBufferFloat) {
+            return ((DataBufferFloat) db).getData(bank);
+        } else if (db instanceof DataBufferDouble) {
+            return ((DataBufferDouble) db).getData(bank);
+        }
+        return null;
+    }
+
+    /** Copies a bank of a non standard data buffer into a new array */
+    static Object copyBank(DataBuffer db, int bank, int size, int dataType) {
+        switch (dataType) {
+        case DataBuffer.TYPE_BYTE:
+            byte[] b = new byte[size];
+            for (int i = 0; i < size; i++) {
+                b[i] = (byte) db.getElem(bank, i);
+            }
+            return b;
+        case DataBuffer.TYPE_USHORT:
+        case DataBuffer.TYPE_SHORT:
+            short[] s = new short[size];
+            for (int i = 0; i < size; i++) {
+                s[i] = (short) db.getElem(bank, i);
+            }
+            return s;
+        case DataBuffer.TYPE_INT:
+            int[] n = new int[size];
+            for (int i = 0; i < size; i++) {
+                n[i] = db.getElem(bank, i);
+            }
+            return n;
+        case DataBuffer.TYPE_FLOAT:
+            float[] f = new float[size];
+            for (int i = 0; i < size; i++) {
+                f[i] = db.getElemFloat(bank, i);
+            }
+            return f;
+        case DataBuffer.TYPE_DOUBLE:
+            double[] d = new double[size];
+            for (int i = 0; i < size; i++) {
+                d[i] = db.getElemDouble(bank, i);
+            }
+            return d;
+        default:
+            throw new IllegalArgumentException("Wrong data type");
+        }
+    }
+
+    static void copy(ByteBuffer view, Object array, int offset, int length,
+            int dataType, boolean write) {
+        switch (dataType) {
+        case DataBuffer.TYPE_BYTE:
+            if (write) {
+                view.put((byte[]) array, offset, length);
+            } else {
+                view.get((byte[]) array, offset, length);
+            }
+            break;
+        case DataBuffer.TYPE_USHORT:
+        case DataBuffer.TYPE_SHORT:
+            if (write) {
+                view.asShortBuffer().put((short[]) array, offset, length);
+            } else {
+                view.asShortBuffer().get((short[]) array, offset, length);
+            }
+            break;
+        case DataBuffer.TYPE_INT:
+            if (write) {
+                view.asIntBuffer().put((int[]) array, offset, length);
+            } else {
+                view.asIntBuffer().get((int[]) array, offset, length);
+            }
+            break;
+        case DataBuffer.TYPE_FLOAT:
+            if (write) {
+                view.asFloatBuffer().put((float[]) array, offset, length);
+            } else {
+                view.asFloatBuffer().get((float[]) array, offset, length);
+            }
+            break;
+        case DataBuffer.TYPE_DOUBLE:
+            if (write) {
+                view.asDoubleBuffer().put((double[]) array, offset, length);
+            } else {
+                view.asDoubleBuffer().get((double[]) array, offset, length);
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("Wrong data type");
+        }
+    }
+}
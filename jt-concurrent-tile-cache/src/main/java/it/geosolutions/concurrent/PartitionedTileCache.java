@@ -0,0 +1,408 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.Point;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.media.jai.TileCache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sun.media.jai.util.CacheDiagnostics;
+
+/**
+ * Tile cache split in named partitions, each one a {@link ConcurrentTileCache} with its own memory capacity and {@link TileCacheMetrics}, so
+ * that the images of a partition cannot evict the tiles of the others. A {@link TilePartitionResolver} selects the partition of each image,
+ * the images resolved to a missing partition go to the default one.
+ * <p>
+ * The memory capacity and threshold getters and setters of the {@link TileCache} interface refer to the default partition, except
+ * {@link #setMemoryThreshold(float)} which is applied to all of them.
+ * 
+ * @since 1.1
+ */
+public class PartitionedTileCache implements SingleFlightTileCache, CacheDiagnostics {
+
+    /** Name of the default partition */
+    public static final String DEFAULT_PARTITION = "default";
+
+    /** A partition of the cache */
+    private static final class Partition {
+
+        final String name;
+
+        final ConcurrentTileCache cache;
+
+        final TileCacheMetrics metrics;
+
+        volatile boolean removed;
+
+        Partition(String name, ConcurrentTileCache cache, TileCacheMetrics metrics) {
+            this.name = name;
+            this.cache = cache;
+            this.metrics = metrics;
+        }
+    }
+
+    private final TilePartitionResolver resolver;
+
+    private final ConcurrentHashMap<String, Partition> partitions = new ConcurrentHashMap<String, Partition>();
+
+    private final Partition defaultPartition;
+
+    /** The prefetcher set on the partitions */
+    private volatile TilePrefetcher prefetcher;
+
+    /** The partition of each image, compared by identity and weakly referenced */
+    private final Cache<RenderedImage, Partition> resolved = CacheBuilder.newBuilder()
+            .weakKeys().build();
+
+    public PartitionedTileCache(TilePartitionResolver resolver) {
+        this(ConcurrentTileCache.DEFAULT_MEMORY_CACHE, resolver);
+    }
+
+    /**
+     * @param defaultCapacity the memory capacity of the default partition
+     * @param resolver the resolver of the image partitions
+     */
+    public PartitionedTileCache(long defaultCapacity, TilePartitionResolver resolver) {
+        if (resolver == null) {
+            throw new IllegalArgumentException("Partition resolver should not be null");
+        }
+        this.resolver = resolver;
+        defaultPartition = createPartition(DEFAULT_PARTITION, new ConcurrentTileCache(
+                defaultCapacity, ConcurrentTileCache.DEFAULT_DIAGNOSTIC,
+                ConcurrentTileCache.DEFAULT_MEMORY_THRESHOLD,
+                ConcurrentTileCache.DEFAULT_CONCURRENCY_LEVEL));
+        partitions.put(DEFAULT_PARTITION, defaultPartition);
+    }
+
+    /**
+     * Adds a partition with the given memory capacity.
+     * 
+     * @return the cache of the partition, which can be further configured
+     */
+    public ConcurrentTileCache addPartition(String name, long capacity) {
+        ConcurrentTileCache cache = new ConcurrentTileCache(capacity,
+                ConcurrentTileCache.DEFAULT_DIAGNOSTIC, getMemoryThreshold(),
+                ConcurrentTileCache.DEFAULT_CONCURRENCY_LEVEL);
+        addPartition(name, cache);
+        return cache;
+    }
+
+    /**
+     * Adds a partition using the given cache. A {@link TileCacheMetrics} registry is set on the cache, flushing it, unless it already has one.
+     * The tiles of the images resolved to the new partition that are already cached in the default one stay there until evicted.
+     */
+    public void addPartition(String name, ConcurrentTileCache cache) {
+        if (name == null || cache == null) {
+            throw new IllegalArgumentException("Partition name and cache should not be null");
+        }
+        if (prefetcher != null && cache.getPrefetcher() == null) {
+            cache.setPrefetcher(prefetcher);
+        }
+        if (partitions.putIfAbsent(name, createPartition(name, cache)) != null) {
+            throw new IllegalArgumentException("Partition " + name + " already exists");
+        }
+        // the images resolved to the default partition may belong to the new one
+        resolved.invalidateAll();
+    }
+
+    private static Partition createPartition(String name, ConcurrentTileCache cache) {
+        TileCacheMetricsRegistry registry = cache.getMetricsRegistry();
+        TileCacheMetrics metrics;
+        if (registry instanceof TileCacheMetrics) {
+            metrics = (TileCacheMetrics) registry;
+        } else {
+            metrics = new TileCacheMetrics();
+            cache.setMetricsRegistry(metrics);
+        }
+        return new Partition(name, cache, metrics);
+    }
+
+    /** Removes the partition, flushing its tiles. The default partition cannot be removed. */
+    public void removePartition(String name) {
+        if (DEFAULT_PARTITION.equals(name)) {
+            throw new IllegalArgumentException("The default partition cannot be removed");
+        }
+        Partition partition = partitions.remove(name);
+        if (partition != null) {
+            partition.removed = true;
+            resolved.invalidateAll();
+            partition.cache.flush();
+        }
+    }
+
+    /** Retrieve the cache of the partition, null if missing */
+    public ConcurrentTileCache getPartition(String name) {
+        Partition partition = partitions.get(name);
+        return partition == null ? null : partition.cache;
+    }
+
+    /** Retrieve the metrics of the partition, null if missing */
+    public TileCacheMetrics getMetrics(String name) {
+        Partition partition = partitions.get(name);
+        return partition == null ? null : partition.metrics;
+    }
+
+    /** Retrieve the names of the partitions */
+    public Set<String> getPartitionNames() {
+        return Collections.unmodifiableSet(new TreeSet<String>(partitions.keySet()));
+    }
+
+    /** Retrieve the name of the partition keeping the tiles of the image */
+    public String getPartitionName(RenderedImage owner) {
+        return partition(owner).name;
+    }
+
+    /** Retrieve the partition of the image, resolving it on the first use */
+    private Partition partition(RenderedImage owner) {
+        Partition partition = resolved.getIfPresent(owner);
+        if (partition == null || partition.removed) {
+            String name = resolver.getPartition(owner);
+            partition = name == null ? null : partitions.get(name);
+            if (partition == null) {
+                partition = defaultPartition;
+            }
+            resolved.put(owner, partition);
+        }
+        return partition;
+    }
+
+    /** Add a new tile to the cache */
+    public void add(RenderedImage owner, int tileX, int tileY, Raster data) {
+        partition(owner).cache.add(owner, tileX, tileY, data);
+    }
+
+    /** Add a new tile to the cache */
+    public void add(RenderedImage owner, int tileX, int tileY, Raster data,
+            Object tileCacheMetric) {
+        partition(owner).cache.add(owner, tileX, tileY, data, tileCacheMetric);
+    }
+
+    /** Removes the selected tile from the cache */
+    public void remove(RenderedImage owner, int tileX, int tileY) {
+        partition(owner).cache.remove(owner, tileX, tileY);
+    }
+
+    /** Retrieves the selected tile from the cache */
+    public Raster getTile(RenderedImage owner, int tileX, int tileY) {
+        return partition(owner).cache.getTile(owner, tileX, tileY);
+    }
+
+    /**
+     * Returns the tile from the cache, or computes it with the loader and adds it to the cache. Concurrent calls for the same tile wait for
+     * the computation already in progress instead of repeating it.
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader) {
+        return partition(owner).cache.computeIfAbsent(owner, tileX, tileY, loader);
+    }
+
+    /** Same as {@link #computeIfAbsent(RenderedImage, int, int, TileLoader)}, adding the computed tile with the metric */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader,
+            Object tileCacheMetric) {
+        return partition(owner).cache.computeIfAbsent(owner, tileX, tileY, loader,
+                tileCacheMetric);
+    }
+
+    /** Schedules the background computation of the image tiles not yet cached in its partition */
+    public int prefetch(RenderedImage owner, Point[] tileIndices) {
+        return partition(owner).cache.prefetch(owner, tileIndices);
+    }
+
+    /** Checks if the tile is cached in its partition */
+    public boolean containsTile(RenderedImage owner, int tileX, int tileY) {
+        return partition(owner).cache.containsTile(owner, tileX, tileY);
+    }
+
+    /** Checks if the tile is being computed in its partition */
+    public boolean isInFlight(RenderedImage owner, int tileX, int tileY) {
+        return partition(owner).cache.isInFlight(owner, tileX, tileY);
+    }
+
+    /** Sets the prefetcher of all the partitions, including the ones added later */
+    public void setPrefetcher(TilePrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+        for (Partition partition : partitions.values()) {
+            partition.cache.setPrefetcher(prefetcher);
+        }
+    }
+
+    /** Retrieve the prefetcher of the partitions, null if not set */
+    public TilePrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    /** Retrieves all the tiles in the cache which are owned by the image */
+    public Raster[] getTiles(RenderedImage owner) {
+        return partition(owner).cache.getTiles(owner);
+    }
+
+    /** Removes all tiles in the cache which are owned by the image */
+    public void removeTiles(RenderedImage owner) {
+        partition(owner).cache.removeTiles(owner);
+    }
+
+    /** Adds all tiles in the Point array which are owned by the image */
+    public void addTiles(RenderedImage owner, Point[] tileIndices, Raster[] tiles,
+            Object tileCacheMetric) {
+        partition(owner).cache.addTiles(owner, tileIndices, tiles, tileCacheMetric);
+    }
+
+    /** Retrieves the tiles in the Point array which are owned by the image */
+    public Raster[] getTiles(RenderedImage owner, Point[] tileIndices) {
+        return partition(owner).cache.getTiles(owner, tileIndices);
+    }
+
+    /** Removes all tiles present in all the partitions */
+    public void flush() {
+        for (Partition partition : partitions.values()) {
+            partition.cache.flush();
+        }
+    }
+
+    /**
+     * Not Supported
+     * 
+     * @throws UnsupportedOperationException
+     */
+    public void memoryControl() {
+        throw new UnsupportedOperationException("Memory Control not supported");
+    }
+
+    /**
+     * Not Supported
+     * 
+     * @throws UnsupportedOperationException
+     */
+    public void setTileCapacity(int tileCapacity) {
+        throw new UnsupportedOperationException("Deprecated Operation");
+    }
+
+    /**
+     * Not Supported
+     * 
+     * @throws UnsupportedOperationException
+     */
+    public int getTileCapacity() {
+        throw new UnsupportedOperationException("Deprecated Operation");
+    }
+
+    /** Sets the memory capacity of the default partition and then flush and rebuild it */
+    public void setMemoryCapacity(long memoryCacheCapacity) {
+        defaultPartition.cache.setMemoryCapacity(memoryCacheCapacity);
+    }
+
+    /** Retrieve the memory capacity of the default partition */
+    public long getMemoryCapacity() {
+        return defaultPartition.cache.getMemoryCapacity();
+    }
+
+    /** Sets the memory threshold of all the partitions, flushing them */
+    public void setMemoryThreshold(float mt) {
+        for (Partition partition : partitions.values()) {
+            partition.cache.setMemoryThreshold(mt);
+        }
+    }
+
+    /** Retrieve the memory threshold of the default partition */
+    public float getMemoryThreshold() {
+        return defaultPartition.cache.getMemoryThreshold();
+    }
+
+    /**
+     * Not Supported
+     * 
+     * @throws UnsupportedOperationException
+     */
+    public void setTileComparator(Comparator comparator) {
+        throw new UnsupportedOperationException("Comparator not supported");
+    }
+
+    /**
+     * Not Supported
+     * 
+     * @throws UnsupportedOperationException
+     */
+    public Comparator getTileComparator() {
+        throw new UnsupportedOperationException("Comparator not supported");
+    }
+
+    /** Disables the diagnostics of all the partitions */
+    public void disableDiagnostics() {
+        for (Partition partition : partitions.values()) {
+            partition.cache.disableDiagnostics();
+        }
+    }
+
+    /** Enables the diagnostics of all the partitions */
+    public void enableDiagnostics() {
+        for (Partition partition : partitions.values()) {
+            partition.cache.enableDiagnostics();
+        }
+    }
+
+    /** Retrieves the hit count of all the partitions */
+    public long getCacheHitCount() {
+        long count = 0;
+        for (Partition partition : partitions.values()) {
+            count += partition.metrics.getHitCount();
+        }
+        return count;
+    }
+
+    /** Retrieves the memory size of all the partitions */
+    public long getCacheMemoryUsed() {
+        long memory = 0;
+        for (Partition partition : partitions.values()) {
+            memory += partition.metrics.getMemoryUsed();
+        }
+        return memory;
+    }
+
+    /** Retrieves the miss count of all the partitions */
+    public long getCacheMissCount() {
+        long count = 0;
+        for (Partition partition : partitions.values()) {
+            count += partition.metrics.getMissCount();
+        }
+        return count;
+    }
+
+    /** Retrieves the number of tiles in all the partitions */
+    public long getCacheTileCount() {
+        long count = 0;
+        for (Partition partition : partitions.values()) {
+            count += partition.cache.getCacheTileCount();
+        }
+        return count;
+    }
+
+    /** Resets the hit and miss counts of all the partitions */
+    public void resetCounts() {
+        for (Partition partition : partitions.values()) {
+            partition.metrics.resetCounts();
+        }
+    }
+}
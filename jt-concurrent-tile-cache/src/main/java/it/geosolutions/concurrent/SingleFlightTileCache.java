@@ -0,0 +1,51 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+
+import javax.media.jai.TileCache;
+
+/**
+ * A {@link TileCache} able to compute its missing tiles, so that an operation asking for the same tile from several threads computes it
+ * only once.
+ * 
+ * @since 1.1
+ */
+public interface SingleFlightTileCache extends TileCache {
+
+    /**
+     * Returns the tile from the cache, or computes it with the loader and adds it to the cache. Concurrent calls for the same tile wait for
+     * the computation already in progress instead of repeating it.
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader);
+
+    /**
+     * Same as {@link #computeIfAbsent(RenderedImage, int, int, TileLoader)}, adding the computed tile with the metric, as done by
+     * {@link TileCache#add(RenderedImage, int, int, java.awt.image.Raster, Object)}.
+     */
+    public Raster computeIfAbsent(RenderedImage owner, int tileX, int tileY, TileLoader loader,
+            Object tileCacheMetric);
+
+    /** Checks if the tile is cached, without updating the cache statistics and access order */
+    public boolean containsTile(RenderedImage owner, int tileX, int tileY);
+
+    /** Checks if the tile is being computed through <code>computeIfAbsent</code> */
+    public boolean isInFlight(RenderedImage owner, int tileX, int tileY);
+}
@@ -0,0 +1,241 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.RenderedImage;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.google.common.cache.RemovalCause;
+
+/**
+ * {@link TileCacheMetricsRegistry} collecting the tile cache metrics on striped counters, so that the cache threads do not contend on them.
+ * The metrics are kept for each operation owning the tiles, and can be published as a JMX MBean with {@link #register(String)}.
+ * 
+ * @since 1.1
+ */
+public class TileCacheMetrics implements TileCacheMetricsRegistry, TileCacheMetricsMXBean {
+
+    /** Name of the image property holding the operation name, see {@link TilePartitionResolvers#setOperationProperties} */
+    public static final String OPERATION_NAME_PROPERTY = "TileCacheOperationName";
+
+    /** The JMX domain of the registered metrics */
+    public static final String JMX_DOMAIN = "it.geosolutions.concurrent";
+
+    private static final RemovalCause[] CAUSES = RemovalCause.values();
+
+    /** Cache of the operation names of the image classes */
+    private static final ClassValue<String> CLASS_NAMES = new ClassValue<String>() {
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            return name.isEmpty() ? type.getName() : name;
+        }
+    };
+
+    /** Counters of an operation */
+    private static final class Counters {
+
+        final LongAdder hits = new LongAdder();
+
+        final LongAdder misses = new LongAdder();
+
+        final LongAdder memory = new LongAdder();
+
+        final LongAdder tiles = new LongAdder();
+
+        final LongAdder computeTime = new LongAdder();
+    }
+
+    private final ConcurrentHashMap<String, Counters> operations = new ConcurrentHashMap<String, Counters>();
+
+    private final LongAdder[] removals = new LongAdder[CAUSES.length];
+
+    private ObjectName objectName;
+
+    public TileCacheMetrics() {
+        for (int i = 0; i < removals.length; i++) {
+            removals[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the name used for the metrics of the image tiles: the {@link #OPERATION_NAME_PROPERTY} of the image when set, the simple class
+     * name otherwise (e.g. MosaicOpImage).
+     */
+    public static String operationName(RenderedImage owner) {
+        if (owner == null) {
+            return "unknown";
+        }
+        Object name = owner.getProperty(OPERATION_NAME_PROPERTY);
+        return name instanceof String ? (String) name : CLASS_NAMES.get(owner.getClass());
+    }
+
+    public void recordHit(String operation, long computeCost) {
+        Counters counters = counters(operation);
+        counters.hits.increment();
+        if (computeCost > 0) {
+            counters.computeTime.add(computeCost);
+        }
+    }
+
+    public void recordMiss(String operation) {
+        counters(operation).misses.increment();
+    }
+
+    public void recordAdd(String operation, long tileSize) {
+        Counters counters = counters(operation);
+        counters.tiles.increment();
+        counters.memory.add(tileSize);
+    }
+
+    public void recordRemoval(String operation, long tileSize, RemovalCause cause) {
+        Counters counters = counters(operation);
+        counters.tiles.decrement();
+        counters.memory.add(-tileSize);
+        removals[cause.ordinal()].increment();
+    }
+
+    private Counters counters(String operation) {
+        Counters counters = operations.get(operation);
+        if (counters == null) {
+            counters = new Counters();
+            Counters previous = operations.putIfAbsent(operation, counters);
+            if (previous != null) {
+                counters = previous;
+            }
+        }
+        return counters;
+    }
+
+    public long getHitCount() {
+        long sum = 0;
+        for (Counters counters : operations.values()) {
+            sum += counters.hits.sum();
+        }
+        return sum;
+    }
+
+    public long getMissCount() {
+        long sum = 0;
+        for (Counters counters : operations.values()) {
+            sum += counters.misses.sum();
+        }
+        return sum;
+    }
+
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    public long getMemoryUsed() {
+        long sum = 0;
+        for (Counters counters : operations.values()) {
+            sum += counters.memory.sum();
+        }
+        return sum;
+    }
+
+    public long getTileCount() {
+        long sum = 0;
+        for (Counters counters : operations.values()) {
+            sum += counters.tiles.sum();
+        }
+        return sum;
+    }
+
+    public long getComputeTimeSaved() {
+        long sum = 0;
+        for (Counters counters : operations.values()) {
+            sum += counters.computeTime.sum();
+        }
+        return sum;
+    }
+
+    /** Returns the number of tiles removed for the cause, {@link RemovalCause#SIZE} for the evicted ones */
+    public long getRemovalCount(RemovalCause cause) {
+        return removals[cause.ordinal()].sum();
+    }
+
+    public Map<String, Long> getRemovalCounts() {
+        Map<String, Long> counts = new TreeMap<String, Long>();
+        for (RemovalCause cause : CAUSES) {
+            counts.put(cause.name(), removals[cause.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    public Map<String, TileCacheOperationStats> getOperationStats() {
+        Map<String, TileCacheOperationStats> stats = new TreeMap<String, TileCacheOperationStats>();
+        for (Entry<String, Counters> entry : operations.entrySet()) {
+            Counters counters = entry.getValue();
+            stats.put(entry.getKey(), new TileCacheOperationStats(counters.hits.sum(),
+                    counters.misses.sum(), counters.memory.sum(), counters.tiles.sum(),
+                    counters.computeTime.sum()));
+        }
+        return stats;
+    }
+
+    public void resetCounts() {
+        for (Counters counters : operations.values()) {
+            counters.hits.reset();
+            counters.misses.reset();
+            counters.computeTime.reset();
+        }
+        for (LongAdder removal : removals) {
+            removal.reset();
+        }
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, as <code>it.geosolutions.concurrent:type=TileCacheMetrics,name=&lt;name&gt;</code>.
+     * 
+     * @param name the name distinguishing the cache
+     * @return the name of the registered MBean
+     */
+    public synchronized ObjectName register(String name) throws JMException {
+        if (objectName != null) {
+            throw new IllegalStateException("Metrics already registered as " + objectName);
+        }
+        ObjectName on = new ObjectName(JMX_DOMAIN + ":type=TileCacheMetrics,name="
+                + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, on);
+        objectName = on;
+        return on;
+    }
+
+    /** Removes the metrics from the platform MBean server, if registered */
+    public synchronized void unregister() throws JMException {
+        if (objectName != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            objectName = null;
+        }
+    }
+}
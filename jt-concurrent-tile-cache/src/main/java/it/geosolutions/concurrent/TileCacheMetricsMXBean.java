@@ -0,0 +1,56 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.util.Map;
+
+/**
+ * JMX interface of {@link TileCacheMetrics}. The compute time is expressed in the unit of the tile cost, nanoseconds when measured by the
+ * cache.
+ * 
+ * @since 1.1
+ */
+public interface TileCacheMetricsMXBean {
+
+    /** Number of tiles found in the cache */
+    public long getHitCount();
+
+    /** Number of tiles not found in the cache */
+    public long getMissCount();
+
+    /** Ratio between the hits and the requests, 0 if no request has been done */
+    public double getHitRatio();
+
+    /** Memory of the cached tiles in bytes */
+    public long getMemoryUsed();
+
+    /** Number of cached tiles */
+    public long getTileCount();
+
+    /** Compute time saved by the cache hits */
+    public long getComputeTimeSaved();
+
+    /** Number of removed tiles for each removal cause */
+    public Map<String, Long> getRemovalCounts();
+
+    /** Statistics for each operation owning the tiles */
+    public Map<String, TileCacheOperationStats> getOperationStats();
+
+    /** Resets the hit, miss, compute time and removal counters, keeping the occupancy */
+    public void resetCounts();
+}
@@ -0,0 +1,61 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import com.google.common.cache.RemovalCause;
+
+/**
+ * Receives the events of a tile cache for metrics collection. The calls are done on the threads using the cache, so the implementations should
+ * only update counters. The operation is the name of the operation owning the tile, see {@link TileCacheMetrics#operationName}.
+ * 
+ * @since 1.1
+ */
+public interface TileCacheMetricsRegistry {
+
+    /**
+     * Records a tile found in the cache.
+     * 
+     * @param operation the name of the owner operation
+     * @param computeCost the cost of computing the tile, saved by the cache hit, or -1 if unknown
+     */
+    public void recordHit(String operation, long computeCost);
+
+    /**
+     * Records a tile not found in the cache.
+     * 
+     * @param operation the name of the owner operation
+     */
+    public void recordMiss(String operation);
+
+    /**
+     * Records a tile added to the cache.
+     * 
+     * @param operation the name of the owner operation
+     * @param tileSize the memory of the tile in bytes
+     */
+    public void recordAdd(String operation, long tileSize);
+
+    /**
+     * Records a tile removed from the cache.
+     * 
+     * @param operation the name of the owner operation
+     * @param tileSize the memory of the tile in bytes
+     * @param cause the removal cause, {@link RemovalCause#SIZE} for the evicted tiles
+     */
+    public void recordRemoval(String operation, long tileSize, RemovalCause cause);
+}
@@ -0,0 +1,81 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the tile cache statistics of an operation.
+ * 
+ * @since 1.1
+ */
+public final class TileCacheOperationStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long memoryUsed;
+
+    private final long tileCount;
+
+    private final long computeTimeSaved;
+
+    @ConstructorProperties({ "hitCount", "missCount", "memoryUsed", "tileCount",
+            "computeTimeSaved" })
+    public TileCacheOperationStats(long hitCount, long missCount, long memoryUsed,
+            long tileCount, long computeTimeSaved) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.memoryUsed = memoryUsed;
+        this.tileCount = tileCount;
+        this.computeTimeSaved = computeTimeSaved;
+    }
+
+    /** Number of tiles found in the cache */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Number of tiles not found in the cache */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Memory of the cached tiles in bytes */
+    public long getMemoryUsed() {
+        return memoryUsed;
+    }
+
+    /** Number of cached tiles */
+    public long getTileCount() {
+        return tileCount;
+    }
+
+    /** Compute time saved by the cache hits */
+    public long getComputeTimeSaved() {
+        return computeTimeSaved;
+    }
+
+    @Override
+    public String toString() {
+        return "TileCacheOperationStats[hits=" + hitCount + ", misses=" + missCount
+                + ", memory=" + memoryUsed + ", tiles=" + tileCount + ", computeTimeSaved="
+                + computeTimeSaved + "]";
+    }
+}
@@ -0,0 +1,73 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+/**
+ * Measures the compute cost of the tiles. JAI images compute a missing tile on the thread which missed it and then add it to the cache, so
+ * the cost is the time elapsed between the miss and the addition of the same tile on the same thread. The last misses of each thread are
+ * remembered, since computing a tile may miss the tiles of its sources in turn.
+ */
+final class TileComputeTimer {
+
+    private static final int SIZE = 8;
+
+    private static final class Misses {
+
+        final long[] keys = new long[SIZE];
+
+        /** Miss times, zero for the unused slots */
+        final long[] times = new long[SIZE];
+
+        int next;
+    }
+
+    private static final ThreadLocal<Misses> MISSES = new ThreadLocal<Misses>() {
+        @Override
+        protected Misses initialValue() {
+            return new Misses();
+        }
+    };
+
+    private TileComputeTimer() {
+    }
+
+    /** Records the miss of the tile on the current thread */
+    static void missed(long key) {
+        Misses misses = MISSES.get();
+        misses.keys[misses.next] = key;
+        misses.times[misses.next] = System.nanoTime();
+        misses.next = (misses.next + 1) % SIZE;
+    }
+
+    /**
+     * Returns the nanoseconds elapsed since the miss of the tile on the current thread.
+     * 
+     * @return the elapsed time, or -1 if the miss has not been recorded
+     */
+    static long elapsed(long key) {
+        Misses misses = MISSES.get();
+        for (int i = 0; i < SIZE; i++) {
+            if (misses.times[i] != 0 && misses.keys[i] == key) {
+                long elapsed = System.nanoTime() - misses.times[i];
+                misses.times[i] = 0;
+                return Math.max(0, elapsed);
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,53 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+/**
+ * Policy selecting the tiles to evict from a concurrent tile cache. When a policy is set, the cache stops bounding its own weight: it reports
+ * the tiles added, accessed and removed to the policy, and after each addition evicts the tiles returned by {@link #evict()}.
+ * <p>
+ * Implementations must be thread safe. The same tile may be reported as removed after it has been returned by {@link #evict()}, and
+ * accesses may be dropped when the policy is busy.
+ */
+public interface TileEvictionPolicy {
+
+    /** Sets the maximum weight of the cached tiles, in bytes, and forgets all the tiles */
+    void reset(long maximumWeight);
+
+    /** Changes the maximum weight of the cached tiles, in bytes, keeping them. The tiles over it are returned by {@link #evict()} */
+    void setMaximumWeight(long maximumWeight);
+
+    /** Records a tile added to the cache */
+    void onAdd(CachedTileImpl tile);
+
+    /** Records a cache hit of the tile */
+    void onAccess(CachedTileImpl tile);
+
+    /** Records a tile removed from the cache for any other reason than its eviction */
+    void onRemove(CachedTileImpl tile);
+
+    /**
+     * Selects the next tile to evict, forgetting it.
+     * 
+     * @return the tile to evict, or null if the cached tiles fit within the maximum weight
+     */
+    CachedTileImpl evict();
+
+    /** Retrieves the weight of the tiles known to the policy */
+    long getWeightedSize();
+}
@@ -0,0 +1,36 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+
+/**
+ * Computes the tiles missing from a tile cache, see {@link SingleFlightTileCache#computeIfAbsent}.
+ * 
+ * @since 1.1
+ */
+public interface TileLoader {
+
+    /**
+     * Computes the tile of the image, typically calling the operation <code>computeTile</code>.
+     * 
+     * @return the computed tile, or null if it cannot be computed
+     */
+    public Raster loadTile(RenderedImage owner, int tileX, int tileY);
+}
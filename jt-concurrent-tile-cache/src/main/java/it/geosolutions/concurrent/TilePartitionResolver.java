@@ -0,0 +1,35 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.image.RenderedImage;
+
+/**
+ * Selects the partition of a {@link PartitionedTileCache} keeping the tiles of an image.
+ * 
+ * @see TilePartitionResolvers
+ * @since 1.1
+ */
+public interface TilePartitionResolver {
+
+    /**
+     * Returns the name of the partition for the tiles of the image, or null for the default partition. The result must not change during the
+     * image life, as it is remembered for each image.
+     */
+    public String getPartition(RenderedImage owner);
+}
@@ -0,0 +1,108 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.RenderedImage;
+
+import javax.media.jai.PlanarImage;
+
+/**
+ * Common {@link TilePartitionResolver} implementations.
+ * 
+ * @since 1.1
+ */
+public final class TilePartitionResolvers {
+
+    /** Name of the image property holding the rendering hints read by {@link #byRenderingHint(RenderingHints.Key)} */
+    public static final String RENDERING_HINTS_PROPERTY = "TileCacheRenderingHints";
+
+    private TilePartitionResolvers() {
+    }
+
+    /**
+     * Copies the operation name and the rendering hints to the properties of the image computing the operation tiles, where the metrics and
+     * the resolvers read them. JAI caches the tiles under the <code>OpImage</code> computing them, which knows neither, so this is meant to
+     * be called by the RIF on the image it creates.
+     */
+    public static void setOperationProperties(PlanarImage image, String operationName,
+            RenderingHints hints) {
+        if (image == null) {
+            throw new IllegalArgumentException("Image should not be null");
+        }
+        if (operationName != null) {
+            image.setProperty(TileCacheMetrics.OPERATION_NAME_PROPERTY, operationName);
+        }
+        if (hints != null) {
+            image.setProperty(RENDERING_HINTS_PROPERTY, hints.clone());
+        }
+    }
+
+    /**
+     * Resolves the partition from the operation name, as returned by {@link TileCacheMetrics#operationName(RenderedImage)}.
+     */
+    public static TilePartitionResolver byOperation() {
+        return new TilePartitionResolver() {
+            public String getPartition(RenderedImage owner) {
+                return TileCacheMetrics.operationName(owner);
+            }
+        };
+    }
+
+    /**
+     * Resolves the partition from an image property, e.g. the workspace set on the images built for a tenant. Images without the property
+     * go to the default partition.
+     */
+    public static TilePartitionResolver byProperty(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Property name should not be null");
+        }
+        return new TilePartitionResolver() {
+            public String getPartition(RenderedImage owner) {
+                return partition(owner.getProperty(name));
+            }
+        };
+    }
+
+    /**
+     * Resolves the partition from a rendering hint found in the {@link #RENDERING_HINTS_PROPERTY} of the owner, see
+     * {@link #setOperationProperties}. The other images, and the ones without the hint, go to the default partition.
+     */
+    public static TilePartitionResolver byRenderingHint(final RenderingHints.Key key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Rendering hint key should not be null");
+        }
+        return new TilePartitionResolver() {
+            public String getPartition(RenderedImage owner) {
+                Object hints = owner.getProperty(RENDERING_HINTS_PROPERTY);
+                if (hints instanceof RenderingHints) {
+                    return partition(((RenderingHints) hints).get(key));
+                }
+                return null;
+            }
+        };
+    }
+
+    private static String partition(Object value) {
+        if (value == null || value == Image.UndefinedProperty) {
+            return null;
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,238 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrent;
+
+import java.awt.Point;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.media.jai.TileCache;
+
+/**
+ * Computes tiles in background, before they are requested, so that they are found in the tile cache. The tiles are computed by calling
+ * <code>getTile</code> on their image, which caches them, on a bounded pool of low priority daemon threads. The requests exceeding the
+ * pool queue are dropped, as well as the ones for tiles already cached, scheduled or being computed. With a {@link SingleFlightTileCache}
+ * the computation goes through <code>computeIfAbsent</code>, so that a request of the tile waits for it instead of repeating it.
+ * <p>
+ * The same prefetcher can be shared among several caches, see {@link ConcurrentTileCache#setPrefetcher(TilePrefetcher)}.
+ * 
+ * @since 1.1
+ */
+public class TilePrefetcher {
+
+    /** The default number of the pending prefetch requests */
+    public static final int DEFAULT_QUEUE_SIZE = 256;
+
+    private final static Logger LOGGER = Logger.getLogger(TilePrefetcher.class.toString());
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    /** Computes the tiles through their image, which may cache them itself */
+    private static final TileLoader LOADER = new TileLoader() {
+        public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+            return owner.getTile(tileX, tileY);
+        }
+    };
+
+    /** A scheduled tile computation */
+    private final class Task implements Runnable {
+
+        final TileCache cache;
+
+        final WeakReference<RenderedImage> owner;
+
+        final Object imageKey;
+
+        final Long key;
+
+        final int tileX;
+
+        final int tileY;
+
+        volatile boolean cancelled;
+
+        Task(TileCache cache, RenderedImage owner, Long key, int tileX, int tileY) {
+            this.cache = cache;
+            this.owner = new WeakReference<RenderedImage>(owner);
+            this.imageKey = CachedTileImpl.hashKey(owner);
+            this.key = key;
+            this.tileX = tileX;
+            this.tileY = tileY;
+        }
+
+        public void run() {
+            try {
+                RenderedImage image = owner.get();
+                // the image may have been disposed or collected in the meantime
+                if (cancelled || image == null) {
+                    return;
+                }
+                if (cache instanceof SingleFlightTileCache) {
+                    ((SingleFlightTileCache) cache).computeIfAbsent(image, tileX, tileY, LOADER);
+                } else {
+                    image.getTile(tileX, tileY);
+                }
+            } catch (RuntimeException e) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Tile prefetch failed", e);
+                }
+            } finally {
+                pending.remove(key, this);
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+
+    /** The scheduled tiles, by primitive tile key */
+    private final ConcurrentHashMap<Long, Task> pending = new ConcurrentHashMap<Long, Task>();
+
+    public TilePrefetcher(int threads) {
+        this(threads, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * @param threads the number of prefetch threads
+     * @param queueSize the maximum number of pending requests
+     */
+    public TilePrefetcher(int threads, int queueSize) {
+        if (threads <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("Threads and queue size should be positive");
+        }
+        final String prefix = "TilePrefetcher-" + POOL_COUNT.incrementAndGet() + "-";
+        ThreadFactory factory = new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, prefix + count.incrementAndGet());
+                thread.setDaemon(true);
+                // the requested tiles come first
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueSize), factory);
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Schedules the computation of the image tiles, skipping the ones outside the image, already cached in the cache, already scheduled or
+     * being computed through the cache.
+     * 
+     * @param cache the cache of the image tiles
+     * @param owner the image
+     * @param tileIndices the indices of the tiles
+     * @return the number of the scheduled tiles
+     */
+    public int prefetch(TileCache cache, RenderedImage owner, Point[] tileIndices) {
+        if (owner == null || tileIndices == null) {
+            throw new IllegalArgumentException("Image and tile indices should not be null");
+        }
+        int scheduled = 0;
+        for (Point index : tileIndices) {
+            int tileX = index.x;
+            int tileY = index.y;
+            if (tileX < owner.getMinTileX() || tileY < owner.getMinTileY()
+                    || tileX >= owner.getMinTileX() + owner.getNumXTiles()
+                    || tileY >= owner.getMinTileY() + owner.getNumYTiles()) {
+                continue;
+            }
+            Long key = Long.valueOf(CachedTileImpl.tileKey(owner, tileX, tileY));
+            if (pending.containsKey(key) || isCachedOrInFlight(cache, owner, tileX, tileY)) {
+                continue;
+            }
+            Task task = new Task(cache, owner, key, tileX, tileY);
+            if (pending.putIfAbsent(key, task) != null) {
+                continue;
+            }
+            try {
+                executor.execute(task);
+                scheduled++;
+            } catch (RejectedExecutionException e) {
+                // queue full or shut down, the other requests would be dropped as well
+                pending.remove(key, task);
+                break;
+            }
+        }
+        return scheduled;
+    }
+
+    /** Checks the cache and the computations in progress through it without updating its statistics, when supported */
+    private static boolean isCachedOrInFlight(TileCache cache, RenderedImage owner, int tileX,
+            int tileY) {
+        if (cache instanceof SingleFlightTileCache) {
+            SingleFlightTileCache singleFlight = (SingleFlightTileCache) cache;
+            return singleFlight.containsTile(owner, tileX, tileY)
+                    || singleFlight.isInFlight(owner, tileX, tileY);
+        }
+        return false;
+    }
+
+    /** Cancels the pending requests for the image tiles, e.g. when the image is disposed */
+    public void cancel(RenderedImage owner) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Object imageKey = CachedTileImpl.hashKey(owner);
+        Iterator<Task> it = pending.values().iterator();
+        while (it.hasNext()) {
+            Task task = it.next();
+            if (task.imageKey.equals(imageKey)) {
+                cancel(task);
+                it.remove();
+            }
+        }
+    }
+
+    /** Cancels all the pending requests */
+    public void cancelAll() {
+        Iterator<Task> it = pending.values().iterator();
+        while (it.hasNext()) {
+            cancel(it.next());
+            it.remove();
+        }
+    }
+
+    private void cancel(Task task) {
+        task.cancelled = true;
+        executor.remove(task);
+    }
+
+    /** Retrieves the number of the scheduled tiles not yet computed */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /** Cancels the pending requests and stops the prefetch threads */
+    public void shutdown() {
+        cancelAll();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,155 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.AdaptiveCacheSizer;
+import it.geosolutions.concurrent.ConcurrentTileCacheMultiMap;
+import it.geosolutions.concurrent.CostAwareTinyLfuPolicy;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * This test class is used for checking that {@link AdaptiveCacheSizer} resizes the cache within its bounds, keeping the cached tiles.
+ */
+public class AdaptiveCacheSizerTest {
+
+    private static final int TILE_SIZE = 64;
+
+    private static final long TILE_MEMORY = TILE_SIZE * TILE_SIZE * 4L;
+
+    /** Image used as tile owner */
+    private final BufferedImage owner = new BufferedImage(TILE_SIZE * 64, TILE_SIZE,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    @Test
+    public void testResize() {
+        ConcurrentTileCacheMultiMap cache = createCache(TILE_MEMORY * 16);
+        // not started, the memory usage is driven by the test rather than by the collections
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(cache, TILE_MEMORY * 4,
+                TILE_MEMORY * 32);
+        for (int i = 0; i < 64; i++) {
+            cache.add(owner, i, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, i));
+        }
+        long tiles = cache.getCacheTileCount();
+        assertTrue(tiles > 8);
+        long cached = cache.getEvictionPolicy().getWeightedSize();
+
+        // Headroom: the cache grows to its content plus a quarter of the headroom (20 tiles),
+        // keeping its tiles
+        sizer.onMemoryUsage(TILE_MEMORY * 40, TILE_MEMORY * 100);
+        long grown = cached + TILE_MEMORY * 5;
+        assertEquals(grown, cache.getMemoryCapacity());
+        assertEquals(tiles, cache.getCacheTileCount());
+
+        // The same usage again: the growth does not compound
+        sizer.onMemoryUsage(TILE_MEMORY * 40, TILE_MEMORY * 100);
+        assertEquals(grown, cache.getMemoryCapacity());
+
+        // Memory pressure: the cache shrinks, evicting only the tiles over the new capacity
+        sizer.onMemoryUsage(TILE_MEMORY * 90, TILE_MEMORY * 100);
+        assertEquals(grown / 2, cache.getMemoryCapacity());
+        assertTrue(cache.getCacheTileCount() > 0);
+        assertTrue(cache.getEvictionPolicy().getWeightedSize() <= grown / 2);
+
+        for (int i = 0; i < 4; i++) {
+            sizer.onThresholdExceeded();
+        }
+        assertEquals(TILE_MEMORY * 4, cache.getMemoryCapacity());
+        assertTrue(cache.getCacheTileCount() > 0);
+        assertTrue(cache.getEvictionPolicy().getWeightedSize() <= TILE_MEMORY * 4);
+
+        // No change between the low and the high usage
+        sizer.onMemoryUsage(TILE_MEMORY * 70, TILE_MEMORY * 100);
+        assertEquals(TILE_MEMORY * 4, cache.getMemoryCapacity());
+    }
+
+    @Test
+    public void testNoGrowthWhenNotFilled() {
+        ConcurrentTileCacheMultiMap cache = createCache(TILE_MEMORY * 16);
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(cache, TILE_MEMORY * 4,
+                TILE_MEMORY * 32);
+        for (int i = 0; i < 4; i++) {
+            cache.add(owner, i, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, i));
+        }
+        // 4 tiles plus a quarter of 40 tiles of headroom fit in the current capacity
+        for (int i = 0; i < 10; i++) {
+            sizer.onMemoryUsage(TILE_MEMORY * 20, TILE_MEMORY * 100);
+        }
+        assertEquals(TILE_MEMORY * 16, cache.getMemoryCapacity());
+    }
+
+    @Test
+    public void testThresholdsRestored() {
+        MemoryPoolMXBean tenured = null;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported()) {
+                tenured = pool;
+            }
+        }
+        Assume.assumeNotNull(tenured);
+        long usageThreshold = tenured.getUsageThreshold();
+        long collectionUsageThreshold = tenured.getCollectionUsageThreshold();
+
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(createCache(TILE_MEMORY), 0,
+                TILE_MEMORY);
+        sizer.start();
+        sizer.stop();
+        assertEquals(usageThreshold, tenured.getUsageThreshold());
+        assertEquals(collectionUsageThreshold, tenured.getCollectionUsageThreshold());
+    }
+
+    @Test
+    public void testBoundsAtStart() {
+        ConcurrentTileCacheMultiMap cache = createCache(TILE_MEMORY * 64);
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(cache, TILE_MEMORY,
+                TILE_MEMORY * 8);
+        sizer.start();
+        sizer.stop();
+        assertEquals(TILE_MEMORY * 8, cache.getMemoryCapacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidUsage() {
+        AdaptiveCacheSizer sizer = new AdaptiveCacheSizer(createCache(TILE_MEMORY), 0,
+                TILE_MEMORY);
+        sizer.setLowUsage(0.9F);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoEvictionPolicy() {
+        new AdaptiveCacheSizer(new ConcurrentTileCacheMultiMap(), 0, TILE_MEMORY);
+    }
+
+    private static ConcurrentTileCacheMultiMap createCache(long capacity) {
+        ConcurrentTileCacheMultiMap cache = new ConcurrentTileCacheMultiMap(capacity, false, 1f, 1);
+        cache.setEvictionPolicy(new CostAwareTinyLfuPolicy());
+        return cache;
+    }
+}
@@ -0,0 +1,126 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.OffHeapTileStore;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * This test class is used for checking if the {@link ConcurrentTileCache} bulk operations only consider the cached tiles of the image.
+ */
+public class ConcurrentTileCacheIndexTest {
+
+    private static final int TILE_SIZE = 64;
+
+    /** Size of a byte tile, with some room for the cache overhead */
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE + 1024;
+
+    private final BufferedImage owner = new BufferedImage(TILE_SIZE, TILE_SIZE,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    private final BufferedImage other = new BufferedImage(TILE_SIZE, TILE_SIZE,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    @Test
+    public void testGetAndRemoveTiles() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(10 * TILE_BYTES, false, 1f, 1);
+        // tile indices far outside the image grid, which is never scanned
+        Raster[] tiles = new Raster[3];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = createTile(DataBuffer.TYPE_BYTE, TILE_SIZE, 0);
+        }
+        cache.add(owner, 1000, 2000, tiles[0]);
+        cache.add(owner, -5, 100000, tiles[1]);
+        cache.add(other, 1000, 2000, tiles[2]);
+
+        checkTiles(cache.getTiles(owner), tiles[0], tiles[1]);
+        checkTiles(cache.getTiles(other), tiles[2]);
+
+        cache.remove(owner, 1000, 2000);
+        checkTiles(cache.getTiles(owner), tiles[1]);
+
+        cache.removeTiles(owner);
+        assertNull(cache.getTiles(owner));
+        assertNull(cache.getTile(owner, -5, 100000));
+        checkTiles(cache.getTiles(other), tiles[2]);
+
+        // the diagnostic path behaves the same
+        cache.enableDiagnostics();
+        cache.add(owner, 1000, 2000, tiles[0]);
+        cache.add(owner, -5, 100000, tiles[1]);
+        checkTiles(cache.getTiles(owner), tiles[0], tiles[1]);
+        cache.removeTiles(owner);
+        assertNull(cache.getTiles(owner));
+        assertEquals(0, cache.getCacheTileCount());
+
+        cache.add(owner, 0, 0, tiles[0]);
+        cache.flush();
+        assertNull(cache.getTiles(owner));
+    }
+
+    @Test
+    public void testEvictedTiles() {
+        // The cache keeps a single tile
+        ConcurrentTileCache cache = new ConcurrentTileCache(TILE_BYTES, false, 1f, 1);
+        Raster[] tiles = new Raster[3];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = createTile(DataBuffer.TYPE_BYTE, TILE_SIZE, 0);
+            cache.add(owner, i, 0, tiles[i]);
+        }
+        checkTiles(cache.getTiles(owner), tiles[2]);
+
+        // The tiles moved to the off-heap tier are still found
+        OffHeapTileStore store = new OffHeapTileStore(TILE_BYTES, null, TILE_BYTES, 1024);
+        cache.setOffHeapStore(store);
+        for (int i = 0; i < tiles.length; i++) {
+            cache.add(owner, i, 0, tiles[i]);
+        }
+        // the store keeps the second tile only, the first one has been discarded
+        assertEquals(1, store.getTileCount());
+        assertEquals(1, store.getEvictionCount());
+        Raster[] cached = cache.getTiles(owner);
+        assertNotNull(cached);
+        assertEquals(2, cached.length);
+
+        cache.removeTiles(owner);
+        assertNull(cache.getTiles(owner));
+        assertEquals(0, store.getTileCount());
+        store.dispose();
+    }
+
+
+    private static void checkTiles(Raster[] actual, Raster... expected) {
+        assertNotNull(actual);
+        Set<Raster> found = new HashSet<Raster>(Arrays.asList(actual));
+        assertEquals(expected.length, actual.length);
+        assertEquals(new HashSet<Raster>(Arrays.asList(expected)), found);
+    }
+}
@@ -0,0 +1,259 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.checkEquals;
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.CachedTileImpl;
+import it.geosolutions.concurrent.DiskSpillTileCache;
+import it.geosolutions.concurrent.MappedTileStore;
+import it.geosolutions.concurrent.TileCacheMetrics;
+import it.geosolutions.jaiext.rescale.RescaleOpImage;
+
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This test class is used for checking if the {@link DiskSpillTileCache} spills the evicted tiles to the {@link MappedTileStore} and reads
+ * them back, and if the stale tiles are dropped from the store.
+ */
+public class DiskSpillTileCacheTest {
+
+    private static final int TILE_SIZE = 64;
+
+    /** Size of an int tile */
+    private static final int TILE_BYTES = TILE_SIZE * TILE_SIZE * 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedTileStore store;
+
+    /** Image used as tile owner */
+    private BufferedImage owner = new BufferedImage(TILE_SIZE * 4, TILE_SIZE * 4,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    @Before
+    public void setUp() {
+        store = new MappedTileStore(1024 * 1024, folder.getRoot(), 256 * 1024);
+    }
+
+    @After
+    public void tearDown() {
+        store.dispose();
+    }
+
+    @Test
+    public void testSpillAndReload() {
+        Raster[] tiles = createTiles(4);
+        // The memory tier keeps a single tile
+        DiskSpillTileCache cache = new DiskSpillTileCache(TILE_BYTES + 1024, false, 1f, 1, store);
+        for (int i = 0; i < tiles.length; i++) {
+            cache.add(owner, i, 0, tiles[i]);
+        }
+        assertEquals(1, cache.getCacheTileCount());
+        assertEquals(tiles.length - 1, store.getTileCount());
+        assertEquals(1, folder.getRoot().list().length);
+
+        for (int i = 0; i < tiles.length; i++) {
+            Raster tile = cache.getTile(owner, i, 0);
+            assertNotNull(tile);
+            checkEquals(tiles[i], tile);
+            assertTrue(tile.getDataBuffer() instanceof DataBufferInt);
+        }
+        assertEquals(tiles.length, cache.getTiles(owner).length);
+
+        // The spilled tiles can be used by the operations
+        WritableRaster spilled = (WritableRaster) cache.getTile(owner, 0, 0);
+        checkRescale(tiles[0], spilled);
+
+        // Adding a tile again replaces the spilled one
+        cache.add(owner, 0, 0, tiles[0]);
+        assertFalse(store.contains(CachedTileImpl.hashKey(owner, 0, 0)));
+
+        // Removing a tile removes it from both the tiers
+        cache.remove(owner, 1, 0);
+        assertNull(cache.getTile(owner, 1, 0));
+        cache.flush();
+        assertEquals(0, store.getTileCount());
+        assertNull(cache.getTiles(owner));
+    }
+
+    @Test
+    public void testPromotion() {
+        Raster[] tiles = createTiles(2);
+        DiskSpillTileCache cache = new DiskSpillTileCache(TILE_BYTES + 1024, false, 1f, 1, store);
+        TileCacheMetrics metrics = new TileCacheMetrics();
+        cache.setMetricsRegistry(metrics);
+        cache.add(owner, 0, 0, tiles[0]);
+        cache.add(owner, 1, 0, tiles[1]);
+        assertTrue(store.contains(key(0)));
+
+        // The spilled tile is a hit, and moves back to memory in place of the other one
+        Raster tile = cache.getTile(owner, 0, 0);
+        checkEquals(tiles[0], tile);
+        assertEquals(1, metrics.getHitCount());
+        assertEquals(0, metrics.getMissCount());
+        assertFalse(store.contains(key(0)));
+        assertTrue(store.contains(key(1)));
+        assertEquals(1, cache.getCacheTileCount());
+
+        // Later requests get the tile from memory
+        assertSame(tile, cache.getTile(owner, 0, 0));
+        assertEquals(2, metrics.getHitCount());
+        assertEquals(1, store.getHitCount());
+
+        // A tile missing from both the tiers is a miss
+        assertNull(cache.getTile(owner, 2, 0));
+        assertEquals(1, metrics.getMissCount());
+    }
+
+    @Test
+    public void testRemoveTiles() {
+        BufferedImage other = new BufferedImage(TILE_SIZE, TILE_SIZE,
+                BufferedImage.TYPE_BYTE_GRAY);
+        DiskSpillTileCache cache = new DiskSpillTileCache(TILE_BYTES + 1024, false, 1f, 1, store);
+        Raster[] tiles = createTiles(3);
+        for (int i = 0; i < tiles.length; i++) {
+            cache.add(owner, i, 0, tiles[i]);
+        }
+        cache.add(other, 0, 0, tiles[0]);
+        assertEquals(tiles.length, store.getTileCount());
+
+        cache.removeTiles(owner);
+        assertEquals(0, store.getTileCount());
+        assertNull(cache.getTiles(owner));
+        assertNotNull(cache.getTile(other, 0, 0));
+    }
+
+    @Test
+    public void testOwnerCollected() throws Exception {
+        DiskSpillTileCache cache = new DiskSpillTileCache(TILE_BYTES + 1024, false, 1f, 1, store);
+        Raster[] tiles = createTiles(3);
+        for (int i = 0; i < tiles.length; i++) {
+            cache.add(owner, i, 0, tiles[i]);
+        }
+        assertEquals(tiles.length - 1, store.getTileCount());
+
+        owner = null;
+        for (int i = 0; i < 50 && store.getTileCount() > 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(0, store.getTileCount());
+        assertEquals(0, store.getMemoryUsed());
+    }
+
+    @Test
+    public void testLRU() {
+        // The store keeps two tiles
+        MappedTileStore small = new MappedTileStore(2 * TILE_BYTES, folder.getRoot(), TILE_BYTES);
+        Raster[] tiles = createTiles(3);
+        assertTrue(small.put(key(0), new CachedTileImpl(owner, 0, 0, tiles[0], null)));
+        assertTrue(small.put(key(1), new CachedTileImpl(owner, 1, 0, tiles[1], null)));
+        // The access makes the second tile the eldest one
+        Raster tile = small.getTile(key(0), owner);
+        assertTrue(small.put(key(2), new CachedTileImpl(owner, 2, 0, tiles[2], null)));
+        assertEquals(1, small.getEvictionCount());
+        assertFalse(small.contains(key(1)));
+        assertTrue(small.contains(key(0)));
+
+        // The returned tile is a copy, still valid once the tile is evicted
+        assertTrue(small.put(key(1), new CachedTileImpl(owner, 1, 0, tiles[1], null)));
+        assertFalse(small.contains(key(0)));
+        assertTrue(small.contains(key(2)));
+        assertEquals(2, small.getEvictionCount());
+        assertEquals(2, small.getTileCount());
+        assertEquals(2 * TILE_BYTES, small.getMemoryUsed());
+        checkEquals(tiles[0], tile);
+        small.dispose();
+    }
+
+    @Test
+    public void testDataTypes() {
+        MappedTileStore store = new MappedTileStore(8 * 1024 * 1024, folder.getRoot(),
+                1024 * 1024);
+        int[] types = new int[] { DataBuffer.TYPE_BYTE, DataBuffer.TYPE_USHORT,
+                DataBuffer.TYPE_SHORT, DataBuffer.TYPE_INT, DataBuffer.TYPE_FLOAT,
+                DataBuffer.TYPE_DOUBLE };
+        for (int type : types) {
+            WritableRaster banded = createTile(new BandedSampleModel(type, TILE_SIZE, TILE_SIZE,
+                    3), TILE_SIZE, 0);
+            assertTrue(store.put(key(0), new CachedTileImpl(owner, 0, 0, banded, null)));
+            checkEquals(banded, store.getTile(key(0), owner));
+
+            WritableRaster interleaved = createTile(new PixelInterleavedSampleModel(type,
+                    TILE_SIZE * 2, TILE_SIZE * 2, 2, TILE_SIZE * 4, new int[] { 1, 0 }), 0, 0);
+            Raster child = interleaved.createChild(TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE,
+                    TILE_SIZE, TILE_SIZE, null);
+            assertTrue(store.put(key(1), new CachedTileImpl(owner, 1, 0, child, null)));
+            checkEquals(child, store.getTile(key(1), owner));
+        }
+        assertEquals(2, store.getTileCount());
+        store.dispose();
+    }
+
+    private Object key(int tileX) {
+        return CachedTileImpl.hashKey(owner, tileX, 0);
+    }
+
+    private static Raster[] createTiles(int n) {
+        Raster[] tiles = new Raster[n];
+        for (int i = 0; i < n; i++) {
+            tiles[i] = createTile(new BandedSampleModel(DataBuffer.TYPE_INT, TILE_SIZE,
+                    TILE_SIZE, 1), i * TILE_SIZE, 0);
+        }
+        return tiles;
+    }
+
+    /** Runs the Rescale operation on an image made of the tile, which must be at the origin */
+    private static void checkRescale(Raster expected, WritableRaster tile) {
+        ColorModel cm = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY),
+                new int[] { 32 }, false, false, Transparency.OPAQUE, DataBuffer.TYPE_INT);
+        BufferedImage image = new BufferedImage(cm, tile, false, null);
+        RescaleOpImage rescaled = new RescaleOpImage(image, null, null, new double[] { 2 },
+                new double[] { 1 }, 0, null, null, false);
+        Raster result = rescaled.getData();
+        for (int y = 0; y < TILE_SIZE; y++) {
+            for (int x = 0; x < TILE_SIZE; x++) {
+                assertEquals(expected.getSample(x, y, 0) * 2 + 1, result.getSample(x, y, 0));
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.checkEquals;
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.CachedTileImpl;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.OffHeapTileStore;
+
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This test class is used for checking if the {@link OffHeapTileStore} preserves the tiles and if {@link ConcurrentTileCache} promotes them
+ * back from the off-heap tier.
+ */
+public class OffHeapTileStoreTest {
+
+    private static final int TILE_SIZE = 64;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /** Image used as tile owner */
+    private final BufferedImage owner = new BufferedImage(TILE_SIZE * 4, TILE_SIZE * 4,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    @Test
+    public void testRoundTrip() {
+        OffHeapTileStore store = new OffHeapTileStore(1024 * 1024, null, 256 * 1024, 4096);
+        int[] types = new int[] { DataBuffer.TYPE_BYTE, DataBuffer.TYPE_USHORT,
+                DataBuffer.TYPE_SHORT, DataBuffer.TYPE_INT, DataBuffer.TYPE_FLOAT,
+                DataBuffer.TYPE_DOUBLE };
+        for (int type : types) {
+            // Banded and interleaved layouts
+            checkRoundTrip(store, createTile(new BandedSampleModel(type, TILE_SIZE, TILE_SIZE, 3),
+                    TILE_SIZE, 0));
+            checkRoundTrip(store, createTile(new PixelInterleavedSampleModel(type, TILE_SIZE,
+                    TILE_SIZE, 2, TILE_SIZE * 2, new int[] { 1, 0 }), 0, TILE_SIZE));
+        }
+        assertEquals(0, store.getTileCount());
+        assertEquals(0, store.getMemoryUsed());
+        store.dispose();
+    }
+
+    @Test
+    public void testChildRaster() {
+        OffHeapTileStore store = new OffHeapTileStore(1024 * 1024, null, 256 * 1024, 4096);
+        WritableRaster parent = createTile(new BandedSampleModel(DataBuffer.TYPE_FLOAT,
+                TILE_SIZE * 2, TILE_SIZE * 2, 1), 0, 0);
+        Raster child = parent.createChild(TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE,
+                TILE_SIZE, null);
+        checkRoundTrip(store, child);
+        store.dispose();
+    }
+
+    @Test
+    public void testMemoryMapped() throws Exception {
+        OffHeapTileStore store = new OffHeapTileStore(1024 * 1024, folder.getRoot(), 256 * 1024,
+                4096);
+        assertTrue(store.isMemoryMapped());
+        checkRoundTrip(store, createTile(new BandedSampleModel(DataBuffer.TYPE_DOUBLE, TILE_SIZE,
+                TILE_SIZE, 2), 0, 0));
+        assertEquals(1, folder.getRoot().list().length);
+        store.dispose();
+        assertEquals(0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testEviction() {
+        // Each byte tile takes one 4096 bytes block, the store keeps two of them
+        OffHeapTileStore store = new OffHeapTileStore(8192, null, 8192, 4096);
+        for (int i = 0; i < 3; i++) {
+            Raster tile = createTile(new BandedSampleModel(DataBuffer.TYPE_BYTE, TILE_SIZE,
+                    TILE_SIZE, 1), i * TILE_SIZE, 0);
+            assertTrue(store.put(key(i), new CachedTileImpl(owner, i, 0, tile, null)));
+        }
+        assertEquals(2, store.getTileCount());
+        assertEquals(1, store.getEvictionCount());
+        assertEquals(8192, store.getMemoryUsed());
+        assertFalse(store.contains(key(0)));
+        assertNull(store.remove(key(0), owner));
+        assertNotNull(store.remove(key(2), owner));
+        assertEquals(1, store.getHitCount());
+        assertEquals(1, store.getMissCount());
+
+        // Tiles bigger than the capacity are ignored
+        Raster big = createTile(new BandedSampleModel(DataBuffer.TYPE_DOUBLE, TILE_SIZE,
+                TILE_SIZE, 1), 0, 0);
+        assertFalse(store.put(key(3), new CachedTileImpl(owner, 3, 0, big, null)));
+        store.dispose();
+    }
+
+    @Test
+    public void testCachePromotion() {
+        Raster[] tiles = new Raster[4];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = createTile(new BandedSampleModel(DataBuffer.TYPE_INT, TILE_SIZE, TILE_SIZE,
+                    1), i * TILE_SIZE, 0);
+        }
+        // The on-heap tier keeps a single tile
+        OffHeapTileStore store = new OffHeapTileStore(1024 * 1024, null, 256 * 1024, 4096);
+        ConcurrentTileCache cache = new ConcurrentTileCache(TILE_SIZE * TILE_SIZE * 4 + 1024,
+                false, 1f, 1, store);
+        for (int i = 0; i < tiles.length; i++) {
+            cache.add(owner, i, 0, tiles[i]);
+        }
+        assertEquals(1, cache.getCacheTileCount());
+        assertEquals(tiles.length - 1, store.getTileCount());
+
+        // Every tile is found, each promotion evicts the tile requested before
+        for (int i = 0; i < tiles.length; i++) {
+            Raster tile = cache.getTile(owner, i, 0);
+            assertNotNull(tile);
+            checkEquals(tiles[i], tile);
+        }
+        assertEquals(tiles.length, store.getHitCount());
+        assertEquals(1, cache.getCacheTileCount());
+
+        // Removing a tile removes it from both the tiers
+        cache.remove(owner, 0, 0);
+        assertNull(cache.getTile(owner, 0, 0));
+        cache.flush();
+        assertEquals(0, store.getTileCount());
+        store.dispose();
+    }
+
+    private Object key(int tileX) {
+        return CachedTileImpl.hashKey(owner, tileX, 0);
+    }
+
+    private void checkRoundTrip(OffHeapTileStore store, Raster tile) {
+        Object key = key(0);
+        assertTrue(store.put(key, new CachedTileImpl(owner, 0, 0, tile, null)));
+        assertTrue(store.contains(key));
+        CachedTileImpl cti = store.remove(key, owner);
+        assertNotNull(cti);
+        assertFalse(store.contains(key));
+        checkEquals(tile, cti.getTile());
+    }
+}
@@ -0,0 +1,174 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.PartitionedTileCache;
+import it.geosolutions.concurrent.TileCacheMetrics;
+import it.geosolutions.concurrent.TilePartitionResolvers;
+
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Hashtable;
+
+import javax.media.jai.JAI;
+import javax.media.jai.OpImage;
+import javax.media.jai.PlanarImage;
+import javax.media.jai.SourcelessOpImage;
+
+import org.junit.Test;
+
+/**
+ * This test class is used for checking that the partitions of {@link PartitionedTileCache} are isolated from each other.
+ */
+public class PartitionedTileCacheTest {
+
+    private static final int TILE_SIZE = 64;
+
+    private static final long TILE_MEMORY = TILE_SIZE * TILE_SIZE * 4L;
+
+    private static final String WORKSPACE = "workspace";
+
+    private static final RenderingHints.Key PARTITION_KEY = new RenderingHints.Key(0) {
+        public boolean isCompatibleValue(Object value) {
+            return value instanceof String;
+        }
+    };
+
+    @Test
+    public void testIsolation() {
+        PartitionedTileCache cache = new PartitionedTileCache(TILE_MEMORY * 16,
+                TilePartitionResolvers.byProperty(WORKSPACE));
+        cache.addPartition("heavy", TILE_MEMORY * 16);
+        cache.addPartition("light", TILE_MEMORY * 32);
+        // the Guava caches split the capacity among their segments
+        cache.setMemoryThreshold(1f);
+
+        BufferedImage heavy = createImage("heavy");
+        BufferedImage light = createImage("light");
+        BufferedImage other = createImage(null);
+        assertEquals("heavy", cache.getPartitionName(heavy));
+        assertEquals("light", cache.getPartitionName(light));
+        assertEquals(PartitionedTileCache.DEFAULT_PARTITION, cache.getPartitionName(other));
+
+        for (int i = 0; i < 4; i++) {
+            cache.add(light, i, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, i));
+        }
+        // the heavy image floods its own partition only
+        for (int i = 0; i < 128; i++) {
+            cache.add(heavy, i, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, i));
+        }
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(cache.getTile(light, i, 0));
+        }
+        assertNull(cache.getTile(heavy, 0, 0));
+        assertTrue(cache.getPartition("heavy").getCacheTileCount() <= 16);
+        assertNull(cache.getTile(other, 0, 0));
+
+        TileCacheMetrics metrics = cache.getMetrics("light");
+        assertEquals(4, metrics.getHitCount());
+        assertEquals(4, metrics.getTileCount());
+        assertEquals(1, cache.getMetrics("heavy").getMissCount());
+        assertEquals(1, cache.getMetrics(PartitionedTileCache.DEFAULT_PARTITION)
+                .getMissCount());
+        assertEquals(4, cache.getCacheHitCount());
+        assertEquals(2, cache.getCacheMissCount());
+
+        // the images of a removed partition go to the default one
+        cache.removePartition("light");
+        assertNull(cache.getTile(light, 0, 0));
+        assertEquals(PartitionedTileCache.DEFAULT_PARTITION, cache.getPartitionName(light));
+        cache.add(light, 0, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, 0));
+        assertEquals(1, cache.getPartition(PartitionedTileCache.DEFAULT_PARTITION)
+                .getCacheTileCount());
+
+        cache.flush();
+        assertEquals(0, cache.getCacheTileCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicatePartition() {
+        PartitionedTileCache cache = new PartitionedTileCache(TilePartitionResolvers
+                .byOperation());
+        cache.addPartition("a", TILE_MEMORY);
+        cache.addPartition("a", TILE_MEMORY);
+    }
+
+    @Test
+    public void testOperationResolver() {
+        PartitionedTileCache cache = new PartitionedTileCache(TilePartitionResolvers
+                .byOperation());
+        cache.addPartition("BufferedImage", TILE_MEMORY * 16);
+        BufferedImage image = createImage(null);
+        cache.add(image, 0, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, 0));
+        assertEquals(1, cache.getPartition("BufferedImage").getCacheTileCount());
+    }
+
+    @Test
+    public void testOpImageOwner() {
+        PartitionedTileCache cache = new PartitionedTileCache(TilePartitionResolvers
+                .byRenderingHint(PARTITION_KEY));
+        cache.addPartition("hinted", TILE_MEMORY * 16);
+        RenderingHints hints = new RenderingHints(JAI.KEY_TILE_CACHE, cache);
+        hints.put(PARTITION_KEY, "hinted");
+
+        // JAI caches the tiles under the OpImage, which carries the hints set by the RIF
+        OpImage image = createOpImage(hints);
+        TilePartitionResolvers.setOperationProperties(image, "Constant", hints);
+        assertEquals("Constant", TileCacheMetrics.operationName(image));
+        assertEquals("hinted", cache.getPartitionName(image));
+        assertNotNull(image.getTile(0, 0));
+        assertEquals(1, cache.getPartition("hinted").getCacheTileCount());
+        assertEquals(1, cache.getMetrics("hinted").getTileCount());
+
+        // without the properties the image goes to the default partition
+        OpImage untagged = createOpImage(hints);
+        assertEquals(PartitionedTileCache.DEFAULT_PARTITION, cache.getPartitionName(untagged));
+        assertNotNull(untagged.getTile(0, 0));
+        assertEquals(1, cache.getPartition(PartitionedTileCache.DEFAULT_PARTITION)
+                .getCacheTileCount());
+    }
+
+    private static OpImage createOpImage(RenderingHints hints) {
+        return new SourcelessOpImage(null, hints, new BandedSampleModel(DataBuffer.TYPE_INT,
+                TILE_SIZE, TILE_SIZE, 1), 0, 0, TILE_SIZE, TILE_SIZE) {
+            protected void computeRect(PlanarImage[] sources, WritableRaster dest,
+                    Rectangle destRect) {
+            }
+        };
+    }
+
+    private static BufferedImage createImage(String workspace) {
+        BufferedImage template = new BufferedImage(1, 1, BufferedImage.TYPE_BYTE_GRAY);
+        Hashtable<String, Object> properties = new Hashtable<String, Object>();
+        if (workspace != null) {
+            properties.put(WORKSPACE, workspace);
+        }
+        return new BufferedImage(template.getColorModel(), template.getColorModel()
+                .createCompatibleWritableRaster(TILE_SIZE * 128, TILE_SIZE), false, properties);
+    }
+}
@@ -0,0 +1,198 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.ConcurrentTileCacheMultiMap;
+import it.geosolutions.concurrent.TileCacheMetrics;
+import it.geosolutions.concurrent.TileLoader;
+
+import java.awt.Point;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * This test class is used for checking that the concurrent misses on the same tile done through <code>computeIfAbsent</code> share a single
+ * computation.
+ */
+public class SingleFlightTest {
+
+    private static final int TILE_SIZE = 64;
+
+    private static final int THREADS = 8;
+
+    /** Image used as tile owner */
+    private final BufferedImage owner = new BufferedImage(TILE_SIZE * 4, TILE_SIZE * 4,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    /** Loader counting its calls and taking some time, so that the other threads find the computation in progress */
+    private static class SlowLoader implements TileLoader {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Raster.createWritableRaster(new BandedSampleModel(DataBuffer.TYPE_BYTE,
+                    TILE_SIZE, TILE_SIZE, 1), new Point(tileX * TILE_SIZE, tileY * TILE_SIZE));
+        }
+    }
+
+    @Test
+    public void testConcurrentTileCache() throws Exception {
+        final ConcurrentTileCache cache = new ConcurrentTileCache();
+        final SlowLoader loader = new SlowLoader();
+        List<Raster> tiles = computeConcurrently(new Callable<Raster>() {
+            public Raster call() throws Exception {
+                return cache.computeIfAbsent(owner, 1, 2, loader);
+            }
+        });
+        assertEquals(1, loader.calls.get());
+        for (Raster tile : tiles) {
+            assertSame(tiles.get(0), tile);
+        }
+        assertSame(tiles.get(0), cache.getTile(owner, 1, 2));
+        // cached tiles are not computed again
+        assertSame(tiles.get(0), cache.computeIfAbsent(owner, 1, 2, loader));
+        assertEquals(1, loader.calls.get());
+    }
+
+    @Test
+    public void testConcurrentTileCacheMultiMap() throws Exception {
+        final ConcurrentTileCacheMultiMap cache = new ConcurrentTileCacheMultiMap();
+        final SlowLoader loader = new SlowLoader();
+        List<Raster> tiles = computeConcurrently(new Callable<Raster>() {
+            public Raster call() throws Exception {
+                return cache.computeIfAbsent(owner, 3, 0, loader);
+            }
+        });
+        assertEquals(1, loader.calls.get());
+        for (Raster tile : tiles) {
+            assertSame(tiles.get(0), tile);
+        }
+        assertSame(tiles.get(0), cache.getTile(owner, 3, 0));
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        final ConcurrentTileCache cache = new ConcurrentTileCache();
+        final AtomicInteger calls = new AtomicInteger();
+        final TileLoader loader = new TileLoader() {
+            public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+                calls.incrementAndGet();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("Computation failed");
+            }
+        };
+        try {
+            computeConcurrently(new Callable<Raster>() {
+                public Raster call() throws Exception {
+                    return cache.computeIfAbsent(owner, 0, 0, loader);
+                }
+            });
+            fail("The failure should be propagated");
+        } catch (ExecutionException e) {
+            assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+        assertEquals(1, calls.get());
+        assertNull(cache.getTile(owner, 0, 0));
+
+        // the failed computation is not kept
+        SlowLoader slowLoader = new SlowLoader();
+        assertNotNull(cache.computeIfAbsent(owner, 0, 0, slowLoader));
+        assertEquals(1, slowLoader.calls.get());
+    }
+
+    @Test
+    public void testTileCacheMetric() {
+        ConcurrentTileCache cache = new ConcurrentTileCache();
+        TileCacheMetrics metrics = new TileCacheMetrics();
+        cache.setMetricsRegistry(metrics);
+        // the metric is the explicit compute cost of the tile, reported on each hit
+        assertNotNull(cache.computeIfAbsent(owner, 0, 1, new SlowLoader(), Long.valueOf(5000)));
+        assertNotNull(cache.getTile(owner, 0, 1));
+        assertEquals(5000, metrics.getComputeTimeSaved());
+    }
+
+    @Test
+    public void testReentrant() {
+        final ConcurrentTileCache cache = new ConcurrentTileCache();
+        final SlowLoader inner = new SlowLoader();
+        TileLoader loader = new TileLoader() {
+            public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+                // a loader asking for its own tile does not wait for itself
+                return cache.computeIfAbsent(owner, tileX, tileY, inner);
+            }
+        };
+        assertNotNull(cache.computeIfAbsent(owner, 2, 2, loader));
+        assertEquals(1, inner.calls.get());
+    }
+
+    /** Runs the task on several threads at the same time, returning their results */
+    private static List<Raster> computeConcurrently(final Callable<Raster> task)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<Raster>> futures = new ArrayList<Future<Raster>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<Raster>() {
+                    public Raster call() throws Exception {
+                        start.await();
+                        return task.call();
+                    }
+                }));
+            }
+            start.countDown();
+            List<Raster> tiles = new ArrayList<Raster>();
+            for (Future<Raster> future : futures) {
+                tiles.add(future.get());
+            }
+            return tiles;
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
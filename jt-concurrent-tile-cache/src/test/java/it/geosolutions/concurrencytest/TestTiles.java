@@ -0,0 +1,81 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Point;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+import java.util.Random;
+
+/**
+ * Tiles shared by the tile cache tests.
+ */
+final class TestTiles {
+
+    private TestTiles() {
+    }
+
+    /**
+     * Creates a single band tile of the data type, at the given column of a row of tiles starting at the origin.
+     */
+    static WritableRaster createTile(int dataType, int tileSize, int tileX) {
+        return Raster.createWritableRaster(new BandedSampleModel(dataType, tileSize, tileSize, 1),
+                new Point(tileX * tileSize, 0));
+    }
+
+    /**
+     * Creates a tile with the sample model at the given position, filled with pseudo-random samples depending on the data type and the
+     * position.
+     */
+    static WritableRaster createTile(SampleModel sm, int x, int y) {
+        WritableRaster raster = Raster.createWritableRaster(sm, new Point(x, y));
+        Random random = new Random(sm.getDataType() + x);
+        for (int j = 0; j < raster.getHeight(); j++) {
+            for (int i = 0; i < raster.getWidth(); i++) {
+                for (int b = 0; b < raster.getNumBands(); b++) {
+                    raster.setSample(x + i, y + j, b, random.nextInt(120) - 10.25);
+                }
+            }
+        }
+        return raster;
+    }
+
+    /**
+     * Checks the two tiles have the same bounds, bands, transfer type and samples.
+     */
+    static void checkEquals(Raster expected, Raster actual) {
+        assertEquals(expected.getBounds(), actual.getBounds());
+        assertEquals(expected.getNumBands(), actual.getNumBands());
+        assertEquals(expected.getTransferType(), actual.getTransferType());
+        int minX = expected.getMinX();
+        int minY = expected.getMinY();
+        for (int b = 0; b < expected.getNumBands(); b++) {
+            double[] e = expected.getSamples(minX, minY, expected.getWidth(),
+                    expected.getHeight(), b, (double[]) null);
+            double[] a = actual.getSamples(minX, minY, expected.getWidth(),
+                    expected.getHeight(), b, (double[]) null);
+            for (int i = 0; i < e.length; i++) {
+                assertEquals(e[i], a[i], 0d);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.ConcurrentTileCacheMultiMap;
+import it.geosolutions.concurrent.TileCacheMetrics;
+import it.geosolutions.concurrent.TileCacheOperationStats;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+import javax.media.jai.TileCache;
+
+import org.junit.Test;
+
+import com.google.common.cache.RemovalCause;
+import com.sun.media.jai.util.CacheDiagnostics;
+
+/**
+ * This test class is used for checking the metrics collected by {@link TileCacheMetrics} and their JMX exposure.
+ */
+public class TileCacheMetricsTest {
+
+    private static final int TILE_SIZE = 64;
+
+    /** Number of tiles kept by the caches */
+    private static final int CACHED_TILES = 4;
+
+    private static final long CAPACITY = CACHED_TILES * TILE_SIZE * TILE_SIZE * 4L + 2048;
+
+    /** Image used as tile owner */
+    private final BufferedImage owner = new BufferedImage(TILE_SIZE * 16, TILE_SIZE,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    @Test
+    public void testConcurrentTileCache() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(CAPACITY, false, 1f, 1);
+        TileCacheMetrics metrics = new TileCacheMetrics();
+        cache.setMetricsRegistry(metrics);
+        checkMetrics(cache, metrics);
+        cache.flush();
+        assertEquals(0, metrics.getMemoryUsed());
+        assertEquals(0, metrics.getTileCount());
+    }
+
+    @Test
+    public void testConcurrentTileCacheMultiMap() {
+        ConcurrentTileCacheMultiMap cache = new ConcurrentTileCacheMultiMap(CAPACITY, false, 1f,
+                1);
+        TileCacheMetrics metrics = new TileCacheMetrics();
+        cache.setMetricsRegistry(metrics);
+        checkMetrics(cache, metrics);
+        cache.removeTiles(owner);
+        assertEquals(0, metrics.getMemoryUsed());
+        assertEquals(0, metrics.getTileCount());
+    }
+
+    @Test
+    public void testJMX() throws Exception {
+        TileCacheMetrics metrics = new TileCacheMetrics();
+        metrics.recordAdd("Mosaic", 1024);
+        metrics.recordHit("Mosaic", 100);
+        metrics.recordMiss("Warp");
+        metrics.recordRemoval("Mosaic", 1024, RemovalCause.SIZE);
+
+        ObjectName name = metrics.register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            assertTrue(server.isRegistered(name));
+            assertEquals(1L, server.getAttribute(name, "HitCount"));
+            assertEquals(1L, server.getAttribute(name, "MissCount"));
+            assertEquals(0.5, (Double) server.getAttribute(name, "HitRatio"), 0d);
+            assertEquals(100L, server.getAttribute(name, "ComputeTimeSaved"));
+            TabularData removals = (TabularData) server.getAttribute(name, "RemovalCounts");
+            assertEquals(RemovalCause.values().length, removals.size());
+            TabularData operations = (TabularData) server.getAttribute(name, "OperationStats");
+            assertEquals(2, operations.size());
+            assertNotNull(operations.get(new Object[] { "Mosaic" }));
+
+            server.invoke(name, "resetCounts", null, null);
+            assertEquals(0L, server.getAttribute(name, "HitCount"));
+        } finally {
+            metrics.unregister();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    /**
+     * Adds an expensive tile and then enough tiles to evict it, checking the recorded metrics.
+     */
+    private void checkMetrics(TileCache cache, TileCacheMetrics metrics) {
+        String operation = TileCacheMetrics.operationName(owner);
+        assertEquals("BufferedImage", operation);
+
+        assertNull(cache.getTile(owner, 0, 0));
+        cache.add(owner, 0, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, 0), Long.valueOf(1000));
+        assertNotNull(cache.getTile(owner, 0, 0));
+        assertNotNull(cache.getTile(owner, 0, 0));
+        assertEquals(2, metrics.getHitCount());
+        assertEquals(1, metrics.getMissCount());
+        assertEquals(2000, metrics.getComputeTimeSaved());
+        assertEquals(1, metrics.getTileCount());
+        assertTrue(metrics.getMemoryUsed() >= TILE_SIZE * TILE_SIZE * 4);
+
+        for (int i = 1; i < CACHED_TILES * 2; i++) {
+            cache.add(owner, i, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, i));
+        }
+        assertEquals(((CacheDiagnostics) cache).getCacheTileCount(),
+                metrics.getTileCount());
+        assertTrue(metrics.getRemovalCount(RemovalCause.SIZE) > 0);
+        assertEquals(0, metrics.getRemovalCount(RemovalCause.EXPLICIT));
+
+        TileCacheOperationStats stats = metrics.getOperationStats().get(operation);
+        assertEquals(2, stats.getHitCount());
+        assertEquals(metrics.getMemoryUsed(), stats.getMemoryUsed());
+    }
+}
@@ -0,0 +1,105 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.ConcurrentTileCacheMultiMap;
+import it.geosolutions.concurrent.CostAwareTinyLfuPolicy;
+import it.geosolutions.concurrent.TileEvictionPolicy;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+
+import javax.media.jai.TileCache;
+
+import org.junit.Test;
+
+/**
+ * This test class is used for checking that the {@link CostAwareTinyLfuPolicy} keeps the expensive and frequently used tiles, unlike the
+ * default size-weighted LRU eviction.
+ */
+public class TileEvictionPolicyTest {
+
+    private static final int TILE_SIZE = 64;
+
+    /** Number of tiles kept by the caches */
+    private static final int CACHED_TILES = 8;
+
+    private static final long CAPACITY = CACHED_TILES * TILE_SIZE * TILE_SIZE * 4L + 1024;
+
+    /** Image used as tile owner */
+    private final BufferedImage owner = new BufferedImage(TILE_SIZE * 64, TILE_SIZE,
+            BufferedImage.TYPE_BYTE_GRAY);
+
+    @Test
+    public void testConcurrentTileCache() {
+        ConcurrentTileCache cache = new ConcurrentTileCache(CAPACITY, false, 1f, 1);
+        // Default LRU eviction
+        scan(cache);
+        assertNull(cache.getTile(owner, 0, 0));
+
+        TileEvictionPolicy policy = new CostAwareTinyLfuPolicy();
+        cache.setEvictionPolicy(policy);
+        scan(cache);
+        assertNotNull(cache.getTile(owner, 0, 0));
+        assertTrue(cache.getCacheTileCount() <= CACHED_TILES);
+        assertTrue(policy.getWeightedSize() <= CAPACITY);
+
+        // Removed tiles are released by the policy
+        cache.flush();
+        assertEquals(0, policy.getWeightedSize());
+    }
+
+    @Test
+    public void testConcurrentTileCacheMultiMap() {
+        ConcurrentTileCacheMultiMap cache = new ConcurrentTileCacheMultiMap(CAPACITY, false, 1f,
+                1);
+        scan(cache);
+        assertNull(cache.getTile(owner, 0, 0));
+
+        TileEvictionPolicy policy = new CostAwareTinyLfuPolicy();
+        cache.setEvictionPolicy(policy);
+        scan(cache);
+        assertNotNull(cache.getTile(owner, 0, 0));
+        assertTrue(cache.getCacheTileCount() <= CACHED_TILES);
+        assertTrue(policy.getWeightedSize() <= CAPACITY);
+
+        cache.removeTiles(owner);
+        assertEquals(0, policy.getWeightedSize());
+    }
+
+    /**
+     * Adds an expensive tile, used a few times, and then a scan of cheap tiles used once.
+     */
+    private void scan(TileCache cache) {
+        cache.add(owner, 0, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, 0), Long.valueOf(1000000000L));
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(cache.getTile(owner, 0, 0));
+        }
+        for (int i = 1; i < CACHED_TILES * 4; i++) {
+            cache.add(owner, i, 0, createTile(DataBuffer.TYPE_INT, TILE_SIZE, i), Long.valueOf(1000L));
+            cache.getTile(owner, i, 0);
+        }
+    }
+}
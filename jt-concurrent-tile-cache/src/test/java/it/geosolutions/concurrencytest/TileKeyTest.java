@@ -0,0 +1,148 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static it.geosolutions.concurrencytest.TestTiles.createTile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import it.geosolutions.concurrent.CachedTileImpl;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.ConcurrentTileCacheMultiMap;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+
+import javax.media.jai.TileCache;
+
+import org.junit.Test;
+
+/**
+ * This test class is used for checking if the tile keys of different images never collide, and if the caches find their tiles through
+ * them.
+ */
+public class TileKeyTest {
+
+    private static final int TILE_SIZE = 16;
+
+    /** Image whose hash code collides with every other instance */
+    private static final class CollidingImage extends BufferedImage {
+
+        CollidingImage() {
+            super(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_BYTE_GRAY);
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+    }
+
+    /** Image with a grid of tiles */
+    private static final class GridImage extends BufferedImage {
+
+        private final int numTiles;
+
+        GridImage(int numTiles) {
+            super(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_BYTE_GRAY);
+            this.numTiles = numTiles;
+        }
+
+        @Override
+        public int getNumXTiles() {
+            return numTiles;
+        }
+
+        @Override
+        public int getNumYTiles() {
+            return numTiles;
+        }
+    }
+
+    @Test
+    public void testCollidingImages() {
+        CollidingImage first = new CollidingImage();
+        CollidingImage second = new CollidingImage();
+        assertFalse(CachedTileImpl.hashKey(first, 0, 0).equals(CachedTileImpl.hashKey(second, 0, 0)));
+        assertEquals(CachedTileImpl.tileKey(first, 3, 5), CachedTileImpl.tileKey(first, 3, 5));
+        assertEquals(Long.valueOf(CachedTileImpl.tileKey(first, 3, 5)),
+                CachedTileImpl.hashKey(first, 3, 5));
+
+        checkCollidingImages(new ConcurrentTileCache(1024 * 1024, false, 1f, 2));
+        checkCollidingImages(new ConcurrentTileCacheMultiMap(1024 * 1024, false, 1f, 2));
+    }
+
+    @Test
+    public void testManyTiles() {
+        checkManyTiles(new ConcurrentTileCache(64 * 1024 * 1024, false, 1f, 4));
+        checkManyTiles(new ConcurrentTileCacheMultiMap(64 * 1024 * 1024, false, 1f, 4));
+        checkManyTiles(new ConcurrentTileCacheMultiMap(64 * 1024 * 1024, true, 1f, 4));
+    }
+
+    private void checkCollidingImages(TileCache cache) {
+        CollidingImage first = new CollidingImage();
+        CollidingImage second = new CollidingImage();
+        Raster tile = createTile(DataBuffer.TYPE_BYTE, TILE_SIZE, 0);
+        cache.add(first, 0, 0, tile);
+        assertSame(tile, cache.getTile(first, 0, 0));
+        assertNull(cache.getTile(second, 0, 0));
+
+        Raster other = createTile(DataBuffer.TYPE_BYTE, TILE_SIZE, 0);
+        cache.add(second, 0, 0, other);
+        assertSame(tile, cache.getTile(first, 0, 0));
+        assertSame(other, cache.getTile(second, 0, 0));
+
+        cache.removeTiles(second);
+        assertSame(tile, cache.getTile(first, 0, 0));
+        assertNull(cache.getTile(second, 0, 0));
+    }
+
+    private void checkManyTiles(TileCache cache) {
+        int n = 64;
+        GridImage owner = new GridImage(n);
+        Raster[] tiles = new Raster[n * n];
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                tiles[y * n + x] = createTile(DataBuffer.TYPE_BYTE, TILE_SIZE, 0);
+                cache.add(owner, x, y, tiles[y * n + x]);
+            }
+        }
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                assertSame(tiles[y * n + x], cache.getTile(owner, x, y));
+                if ((x + y) % 2 == 0) {
+                    cache.remove(owner, x, y);
+                }
+            }
+        }
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                if ((x + y) % 2 == 0) {
+                    assertNull(cache.getTile(owner, x, y));
+                } else {
+                    assertSame(tiles[y * n + x], cache.getTile(owner, x, y));
+                }
+            }
+        }
+        assertEquals(n * n / 2, cache.getTiles(owner).length);
+        cache.flush();
+        assertNull(cache.getTile(owner, 1, 0));
+    }
+}
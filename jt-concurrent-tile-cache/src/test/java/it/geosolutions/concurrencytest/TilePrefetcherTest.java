@@ -0,0 +1,238 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.concurrencytest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import it.geosolutions.concurrent.ConcurrentTileCache;
+import it.geosolutions.concurrent.ConcurrentTileCacheMultiMap;
+import it.geosolutions.concurrent.TileLoader;
+import it.geosolutions.concurrent.TilePrefetcher;
+
+import java.awt.Point;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.media.jai.TileCache;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * This test class is used for checking that {@link TilePrefetcher} computes the requested tiles in background, once.
+ */
+public class TilePrefetcherTest {
+
+    private static final int TILE_SIZE = 64;
+
+    private static final int NUM_TILES = 4;
+
+    private final TilePrefetcher prefetcher = new TilePrefetcher(1, 16);
+
+    /** Image computing its tiles into the cache, as done by the JAI operations */
+    private static final class ComputingImage extends BufferedImage {
+
+        final TileCache cache;
+
+        final AtomicInteger computations = new AtomicInteger();
+
+        final CountDownLatch release;
+
+        ComputingImage(TileCache cache, CountDownLatch release) {
+            super(TILE_SIZE, TILE_SIZE, BufferedImage.TYPE_BYTE_GRAY);
+            this.cache = cache;
+            this.release = release;
+        }
+
+        @Override
+        public int getNumXTiles() {
+            return NUM_TILES;
+        }
+
+        @Override
+        public int getNumYTiles() {
+            return NUM_TILES;
+        }
+
+        @Override
+        public Raster getTile(int tileX, int tileY) {
+            Raster tile = cache.getTile(this, tileX, tileY);
+            if (tile == null) {
+                computations.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                tile = Raster.createWritableRaster(new BandedSampleModel(DataBuffer.TYPE_BYTE,
+                        TILE_SIZE, TILE_SIZE, 1), new Point(tileX * TILE_SIZE, tileY
+                        * TILE_SIZE));
+                cache.add(this, tileX, tileY, tile);
+            }
+            return tile;
+        }
+    }
+
+    @After
+    public void shutdown() {
+        prefetcher.shutdown();
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        ConcurrentTileCache cache = new ConcurrentTileCache();
+        cache.setPrefetcher(prefetcher);
+        CountDownLatch release = new CountDownLatch(1);
+        ComputingImage image = new ComputingImage(cache, release);
+
+        Point[] indices = new Point[] { new Point(0, 0), new Point(1, 0), new Point(0, 1),
+                new Point(NUM_TILES, 0), new Point(-1, 0) };
+        // the indices outside the image are skipped
+        assertEquals(3, cache.prefetch(image, indices));
+        // the scheduled tiles are not scheduled again
+        assertEquals(0, cache.prefetch(image, indices));
+        release.countDown();
+        awaitPrefetch();
+
+        assertEquals(3, image.computations.get());
+        assertTrue(cache.containsTile(image, 1, 0));
+        // the cached tiles are not scheduled again
+        assertEquals(0, cache.prefetch(image, indices));
+        assertEquals(1, cache.prefetch(image, new Point[] { new Point(3, 3) }));
+        awaitPrefetch();
+        assertEquals(4, image.computations.get());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        ConcurrentTileCacheMultiMap cache = new ConcurrentTileCacheMultiMap();
+        cache.setPrefetcher(prefetcher);
+        CountDownLatch release = new CountDownLatch(1);
+        ComputingImage image = new ComputingImage(cache, release);
+
+        Point[] indices = new Point[NUM_TILES];
+        for (int i = 0; i < NUM_TILES; i++) {
+            indices[i] = new Point(i, 2);
+        }
+        assertEquals(NUM_TILES, cache.prefetch(image, indices));
+        // wait for the first computation, the other tiles are queued
+        while (image.computations.get() == 0) {
+            Thread.sleep(10);
+        }
+        // removing the image tiles, as done when disposing it, cancels the queued requests
+        cache.removeTiles(image);
+        release.countDown();
+        awaitPrefetch();
+        assertEquals(1, image.computations.get());
+    }
+
+    @Test
+    public void testSkipInFlight() throws Exception {
+        final ConcurrentTileCache cache = new ConcurrentTileCache();
+        cache.setPrefetcher(prefetcher);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ComputingImage image = new ComputingImage(cache, release);
+        // a foreground request computing the tile
+        Thread request = new Thread() {
+            public void run() {
+                cache.computeIfAbsent(image, 2, 2, new TileLoader() {
+                    public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+                        return image.getTile(tileX, tileY);
+                    }
+                });
+            }
+        };
+        request.start();
+        while (!cache.isInFlight(image, 2, 2)) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, cache.prefetch(image, new Point[] { new Point(2, 2) }));
+        release.countDown();
+        request.join();
+        assertEquals(1, image.computations.get());
+    }
+
+    @Test
+    public void testRequestWaitsForPrefetch() throws Exception {
+        ConcurrentTileCache cache = new ConcurrentTileCache();
+        cache.setPrefetcher(prefetcher);
+        final CountDownLatch release = new CountDownLatch(1);
+        ComputingImage image = new ComputingImage(cache, release);
+        assertEquals(1, cache.prefetch(image, new Point[] { new Point(1, 1) }));
+        while (image.computations.get() == 0) {
+            Thread.sleep(10);
+        }
+        final AtomicInteger requestComputations = new AtomicInteger();
+        new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    // just release earlier
+                }
+                release.countDown();
+            }
+        }.start();
+        // the request waits for the prefetch instead of computing the tile again
+        Raster tile = cache.computeIfAbsent(image, 1, 1, new TileLoader() {
+            public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+                requestComputations.incrementAndGet();
+                return null;
+            }
+        });
+        assertNotNull(tile);
+        assertEquals(0, requestComputations.get());
+        assertEquals(1, image.computations.get());
+        awaitPrefetch();
+    }
+
+    @Test
+    public void testQueueBound() {
+        TilePrefetcher small = new TilePrefetcher(1, 1);
+        try {
+            ConcurrentTileCache cache = new ConcurrentTileCache();
+            cache.setPrefetcher(small);
+            CountDownLatch release = new CountDownLatch(1);
+            ComputingImage image = new ComputingImage(cache, release);
+            Point[] indices = new Point[NUM_TILES * NUM_TILES];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = new Point(i % NUM_TILES, i / NUM_TILES);
+            }
+            // one running and one queued, the others are dropped
+            assertTrue(cache.prefetch(image, indices) <= 2);
+            release.countDown();
+        } finally {
+            small.shutdown();
+        }
+    }
+
+    private void awaitPrefetch() throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (prefetcher.getPendingCount() > 0 && System.nanoTime() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, prefetcher.getPendingCount());
+    }
+}
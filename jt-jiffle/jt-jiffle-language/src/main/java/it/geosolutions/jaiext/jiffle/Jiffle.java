@@ -75,6 +75,7 @@ import it.geosolutions.jaiext.jiffle.parser.OptionsBlockWorker;
 import it.geosolutions.jaiext.jiffle.parser.RuntimeModelWorker;
 import it.geosolutions.jaiext.jiffle.parser.SourcePositionsWorker;
 import it.geosolutions.jaiext.jiffle.parser.VarWorker;
+import it.geosolutions.jaiext.jiffle.parser.node.BytecodeWriter;
 import it.geosolutions.jaiext.jiffle.parser.node.GetSourceValue;
 import it.geosolutions.jaiext.jiffle.parser.node.Script;
 import it.geosolutions.jaiext.jiffle.parser.node.SourceWriter;
@@ -116,6 +117,12 @@ import it.geosolutions.jaiext.jiffle.runtime.JiffleRuntime;
  * When a client requests a runtime object, the script is translated into 
  * Java source for a runtime class. This source code is then passed to an 
  * embedded Janino compiler which produces the runtime object.
+ * Alternatively, with the {@link Backend#BYTECODE} backend, the runtime class is
+ * generated directly as bytecode from the script model, skipping the Java source
+ * and its compilation. The backend used by default can be set with the
+ * {@value #BACKEND_KEY} system property.
+ * The loaded runtime classes are kept in a {@link JiffleRuntimeCache}, so that
+ * further requests for the same script only create a new instance.
  *
  * @see JiffleBuilder
  * @see it.geosolutions.jaiext.jiffle.runtime.JiffleExecutor
@@ -127,9 +134,14 @@ import it.geosolutions.jaiext.jiffle.runtime.JiffleRuntime;
 public class Jiffle {
     
     public static final Logger LOGGER = Logger.getLogger(Jiffle.class.getName());
+
+    /** System property setting the default {@link Backend} (SOURCE or BYTECODE) */
+    public static final String BACKEND_KEY = "it.geosolutions.jaiext.jiffle.backend";
     
     boolean includeScript;
 
+    private Backend backend = getDefaultBackend();
+
     /** 
      * Constants for runtime model. Jiffle supports two runtime models:
      * <ol type="1">
@@ -189,6 +201,47 @@ public class Jiffle {
         }
     }
 
+
+    /**
+     * Constants for the compiler backend, building the runtime classes:
+     * <ol type="1">
+     * <li>
+     * <b>Source</b> - the runtime class Java source is generated and compiled
+     * with Janino
+     * </li>
+     * <li>
+     * <b>Bytecode</b> - the runtime class is generated directly as bytecode, with
+     * the same behaviour as the compiled source. It supports only the default
+     * runtime base classes, runtime objects based on custom base classes are always
+     * built from source
+     * </li>
+     * </ol>
+     */
+    public static enum Backend {
+        /** The runtime class is compiled from its Java source */
+        SOURCE,
+
+        /** The runtime class is generated as bytecode */
+        BYTECODE;
+    }
+
+    /**
+     * Returns the backend set by the {@value #BACKEND_KEY} system property, or
+     * {@link Backend#SOURCE} if not set
+     *
+     * @return the default backend
+     */
+    public static Backend getDefaultBackend() {
+        String value = System.getProperty(BACKEND_KEY);
+        if (value != null) {
+            try {
+                return Backend.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                LOGGER.warning("Unknown Jiffle backend " + value + ", using the source one");
+            }
+        }
+        return Backend.SOURCE;
+    }
     
     /** Number of Jiffle instances */
     private static int refCount = 0;
@@ -286,6 +339,24 @@ public class Jiffle {
         this.includeScript = includeScript;
     }
 
+    /**
+     * Returns the backend used to build the runtime classes
+     *
+     * @return the backend
+     */
+    public Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Sets the backend used to build the runtime classes
+     *
+     * @param backend the backend, {@code null} to use the default one
+     */
+    public void setBackend(Backend backend) {
+        this.backend = backend == null ? getDefaultBackend() : backend;
+    }
+
     /**
      * Sets the script. Calling this method will clear any previous script
      * and runtime objects.
@@ -535,6 +606,33 @@ public class Jiffle {
             throw new it.geosolutions.jaiext.jiffle.JiffleException("The script has not been compiled");
         }
 
+        // only compile the runtime class if the same script was not already seen
+        JiffleRuntimeCache cache = JiffleRuntimeCache.getDefault();
+        JiffleRuntimeCache.Key key =
+                new JiffleRuntimeCache.Key(
+                        theScript, imageParams, model, runtimeClass, scriptInDocs, backend);
+        JiffleRuntimeCache.CompiledRuntime compiled = cache.get(key);
+        if (compiled == null) {
+            compiled = compileRuntime(model, runtimeClass, scriptInDocs);
+            cache.put(key, compiled);
+        }
+        return compiled.newInstance();
+    }
+
+    /**
+     * Generates the runtime source and compiles it into a runtime class. The script must
+     * have been compiled before calling this method.
+     */
+    JiffleRuntimeCache.CompiledRuntime compileRuntime(RuntimeModel model, Class<? extends JiffleRuntime> runtimeClass, boolean scriptInDocs) throws
+            it.geosolutions.jaiext.jiffle.JiffleException {
+        if (!isCompiled()) {
+            throw new it.geosolutions.jaiext.jiffle.JiffleException("The script has not been compiled");
+        }
+        // custom base classes are only supported by the source backend
+        if (backend == Backend.BYTECODE && runtimeClass == getRuntimeBaseClass(model)) {
+            return generateRuntime(model, runtimeClass);
+        }
+
         String runtimeSource = createRuntimeSource(model, runtimeClass.getName(), scriptInDocs);
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.log(Level.FINE, "Jiffle script compiled to:\n\n" + runtimeSource);    
@@ -562,13 +660,9 @@ public class Jiffle {
                     throw new IllegalArgumentException("Internal compiler error");
             }
 
-            Class<?> clazz = compiler.getClassLoader().loadClass(sb.toString());
-            JiffleRuntime runtime = (JiffleRuntime) clazz.newInstance();
-            runtime.setImageParams(imageParams);
-            if (runtime instanceof JiffleIndirectRuntime) {
-                ((JiffleIndirectRuntime) runtime).setDestinationBands(destinationBands);
-            }
-            return runtime;
+            Class<? extends JiffleRuntime> clazz = (Class<? extends JiffleRuntime>)
+                    compiler.getClassLoader().loadClass(sb.toString());
+            return new JiffleRuntimeCache.CompiledRuntime(clazz, imageParams, destinationBands);
 
         } catch (Exception ex) {
             // do not display the source code in indirect runtime exception messages
@@ -582,6 +676,25 @@ public class Jiffle {
         }
     }
 
+    /**
+     * Generates the runtime class bytecode directly from the script model, and loads it.
+     */
+    private JiffleRuntimeCache.CompiledRuntime generateRuntime(
+            RuntimeModel model, Class<? extends JiffleRuntime> runtimeClass)
+            throws it.geosolutions.jaiext.jiffle.JiffleException {
+        try {
+            byte[] bytes = new BytecodeWriter(model).write(scriptModel);
+            Class<? extends JiffleRuntime> clazz =
+                    BytecodeWriter.defineClass(
+                            BytecodeWriter.getClassName(model),
+                            bytes,
+                            runtimeClass.getClassLoader());
+            return new JiffleRuntimeCache.CompiledRuntime(clazz, imageParams, destinationBands);
+        } catch (Exception | LinkageError ex) {
+            throw new JiffleException("Runtime bytecode error", ex);
+        }
+    }
+
     /**
      * Gets a copy of the Java source for the runtime class. The 
      * script must have been compiled before calling this method.
@@ -618,7 +731,7 @@ public class Jiffle {
         return createRuntimeSource(model, getRuntimeBaseClass(model).getName(), scriptInDocs);
     }
 
-    private Class<? extends JiffleRuntime> getRuntimeBaseClass(RuntimeModel model) {
+    static Class<? extends JiffleRuntime> getRuntimeBaseClass(RuntimeModel model) {
         Class<? extends JiffleRuntime> baseClass = null;
         switch (model) {
             case DIRECT:
@@ -0,0 +1,453 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import it.geosolutions.jaiext.jiffle.runtime.JiffleIndirectRuntime;
+import it.geosolutions.jaiext.jiffle.runtime.JiffleRuntime;
+
+/**
+ * A bounded, thread-safe cache of compiled Jiffle runtime classes.
+ * <p>
+ * Compiling a script (parsing it, generating the Java source and running it through Janino)
+ * is by far the most expensive part of setting up a Jiffle runtime. This cache keeps the loaded
+ * runtime classes keyed by the normalized script, the image roles, the runtime model and the
+ * runtime base class, so that running the same script again only requires instantiating an
+ * already loaded class.
+ * <p>
+ * The least recently used entries are evicted once the maximum size is reached. The default
+ * instance size can be set using the {@value #MAX_SIZE_KEY} system property, a value of zero
+ * disables caching.
+ * <p>
+ * Example of use, warming up the cache at startup and then getting runtime objects at
+ * request time:
+ * <pre><code>
+ * JiffleRuntimeCache cache = JiffleRuntimeCache.getDefault();
+ * cache.warmUp(script, imageParams, Jiffle.RuntimeModel.INDIRECT);
+ * ...
+ * JiffleIndirectRuntime runtime = (JiffleIndirectRuntime)
+ *         cache.getRuntimeInstance(script, imageParams, Jiffle.RuntimeModel.INDIRECT);
+ * </code></pre>
+ */
+public class JiffleRuntimeCache {
+
+    static final Logger LOGGER = Logger.getLogger(JiffleRuntimeCache.class.getName());
+
+    /** System property used to set the maximum size of the default cache */
+    public static final String MAX_SIZE_KEY = "it.geosolutions.jaiext.jiffle.cache.maxSize";
+
+    /** Default maximum number of runtime classes held by the default cache */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final JiffleRuntimeCache DEFAULT =
+            new JiffleRuntimeCache(Integer.getInteger(MAX_SIZE_KEY, DEFAULT_MAX_SIZE));
+
+    private final Map<Key, CompiledRuntime> runtimes;
+
+    private volatile int maxSize;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Returns the cache shared by {@link Jiffle} instances and the Jiffle operation.
+     *
+     * @return the default cache
+     */
+    public static JiffleRuntimeCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new cache holding at most {@code maxSize} runtime classes.
+     *
+     * @param maxSize the maximum number of cached classes, zero disables caching
+     */
+    public JiffleRuntimeCache(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The cache size cannot be negative");
+        }
+        this.maxSize = maxSize;
+        this.runtimes =
+                new LinkedHashMap<Key, CompiledRuntime>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Key, CompiledRuntime> eldest) {
+                        if (size() > JiffleRuntimeCache.this.maxSize) {
+                            evictions.incrementAndGet();
+                            return true;
+                        }
+                        return false;
+                    }
+                };
+    }
+
+    /**
+     * Returns a new runtime instance for the given script, compiling the script only if a
+     * matching runtime class is not already in the cache. The runtime class extends the default
+     * base class for the given model.
+     *
+     * @param script the Jiffle script
+     * @param imageParams the image variable names and roles, if empty the script images block
+     *     will be used
+     * @param model the runtime model
+     * @return a new runtime object
+     * @throws JiffleException if the script cannot be compiled or the runtime cannot be created
+     */
+    public JiffleRuntime getRuntimeInstance(
+            String script, Map<String, Jiffle.ImageRole> imageParams, Jiffle.RuntimeModel model)
+            throws JiffleException {
+        return getCompiledRuntime(script, imageParams, model).newInstance();
+    }
+
+    /**
+     * Compiles the script and loads its runtime classes for the given models, unless they are
+     * already cached. Meant to be used at startup for scripts that are known to be used often.
+     *
+     * @param script the Jiffle script
+     * @param imageParams the image variable names and roles
+     * @param models the runtime models to prepare
+     * @throws JiffleException if the script cannot be compiled
+     */
+    public void warmUp(
+            String script, Map<String, Jiffle.ImageRole> imageParams, Jiffle.RuntimeModel... models)
+            throws JiffleException {
+        for (Jiffle.RuntimeModel model : models) {
+            getCompiledRuntime(script, imageParams, model);
+        }
+    }
+
+    private CompiledRuntime getCompiledRuntime(
+            String script, Map<String, Jiffle.ImageRole> imageParams, Jiffle.RuntimeModel model)
+            throws JiffleException {
+        if (script == null || script.trim().length() == 0) {
+            throw new JiffleException("script is empty !");
+        }
+        Class<? extends JiffleRuntime> baseClass = Jiffle.getRuntimeBaseClass(model);
+        Jiffle.Backend backend = Jiffle.getDefaultBackend();
+        Key key = new Key(script, imageParams, model, baseClass, false, backend);
+        CompiledRuntime compiled = get(key);
+        if (compiled == null) {
+            Jiffle jiffle = new Jiffle(script, imageParams);
+            jiffle.setBackend(backend);
+            compiled = jiffle.compileRuntime(model, baseClass, false);
+            put(key, compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Looks up a compiled runtime, updating the hit and miss counters
+     *
+     * @param key the lookup key
+     * @return the compiled runtime, or {@code null} if not found
+     */
+    CompiledRuntime get(Key key) {
+        CompiledRuntime compiled = null;
+        if (maxSize > 0) {
+            synchronized (runtimes) {
+                compiled = runtimes.get(key);
+            }
+        }
+        if (compiled != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return compiled;
+    }
+
+    /**
+     * Adds a compiled runtime to the cache
+     *
+     * @param key the lookup key
+     * @param compiled the compiled runtime
+     */
+    void put(Key key, CompiledRuntime compiled) {
+        if (maxSize > 0) {
+            synchronized (runtimes) {
+                runtimes.put(key, compiled);
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of runtime classes held by this cache
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maximum number of runtime classes held by this cache, evicting the least recently
+     * used ones if the cache is currently larger.
+     *
+     * @param maxSize the maximum size, zero disables caching
+     */
+    public void setMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("The cache size cannot be negative");
+        }
+        synchronized (runtimes) {
+            this.maxSize = maxSize;
+            Iterator<Key> it = runtimes.keySet().iterator();
+            while (runtimes.size() > maxSize && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of runtime classes currently cached
+     *
+     * @return the cache size
+     */
+    public int getSize() {
+        synchronized (runtimes) {
+            return runtimes.size();
+        }
+    }
+
+    /** Returns the number of lookups that found a compiled runtime class */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Returns the number of lookups that required compiling the script */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Returns the number of runtime classes evicted to respect the maximum size */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** Removes all the cached runtime classes, without resetting the statistics */
+    public void clear() {
+        synchronized (runtimes) {
+            runtimes.clear();
+        }
+    }
+
+    /** Resets the hit, miss and eviction counters */
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "JiffleRuntimeCache[size="
+                + getSize()
+                + ", maxSize="
+                + maxSize
+                + ", hits="
+                + hits.get()
+                + ", misses="
+                + misses.get()
+                + ", evictions="
+                + evictions.get()
+                + "]";
+    }
+
+    /**
+     * Normalizes a script for use as a cache key, removing leading and trailing spaces from
+     * each line and skipping the empty ones (the same normalization applied when reading a script
+     * from a file). Quoted literals are copied as they are, including the line breaks and spaces
+     * they contain, and comments are skipped over so that the quotes they contain are ignored.
+     *
+     * @param script the script
+     * @return the normalized script
+     */
+    static String normalize(String script) {
+        StringBuilder sb = new StringBuilder(script.length());
+        StringBuilder line = new StringBuilder();
+        int length = script.length();
+        int i = 0;
+        while (i < length) {
+            char c = script.charAt(i);
+            int end;
+            if (c == '"' || c == '\'') {
+                end = literalEnd(script, i);
+            } else if (script.startsWith("//", i)) {
+                end = lineEnd(script, i);
+            } else if (script.startsWith("/*", i)) {
+                end = script.indexOf("*/", i + 2);
+                end = end < 0 ? length : end + 2;
+            } else {
+                end = -1;
+            }
+            if (end >= 0) {
+                line.append(script, i, end);
+                i = end;
+            } else if (c == '\r' || c == '\n') {
+                appendLine(sb, line);
+                i += c == '\r' && i + 1 < length && script.charAt(i + 1) == '\n' ? 2 : 1;
+            } else {
+                line.append(c);
+                i++;
+            }
+        }
+        appendLine(sb, line);
+        return sb.toString();
+    }
+
+    /** Returns the index following the literal starting at the given quote */
+    private static int literalEnd(String script, int start) {
+        char quote = script.charAt(start);
+        int i = start + 1;
+        while (i < script.length()) {
+            char c = script.charAt(i++);
+            if (c == '\\') {
+                // escape sequence, the next character cannot close the literal
+                i++;
+            } else if (c == quote) {
+                return i;
+            }
+        }
+        // not terminated
+        return script.length();
+    }
+
+    /** Returns the index of the line break following the given position */
+    private static int lineEnd(String script, int start) {
+        int i = start;
+        while (i < script.length() && script.charAt(i) != '\r' && script.charAt(i) != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    private static void appendLine(StringBuilder sb, StringBuilder line) {
+        String trimmed = line.toString().trim();
+        if (trimmed.length() > 0) {
+            sb.append(trimmed).append('\n');
+        }
+        line.setLength(0);
+    }
+
+    /**
+     * The cache key: normalized script, image roles, runtime model, base class and compiler
+     * backend
+     */
+    static final class Key {
+        private final String script;
+        private final Map<String, Jiffle.ImageRole> imageParams;
+        private final Jiffle.RuntimeModel model;
+        private final Class<?> baseClass;
+        private final boolean scriptInDocs;
+        private final Jiffle.Backend backend;
+        private final int hashCode;
+
+        Key(
+                String script,
+                Map<String, Jiffle.ImageRole> imageParams,
+                Jiffle.RuntimeModel model,
+                Class<?> baseClass,
+                boolean scriptInDocs,
+                Jiffle.Backend backend) {
+            this.script = normalize(script);
+            this.imageParams =
+                    imageParams == null
+                            ? Collections.<String, Jiffle.ImageRole>emptyMap()
+                            : new HashMap<>(imageParams);
+            this.model = model;
+            this.baseClass = baseClass;
+            this.scriptInDocs = scriptInDocs;
+            this.backend = backend;
+            this.hashCode =
+                    Objects.hash(
+                            this.script, this.imageParams, model, baseClass, scriptInDocs, backend);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return scriptInDocs == key.scriptInDocs
+                    && model == key.model
+                    && baseClass == key.baseClass
+                    && backend == key.backend
+                    && script.equals(key.script)
+                    && imageParams.equals(key.imageParams);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A loaded runtime class along with the information needed to set up its instances.
+     */
+    static final class CompiledRuntime {
+        private final Class<? extends JiffleRuntime> runtimeClass;
+        private final Map<String, Jiffle.ImageRole> imageParams;
+        private final Map<String, Integer> destinationBands;
+
+        CompiledRuntime(
+                Class<? extends JiffleRuntime> runtimeClass,
+                Map<String, Jiffle.ImageRole> imageParams,
+                Map<String, Integer> destinationBands) {
+            this.runtimeClass = runtimeClass;
+            this.imageParams = new HashMap<>(imageParams);
+            this.destinationBands =
+                    destinationBands == null ? null : new HashMap<>(destinationBands);
+        }
+
+        Class<? extends JiffleRuntime> getRuntimeClass() {
+            return runtimeClass;
+        }
+
+        JiffleRuntime newInstance() throws JiffleException {
+            try {
+                JiffleRuntime runtime = runtimeClass.newInstance();
+                runtime.setImageParams(imageParams);
+                if (runtime instanceof JiffleIndirectRuntime) {
+                    ((JiffleIndirectRuntime) runtime).setDestinationBands(destinationBands);
+                }
+                return runtime;
+            } catch (InstantiationException | IllegalAccessException ex) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Failed to instantiate " + runtimeClass.getName(), ex);
+                }
+                throw new JiffleException("Could not create the runtime instance", ex);
+            }
+        }
+    }
+}
@@ -313,7 +313,7 @@ abstract class AbstractModelWorker extends PropertyWorker<Node> {
         String name = ctx.ID().getText();
         // variable or constant?
         if (ConstantLookup.isDefined(name)) {
-            set(ctx, new DoubleLiteral(Double.toString(ConstantLookup.getValue(name))));
+            set(ctx, ConstantLiteral.valueOf(ConstantLookup.getValue(name)));
         } else {
             Symbol symbol = getScope(ctx).get(name);
 
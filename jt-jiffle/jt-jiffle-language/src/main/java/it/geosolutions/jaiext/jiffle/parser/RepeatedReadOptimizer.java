@@ -59,43 +59,54 @@ public class RepeatedReadOptimizer {
      * reference. Please call {@link #resetVariables()} to allow re-using the script one more time.
      */
     public void declareRepeatedReads(SourceWriter w) {
-        for (GetSourceValue sourceValue : sourceValues.keySet()) {
-            List<GetSourceValue> valuesList = sourceValues.get(sourceValue);
-            if (valuesList.size() > 1) {
-                ImagePos pos = sourceValue.getPos();
-                Expression band = pos.getBand().getIndex();
-                Expression x = pos.getPixel().getX();
-                Expression y = pos.getPixel().getY();
-                SourceWriter varWriter = new SourceWriter(w.getRuntimeModel());
-                if (band instanceof ScalarLiteral && isPosition(x) && isPosition(y)) {
-                    // prefixes are used to separate variables "sv_" stands for source value
-                    varWriter.append("sv_").append(sourceValue.getVarName()).append("_");
-                    x.write(varWriter);
-                    varWriter.append("_");
-                    y.write(varWriter);
-                    varWriter.append("_");
-                    band.write(varWriter);
-                    String variableName = varWriter.getSource().replace("-", "_");
+        for (GetSourceValue sourceValue : getRepeatedReads()) {
+            ImagePos pos = sourceValue.getPos();
+            SourceWriter varWriter = new SourceWriter(w.getRuntimeModel());
+            // prefixes are used to separate variables "sv_" stands for source value
+            varWriter.append("sv_").append(sourceValue.getVarName()).append("_");
+            pos.getPixel().getX().write(varWriter);
+            varWriter.append("_");
+            pos.getPixel().getY().write(varWriter);
+            varWriter.append("_");
+            pos.getBand().getIndex().write(varWriter);
+            String variableName = varWriter.getSource().replace("-", "_");
 
-                    w.indent();
-                    w.append("double ").append(variableName).append(" = ");
-                    sourceValue.write(w);
-                    w.append(";");
-                    w.newLine();
+            w.indent();
+            w.append("double ").append(variableName).append(" = ");
+            sourceValue.write(w);
+            w.append(";");
+            w.newLine();
 
-                    for (GetSourceValue reference : valuesList) {
-                        reference.setVariableName(variableName);
-                    }
+            for (GetSourceValue reference : sourceValues.get(sourceValue)) {
+                reference.setVariableName(variableName);
+            }
+        }
+    }
+
+    /**
+     * Returns the reads that are repeated at least once and can be shared in a local variable,
+     * that is, reads at the current or at a fixed pixel, with a literal band index
+     */
+    public List<GetSourceValue> getRepeatedReads() {
+        List<GetSourceValue> result = new ArrayList<>();
+        for (Map.Entry<GetSourceValue, List<GetSourceValue>> entry : sourceValues.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                ImagePos pos = entry.getKey().getPos();
+                if (pos.getBand().getIndex() instanceof ScalarLiteral
+                        && isPosition(pos.getPixel().getX())
+                        && isPosition(pos.getPixel().getY())) {
+                    result.add(entry.getKey());
                 }
             }
         }
+        return result;
     }
 
     /**
      * Checks that the expression is just a proxy to a variable (e.g., <code>_x</code> or <code>_y
      * </code>) or an absolute reference to a fixed pixel.
      */
-    private boolean isPosition(Expression x) {
+    static boolean isPosition(Expression x) {
         return (x instanceof FunctionCall && ((FunctionCall) x).isProxy())
                 || x instanceof ScalarLiteral;
     }
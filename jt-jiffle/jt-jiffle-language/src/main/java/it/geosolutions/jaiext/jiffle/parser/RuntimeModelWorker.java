@@ -161,8 +161,10 @@ public class RuntimeModelWorker extends AbstractModelWorker {
         Set<String> sourceImages = globalScope.getByType(Symbol.Type.SOURCE_IMAGE);
         Set<String> destImages = globalScope.getByType(Symbol.Type.DEST_IMAGE);
 
+        ScriptOptimizer optimizer = new ScriptOptimizer();
+        stmts = optimizer.optimize(globals, stmts);
         this.script = new Script(options, sourceImages, destImages, globals, stmts,
-                readsOptimizer);
+                readsOptimizer, optimizer);
         set(ctx, this.script);
     }
 
@@ -0,0 +1,762 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle.parser;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+import it.geosolutions.jaiext.jiffle.parser.node.BinaryExpression;
+import it.geosolutions.jaiext.jiffle.parser.node.BreakIf;
+import it.geosolutions.jaiext.jiffle.parser.node.CachedValue;
+import it.geosolutions.jaiext.jiffle.parser.node.ConFunction;
+import it.geosolutions.jaiext.jiffle.parser.node.ConstantLiteral;
+import it.geosolutions.jaiext.jiffle.parser.node.Expression;
+import it.geosolutions.jaiext.jiffle.parser.node.FunctionCall;
+import it.geosolutions.jaiext.jiffle.parser.node.GetSourceValue;
+import it.geosolutions.jaiext.jiffle.parser.node.GlobalVars;
+import it.geosolutions.jaiext.jiffle.parser.node.IfElse;
+import it.geosolutions.jaiext.jiffle.parser.node.ImagePos;
+import it.geosolutions.jaiext.jiffle.parser.node.ImageProperty;
+import it.geosolutions.jaiext.jiffle.parser.node.ListAppend;
+import it.geosolutions.jaiext.jiffle.parser.node.ListLiteral;
+import it.geosolutions.jaiext.jiffle.parser.node.LoopInLiteralList;
+import it.geosolutions.jaiext.jiffle.parser.node.LoopInRange;
+import it.geosolutions.jaiext.jiffle.parser.node.LoopInVariable;
+import it.geosolutions.jaiext.jiffle.parser.node.Node;
+import it.geosolutions.jaiext.jiffle.parser.node.NodeException;
+import it.geosolutions.jaiext.jiffle.parser.node.ParenExpression;
+import it.geosolutions.jaiext.jiffle.parser.node.PostfixUnaryExpression;
+import it.geosolutions.jaiext.jiffle.parser.node.PrefixUnaryExpression;
+import it.geosolutions.jaiext.jiffle.parser.node.ScalarLiteral;
+import it.geosolutions.jaiext.jiffle.parser.node.SetDestValue;
+import it.geosolutions.jaiext.jiffle.parser.node.SimpleStatement;
+import it.geosolutions.jaiext.jiffle.parser.node.SourceWriter;
+import it.geosolutions.jaiext.jiffle.parser.node.Statement;
+import it.geosolutions.jaiext.jiffle.parser.node.StatementList;
+import it.geosolutions.jaiext.jiffle.parser.node.Until;
+import it.geosolutions.jaiext.jiffle.parser.node.Variable;
+import it.geosolutions.jaiext.jiffle.parser.node.While;
+import it.geosolutions.jaiext.jiffle.runtime.JiffleFunctions;
+
+/**
+ * Support class rewriting the statements of a script before the runtime source is generated. It
+ * applies, in this order:
+ *
+ * <ul>
+ *   <li>constant folding, replacing expressions made only of literals with their value
+ *   <li>pixel invariant hoisting, moving expressions that do not depend on the pixel being
+ *       processed (literals, image-scope variables never assigned by the script, world
+ *       properties such as {@code width()}) into runtime fields computed once in {@code
+ *       initImageScopeVars}
+ *   <li>common subexpression elimination, computing expressions repeated in the script (and free
+ *       of variables that the script can modify) once per pixel, at the top of the evaluation.
+ *       Only the expressions evaluated on every path through the script are moved, not the ones
+ *       found only in conditional branches, loop bodies or the value arms of {@code con}
+ * </ul>
+ *
+ * Source reads are only shared under the same conditions as {@link RepeatedReadOptimizer}, and
+ * volatile functions such as {@code rand} are never moved. The changes are listed as a comment in
+ * the generated source.
+ */
+public class ScriptOptimizer {
+
+    private static final String INVARIANT_PREFIX = "_inv";
+
+    private static final String SUBEXPRESSION_PREFIX = "_cse";
+
+    private final JiffleFunctions functions = new JiffleFunctions();
+
+    private final Map<Expression, Expression> folded = new LinkedHashMap<>();
+
+    private final Map<Expression, CachedValue> invariants = new LinkedHashMap<>();
+
+    private final Map<CachedValue, Expression> subexpressions = new LinkedHashMap<>();
+
+    private final Map<CachedValue, Integer> occurrences = new LinkedHashMap<>();
+
+    private final Set<String> globalNames = new HashSet<>();
+
+    private final Set<String> assignedNames = new HashSet<>();
+
+    /**
+     * Optimizes the statements of a script.
+     *
+     * @param globals the image-scope variables declared in the init block
+     * @param stmts the script statements
+     * @return the rewritten statements
+     */
+    public StatementList optimize(GlobalVars globals, StatementList stmts) {
+        for (BinaryExpression init : globals.getInits()) {
+            if (init.getLeft() instanceof Variable) {
+                globalNames.add(((Variable) init.getLeft()).getName());
+            }
+        }
+        collectAssignedNames(stmts);
+
+        StatementList result = (StatementList) rewrite(stmts, this::fold);
+        result = (StatementList) rewrite(result, this::hoist);
+        return extractSubexpressions(result);
+    }
+
+    /** Declares the fields holding the pixel invariant values */
+    public void writeFields(SourceWriter w) {
+        for (CachedValue value : invariants.values()) {
+            w.indent().append("double ").append(value).append(";").newLine();
+        }
+    }
+
+    /**
+     * Computes the pixel invariant values, to be called in {@code initImageScopeVars} once the
+     * image-scope variables are initialized
+     */
+    public void writeInvariants(SourceWriter w) {
+        for (Map.Entry<Expression, CachedValue> entry : invariants.entrySet()) {
+            w.indent().append(entry.getValue()).append(" = ").append(entry.getKey()).append(";");
+            w.newLine();
+        }
+    }
+
+    /**
+     * Declares a local variable for each common subexpression, to be called at the beginning of
+     * the pixel evaluation, after {@link RepeatedReadOptimizer#declareRepeatedReads(SourceWriter)}
+     */
+    public void declareSubexpressions(SourceWriter w) {
+        for (CachedValue value : getSubexpressionOrder()) {
+            w.indent()
+                    .append("double ")
+                    .append(value)
+                    .append(" = ")
+                    .append(subexpressions.get(value))
+                    .append(";");
+            w.newLine();
+        }
+    }
+
+    /**
+     * Returns the common subexpressions in an order where each one comes after the ones used in
+     * its definition
+     */
+    public List<CachedValue> getSubexpressionOrder() {
+        List<CachedValue> result = new ArrayList<>();
+        Set<CachedValue> declared = new HashSet<>();
+        for (CachedValue value : subexpressions.keySet()) {
+            orderSubexpression(value, declared, result);
+        }
+        return result;
+    }
+
+    private void orderSubexpression(
+            CachedValue value, Set<CachedValue> declared, List<CachedValue> result) {
+        if (!declared.add(value)) {
+            return;
+        }
+        // subexpressions found later may be used in the definition, declare them first
+        List<CachedValue> dependencies = new ArrayList<>();
+        rebuild(subexpressions.get(value), e -> collectSubexpressions(e, dependencies));
+        for (CachedValue dependency : dependencies) {
+            orderSubexpression(dependency, declared, result);
+        }
+        result.add(value);
+    }
+
+    private Expression collectSubexpressions(Expression e, List<CachedValue> result) {
+        if (e instanceof CachedValue && subexpressions.containsKey(e)) {
+            result.add((CachedValue) e);
+        }
+        return rebuild(e, c -> collectSubexpressions(c, result));
+    }
+
+    /** Lists the applied optimizations as comments in the generated source */
+    public void writeReport(SourceWriter w) {
+        if (folded.isEmpty() && invariants.isEmpty() && subexpressions.isEmpty()) {
+            return;
+        }
+        w.line("// Optimizations applied by the Jiffle compiler:");
+        for (Map.Entry<Expression, Expression> entry : folded.entrySet()) {
+            w.line("//   folded constant: "
+                    + w.writeToString(entry.getKey())
+                    + " -> "
+                    + w.writeToString(entry.getValue()));
+        }
+        for (Map.Entry<Expression, CachedValue> entry : invariants.entrySet()) {
+            w.line("//   hoisted pixel invariant: "
+                    + entry.getValue()
+                    + " = "
+                    + w.writeToString(entry.getKey()));
+        }
+        for (Map.Entry<CachedValue, Expression> entry : subexpressions.entrySet()) {
+            w.line("//   common subexpression: "
+                    + entry.getKey()
+                    + " = "
+                    + w.writeToString(entry.getValue())
+                    + " ("
+                    + occurrences.get(entry.getKey())
+                    + " occurrences)");
+        }
+        w.newLine();
+    }
+
+    /** Returns the folded expressions, mapped to the literal replacing them */
+    public Map<Expression, Expression> getFolded() {
+        return new LinkedHashMap<>(folded);
+    }
+
+    /** Returns the pixel invariant expressions, mapped to the field holding their value */
+    public Map<Expression, CachedValue> getInvariants() {
+        return new LinkedHashMap<>(invariants);
+    }
+
+    /** Returns the common subexpressions, keyed by the local variable holding their value */
+    public Map<CachedValue, Expression> getSubexpressions() {
+        return new LinkedHashMap<>(subexpressions);
+    }
+
+    private Expression fold(Expression e) {
+        if (!isLiteral(e)) {
+            Double value = constantValue(e);
+            if (value != null) {
+                Expression literal = ConstantLiteral.valueOf(value);
+                folded.put(e, literal);
+                return literal;
+            }
+        }
+        return rebuild(e, this::fold);
+    }
+
+    private Expression hoist(Expression e) {
+        if (isComposite(e) && isStable(e, false)) {
+            // the field reference does not need the parentheses
+            while (e instanceof ParenExpression) {
+                e = ((ParenExpression) e).getExpr();
+            }
+            CachedValue value = invariants.get(e);
+            if (value == null) {
+                value = new CachedValue(INVARIANT_PREFIX + invariants.size(), e.getType());
+                invariants.put(e, value);
+            }
+            return value;
+        }
+        return rebuild(e, this::hoist);
+    }
+
+    /**
+     * Repeatedly picks the largest expression occurring more than once, and evaluated on every
+     * path through the script, and replaces it with a local variable, until no such expression
+     * is left
+     */
+    private StatementList extractSubexpressions(StatementList stmts) {
+        StatementList result = stmts;
+        while (true) {
+            Map<Expression, Integer> counts = new LinkedHashMap<>();
+            Set<Expression> unconditional = new HashSet<>();
+            countSubexpressions(result, false, counts, unconditional);
+            for (Expression definition : subexpressions.values()) {
+                // the definitions are evaluated at the top of the pixel evaluation
+                countSubexpressions(definition, false, counts, unconditional);
+            }
+
+            Expression target = null;
+            int targetSize = 0;
+            for (Map.Entry<Expression, Integer> entry : counts.entrySet()) {
+                if (entry.getValue() > 1 && unconditional.contains(entry.getKey())) {
+                    int size = size(entry.getKey());
+                    if (size > targetSize) {
+                        target = entry.getKey();
+                        targetSize = size;
+                    }
+                }
+            }
+            if (target == null) {
+                return result;
+            }
+
+            CachedValue value =
+                    new CachedValue(SUBEXPRESSION_PREFIX + subexpressions.size(), target.getType());
+            final Expression replaced = target;
+            UnaryOperator<Expression> replacer = e -> replace(e, replaced, value);
+            result = (StatementList) rewrite(result, replacer);
+            for (Map.Entry<CachedValue, Expression> entry : subexpressions.entrySet()) {
+                entry.setValue(rebuild(entry.getValue(), replacer));
+            }
+            subexpressions.put(value, target);
+            occurrences.put(value, counts.get(target));
+        }
+    }
+
+    /**
+     * Counts the candidate subexpressions of a statement, recording the ones evaluated on every
+     * path through it
+     *
+     * @param conditional whether the statement may be skipped
+     */
+    private void countSubexpressions(
+            Node node,
+            boolean conditional,
+            Map<Expression, Integer> counts,
+            Set<Expression> unconditional) {
+        if (node instanceof StatementList) {
+            for (Statement stmt : ((StatementList) node).getStmts()) {
+                countSubexpressions(stmt, conditional, counts, unconditional);
+            }
+            return;
+        } else if (!(node instanceof Statement)) {
+            return;
+        }
+
+        // conditions and loop ranges are always evaluated, the nested statements may not be
+        rewriteExpressions(
+                (Statement) node, e -> countSubexpressions(e, conditional, counts, unconditional));
+        if (node instanceof IfElse) {
+            IfElse ifElse = (IfElse) node;
+            countSubexpressions(ifElse.getIfStatement(), true, counts, unconditional);
+            countSubexpressions(ifElse.getElseStatement(), true, counts, unconditional);
+        } else if (node instanceof While) {
+            countSubexpressions(((While) node).getStatement(), true, counts, unconditional);
+        } else if (node instanceof Until) {
+            countSubexpressions(((Until) node).getStatement(), true, counts, unconditional);
+        } else if (node instanceof LoopInRange) {
+            countSubexpressions(((LoopInRange) node).getStatement(), true, counts, unconditional);
+        } else if (node instanceof LoopInLiteralList) {
+            countSubexpressions(
+                    ((LoopInLiteralList) node).getStatement(), true, counts, unconditional);
+        } else if (node instanceof LoopInVariable) {
+            countSubexpressions(
+                    ((LoopInVariable) node).getStatement(), true, counts, unconditional);
+        }
+    }
+
+    private Expression countSubexpressions(
+            Expression e,
+            boolean conditional,
+            Map<Expression, Integer> counts,
+            Set<Expression> unconditional) {
+        if (isComposite(e) && isStable(e, true)) {
+            counts.merge(e, 1, Integer::sum);
+            if (!conditional) {
+                unconditional.add(e);
+            }
+        }
+        if (e instanceof ConFunction) {
+            // only the condition is always evaluated, then one of the values
+            Expression[] args = ((ConFunction) e).getArgs();
+            for (int i = 0; i < args.length; i++) {
+                countSubexpressions(args[i], conditional || i > 0, counts, unconditional);
+            }
+            return e;
+        }
+        return rebuild(e, c -> countSubexpressions(c, conditional, counts, unconditional));
+    }
+
+    private Expression replace(Expression e, Expression target, CachedValue value) {
+        if (e.equals(target)) {
+            return value;
+        }
+        return rebuild(e, c -> replace(c, target, value));
+    }
+
+    private int size(Expression e) {
+        int[] size = {1};
+        rebuild(
+                e,
+                c -> {
+                    size[0] += size(c);
+                    return c;
+                });
+        return size[0];
+    }
+
+    /** Tests whether the expression computes something, as opposed to being a simple value */
+    private boolean isComposite(Expression e) {
+        if (e.getType() != JiffleType.D || isLiteral(e)) {
+            return false;
+        }
+        if (e instanceof BinaryExpression) {
+            return !((BinaryExpression) e).getOp().isAssignment();
+        } else if (e instanceof PrefixUnaryExpression) {
+            return isSign((PrefixUnaryExpression) e);
+        } else if (e instanceof ParenExpression) {
+            return isComposite(((ParenExpression) e).getExpr());
+        } else if (e instanceof FunctionCall) {
+            return !((FunctionCall) e).isProxy();
+        }
+        return e instanceof ConFunction;
+    }
+
+    /**
+     * Tests whether the expression has the same value for all pixels or, if {@code perPixel} is
+     * set, over the whole evaluation of a single pixel
+     */
+    private boolean isStable(Expression e, boolean perPixel) {
+        if (e instanceof ScalarLiteral || e instanceof ImageProperty) {
+            return true;
+        } else if (e instanceof CachedValue) {
+            return perPixel || invariants.containsValue(e);
+        } else if (e instanceof Variable) {
+            String name = ((Variable) e).getName();
+            return e.getType() == JiffleType.D
+                    && globalNames.contains(name)
+                    && !assignedNames.contains(name);
+        } else if (e instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) e;
+            if (call.isProxy()) {
+                String name = call.getRuntimeName();
+                return perPixel || !("_x".equals(name) || "_y".equals(name));
+            }
+            return !call.isVolatile() && areStable(call.getArgs(), perPixel);
+        } else if (e instanceof BinaryExpression) {
+            BinaryExpression be = (BinaryExpression) e;
+            return !be.getOp().isAssignment()
+                    && isStable(be.getLeft(), perPixel)
+                    && isStable(be.getRight(), perPixel);
+        } else if (e instanceof PrefixUnaryExpression) {
+            PrefixUnaryExpression pe = (PrefixUnaryExpression) e;
+            return isSign(pe) && isStable(pe.getArg(), perPixel);
+        } else if (e instanceof ParenExpression) {
+            return isStable(((ParenExpression) e).getExpr(), perPixel);
+        } else if (e instanceof ConFunction) {
+            return areStable(((ConFunction) e).getArgs(), perPixel);
+        } else if (e instanceof GetSourceValue && perPixel) {
+            ImagePos pos = ((GetSourceValue) e).getPos();
+            return pos.getBand().getIndex() instanceof ScalarLiteral
+                    && RepeatedReadOptimizer.isPosition(pos.getPixel().getX())
+                    && RepeatedReadOptimizer.isPosition(pos.getPixel().getY());
+        }
+        return false;
+    }
+
+    private boolean areStable(Expression[] args, boolean perPixel) {
+        for (Expression arg : args) {
+            if (!isStable(arg, perPixel)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Tests whether the expression is a literal, possibly with a sign (e.g. {@code -1}) */
+    private static boolean isLiteral(Expression e) {
+        if (e instanceof PrefixUnaryExpression && isSign((PrefixUnaryExpression) e)) {
+            return ((PrefixUnaryExpression) e).getArg() instanceof ScalarLiteral;
+        }
+        return e instanceof ScalarLiteral;
+    }
+
+    private static boolean isSign(PrefixUnaryExpression e) {
+        return "-".equals(e.getOp()) || "+".equals(e.getOp());
+    }
+
+    /** Returns the value of an expression made only of literals, or null if not constant */
+    private Double constantValue(Expression e) {
+        if (e instanceof ScalarLiteral) {
+            return parseLiteral(((ScalarLiteral) e).getValue());
+        } else if (e instanceof ParenExpression) {
+            return constantValue(((ParenExpression) e).getExpr());
+        } else if (e instanceof PrefixUnaryExpression) {
+            PrefixUnaryExpression pe = (PrefixUnaryExpression) e;
+            Double arg = isSign(pe) ? constantValue(pe.getArg()) : null;
+            if (arg == null) {
+                return null;
+            }
+            return "-".equals(pe.getOp()) ? -arg : arg;
+        } else if (e instanceof BinaryExpression && e.getType() == JiffleType.D) {
+            BinaryExpression be = (BinaryExpression) e;
+            Double left = constantValue(be.getLeft());
+            Double right = left == null ? null : constantValue(be.getRight());
+            if (right == null) {
+                return null;
+            }
+            switch (be.getOp()) {
+                case PLUS:
+                    return left + right;
+                case MINUS:
+                    return left - right;
+                case TIMES:
+                    return left * right;
+                case DIV:
+                    return left / right;
+                case MOD:
+                    return left % right;
+                case POW:
+                    return Math.pow(left, right);
+                default:
+                    return null;
+            }
+        } else if (e instanceof FunctionCall && e.getType() == JiffleType.D) {
+            FunctionCall call = (FunctionCall) e;
+            if (call.isProxy() || call.isVolatile()) {
+                return null;
+            }
+            Expression[] args = call.getArgs();
+            Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].getType() != JiffleType.D
+                        || (values[i] = constantValue(args[i])) == null) {
+                    return null;
+                }
+            }
+            return invoke(call.getRuntimeName(), values);
+        }
+        return null;
+    }
+
+    private static Double parseLiteral(String value) {
+        switch (value) {
+            case "Double.NaN":
+                return Double.NaN;
+            case "Double.POSITIVE_INFINITY":
+                return Double.POSITIVE_INFINITY;
+            case "Double.NEGATIVE_INFINITY":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                try {
+                    return Double.valueOf(value);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+        }
+    }
+
+    /**
+     * Evaluates a {@link Math} or {@link JiffleFunctions} method at compile time, the same way the
+     * runtime class would
+     */
+    private Double invoke(String runtimeName, Object[] args) {
+        Class<?> owner;
+        Object target;
+        if (runtimeName.startsWith("Math.")) {
+            owner = Math.class;
+            target = null;
+        } else if (runtimeName.startsWith("_FN.")) {
+            owner = JiffleFunctions.class;
+            target = functions;
+        } else {
+            return null;
+        }
+        String name = runtimeName.substring(runtimeName.indexOf('.') + 1);
+        Class<?>[] types = new Class<?>[args.length];
+        Arrays.fill(types, double.class);
+        try {
+            Method method = owner.getMethod(name, types);
+            if (method.getReturnType() != double.class) {
+                return null;
+            }
+            return (Double) method.invoke(target, args);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private void collectAssignedNames(Node node) {
+        if (node instanceof StatementList) {
+            for (Statement stmt : ((StatementList) node).getStmts()) {
+                collectAssignedNames(stmt);
+            }
+        } else if (node instanceof IfElse) {
+            IfElse ifElse = (IfElse) node;
+            collectAssignedNames(ifElse.getIfStatement());
+            collectAssignedNames(ifElse.getElseStatement());
+        } else if (node instanceof While) {
+            collectAssignedNames(((While) node).getStatement());
+        } else if (node instanceof Until) {
+            collectAssignedNames(((Until) node).getStatement());
+        } else if (node instanceof LoopInRange) {
+            LoopInRange loop = (LoopInRange) node;
+            assignedNames.add(loop.getLoopVariable().getName());
+            collectAssignedNames(loop.getStatement());
+        } else if (node instanceof LoopInLiteralList) {
+            LoopInLiteralList loop = (LoopInLiteralList) node;
+            assignedNames.add(loop.getLoopVariable().getName());
+            collectAssignedNames(loop.getStatement());
+        } else if (node instanceof LoopInVariable) {
+            LoopInVariable loop = (LoopInVariable) node;
+            assignedNames.add(loop.getLoopVariable().getName());
+            collectAssignedNames(loop.getStatement());
+        } else if (node instanceof ListAppend) {
+            assignedNames.add(((ListAppend) node).getVar().getName());
+        }
+        if (node instanceof Statement) {
+            // only visits the top level expressions, nested statements are handled above
+            rewriteExpressions((Statement) node, this::collectAssignedNames);
+        }
+    }
+
+    private Expression collectAssignedNames(Expression e) {
+        Expression target = null;
+        if (e instanceof BinaryExpression && ((BinaryExpression) e).getOp().isAssignment()) {
+            target = ((BinaryExpression) e).getLeft();
+        } else if (e instanceof PrefixUnaryExpression && !isSign((PrefixUnaryExpression) e)) {
+            target = ((PrefixUnaryExpression) e).getArg();
+        } else if (e instanceof PostfixUnaryExpression) {
+            target = ((PostfixUnaryExpression) e).getArg();
+        }
+        if (target instanceof Variable) {
+            assignedNames.add(((Variable) target).getName());
+        }
+        return rebuild(e, this::collectAssignedNames);
+    }
+
+    /** Rewrites all the expressions in a statement, including the nested ones */
+    private Statement rewrite(Statement stmt, UnaryOperator<Expression> f) {
+        if (stmt instanceof StatementList) {
+            List<Statement> stmts = new ArrayList<>();
+            for (Statement s : ((StatementList) stmt).getStmts()) {
+                stmts.add(rewrite(s, f));
+            }
+            return new StatementList(stmts);
+        } else if (stmt instanceof IfElse) {
+            IfElse ifElse = (IfElse) stmt;
+            return new IfElse(
+                    f.apply(ifElse.getCondition()),
+                    rewrite(ifElse.getIfStatement(), f),
+                    rewrite(ifElse.getElseStatement(), f));
+        } else if (stmt instanceof While) {
+            While loop = (While) stmt;
+            return new While(f.apply(loop.getCondition()), rewrite(loop.getStatement(), f));
+        } else if (stmt instanceof Until) {
+            Until loop = (Until) stmt;
+            return new Until(f.apply(loop.getCondition()), rewrite(loop.getStatement(), f));
+        } else if (stmt instanceof LoopInRange) {
+            LoopInRange loop = (LoopInRange) stmt;
+            return new LoopInRange(
+                    loop.getLoopVariable(),
+                    f.apply(loop.getLow()),
+                    f.apply(loop.getHigh()),
+                    rewrite(loop.getStatement(), f));
+        } else if (stmt instanceof LoopInLiteralList) {
+            LoopInLiteralList loop = (LoopInLiteralList) stmt;
+            return new LoopInLiteralList(
+                    loop.getLoopVariable(),
+                    (ListLiteral) f.apply(loop.getListLiteral()),
+                    rewrite(loop.getStatement(), f));
+        } else if (stmt instanceof LoopInVariable) {
+            LoopInVariable loop = (LoopInVariable) stmt;
+            return new LoopInVariable(
+                    loop.getLoopVariable(),
+                    loop.getListVariable(),
+                    rewrite(loop.getStatement(), f));
+        }
+        return rewriteExpressions(stmt, f);
+    }
+
+    private Node rewrite(Node node, UnaryOperator<Expression> f) {
+        return node instanceof Statement ? rewrite((Statement) node, f) : node;
+    }
+
+    /** Rewrites the expressions of statements not containing other statements */
+    private Statement rewriteExpressions(Statement stmt, UnaryOperator<Expression> f) {
+        if (stmt instanceof SimpleStatement) {
+            return new SimpleStatement(f.apply(((SimpleStatement) stmt).getExpr()));
+        } else if (stmt instanceof ListAppend) {
+            ListAppend append = (ListAppend) stmt;
+            return new ListAppend(append.getVar(), f.apply(append.getExpression()));
+        } else if (stmt instanceof BreakIf) {
+            return new BreakIf(f.apply(((BreakIf) stmt).getCondition()));
+        } else if (stmt instanceof IfElse) {
+            IfElse ifElse = (IfElse) stmt;
+            return new IfElse(
+                    f.apply(ifElse.getCondition()),
+                    ifElse.getIfStatement(),
+                    ifElse.getElseStatement());
+        } else if (stmt instanceof While) {
+            While loop = (While) stmt;
+            return new While(f.apply(loop.getCondition()), loop.getStatement());
+        } else if (stmt instanceof Until) {
+            Until loop = (Until) stmt;
+            return new Until(f.apply(loop.getCondition()), loop.getStatement());
+        } else if (stmt instanceof LoopInRange) {
+            LoopInRange loop = (LoopInRange) stmt;
+            return new LoopInRange(
+                    loop.getLoopVariable(),
+                    f.apply(loop.getLow()),
+                    f.apply(loop.getHigh()),
+                    loop.getStatement());
+        } else if (stmt instanceof LoopInLiteralList) {
+            LoopInLiteralList loop = (LoopInLiteralList) stmt;
+            return new LoopInLiteralList(
+                    loop.getLoopVariable(),
+                    (ListLiteral) f.apply(loop.getListLiteral()),
+                    loop.getStatement());
+        }
+        return stmt;
+    }
+
+    /**
+     * Returns a copy of the expression with the direct children replaced by the function results.
+     * Source reads, variables and literals are returned as is, as well as the targets of
+     * assignments.
+     */
+    private Expression rebuild(Expression e, UnaryOperator<Expression> f) {
+        try {
+            if (e instanceof BinaryExpression) {
+                BinaryExpression be = (BinaryExpression) e;
+                Expression left = be.getLeft();
+                if (!be.getOp().isAssignment()) {
+                    left = f.apply(left);
+                }
+                return new BinaryExpression(
+                        be.getOp().getCode(),
+                        left,
+                        f.apply(be.getRight()),
+                        be.isDeclarationNeeded());
+            } else if (e instanceof PrefixUnaryExpression) {
+                PrefixUnaryExpression pe = (PrefixUnaryExpression) e;
+                if (isSign(pe)) {
+                    return new PrefixUnaryExpression(pe.getOp(), f.apply(pe.getArg()));
+                }
+            } else if (e instanceof ParenExpression) {
+                return new ParenExpression(f.apply(((ParenExpression) e).getExpr()));
+            } else if (e instanceof FunctionCall) {
+                FunctionCall call = (FunctionCall) e;
+                if (!call.isProxy()) {
+                    return call.withArgs(apply(call.getArgs(), f));
+                }
+            } else if (e instanceof ConFunction) {
+                return new ConFunction(apply(((ConFunction) e).getArgs(), f));
+            } else if (e instanceof ListLiteral) {
+                List<Expression> args = new ArrayList<>();
+                for (Expression arg : ((ListLiteral) e).getArgs()) {
+                    args.add(f.apply(arg));
+                }
+                return new ListLiteral(args);
+            } else if (e instanceof SetDestValue) {
+                SetDestValue sdv = (SetDestValue) e;
+                return new SetDestValue(sdv.getDestVar(), sdv.getBand(), f.apply(sdv.getExpr()));
+            }
+            return e;
+        } catch (NodeException ex) {
+            // the rewritten nodes have the same types as the original ones
+            throw new InternalCompilerException(ex.getError().toString());
+        }
+    }
+
+    private static Expression[] apply(Expression[] args, UnaryOperator<Expression> f) {
+        Expression[] result = new Expression[args.length];
+        for (int i = 0; i < args.length; i++) {
+            result[i] = f.apply(args[i]);
+        }
+        return result;
+    }
+}
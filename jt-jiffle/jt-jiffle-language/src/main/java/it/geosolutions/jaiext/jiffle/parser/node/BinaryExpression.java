@@ -94,6 +94,18 @@ public class BinaryExpression extends Expression {
         public String getFormat() {
             return fmt;
         }
+
+        public int getCode() {
+            return code;
+        }
+
+        /**
+         * Tests whether this operator assigns to its left hand side.
+         */
+        public boolean isAssignment() {
+            return this == ASSIGN || this == PLUSEQ || this == MINUSEQ
+                    || this == TIMESEQ || this == DIVEQ;
+        }
     }
 
     private final boolean declarationNeeded;
@@ -142,7 +154,7 @@ public class BinaryExpression extends Expression {
     }
 
     private String getJavaType() {
-        return left.getType() == JiffleType.D ? "double" : "List";
+        return left.getType() == JiffleType.D ? "double" : "DoubleList";
     }
 
     private String getInitialValue() {
@@ -209,6 +221,10 @@ public class BinaryExpression extends Expression {
         return op;
     }
 
+    public boolean isDeclarationNeeded() {
+        return declarationNeeded;
+    }
+
     @Override
     public String toString() {
         return left + " " + op + " " + right;
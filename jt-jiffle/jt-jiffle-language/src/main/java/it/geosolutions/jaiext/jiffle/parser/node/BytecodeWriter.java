@@ -0,0 +1,1506 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package it.geosolutions.jaiext.jiffle.parser.node;
+
+import static it.geosolutions.jaiext.jiffle.parser.node.ClassFileBuilder.*;
+
+import it.geosolutions.jaiext.jiffle.Jiffle;
+import it.geosolutions.jaiext.jiffle.JiffleProperties;
+import it.geosolutions.jaiext.jiffle.parser.JiffleParserException;
+import it.geosolutions.jaiext.jiffle.parser.JiffleType;
+import it.geosolutions.jaiext.jiffle.parser.ScriptOptimizer;
+import it.geosolutions.jaiext.jiffle.parser.UndefinedOptionException;
+import it.geosolutions.jaiext.jiffle.runtime.DoubleList;
+import it.geosolutions.jaiext.jiffle.runtime.JiffleFunctions;
+import it.geosolutions.jaiext.jiffle.runtime.JiffleRuntime;
+import it.geosolutions.jaiext.jiffle.runtime.RasterWriter;
+
+import java.awt.Rectangle;
+import java.awt.image.WritableRaster;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates the runtime class for a script directly as JVM bytecode, as an alternative to writing
+ * its Java source with {@link SourceWriter} and compiling it with Janino.
+ * <p>
+ * The generated class has the same fields and methods as the one built from source, and follows
+ * the Java typing rules used by the source (integer arithmetic on loop variables and integer
+ * function results, overload resolution of the {@link Math} and {@link JiffleFunctions} methods),
+ * so that both backends evaluate scripts in the same way. As in the source, the script is also
+ * inlined in the row and rectangle evaluation loops. Only the default runtime base classes are
+ * supported. Scripts that would not compile from source are rejected with a
+ * {@link JiffleParserException}.
+ */
+public class BytecodeWriter {
+
+    private static final String SOURCE_IMAGE =
+            "it/geosolutions/jaiext/jiffle/runtime/AbstractJiffleRuntime$SourceImage";
+
+    private static final String DESTINATION_IMAGE =
+            "it/geosolutions/jaiext/jiffle/runtime/AbstractDirectRuntime$DestinationImage";
+
+    private static final String FUNCTIONS = internalName(JiffleFunctions.class);
+
+    private static final String DOUBLE_LIST = internalName(DoubleList.class);
+
+    private static final String RASTER_WRITER = internalName(RasterWriter.class);
+
+    private static final String RECTANGLE = internalName(Rectangle.class);
+
+    /** A local variable of the generated code */
+    private static final class Local {
+        final int slot;
+        final Class<?> type;
+
+        Local(int slot, Class<?> type) {
+            this.slot = slot;
+            this.type = type;
+        }
+    }
+
+    private final Jiffle.RuntimeModel model;
+    private final Class<? extends JiffleRuntime> baseClass;
+
+    private String className;
+    private ClassFileBuilder builder;
+    private ClassFileBuilder.Code code;
+    private boolean pixelScope;
+    /* Local variable slots of the pixel position and result in the method being written */
+    private int xSlot;
+    private int ySlot;
+    private int resultSlot;
+
+    private final Set<String> sourceImages = new HashSet<>();
+    private final Set<String> destImages = new HashSet<>();
+    private final Set<String> globalNames = new HashSet<>();
+    private final Set<String> invariantNames = new HashSet<>();
+    private final Deque<Map<String, Local>> scopes = new ArrayDeque<>();
+    private final Deque<Label> loopEnds = new ArrayDeque<>();
+    private final Map<GetSourceValue, Integer> readSlots = new HashMap<>();
+    private final Map<String, Integer> subexpressionSlots = new HashMap<>();
+
+    /**
+     * Creates a writer for the given runtime model, generating classes that extend the default
+     * base class of the model
+     *
+     * @param model the runtime model
+     */
+    public BytecodeWriter(Jiffle.RuntimeModel model) {
+        this.model = model;
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            this.baseClass = JiffleProperties.DEFAULT_DIRECT_BASE_CLASS;
+        } else {
+            this.baseClass = JiffleProperties.DEFAULT_INDIRECT_BASE_CLASS;
+        }
+    }
+
+    /**
+     * Returns the fully qualified name of the runtime class generated for the given model
+     */
+    public static String getClassName(Jiffle.RuntimeModel model) {
+        String key =
+                model == Jiffle.RuntimeModel.DIRECT
+                        ? JiffleProperties.DIRECT_CLASS_KEY
+                        : JiffleProperties.INDIRECT_CLASS_KEY;
+        return JiffleProperties.get(JiffleProperties.RUNTIME_PACKAGE_KEY)
+                + "."
+                + JiffleProperties.get(key);
+    }
+
+    /**
+     * Generates the runtime class for a script
+     *
+     * @param script the script model
+     * @return the class file contents
+     * @throws JiffleParserException if the script uses constructs that are not valid in a
+     *     runtime class
+     */
+    public byte[] write(Script script) {
+        className = getClassName(model).replace('.', '/');
+        builder = new ClassFileBuilder(className, internalName(baseClass));
+        sourceImages.addAll(script.getSourceImages());
+        destImages.addAll(script.getDestImages());
+        for (BinaryExpression init : script.getGlobals().getInits()) {
+            globalNames.add(init.getLeft().toString());
+        }
+        for (CachedValue value : script.getScriptOptimizer().getInvariants().values()) {
+            invariantNames.add(value.getName());
+        }
+
+        writeFields(script);
+        writeConstructor(script);
+        writeOptionVars(script);
+        writeImageScopeVars(script);
+        writeEvaluate(script);
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            writeEvaluateRow(script);
+        } else {
+            writeEvaluateRect(script);
+        }
+        return builder.toByteArray();
+    }
+
+    /**
+     * Defines a runtime class in a new class loader, forcing its verification
+     *
+     * @param name the fully qualified class name
+     * @param bytes the class file contents
+     * @param parent the class loader resolving the runtime base classes
+     * @return the runtime class
+     * @throws ClassNotFoundException if the class could not be loaded back
+     */
+    @SuppressWarnings("unchecked")
+    public static Class<? extends JiffleRuntime> defineClass(
+            String name, byte[] bytes, ClassLoader parent) throws ClassNotFoundException {
+        RuntimeClassLoader loader = new RuntimeClassLoader(parent);
+        loader.define(name, bytes);
+        return (Class<? extends JiffleRuntime>) Class.forName(name, true, loader);
+    }
+
+    private static class RuntimeClassLoader extends ClassLoader {
+
+        RuntimeClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        void define(String name, byte[] bytes) {
+            defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+    private void writeFields(Script script) {
+        for (String sourceImage : sourceImages) {
+            builder.field(0, "s_" + sourceImage, "L" + SOURCE_IMAGE + ";");
+        }
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            for (String destImage : destImages) {
+                builder.field(0, "d_" + destImage, "L" + DESTINATION_IMAGE + ";");
+            }
+        }
+        for (String name : globalNames) {
+            builder.field(0, "v_" + name, "D");
+        }
+        for (String name : invariantNames) {
+            builder.field(0, name, "D");
+        }
+    }
+
+    private void writeConstructor(Script script) {
+        code = builder.code(1);
+        List<BinaryExpression> inits = script.getGlobals().getInits();
+        code.load(Object.class, 0);
+        code.iconst(inits.size());
+        code.typeInsn(ANEWARRAY, "java/lang/String");
+        for (int i = 0; i < inits.size(); i++) {
+            code.insn(DUP, 1);
+            code.iconst(i);
+            code.sconst(inits.get(i).getLeft().toString());
+            code.insn(AASTORE, -3);
+        }
+        code.invoke(
+                INVOKESPECIAL, internalName(baseClass), "<init>", void.class, String[].class);
+        for (String name : globalNames) {
+            code.load(Object.class, 0);
+            code.dconst(Double.NaN);
+            code.field(PUTFIELD, className, "v_" + name, double.class);
+        }
+        code.insn(RETURN, 0);
+        builder.method(ACC_PUBLIC, "<init>", "()V", code);
+    }
+
+    private void writeOptionVars(Script script) {
+        Map<String, String> options = script.getOptions();
+        if (options.isEmpty()) {
+            return;
+        }
+        code = builder.code(1);
+        for (Map.Entry<String, String> entry : options.entrySet()) {
+            String name = entry.getKey();
+            if (!"outside".equalsIgnoreCase(name)) {
+                throw new JiffleParserException(new UndefinedOptionException(name));
+            }
+            double value;
+            try {
+                value = parseLiteral(entry.getValue());
+            } catch (NumberFormatException e) {
+                throw new JiffleParserException("Invalid value for option " + name);
+            }
+            code.load(Object.class, 0);
+            code.iconst(1);
+            code.field(PUTFIELD, className, "_outsideValueSet", boolean.class);
+            code.load(Object.class, 0);
+            code.dconst(value);
+            code.field(PUTFIELD, className, "_outsideValue", double.class);
+        }
+        code.insn(RETURN, 0);
+        builder.method(ACC_PROTECTED, "initOptionVars", "()V", code);
+    }
+
+    private void writeImageScopeVars(Script script) {
+        code = builder.code(1);
+        pixelScope = false;
+        for (String sourceImage : sourceImages) {
+            code.load(Object.class, 0);
+            code.load(Object.class, 0);
+            code.field(GETFIELD, className, "_images", Map.class);
+            code.sconst(sourceImage);
+            code.invoke(INVOKEINTERFACE, "java/util/Map", "get", Object.class, Object.class);
+            code.typeInsn(CHECKCAST, SOURCE_IMAGE);
+            code.field(PUTFIELD, className, "s_" + sourceImage, "L" + SOURCE_IMAGE + ";");
+        }
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            for (String destImage : destImages) {
+                code.load(Object.class, 0);
+                code.load(Object.class, 0);
+                code.field(GETFIELD, className, "_destImages", Map.class);
+                code.sconst(destImage);
+                code.invoke(INVOKEINTERFACE, "java/util/Map", "get", Object.class, Object.class);
+                code.typeInsn(CHECKCAST, DESTINATION_IMAGE);
+                code.field(PUTFIELD, className, "d_" + destImage, "L" + DESTINATION_IMAGE + ";");
+            }
+        }
+
+        // if (Double.isNaN(v_name)) { v_name = value; }
+        for (BinaryExpression init : script.getGlobals().getInits()) {
+            Label initialized = new Label();
+            code.load(Object.class, 0);
+            code.field(GETFIELD, className, "v_" + init.getLeft(), double.class);
+            code.invoke(INVOKESTATIC, "java/lang/Double", "isNaN", boolean.class, double.class);
+            code.jump(IFEQ, initialized);
+            writeAssignment(init);
+            code.mark(initialized);
+        }
+        for (Map.Entry<Expression, CachedValue> entry :
+                script.getScriptOptimizer().getInvariants().entrySet()) {
+            code.load(Object.class, 0);
+            writeValue(entry.getKey(), double.class);
+            code.field(PUTFIELD, className, entry.getValue().getName(), double.class);
+        }
+
+        code.load(Object.class, 0);
+        code.iconst(1);
+        code.field(PUTFIELD, className, "_imageScopeVarsInitialized", boolean.class);
+        code.insn(RETURN, 0);
+        builder.method(ACC_PROTECTED, "initImageScopeVars", "()V", code);
+    }
+
+    private void writeEvaluate(Script script) {
+        String descriptor;
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            code = builder.code(5);
+            descriptor = methodDescriptor(void.class, double.class, double.class);
+        } else {
+            code = builder.code(6);
+            descriptor = methodDescriptor(void.class, double.class, double.class, double[].class);
+            resultSlot = 5;
+        }
+        xSlot = 1;
+        ySlot = 3;
+        writeEvaluateChecks();
+        writePixelBody(script);
+        code.insn(RETURN, 0);
+        builder.method(ACC_PUBLIC, "evaluate", descriptor, code);
+    }
+
+    /**
+     * Writes {@code evaluateRow(double _y, double _minX, double _maxX, double _resX)}, inlining
+     * the script in the loop over the row pixels
+     */
+    private void writeEvaluateRow(Script script) {
+        final int minXSlot = 3;
+        final int maxXSlot = 5;
+        final int resXSlot = 7;
+        code = builder.code(9);
+        ySlot = 1;
+        writeEvaluateChecks();
+
+        // for (double _x = _minX; _x < _maxX; _x += _resX)
+        xSlot = code.newLocal(double.class);
+        code.load(double.class, minXSlot);
+        code.store(double.class, xSlot);
+        Label start = new Label();
+        Label end = new Label();
+        code.mark(start);
+        code.load(double.class, xSlot);
+        code.load(double.class, maxXSlot);
+        code.insn(DCMPG, -3);
+        code.jump(IFGE, end);
+        writePixelBody(script);
+        code.load(double.class, xSlot);
+        code.load(double.class, resXSlot);
+        code.arithmetic(IADD, double.class);
+        code.store(double.class, xSlot);
+        code.jump(GOTO, start);
+        code.mark(end);
+
+        code.insn(RETURN, 0);
+        builder.method(
+                ACC_PROTECTED,
+                "evaluateRow",
+                methodDescriptor(
+                        void.class, double.class, double.class, double.class, double.class),
+                code);
+    }
+
+    /**
+     * Writes {@code evaluateRect(Rectangle _rect, WritableRaster _dest)}, inlining the script in
+     * the loop over the rectangle pixels and writing each of them with a {@link RasterWriter}
+     */
+    private void writeEvaluateRect(Script script) {
+        final int rectSlot = 1;
+        final int destSlot = 2;
+        code = builder.code(3);
+        writeEvaluateChecks();
+
+        int writer = code.newLocal(RasterWriter.class);
+        int bands = code.newLocal(int.class);
+        resultSlot = code.newLocal(double[].class);
+        int maxIX = code.newLocal(int.class);
+        int maxIY = code.newLocal(int.class);
+        int iy = code.newLocal(int.class);
+        int ix = code.newLocal(int.class);
+        int b = code.newLocal(int.class);
+        ySlot = code.newLocal(double.class);
+        xSlot = code.newLocal(double.class);
+
+        code.load(Object.class, destSlot);
+        code.invoke(
+                INVOKESTATIC,
+                RASTER_WRITER,
+                "create",
+                RasterWriter.class,
+                WritableRaster.class);
+        code.store(RasterWriter.class, writer);
+        code.load(Object.class, destSlot);
+        code.invoke(INVOKEVIRTUAL, internalName(WritableRaster.class), "getNumBands", int.class);
+        code.store(int.class, bands);
+        code.load(int.class, bands);
+        code.newArray(T_DOUBLE);
+        code.store(double[].class, resultSlot);
+        writeRectangleEnd(rectSlot, "x", "width", maxIX);
+        writeRectangleEnd(rectSlot, "y", "height", maxIY);
+
+        // for (int _iy = _rect.y; _iy < _maxIY; _iy++)
+        Label rowStart = new Label();
+        Label rowEnd = new Label();
+        code.load(Object.class, rectSlot);
+        code.field(GETFIELD, RECTANGLE, "y", int.class);
+        code.store(int.class, iy);
+        code.mark(rowStart);
+        code.load(int.class, iy);
+        code.load(int.class, maxIY);
+        code.jump(IF_ICMPGE, rowEnd);
+        code.load(int.class, iy);
+        code.insn(I2D, 1);
+        code.store(double.class, ySlot);
+
+        // for (int _ix = _rect.x; _ix < _maxIX; _ix++)
+        Label pixelStart = new Label();
+        Label pixelEnd = new Label();
+        code.load(Object.class, rectSlot);
+        code.field(GETFIELD, RECTANGLE, "x", int.class);
+        code.store(int.class, ix);
+        code.mark(pixelStart);
+        code.load(int.class, ix);
+        code.load(int.class, maxIX);
+        code.jump(IF_ICMPGE, pixelEnd);
+        code.load(int.class, ix);
+        code.insn(I2D, 1);
+        code.store(double.class, xSlot);
+
+        // for (int _b = 0; _b < _bands; _b++) result[_b] = Double.NaN;
+        Label fillStart = new Label();
+        Label fillEnd = new Label();
+        code.iconst(0);
+        code.store(int.class, b);
+        code.mark(fillStart);
+        code.load(int.class, b);
+        code.load(int.class, bands);
+        code.jump(IF_ICMPGE, fillEnd);
+        code.load(double[].class, resultSlot);
+        code.load(int.class, b);
+        code.dconst(Double.NaN);
+        code.insn(DASTORE, -4);
+        code.iinc(b, 1);
+        code.jump(GOTO, fillStart);
+        code.mark(fillEnd);
+
+        writePixelBody(script);
+
+        // _writer.setPixel(_ix, _iy, result)
+        code.load(RasterWriter.class, writer);
+        code.load(int.class, ix);
+        code.load(int.class, iy);
+        code.load(double[].class, resultSlot);
+        code.invoke(
+                INVOKEVIRTUAL,
+                RASTER_WRITER,
+                "setPixel",
+                void.class,
+                int.class,
+                int.class,
+                double[].class);
+        code.iinc(ix, 1);
+        code.jump(GOTO, pixelStart);
+        code.mark(pixelEnd);
+
+        code.iinc(iy, 1);
+        code.jump(GOTO, rowStart);
+        code.mark(rowEnd);
+
+        code.insn(RETURN, 0);
+        builder.method(
+                ACC_PUBLIC,
+                "evaluateRect",
+                methodDescriptor(void.class, Rectangle.class, WritableRaster.class),
+                code);
+    }
+
+    /** Stores the end of a rectangle side, {@code _rect.origin + _rect.size} */
+    private void writeRectangleEnd(int rectSlot, String origin, String size, int slot) {
+        code.load(Object.class, rectSlot);
+        code.field(GETFIELD, RECTANGLE, origin, int.class);
+        code.load(Object.class, rectSlot);
+        code.field(GETFIELD, RECTANGLE, size, int.class);
+        code.arithmetic(IADD, int.class);
+        code.store(int.class, slot);
+    }
+
+    /** Basic checks at the beginning of pixel evaluation */
+    private void writeEvaluateChecks() {
+        Label worldSet = new Label();
+        code.load(Object.class, 0);
+        code.invoke(INVOKEVIRTUAL, className, "isWorldSet", boolean.class);
+        code.jump(IFNE, worldSet);
+        code.load(Object.class, 0);
+        code.invoke(INVOKEVIRTUAL, className, "setDefaultBounds", void.class);
+        code.mark(worldSet);
+
+        Label initialized = new Label();
+        code.load(Object.class, 0);
+        code.field(GETFIELD, className, "_imageScopeVarsInitialized", boolean.class);
+        code.jump(IFNE, initialized);
+        code.load(Object.class, 0);
+        code.invoke(INVOKEVIRTUAL, className, "initImageScopeVars", void.class);
+        code.mark(initialized);
+    }
+
+    /** The per pixel part of the evaluation, written once in each evaluation method */
+    private void writePixelBody(Script script) {
+        pixelScope = true;
+        readSlots.clear();
+        subexpressionSlots.clear();
+
+        code.load(Object.class, 0);
+        code.lconst(0);
+        code.field(PUTFIELD, className, "_iterations", long.class);
+
+        // centralize the source reads to avoid repeated reads
+        for (GetSourceValue read : script.getReadOptimizer().getRepeatedReads()) {
+            writeValue(read, double.class);
+            int slot = code.newLocal(double.class);
+            code.store(double.class, slot);
+            readSlots.put(read, slot);
+        }
+        // then the expressions repeated in the script
+        ScriptOptimizer optimizer = script.getScriptOptimizer();
+        Map<CachedValue, Expression> subexpressions = optimizer.getSubexpressions();
+        for (CachedValue value : optimizer.getSubexpressionOrder()) {
+            writeValue(subexpressions.get(value), double.class);
+            int slot = code.newLocal(double.class);
+            code.store(double.class, slot);
+            subexpressionSlots.put(value.getName(), slot);
+        }
+
+        scopes.push(new HashMap<>());
+        writeStatement(script.getStmts());
+        scopes.pop();
+        pixelScope = false;
+    }
+
+    private void writeStatement(Node node) {
+        if (node instanceof StatementList) {
+            for (Statement stmt : ((StatementList) node).getStmts()) {
+                writeStatement(stmt);
+            }
+        } else if (node instanceof SimpleStatement) {
+            writeExpressionStatement(((SimpleStatement) node).getExpr());
+        } else if (node instanceof IfElse) {
+            writeIfElse((IfElse) node);
+        } else if (node instanceof While) {
+            While loop = (While) node;
+            writeConditionLoop(loop.getCondition(), IFEQ, loop.getStatement());
+        } else if (node instanceof Until) {
+            Until loop = (Until) node;
+            writeConditionLoop(loop.getCondition(), IFNE, loop.getStatement());
+        } else if (node instanceof LoopInRange) {
+            writeLoopInRange((LoopInRange) node);
+        } else if (node instanceof LoopInVariable) {
+            writeLoopInVariable((LoopInVariable) node);
+        } else if (node instanceof LoopInLiteralList) {
+            writeLoopInLiteralList((LoopInLiteralList) node);
+        } else if (node instanceof Break) {
+            code.jump(GOTO, getLoopEnd());
+        } else if (node instanceof BreakIf) {
+            writeCondition(((BreakIf) node).getCondition());
+            code.jump(IFNE, getLoopEnd());
+        } else if (node instanceof ListAppend) {
+            ListAppend append = (ListAppend) node;
+            writeValue(append.getVar(), DoubleList.class);
+            writeValue(append.getExpression(), double.class);
+            code.invoke(INVOKEVIRTUAL, DOUBLE_LIST, "add", void.class, double.class);
+        } else {
+            throw unsupported(node);
+        }
+    }
+
+    private void writeExpressionStatement(Expression e) {
+        if (e instanceof BinaryExpression && ((BinaryExpression) e).getOp().isAssignment()) {
+            writeAssignment((BinaryExpression) e);
+        } else if (e instanceof SetDestValue) {
+            writeSetDestValue((SetDestValue) e);
+        } else if (e instanceof PrefixUnaryExpression
+                && isIncrement(((PrefixUnaryExpression) e).getOp())) {
+            PrefixUnaryExpression pe = (PrefixUnaryExpression) e;
+            writeIncrement(pe.getArg(), pe.getOp(), true, false);
+        } else if (e instanceof PostfixUnaryExpression) {
+            PostfixUnaryExpression pe = (PostfixUnaryExpression) e;
+            writeIncrement(pe.getArg(), pe.getOp(), false, false);
+        } else if (e instanceof FunctionCall && !isPosition((FunctionCall) e)) {
+            // method calls are valid statements, the pixel position variables are not
+            Class<?> type = write(e);
+            if (size(type) == 2) {
+                code.insn(POP2, -2);
+            } else if (size(type) == 1) {
+                code.insn(POP, -1);
+            }
+        } else {
+            throw new JiffleParserException("Not a statement: " + e);
+        }
+    }
+
+    private void writeIfElse(IfElse ifElse) {
+        Label elseLabel = new Label();
+        writeCondition(ifElse.getCondition());
+        code.jump(IFEQ, elseLabel);
+        writeBlock(ifElse.getIfStatement());
+        if (ifElse.getElseStatement() != null) {
+            Label end = new Label();
+            code.jump(GOTO, end);
+            code.mark(elseLabel);
+            writeBlock(ifElse.getElseStatement());
+            code.mark(end);
+        } else {
+            code.mark(elseLabel);
+        }
+    }
+
+    /** Writes a statement in its own variable scope */
+    private void writeBlock(Node node) {
+        scopes.push(new HashMap<>());
+        writeStatement(node);
+        scopes.pop();
+    }
+
+    private void writeConditionLoop(Expression condition, int exitJump, Statement statement) {
+        Label start = new Label();
+        Label end = new Label();
+        code.mark(start);
+        writeCondition(condition);
+        code.jump(exitJump, end);
+        writeLoopBody(statement, end);
+        code.jump(GOTO, start);
+        code.mark(end);
+    }
+
+    private void writeLoopInRange(LoopInRange loop) {
+        int high = code.newLocal(int.class);
+        writeCast(loop.getLow(), int.class);
+        int lowValue = code.newLocal(int.class);
+        code.store(int.class, lowValue);
+        writeCast(loop.getHigh(), int.class);
+        code.store(int.class, high);
+
+        scopes.push(new HashMap<>());
+        Local index = declareLocal(loop.getLoopVariable().getName(), int.class);
+        code.load(int.class, lowValue);
+        code.store(int.class, index.slot);
+        Label start = new Label();
+        Label end = new Label();
+        code.mark(start);
+        code.load(int.class, index.slot);
+        code.load(int.class, high);
+        code.jump(IF_ICMPGT, end);
+        writeLoopBody(loop.getStatement(), end);
+        code.iinc(index.slot, 1);
+        code.jump(GOTO, start);
+        code.mark(end);
+        scopes.pop();
+    }
+
+    private void writeLoopInVariable(LoopInVariable loop) {
+        Variable list = loop.getListVariable();
+        int index = code.newLocal(int.class);
+        int size = code.newLocal(int.class);
+        code.iconst(0);
+        code.store(int.class, index);
+        writeValue(list, DoubleList.class);
+        code.invoke(INVOKEVIRTUAL, DOUBLE_LIST, "size", int.class);
+        code.store(int.class, size);
+
+        Label start = new Label();
+        Label end = new Label();
+        code.mark(start);
+        code.load(int.class, index);
+        code.load(int.class, size);
+        code.jump(IF_ICMPGE, end);
+        scopes.push(new HashMap<>());
+        Local value = declareLocal(loop.getLoopVariable().getName(), double.class);
+        writeValue(list, DoubleList.class);
+        code.load(int.class, index);
+        code.invoke(INVOKEVIRTUAL, DOUBLE_LIST, "get", double.class, int.class);
+        code.store(double.class, value.slot);
+        writeLoopBody(loop.getStatement(), end);
+        scopes.pop();
+        code.iinc(index, 1);
+        code.jump(GOTO, start);
+        code.mark(end);
+    }
+
+    private void writeLoopInLiteralList(LoopInLiteralList loop) {
+        int array = code.newLocal(double[].class);
+        int index = code.newLocal(int.class);
+        int size = code.newLocal(int.class);
+        writeDoubleArray(loop.getListLiteral().getArgs());
+        code.insn(DUP, 1);
+        code.store(double[].class, array);
+        code.insn(ARRAYLENGTH, 0);
+        code.store(int.class, size);
+        code.iconst(0);
+        code.store(int.class, index);
+
+        Label start = new Label();
+        Label end = new Label();
+        code.mark(start);
+        code.load(int.class, index);
+        code.load(int.class, size);
+        code.jump(IF_ICMPGE, end);
+        scopes.push(new HashMap<>());
+        Local value = declareLocal(loop.getLoopVariable().getName(), double.class);
+        code.load(double[].class, array);
+        code.load(int.class, index);
+        code.insn(DALOAD, 0);
+        code.store(double.class, value.slot);
+        writeLoopBody(loop.getStatement(), end);
+        scopes.pop();
+        code.iinc(index, 1);
+        code.jump(GOTO, start);
+        code.mark(end);
+    }
+
+    private void writeLoopBody(Statement statement, Label end) {
+        code.load(Object.class, 0);
+        code.invoke(INVOKEVIRTUAL, className, "checkLoopIterations", void.class);
+        loopEnds.push(end);
+        writeBlock(statement);
+        loopEnds.pop();
+    }
+
+    private Label getLoopEnd() {
+        if (loopEnds.isEmpty()) {
+            throw new JiffleParserException("break used outside of a loop");
+        }
+        return loopEnds.peek();
+    }
+
+    /** Pushes the outcome of {@code _FN.isTrue(condition)} */
+    private void writeCondition(Expression condition) {
+        code.load(Object.class, 0);
+        code.field(GETFIELD, className, "_FN", JiffleFunctions.class);
+        writeValue(condition, Double.class);
+        code.invoke(INVOKEVIRTUAL, FUNCTIONS, "isTrue", boolean.class, Double.class);
+    }
+
+    private void writeAssignment(BinaryExpression assignment) {
+        Expression left = assignment.getLeft();
+        if (!(left instanceof Variable)) {
+            throw new JiffleParserException("Invalid assignment target: " + left);
+        }
+        String name = ((Variable) left).getName();
+        BinaryExpression.Operator op = assignment.getOp();
+        Expression value = assignment.getRight();
+
+        if (assignment.isDeclarationNeeded()) {
+            if (op != BinaryExpression.Operator.ASSIGN) {
+                throw new JiffleParserException("Variable " + name + " used before assignment");
+            }
+            Class<?> type = left.getType() == JiffleType.LIST ? DoubleList.class : double.class;
+            writeValue(value, type);
+            code.store(type, declareLocal(name, type).slot);
+            return;
+        }
+
+        Local local = findLocal(name);
+        Class<?> type;
+        if (local != null) {
+            type = local.type;
+        } else if (globalNames.contains(name)) {
+            type = double.class;
+            code.load(Object.class, 0);
+        } else {
+            throw new JiffleParserException("Undefined variable: " + name);
+        }
+
+        if (op == BinaryExpression.Operator.ASSIGN) {
+            writeValue(value, type);
+        } else {
+            // (T) (target op value)
+            if (local != null) {
+                code.load(type, local.slot);
+            } else {
+                code.insn(DUP, 1);
+                code.field(GETFIELD, className, "v_" + name, double.class);
+            }
+            Class<?> promoted = promote(type, typeOf(value));
+            convert(type, promoted, false);
+            writeValue(value, promoted, false);
+            code.arithmetic(getOpcode(op), promoted);
+            convert(promoted, type, true);
+        }
+
+        if (local != null) {
+            code.store(type, local.slot);
+        } else {
+            code.field(PUTFIELD, className, "v_" + name, double.class);
+        }
+    }
+
+    private static int getOpcode(BinaryExpression.Operator op) {
+        switch (op) {
+            case PLUS:
+            case PLUSEQ:
+                return IADD;
+            case MINUS:
+            case MINUSEQ:
+                return ISUB;
+            case TIMES:
+            case TIMESEQ:
+                return IMUL;
+            case DIV:
+            case DIVEQ:
+                return IDIV;
+            case MOD:
+                return IREM;
+            default:
+                throw new JiffleParserException("Unsupported operator " + op);
+        }
+    }
+
+    private void writeSetDestValue(SetDestValue setDest) {
+        if (!pixelScope) {
+            throw new JiffleParserException("Destination images can only be written per pixel");
+        }
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            if (!destImages.contains(setDest.getDestVar())) {
+                throw new JiffleParserException("Unknown destination " + setDest.getDestVar());
+            }
+            code.load(Object.class, 0);
+            code.field(
+                    GETFIELD,
+                    className,
+                    "d_" + setDest.getDestVar(),
+                    "L" + DESTINATION_IMAGE + ";");
+            code.load(double.class, xSlot);
+            code.load(double.class, ySlot);
+            writeBand(setDest.getBand());
+            writeValue(setDest.getExpr(), double.class);
+            code.invoke(
+                    INVOKEVIRTUAL,
+                    DESTINATION_IMAGE,
+                    "write",
+                    void.class,
+                    double.class,
+                    double.class,
+                    int.class,
+                    double.class);
+        } else {
+            code.load(double[].class, resultSlot);
+            writeBand(setDest.getBand());
+            writeValue(setDest.getExpr(), double.class);
+            code.insn(DASTORE, -4);
+        }
+    }
+
+    private void writeBand(Band band) {
+        if (band == null) {
+            code.iconst(0);
+        } else if (band.getIndex() instanceof IntLiteral) {
+            write(band.getIndex());
+        } else {
+            writeCast(band.getIndex(), int.class);
+        }
+    }
+
+    /**
+     * Writes a {@code ++} or {@code --} operation, leaving the value on the stack if required
+     */
+    private Class<?> writeIncrement(
+            Expression target, String op, boolean prefix, boolean valueNeeded) {
+        while (target instanceof ParenExpression) {
+            target = ((ParenExpression) target).getExpr();
+        }
+        if (!(target instanceof Variable) || !isIncrement(op)) {
+            throw new JiffleParserException("Invalid operand for " + op + ": " + target);
+        }
+        String name = ((Variable) target).getName();
+        int delta = "++".equals(op) ? 1 : -1;
+        Local local = findLocal(name);
+        if (local != null && local.type == int.class) {
+            if (valueNeeded && !prefix) {
+                code.load(int.class, local.slot);
+            }
+            code.iinc(local.slot, delta);
+            if (valueNeeded && prefix) {
+                code.load(int.class, local.slot);
+            }
+            return int.class;
+        }
+
+        Class<?> type;
+        if (local != null) {
+            type = local.type;
+            if (type != double.class) {
+                throw new JiffleParserException("Invalid operand for " + op + ": " + target);
+            }
+            code.load(type, local.slot);
+        } else if (globalNames.contains(name)) {
+            type = double.class;
+            code.load(Object.class, 0);
+            code.insn(DUP, 1);
+            code.field(GETFIELD, className, "v_" + name, double.class);
+        } else {
+            throw new JiffleParserException("Undefined variable: " + name);
+        }
+        int dup = local != null ? DUP2 : DUP2_X1;
+        if (valueNeeded && !prefix) {
+            code.insn(dup, 2);
+        }
+        code.dconst(1);
+        code.arithmetic(delta > 0 ? IADD : ISUB, double.class);
+        if (valueNeeded && prefix) {
+            code.insn(dup, 2);
+        }
+        if (local != null) {
+            code.store(type, local.slot);
+        } else {
+            code.field(PUTFIELD, className, "v_" + name, double.class);
+        }
+        return type;
+    }
+
+    private static boolean isIncrement(String op) {
+        return "++".equals(op) || "--".equals(op);
+    }
+
+    /**
+     * Writes an expression converting it to the given type, with the conversions Java allows
+     * in assignments and method arguments
+     */
+    private void writeValue(Expression e, Class<?> type) {
+        writeValue(e, type, false);
+    }
+
+    private void writeValue(Expression e, Class<?> type, boolean cast) {
+        convert(write(e), type, cast);
+    }
+
+    /** Writes an expression with a cast to the given type */
+    private void writeCast(Expression e, Class<?> type) {
+        writeValue(e, type, true);
+    }
+
+    /**
+     * Writes an expression
+     *
+     * @return the Java type of the value left on the stack
+     */
+    private Class<?> write(Expression e) {
+        if (e instanceof ParenExpression) {
+            return write(((ParenExpression) e).getExpr());
+        } else if (e instanceof IntLiteral) {
+            code.iconst(Integer.parseInt(((IntLiteral) e).getValue()));
+            return int.class;
+        } else if (e instanceof ScalarLiteral) {
+            code.dconst(parseLiteral(((ScalarLiteral) e).getValue()));
+            return double.class;
+        } else if (e instanceof Variable) {
+            return writeVariable(((Variable) e).getName());
+        } else if (e instanceof CachedValue) {
+            String name = ((CachedValue) e).getName();
+            Integer slot = pixelScope ? subexpressionSlots.get(name) : null;
+            if (slot != null) {
+                code.load(double.class, slot);
+            } else if (invariantNames.contains(name)) {
+                code.load(Object.class, 0);
+                code.field(GETFIELD, className, name, double.class);
+            } else {
+                throw new JiffleParserException("Undefined variable: " + name);
+            }
+            return double.class;
+        } else if (e instanceof GetSourceValue) {
+            writeSourceValue((GetSourceValue) e);
+            return double.class;
+        } else if (e instanceof FunctionCall) {
+            return writeFunctionCall((FunctionCall) e);
+        } else if (e instanceof ConFunction) {
+            writeCon(((ConFunction) e).getArgs());
+            return double.class;
+        } else if (e instanceof BinaryExpression) {
+            return writeBinary((BinaryExpression) e);
+        } else if (e instanceof PrefixUnaryExpression) {
+            PrefixUnaryExpression pe = (PrefixUnaryExpression) e;
+            if (isIncrement(pe.getOp())) {
+                return writeIncrement(pe.getArg(), pe.getOp(), true, true);
+            }
+            Class<?> type = promote(typeOf(pe.getArg()), int.class);
+            writeValue(pe.getArg(), type);
+            if ("-".equals(pe.getOp())) {
+                code.neg(type);
+            } else if (!"+".equals(pe.getOp())) {
+                throw new JiffleParserException("Unsupported operator " + pe.getOp());
+            }
+            return type;
+        } else if (e instanceof PostfixUnaryExpression) {
+            PostfixUnaryExpression pe = (PostfixUnaryExpression) e;
+            return writeIncrement(pe.getArg(), pe.getOp(), false, true);
+        } else if (e instanceof ListLiteral) {
+            List<Expression> args = ((ListLiteral) e).getArgs();
+            code.typeInsn(NEW, DOUBLE_LIST);
+            code.insn(DUP, 1);
+            if (args.isEmpty()) {
+                code.invoke(INVOKESPECIAL, DOUBLE_LIST, "<init>", void.class);
+            } else {
+                writeDoubleArray(args);
+                code.invoke(INVOKESPECIAL, DOUBLE_LIST, "<init>", void.class, double[].class);
+            }
+            return DoubleList.class;
+        } else if (e instanceof ImageProperty) {
+            ImageProperty property = (ImageProperty) e;
+            code.load(Object.class, 0);
+            code.sconst(property.getVarName());
+            code.invoke(
+                    INVOKEVIRTUAL,
+                    className,
+                    property.getProperty().getRuntimeMethod(),
+                    int.class,
+                    String.class);
+            return int.class;
+        }
+        throw unsupported(e);
+    }
+
+    /**
+     * Returns the Java type of an expression, as {@link #write(Expression)} would, without
+     * writing it
+     */
+    private Class<?> typeOf(Expression e) {
+        if (e instanceof ParenExpression) {
+            return typeOf(((ParenExpression) e).getExpr());
+        } else if (e instanceof IntLiteral) {
+            return int.class;
+        } else if (e instanceof ScalarLiteral
+                || e instanceof CachedValue
+                || e instanceof GetSourceValue
+                || e instanceof ConFunction) {
+            return double.class;
+        } else if (e instanceof Variable) {
+            String name = ((Variable) e).getName();
+            Local local = findLocal(name);
+            if (local != null) {
+                return local.type;
+            } else if (globalNames.contains(name)) {
+                return double.class;
+            }
+            throw new JiffleParserException("Undefined variable: " + name);
+        } else if (e instanceof FunctionCall) {
+            FunctionCall call = (FunctionCall) e;
+            if (call.isProxy()) {
+                return isPosition(call)
+                        ? double.class
+                        : getProxyMethod(call.getRuntimeName()).getReturnType();
+            }
+            return resolve(call).getReturnType();
+        } else if (e instanceof BinaryExpression) {
+            BinaryExpression be = (BinaryExpression) e;
+            if (be.getOp().isAssignment()) {
+                throw unsupported(e);
+            } else if (be.getOp() == BinaryExpression.Operator.POW) {
+                return double.class;
+            }
+            return promote(typeOf(be.getLeft()), typeOf(be.getRight()));
+        } else if (e instanceof PrefixUnaryExpression) {
+            PrefixUnaryExpression pe = (PrefixUnaryExpression) e;
+            Class<?> type = typeOf(pe.getArg());
+            return isIncrement(pe.getOp()) ? type : promote(type, int.class);
+        } else if (e instanceof PostfixUnaryExpression) {
+            return typeOf(((PostfixUnaryExpression) e).getArg());
+        } else if (e instanceof ListLiteral) {
+            return DoubleList.class;
+        } else if (e instanceof ImageProperty) {
+            return int.class;
+        }
+        throw unsupported(e);
+    }
+
+    private Class<?> writeVariable(String name) {
+        Local local = findLocal(name);
+        if (local != null) {
+            code.load(local.type, local.slot);
+            return local.type;
+        } else if (globalNames.contains(name)) {
+            code.load(Object.class, 0);
+            code.field(GETFIELD, className, "v_" + name, double.class);
+            return double.class;
+        }
+        throw new JiffleParserException("Undefined variable: " + name);
+    }
+
+    private void writeSourceValue(GetSourceValue read) {
+        Integer slot = pixelScope ? readSlots.get(read) : null;
+        if (slot != null) {
+            code.load(double.class, slot);
+            return;
+        }
+        if (!sourceImages.contains(read.getVarName())) {
+            throw new JiffleParserException("Unknown source image " + read.getVarName());
+        }
+        Pixel pixel = read.getPos().getPixel();
+        if (pixel == null) {
+            throw new JiffleParserException("Missing pixel position for " + read.getVarName());
+        }
+        code.load(Object.class, 0);
+        code.field(GETFIELD, className, "s_" + read.getVarName(), "L" + SOURCE_IMAGE + ";");
+        writeValue(pixel.getX(), double.class);
+        writeValue(pixel.getY(), double.class);
+        writeBand(read.getPos().getBand());
+        code.invoke(
+                INVOKEVIRTUAL,
+                SOURCE_IMAGE,
+                "read",
+                double.class,
+                double.class,
+                double.class,
+                int.class);
+    }
+
+    private Class<?> writeBinary(BinaryExpression be) {
+        BinaryExpression.Operator op = be.getOp();
+        if (op.isAssignment()) {
+            throw new JiffleParserException("Assignments cannot be used as values: " + be);
+        }
+        if (op == BinaryExpression.Operator.POW) {
+            writeValue(be.getLeft(), double.class);
+            writeValue(be.getRight(), double.class);
+            code.invoke(
+                    INVOKESTATIC,
+                    "java/lang/Math",
+                    "pow",
+                    double.class,
+                    double.class,
+                    double.class);
+            return double.class;
+        }
+        Class<?> type = promote(typeOf(be.getLeft()), typeOf(be.getRight()));
+        writeValue(be.getLeft(), type);
+        writeValue(be.getRight(), type);
+        code.arithmetic(getOpcode(op), type);
+        return type;
+    }
+
+    /**
+     * Writes the con function, mirroring the conditional expression used in the runtime source:
+     * NaN if the condition is null, otherwise a choice based on the condition sign
+     */
+    private void writeCon(Expression[] args) {
+        if (args.length < 1 || args.length > 4) {
+            throw new JiffleParserException("Invalid number of arguments for con");
+        }
+        Label notNull = new Label();
+        Label end = new Label();
+        code.load(Object.class, 0);
+        code.field(GETFIELD, className, "_FN", JiffleFunctions.class);
+        writeValue(args[0], double.class);
+        code.invoke(INVOKEVIRTUAL, FUNCTIONS, "sign", Integer.class, double.class);
+        code.insn(DUP, 1);
+        code.jump(IFNONNULL, notNull);
+        code.insn(POP, -1);
+        code.dconst(Double.NaN);
+        code.jump(GOTO, end);
+        code.mark(notNull);
+        code.invoke(INVOKEVIRTUAL, "java/lang/Integer", "intValue", int.class);
+
+        if (args.length < 4) {
+            Label zero = new Label();
+            code.jump(IFEQ, zero);
+            if (args.length == 1) {
+                code.dconst(1);
+            } else {
+                writeValue(args[1], double.class);
+            }
+            code.jump(GOTO, end);
+            code.mark(zero);
+            if (args.length == 3) {
+                writeValue(args[2], double.class);
+            } else {
+                code.dconst(0);
+            }
+        } else {
+            Label notOne = new Label();
+            Label negative = new Label();
+            int sign = code.newLocal(int.class);
+            code.store(int.class, sign);
+            code.load(int.class, sign);
+            code.iconst(1);
+            code.jump(IF_ICMPNE, notOne);
+            writeValue(args[1], double.class);
+            code.jump(GOTO, end);
+            code.mark(notOne);
+            code.load(int.class, sign);
+            code.jump(IFNE, negative);
+            writeValue(args[2], double.class);
+            code.jump(GOTO, end);
+            code.mark(negative);
+            writeValue(args[3], double.class);
+        }
+        code.mark(end);
+    }
+
+    private Class<?> writeFunctionCall(FunctionCall call) {
+        String runtimeName = call.getRuntimeName();
+        if (call.isProxy()) {
+            if (isPosition(call)) {
+                if (!pixelScope) {
+                    throw new JiffleParserException(
+                            "Pixel position " + runtimeName + " used outside of pixel scope");
+                }
+                code.load(double.class, "_x".equals(runtimeName) ? xSlot : ySlot);
+                return double.class;
+            }
+            Method method = getProxyMethod(runtimeName);
+            code.load(Object.class, 0);
+            code.invoke(INVOKEVIRTUAL, className, method.getName(), method.getReturnType());
+            return method.getReturnType();
+        }
+
+        Method method = resolve(call);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            code.load(Object.class, 0);
+            code.field(GETFIELD, className, "_FN", JiffleFunctions.class);
+        }
+        Class<?>[] params = method.getParameterTypes();
+        Expression[] args = call.getArgs();
+        for (int i = 0; i < args.length; i++) {
+            writeValue(args[i], params[i]);
+        }
+        code.invoke(
+                isStatic ? INVOKESTATIC : INVOKEVIRTUAL,
+                internalName(method.getDeclaringClass()),
+                method.getName(),
+                method.getReturnType(),
+                params);
+        return method.getReturnType();
+    }
+
+    private static boolean isPosition(FunctionCall call) {
+        return "_x".equals(call.getRuntimeName()) || "_y".equals(call.getRuntimeName());
+    }
+
+    private Method getProxyMethod(String runtimeName) {
+        String name = runtimeName.replace("()", "");
+        try {
+            return baseClass.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new JiffleParserException("Unknown function " + runtimeName);
+        }
+    }
+
+    /**
+     * Resolves the Java method called by a function, following the Java overload resolution
+     * rules: methods applicable without boxing are preferred, and among the applicable ones the
+     * most specific is chosen
+     */
+    private Method resolve(FunctionCall call) {
+        String runtimeName = call.getRuntimeName();
+        int dot = runtimeName.indexOf('.');
+        String owner = runtimeName.substring(0, dot);
+        String name = runtimeName.substring(dot + 1);
+        Class<?> ownerClass = "Math".equals(owner) ? Math.class : JiffleFunctions.class;
+
+        Expression[] args = call.getArgs();
+        Class<?>[] argTypes = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argTypes[i] = typeOf(args[i]);
+        }
+
+        List<Method> applicable = new ArrayList<>();
+        for (int phase = 0; phase < 2 && applicable.isEmpty(); phase++) {
+            for (Method method : ownerClass.getMethods()) {
+                if (method.getName().equals(name)
+                        && method.getDeclaringClass() == ownerClass
+                        && method.getParameterCount() == args.length
+                        && isApplicable(method.getParameterTypes(), argTypes, phase == 1)) {
+                    applicable.add(method);
+                }
+            }
+        }
+        for (Method candidate : applicable) {
+            boolean mostSpecific = true;
+            for (Method other : applicable) {
+                Class<?>[] params = candidate.getParameterTypes();
+                if (!isApplicable(other.getParameterTypes(), params, false)) {
+                    mostSpecific = false;
+                    break;
+                }
+            }
+            if (mostSpecific) {
+                return candidate;
+            }
+        }
+        StringBuilder sb = new StringBuilder(runtimeName).append("(");
+        for (int i = 0; i < argTypes.length; i++) {
+            sb.append(i > 0 ? ", " : "").append(argTypes[i].getSimpleName());
+        }
+        throw new JiffleParserException("Cannot resolve function " + sb.append(")"));
+    }
+
+    private static boolean isApplicable(Class<?>[] params, Class<?>[] args, boolean boxing) {
+        for (int i = 0; i < params.length; i++) {
+            if (!isConvertible(args[i], params[i], boxing)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if a value can be passed to a parameter of the given type, with widening and
+     * optionally boxing conversions
+     */
+    private static boolean isConvertible(Class<?> from, Class<?> to, boolean boxing) {
+        if (from == to) {
+            return true;
+        } else if (from.isPrimitive() && to.isPrimitive()) {
+            return isWidening(from, to);
+        } else if (!from.isPrimitive() && !to.isPrimitive()) {
+            return to.isAssignableFrom(from);
+        } else if (!boxing) {
+            return false;
+        } else if (from.isPrimitive()) {
+            return to.isAssignableFrom(box(from));
+        } else {
+            Class<?> unboxed = unbox(from);
+            return unboxed != null && (unboxed == to || isWidening(unboxed, to));
+        }
+    }
+
+    private static boolean isWidening(Class<?> from, Class<?> to) {
+        int fromRank = rank(from);
+        int toRank = rank(to);
+        return fromRank >= 0 && toRank >= 0 && fromRank < toRank;
+    }
+
+    /** Orders the numeric primitive types used by the runtime classes */
+    private static int rank(Class<?> type) {
+        if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 1;
+        } else if (type == float.class) {
+            return 2;
+        } else if (type == double.class) {
+            return 3;
+        }
+        return -1;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        }
+        return type;
+    }
+
+    private static Class<?> unbox(Class<?> type) {
+        if (type == Integer.class) {
+            return int.class;
+        } else if (type == Long.class) {
+            return long.class;
+        } else if (type == Float.class) {
+            return float.class;
+        } else if (type == Double.class) {
+            return double.class;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the type of a binary arithmetic operation, applying the Java binary numeric
+     * promotion
+     */
+    private static Class<?> promote(Class<?> left, Class<?> right) {
+        Class<?> l = left.isPrimitive() ? left : unbox(left);
+        Class<?> r = right.isPrimitive() ? right : unbox(right);
+        if (l == null || r == null || rank(l) < 0 || rank(r) < 0) {
+            throw new JiffleParserException(
+                    "Invalid operand types: "
+                            + left.getSimpleName()
+                            + ", "
+                            + right.getSimpleName());
+        }
+        return rank(l) > rank(r) ? l : r;
+    }
+
+    /**
+     * Converts the value on top of the stack
+     *
+     * @param from the type of the value
+     * @param to the target type
+     * @param cast whether narrowing conversions are allowed, as in a cast
+     */
+    private void convert(Class<?> from, Class<?> to, boolean cast) {
+        if (from == to) {
+            return;
+        }
+        if (!from.isPrimitive() && !to.isPrimitive()) {
+            if (!to.isAssignableFrom(from)) {
+                throw incompatible(from, to);
+            }
+        } else if (from.isPrimitive() && to.isPrimitive()) {
+            if (rank(from) < 0 || rank(to) < 0 || (!cast && !isWidening(from, to))) {
+                throw incompatible(from, to);
+            }
+            convertPrimitive(from, to);
+        } else if (from.isPrimitive()) {
+            // boxing, the Java source allows no widening here
+            Class<?> boxed = box(from);
+            if (!to.isAssignableFrom(boxed)) {
+                throw incompatible(from, to);
+            }
+            code.invoke(INVOKESTATIC, internalName(boxed), "valueOf", boxed, from);
+        } else {
+            Class<?> unboxed = unbox(from);
+            if (unboxed == null) {
+                throw incompatible(from, to);
+            }
+            code.invoke(
+                    INVOKEVIRTUAL, internalName(from), unboxed.getName() + "Value", unboxed);
+            convert(unboxed, to, cast);
+        }
+    }
+
+    private void convertPrimitive(Class<?> from, Class<?> to) {
+        final int[][] opcodes = {
+            // to int, long, float, double
+            {0, I2L, I2F, I2D},
+            {L2I, 0, L2F, L2D},
+            {F2I, F2L, 0, F2D},
+            {D2I, D2L, D2F, 0}
+        };
+        int opcode = opcodes[rank(from)][rank(to)];
+        if (opcode != 0) {
+            code.insn(opcode, size(to) - size(from));
+        }
+    }
+
+    private static JiffleParserException incompatible(Class<?> from, Class<?> to) {
+        return new JiffleParserException(
+                "Incompatible types: " + from.getSimpleName() + " cannot be converted to "
+                        + to.getSimpleName());
+    }
+
+    private void writeDoubleArray(List<Expression> values) {
+        code.iconst(values.size());
+        code.newArray(T_DOUBLE);
+        for (int i = 0; i < values.size(); i++) {
+            code.insn(DUP, 1);
+            code.iconst(i);
+            writeValue(values.get(i), double.class);
+            code.insn(DASTORE, -4);
+        }
+    }
+
+    private Local findLocal(String name) {
+        for (Map<String, Local> scope : scopes) {
+            Local local = scope.get(name);
+            if (local != null) {
+                return local;
+            }
+        }
+        return null;
+    }
+
+    private Local declareLocal(String name, Class<?> type) {
+        if (scopes.isEmpty()) {
+            throw new JiffleParserException("Variable " + name + " declared outside of a block");
+        }
+        if (findLocal(name) != null) {
+            throw new JiffleParserException("Variable " + name + " is already defined");
+        }
+        Local local = new Local(code.newLocal(type), type);
+        scopes.peek().put(name, local);
+        return local;
+    }
+
+    private static double parseLiteral(String value) {
+        switch (value) {
+            case "Double.NaN":
+                return Double.NaN;
+            case "Double.POSITIVE_INFINITY":
+                return Double.POSITIVE_INFINITY;
+            case "Double.NEGATIVE_INFINITY":
+                return Double.NEGATIVE_INFINITY;
+            default:
+                return Double.parseDouble(value);
+        }
+    }
+
+    private static JiffleParserException unsupported(Object node) {
+        return new JiffleParserException(
+                "Unsupported construct in runtime class: " + node.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,64 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle.parser.node;
+
+import java.util.Objects;
+
+import it.geosolutions.jaiext.jiffle.parser.JiffleType;
+
+/**
+ * A reference to a value computed once by the generated runtime and then reused, either a field
+ * holding a pixel invariant expression or a local variable holding a common subexpression.
+ */
+public class CachedValue extends Expression {
+
+    private final String name;
+
+    public CachedValue(String name, JiffleType type) {
+        super(type);
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    public void write(SourceWriter w) {
+        w.append(name);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        if (!super.equals(o)) return false;
+        CachedValue that = (CachedValue) o;
+        return Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), name);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,536 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package it.geosolutions.jaiext.jiffle.parser.node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.janino.MethodDescriptor;
+import org.codehaus.janino.util.ClassFile;
+
+/**
+ * Assembles the runtime classes generated by {@link BytecodeWriter} on top of the Janino
+ * {@link ClassFile} writer, which takes care of the constant pool and of the class file layout.
+ * This class only adds the instruction buffer of the method bodies, tracking the operand stack
+ * depth and the local variables.
+ * <p>
+ * Class files are written with version 49 (Java 5), which the JVM still verifies by type
+ * inference, so that the generated methods do not need stack map frames. Only the instructions
+ * actually used by the Jiffle runtime classes are supported.
+ */
+class ClassFileBuilder {
+
+    static final int ACC_PUBLIC = 0x0001;
+    static final int ACC_PROTECTED = 0x0004;
+    static final int ACC_SUPER = 0x0020;
+
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int LCONST_0 = 0x09;
+    static final int FCONST_0 = 0x0b;
+    static final int DCONST_0 = 0x0e;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC = 0x12;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int ILOAD = 0x15;
+    static final int DALOAD = 0x31;
+    static final int ISTORE = 0x36;
+    static final int DASTORE = 0x52;
+    static final int AASTORE = 0x53;
+    static final int POP = 0x57;
+    static final int POP2 = 0x58;
+    static final int DUP = 0x59;
+    static final int DUP2 = 0x5c;
+    static final int DUP2_X1 = 0x5d;
+    static final int IADD = 0x60;
+    static final int ISUB = 0x64;
+    static final int IMUL = 0x68;
+    static final int IDIV = 0x6c;
+    static final int IREM = 0x70;
+    static final int INEG = 0x74;
+    static final int IINC = 0x84;
+    static final int I2L = 0x85;
+    static final int I2F = 0x86;
+    static final int I2D = 0x87;
+    static final int L2I = 0x88;
+    static final int L2F = 0x89;
+    static final int L2D = 0x8a;
+    static final int F2I = 0x8b;
+    static final int F2L = 0x8c;
+    static final int F2D = 0x8d;
+    static final int D2I = 0x8e;
+    static final int D2L = 0x8f;
+    static final int D2F = 0x90;
+    static final int DCMPG = 0x98;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9a;
+    static final int IFGE = 0x9c;
+    static final int IF_ICMPNE = 0xa0;
+    static final int IF_ICMPGE = 0xa2;
+    static final int IF_ICMPGT = 0xa3;
+    static final int GOTO = 0xa7;
+    static final int RETURN = 0xb1;
+    static final int GETFIELD = 0xb4;
+    static final int PUTFIELD = 0xb5;
+    static final int INVOKEVIRTUAL = 0xb6;
+    static final int INVOKESPECIAL = 0xb7;
+    static final int INVOKESTATIC = 0xb8;
+    static final int INVOKEINTERFACE = 0xb9;
+    static final int NEW = 0xbb;
+    static final int NEWARRAY = 0xbc;
+    static final int ANEWARRAY = 0xbd;
+    static final int ARRAYLENGTH = 0xbe;
+    static final int CHECKCAST = 0xc0;
+    static final int WIDE = 0xc4;
+    static final int IFNONNULL = 0xc7;
+
+    static final int T_DOUBLE = 7;
+
+    /* Offsets of the typed variants of the arithmetic and local variable instructions */
+    private static final int INT_OFFSET = 0;
+    private static final int LONG_OFFSET = 1;
+    private static final int FLOAT_OFFSET = 2;
+    private static final int DOUBLE_OFFSET = 3;
+    private static final int REFERENCE_OFFSET = 4;
+
+    private final ClassFile classFile;
+
+    /**
+     * Creates a builder for a public class.
+     *
+     * @param className internal name of the class (e.g. {@code java/lang/Object})
+     * @param superName internal name of the super class
+     */
+    ClassFileBuilder(String className, String superName) {
+        classFile = new ClassFile((short) (ACC_PUBLIC | ACC_SUPER), "L" + className + ";",
+                "L" + superName + ";", new String[0]);
+        classFile.setVersion(ClassFile.MAJOR_VERSION_JDK_1_5, ClassFile.MINOR_VERSION_JDK_1_5);
+    }
+
+    int classRef(String internalName) {
+        String descriptor =
+                internalName.startsWith("[") ? internalName : "L" + internalName + ";";
+        return index(classFile.addConstantClassInfo(descriptor));
+    }
+
+    int string(String value) {
+        return index(classFile.addConstantStringInfo(value));
+    }
+
+    int integer(int value) {
+        return index(classFile.addConstantIntegerInfo(value));
+    }
+
+    int longValue(long value) {
+        return index(classFile.addConstantLongInfo(value));
+    }
+
+    int doubleValue(double value) {
+        return index(classFile.addConstantDoubleInfo(value));
+    }
+
+    int fieldRef(String owner, String name, String descriptor) {
+        return index(classFile.addConstantFieldrefInfo("L" + owner + ";", name, descriptor));
+    }
+
+    int methodRef(boolean isInterface, String owner, String name, String descriptor) {
+        String ownerDescriptor = "L" + owner + ";";
+        return index(isInterface
+                ? classFile.addConstantInterfaceMethodrefInfo(ownerDescriptor, name, descriptor)
+                : classFile.addConstantMethodrefInfo(ownerDescriptor, name, descriptor));
+    }
+
+    /** Converts a constant pool index, stored as a short by Janino, to its unsigned value */
+    private static int index(short index) {
+        return index & 0xffff;
+    }
+
+    /**
+     * Adds a field without initial value
+     */
+    void field(int access, String name, String descriptor) {
+        classFile.addFieldInfo((short) access, name, descriptor, null);
+    }
+
+    /**
+     * Creates the instruction buffer for a new method body
+     *
+     * @param numParamSlots the local variable slots used by {@code this} and the parameters
+     */
+    Code code(int numParamSlots) {
+        return new Code(numParamSlots);
+    }
+
+    /**
+     * Adds a method, prepending to its body the initialization of the local variables
+     * allocated with {@link Code#newLocal(Class)}
+     */
+    void method(int access, String name, String descriptor, Code body) {
+        Code prologue = new Code(0);
+        for (Object[] local : body.locals) {
+            Class<?> type = (Class<?>) local[1];
+            prologue.defaultValue(type);
+            prologue.store(type, (Integer) local[0]);
+        }
+        byte[] code = new byte[prologue.length + body.length];
+        System.arraycopy(prologue.toByteArray(), 0, code, 0, prologue.length);
+        System.arraycopy(body.toByteArray(), 0, code, prologue.length, body.length);
+        if (code.length > 0xffff) {
+            throw new IllegalStateException("Method " + name + " is too large");
+        }
+        int maxStack = Math.max(prologue.maxStack, body.maxStack);
+        ClassFile.MethodInfo method =
+                classFile.addMethodInfo((short) access, name, new MethodDescriptor(descriptor));
+        method.addAttribute(new ClassFile.CodeAttribute(classFile.addConstantUtf8Info("Code"),
+                (short) maxStack, (short) body.maxLocals, code,
+                new ClassFile.CodeAttribute.ExceptionTableEntry[0],
+                new ClassFile.AttributeInfo[0]));
+    }
+
+    /**
+     * Returns the class file contents
+     */
+    byte[] toByteArray() {
+        return classFile.toByteArray();
+    }
+
+    /**
+     * Returns the field descriptor of a type
+     */
+    static String descriptor(Class<?> type) {
+        if (type == int.class) {
+            return "I";
+        } else if (type == long.class) {
+            return "J";
+        } else if (type == float.class) {
+            return "F";
+        } else if (type == double.class) {
+            return "D";
+        } else if (type == boolean.class) {
+            return "Z";
+        } else if (type == void.class) {
+            return "V";
+        } else if (type.isArray()) {
+            return "[" + descriptor(type.getComponentType());
+        } else if (type.isPrimitive()) {
+            throw new IllegalArgumentException("Unsupported type " + type);
+        }
+        return "L" + internalName(type) + ";";
+    }
+
+    static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    static String methodDescriptor(Class<?> returnType, Class<?>... params) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Class<?> param : params) {
+            sb.append(descriptor(param));
+        }
+        return sb.append(")").append(descriptor(returnType)).toString();
+    }
+
+    /**
+     * Number of stack or local variable slots used by a value of the given type
+     */
+    static int size(Class<?> type) {
+        if (type == void.class) {
+            return 0;
+        }
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static int typeOffset(Class<?> type) {
+        if (type == int.class || type == boolean.class) {
+            return INT_OFFSET;
+        } else if (type == long.class) {
+            return LONG_OFFSET;
+        } else if (type == float.class) {
+            return FLOAT_OFFSET;
+        } else if (type == double.class) {
+            return DOUBLE_OFFSET;
+        }
+        return REFERENCE_OFFSET;
+    }
+
+    /** A jump target inside a method body */
+    static final class Label {
+        private int position = -1;
+        /* the stack depth expected when jumping here, or -1 if no jump was recorded yet */
+        private int stack = -1;
+    }
+
+    /**
+     * The instructions of a method body, tracking the operand stack depth and the local
+     * variable slots in use.
+     */
+    final class Code {
+
+        private byte[] bytes = new byte[256];
+        private int length;
+        private int stack;
+        private int maxStack;
+        private int maxLocals;
+        private final List<Object[]> locals = new ArrayList<>();
+        private final List<Object[]> jumps = new ArrayList<>();
+
+        private Code(int numParamSlots) {
+            this.maxLocals = numParamSlots;
+        }
+
+        /**
+         * Allocates a local variable slot, which will be initialized to a default value at the
+         * beginning of the method.
+         */
+        int newLocal(Class<?> type) {
+            int slot = maxLocals;
+            maxLocals += size(type);
+            locals.add(new Object[] {slot, type});
+            return slot;
+        }
+
+        /**
+         * Appends an instruction without operands
+         *
+         * @param opcode the instruction
+         * @param delta the change in the operand stack size, in slots
+         */
+        void insn(int opcode, int delta) {
+            u1(opcode);
+            adjust(delta);
+        }
+
+        void iconst(int value) {
+            if (value >= -1 && value <= 5) {
+                insn(ICONST_0 + value, 1);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                insn(BIPUSH, 1);
+                u1(value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                insn(SIPUSH, 1);
+                u2(value);
+            } else {
+                ldc(integer(value), 1);
+            }
+        }
+
+        void lconst(long value) {
+            if (value == 0L || value == 1L) {
+                insn(LCONST_0 + (int) value, 2);
+            } else {
+                insn(LDC2_W, 2);
+                u2(longValue(value));
+            }
+        }
+
+        void dconst(double value) {
+            if (Double.doubleToRawLongBits(value) == 0L || value == 1.0) {
+                insn(DCONST_0 + (int) value, 2);
+            } else {
+                insn(LDC2_W, 2);
+                u2(doubleValue(value));
+            }
+        }
+
+        void sconst(String value) {
+            ldc(string(value), 1);
+        }
+
+        private void ldc(int index, int delta) {
+            if (index <= 0xff) {
+                insn(LDC, delta);
+                u1(index);
+            } else {
+                insn(LDC_W, delta);
+                u2(index);
+            }
+        }
+
+        /** Pushes the zero or null value of a type */
+        void defaultValue(Class<?> type) {
+            if (type == long.class) {
+                lconst(0);
+            } else if (type == float.class) {
+                insn(FCONST_0, 1);
+            } else if (type == double.class) {
+                dconst(0);
+            } else if (type.isPrimitive()) {
+                iconst(0);
+            } else {
+                insn(ACONST_NULL, 1);
+            }
+        }
+
+        void load(Class<?> type, int slot) {
+            local(ILOAD + typeOffset(type), slot, size(type));
+        }
+
+        void store(Class<?> type, int slot) {
+            local(ISTORE + typeOffset(type), slot, -size(type));
+        }
+
+        private void local(int opcode, int slot, int delta) {
+            if (slot > 0xff) {
+                u1(WIDE);
+                insn(opcode, delta);
+                u2(slot);
+            } else {
+                insn(opcode, delta);
+                u1(slot);
+            }
+        }
+
+        void iinc(int slot, int increment) {
+            if (slot > 0xff) {
+                u1(WIDE);
+                u1(IINC);
+                u2(slot);
+                u2(increment);
+            } else {
+                u1(IINC);
+                u1(slot);
+                u1(increment);
+            }
+        }
+
+        /**
+         * Appends the typed variant of an arithmetic instruction, given the int one
+         */
+        void arithmetic(int intOpcode, Class<?> type) {
+            insn(intOpcode + typeOffset(type), type == int.class ? -1 : -size(type));
+        }
+
+        /** Appends the negation instruction for the given type */
+        void neg(Class<?> type) {
+            insn(INEG + typeOffset(type), 0);
+        }
+
+        void field(int opcode, String owner, String name, Class<?> type) {
+            field(opcode, owner, name, descriptor(type));
+        }
+
+        /** Appends GETFIELD or PUTFIELD, for a field of the given descriptor */
+        void field(int opcode, String owner, String name, String descriptor) {
+            int size = descriptor.equals("J") || descriptor.equals("D") ? 2 : 1;
+            insn(opcode, opcode == GETFIELD ? size - 1 : -size - 1);
+            u2(fieldRef(owner, name, descriptor));
+        }
+
+        void invoke(
+                int opcode, String owner, String name, Class<?> returnType, Class<?>... params) {
+            int argSlots = opcode == INVOKESTATIC ? 0 : 1;
+            for (Class<?> param : params) {
+                argSlots += size(param);
+            }
+            String descriptor = methodDescriptor(returnType, params);
+            insn(opcode, size(returnType) - argSlots);
+            if (opcode == INVOKEINTERFACE) {
+                u2(methodRef(true, owner, name, descriptor));
+                u1(argSlots);
+                u1(0);
+            } else {
+                u2(methodRef(false, owner, name, descriptor));
+            }
+        }
+
+        /** Appends NEW, CHECKCAST or ANEWARRAY */
+        void typeInsn(int opcode, String internalName) {
+            insn(opcode, opcode == NEW ? 1 : 0);
+            u2(classRef(internalName));
+        }
+
+        void newArray(int atype) {
+            insn(NEWARRAY, 0);
+            u1(atype);
+        }
+
+        /**
+         * Appends a jump, recording the stack depth expected at the target
+         */
+        void jump(int opcode, Label target) {
+            int delta;
+            if (opcode == GOTO) {
+                delta = 0;
+            } else if (opcode >= 0x9f && opcode <= 0xa6) {
+                delta = -2;
+            } else {
+                delta = -1;
+            }
+            int position = length;
+            insn(opcode, delta);
+            u2(0);
+            jumps.add(new Object[] {position, target});
+            target.stack = stack;
+        }
+
+        /**
+         * Marks the position of a label, restoring the stack depth recorded by the jumps to it
+         */
+        void mark(Label label) {
+            label.position = length;
+            if (label.stack >= 0) {
+                stack = label.stack;
+            }
+        }
+
+        private void adjust(int delta) {
+            stack += delta;
+            if (stack < 0) {
+                throw new IllegalStateException("Operand stack underflow");
+            }
+            maxStack = Math.max(maxStack, stack);
+        }
+
+        private void u1(int value) {
+            if (length == bytes.length) {
+                byte[] grown = new byte[bytes.length * 2];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        private void u2(int value) {
+            u1(value >> 8);
+            u1(value);
+        }
+
+        private byte[] toByteArray() {
+            for (Object[] jump : jumps) {
+                int position = (Integer) jump[0];
+                Label target = (Label) jump[1];
+                if (target.position < 0) {
+                    throw new IllegalStateException("Jump to an unmarked label");
+                }
+                int offset = target.position - position;
+                if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Jump offset too large: " + offset);
+                }
+                bytes[position + 1] = (byte) (offset >> 8);
+                bytes[position + 2] = (byte) offset;
+            }
+            byte[] result = new byte[length];
+            System.arraycopy(bytes, 0, result, 0, length);
+            return result;
+        }
+    }
+}
@@ -71,6 +71,21 @@ public class ConstantLiteral extends ScalarLiteral {
         return new ConstantLiteral(
                 String.valueOf("Double.NaN")); 
     }
+
+    /**
+     * Creates a literal for the given value, using the Java constants
+     * for NaN and infinite values.
+     */
+    public static ConstantLiteral valueOf(double value) {
+        if (Double.isNaN(value)) {
+            return nanValue();
+        } else if (value == Double.POSITIVE_INFINITY) {
+            return new ConstantLiteral("Double.POSITIVE_INFINITY");
+        } else if (value == Double.NEGATIVE_INFINITY) {
+            return new ConstantLiteral("Double.NEGATIVE_INFINITY");
+        }
+        return new ConstantLiteral(Double.toString(value));
+    }
     
     
 }
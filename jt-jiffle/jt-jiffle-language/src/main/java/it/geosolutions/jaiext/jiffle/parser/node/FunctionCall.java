@@ -59,6 +59,7 @@ import it.geosolutions.jaiext.jiffle.util.Strings;
  */
 public class FunctionCall extends Expression {
 
+    private final FunctionInfo info;
     private final String runtimeName;
     private final boolean proxy;
     private final Expression[] args;
@@ -86,6 +87,7 @@ public class FunctionCall extends Expression {
         
         super(info.getReturnType());
         
+        this.info = info;
         this.runtimeName = info.getRuntimeName();
         this.proxy = info.isProxy();
         this.args = args == null ? new Expression[0] : args;
@@ -139,6 +141,25 @@ public class FunctionCall extends Expression {
         return proxy;
     }
 
+    /**
+     * Tests whether the function can return a different value on each
+     * invocation with the same arguments (e.g. {@code rand}).
+     */
+    public boolean isVolatile() {
+        return info.isVolatile();
+    }
+
+    /**
+     * Creates a call to the same function with a different set of arguments.
+     * 
+     * @param args the new arguments, of the same types as the current ones
+     * @return the new function call
+     * @throws NodeException on errors creating the node
+     */
+    public FunctionCall withArgs(Expression ...args) throws NodeException {
+        return new FunctionCall(info, args);
+    }
+
     public Expression[] getArgs() {
         return args;
     }
@@ -73,4 +73,12 @@ public class ImageProperty extends Expression {
     public String toString() {
         return property.getRuntimeMethod() + "(\"" + varName + "\")";
     }
+
+    public String getVarName() {
+        return varName;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
 }
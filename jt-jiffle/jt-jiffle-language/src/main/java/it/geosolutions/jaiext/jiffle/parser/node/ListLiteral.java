@@ -67,9 +67,24 @@ public class ListLiteral extends Expression {
 
     public void write(SourceWriter w) {
         if (args.isEmpty()) {
-            w.append("new ArrayList()");
+            w.append("new DoubleList()");
         } else {
-            w.append("new ArrayList(Arrays.asList(");
+            w.append("new DoubleList(");
+            writeValues(w);
+            w.append(")");
+        }
+    }
+
+    /**
+     * Writes the list values as a primitive array initializer
+     *
+     * @param w
+     */
+    public void writeValues(SourceWriter w) {
+        if (args.isEmpty()) {
+            w.append("new double[0]");
+        } else {
+            w.append("new double[] {");
             for (int i = 0; i < args.size(); i++) {
                 Expression arg = args.get(i);
                 w.append(arg);
@@ -77,7 +92,7 @@ public class ListLiteral extends Expression {
                     w.append(", ");
                 }
             }
-            w.append("))"); 
+            w.append("}");
         }
     }
 
@@ -59,7 +59,8 @@ public class LoopInLiteralList implements Statement {
 
     @Override
     public void write(SourceWriter w) {
-        w.indent().append("for(Double ").append(loopVariable).append(" : ").append(listLiteral);
+        w.indent().append("for(double ").append(loopVariable).append(" : ");
+        listLiteral.writeValues(w);
         w.append(") {").newLine();
         w.inc();
         w.line("checkLoopIterations();");
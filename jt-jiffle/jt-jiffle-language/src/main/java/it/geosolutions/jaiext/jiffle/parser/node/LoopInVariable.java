@@ -59,9 +59,16 @@ public class LoopInVariable implements Statement {
 
     @Override
     public void write(SourceWriter w) {
-        w.indent().append("for(Double ").append(loopVariable).append(" : ").append(listVariable);
-        w.append(") {").newLine();
+        // index based loop, the list holds primitive values. Values appended to the list
+        // while looping are not visited
+        String index = "_i_" + loopVariable;
+        String size = "_n_" + loopVariable;
+        w.indent().append("for(int ").append(index).append(" = 0, ").append(size).append(" = ");
+        w.append(listVariable).append(".size(); ").append(index).append(" < ").append(size);
+        w.append("; ").append(index).append("++) {").newLine();
         w.inc();
+        w.indent().append("double ").append(loopVariable).append(" = ");
+        w.append(listVariable).append(".get(").append(index).append(");").newLine();
         w.line("checkLoopIterations();");
         statement.write(w);
         w.dec();
@@ -49,6 +49,7 @@ import it.geosolutions.jaiext.jiffle.Jiffle;
 import it.geosolutions.jaiext.jiffle.parser.JiffleParserException;
 import it.geosolutions.jaiext.jiffle.parser.OptionLookup;
 import it.geosolutions.jaiext.jiffle.parser.RepeatedReadOptimizer;
+import it.geosolutions.jaiext.jiffle.parser.ScriptOptimizer;
 import it.geosolutions.jaiext.jiffle.parser.UndefinedOptionException;
 
 import java.util.Collections;
@@ -65,6 +66,7 @@ public class Script implements Node {
 
     private final StatementList stmts;
     private final RepeatedReadOptimizer readOptimizer;
+    private final ScriptOptimizer scriptOptimizer;
     private Map<String, String> options;
     private Set<String> sourceImages;
     private Set<String> destImages;
@@ -76,13 +78,15 @@ public class Script implements Node {
             Set<String> destImages,
             GlobalVars globals,
             StatementList stmts,
-            RepeatedReadOptimizer readOptimizer) {
+            RepeatedReadOptimizer readOptimizer,
+            ScriptOptimizer scriptOptimizer) {
         this.options = options;
         this.sourceImages = sourceImages;
         this.destImages = destImages;
         this.globals = globals;
         this.stmts = stmts;
         this.readOptimizer = readOptimizer;
+        this.scriptOptimizer = scriptOptimizer;
         validate();
     }
 
@@ -139,6 +143,7 @@ public class Script implements Node {
 
         // writing class fields
         w.inc();
+        scriptOptimizer.writeReport(w);
         // ... if we are using a internal class, dodge map lookups while working on pixels
         if (w.isInternalBaseClass()) {
             for (String sourceImage : sourceImages) {
@@ -155,6 +160,7 @@ public class Script implements Node {
             }
         }
         globals.writeFields(w);
+        scriptOptimizer.writeFields(w);
         w.newLine();
 
         // adding the constructor
@@ -211,6 +217,7 @@ public class Script implements Node {
             }
         }
         globals.write(w);
+        scriptOptimizer.writeInvariants(w);
         w.line("_imageScopeVarsInitialized = true;");
         w.dec();
         w.line("}");
@@ -223,8 +230,63 @@ public class Script implements Node {
             w.line("public void evaluate(double _x, double _y, double[] result) {");
         }
         w.inc();
+        writeEvaluateChecks(w);
+        writePixelBody(w);
+        w.dec();
+        w.line("}");
+        w.newLine();
+
+        // the row/rectangle evaluation methods, inlining the script in a loop nest
+        if (model == Jiffle.RuntimeModel.DIRECT) {
+            w.line("protected void evaluateRow("
+                    + "double _y, double _minX, double _maxX, double _resX) {");
+            w.inc();
+            writeEvaluateChecks(w);
+            w.line("for (double _x = _minX; _x < _maxX; _x += _resX) {");
+            w.inc();
+            writePixelBody(w);
+            w.dec();
+            w.line("}");
+            w.dec();
+            w.line("}");
+        } else {
+            w.line("public void evaluateRect("
+                    + "java.awt.Rectangle _rect, java.awt.image.WritableRaster _dest) {");
+            w.inc();
+            writeEvaluateChecks(w);
+            w.line("final RasterWriter _writer = RasterWriter.create(_dest);");
+            w.line("final int _bands = _dest.getNumBands();");
+            w.line("final double[] result = new double[_bands];");
+            w.line("final int _maxIX = _rect.x + _rect.width;");
+            w.line("final int _maxIY = _rect.y + _rect.height;");
+            w.line("for (int _iy = _rect.y; _iy < _maxIY; _iy++) {");
+            w.inc();
+            w.line("final double _y = _iy;");
+            w.line("for (int _ix = _rect.x; _ix < _maxIX; _ix++) {");
+            w.inc();
+            w.line("final double _x = _ix;");
+            w.line("for (int _b = 0; _b < _bands; _b++) {");
+            w.inc();
+            w.line("result[_b] = Double.NaN;");
+            w.dec();
+            w.line("}");
+            writePixelBody(w);
+            w.line("_writer.setPixel(_ix, _iy, result);");
+            w.dec();
+            w.line("}");
+            w.dec();
+            w.line("}");
+            w.dec();
+            w.line("}");
+        }
 
-        // basic checks at the beginning of pixel evaluation
+        // closing class
+        w.dec();
+        w.line("}");
+    }
+
+    /** Basic checks at the beginning of pixel evaluation */
+    private void writeEvaluateChecks(SourceWriter w) {
         w.line("if (!isWorldSet()) {");
         w.inc();
         w.line("setDefaultBounds();");
@@ -235,22 +297,24 @@ public class Script implements Node {
         w.line("initImageScopeVars();");
         w.dec();
         w.line("}");
+    }
+
+    /** The per pixel part of the evaluation, can be written more than once */
+    private void writePixelBody(SourceWriter w) {
         w.line("_stk.clear();");
         w.line("_iterations = 0;");
 
         // centralize the source reads to avoid repeated reads
         readOptimizer.declareRepeatedReads(w);
+        // then the expressions repeated in the script
+        scriptOptimizer.declareSubexpressions(w);
 
         // the actual script
         w.newLine();
         stmts.write(w);
 
-        w.dec();
-        w.line("}");
-
-        // closing class
-        w.dec();
-        w.line("}");
+        // the read variables are local to this body
+        readOptimizer.resetVariables();
     }
 
     @Override
@@ -289,4 +353,12 @@ public class Script implements Node {
     public GlobalVars getGlobals() {
         return globals;
     }
+
+    public RepeatedReadOptimizer getReadOptimizer() {
+        return readOptimizer;
+    }
+
+    public ScriptOptimizer getScriptOptimizer() {
+        return scriptOptimizer;
+    }
 }
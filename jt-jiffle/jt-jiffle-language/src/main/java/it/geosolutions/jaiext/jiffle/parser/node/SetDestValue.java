@@ -148,4 +148,8 @@ public class SetDestValue extends Expression {
     public Expression getExpr() {
         return expr;
     }
+
+    public Band getBand() {
+        return band;
+    }
 }
@@ -157,44 +157,66 @@ public abstract class AbstractDirectRuntime extends AbstractJiffleRuntime
 
     /** {@inheritDoc} */
     public void evaluateAll(JiffleProgressListener pl) {
-        JiffleProgressListener listener = pl == null ? new NullProgressListener() : pl;
-
         if (!isWorldSet()) {
             setDefaultBounds();
         }
+        evaluateRows(0, (int) numSteps(getHeight(), getYRes()), pl);
+    }
 
-        final long numPixels = getNumPixels();
-        listener.setTaskSize(numPixels);
+    /** {@inheritDoc} */
+    public void evaluateRows(int firstRow, int numRows, JiffleProgressListener pl) {
+        JiffleProgressListener listener = pl == null ? new NullProgressListener() : pl;
 
-        long count = 0;
-        long sinceLastUpdate = 0;
-        final long updateInterval = listener.getUpdateInterval();
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
 
         final double minX = getMinX();
-        final double maxX = getMaxX();
+        final double maxX = getMaxX() - EPS;
         final double resX = getXRes();
 
         final double minY = getMinY();
-        final double maxY = getMaxY();
         final double resY = getYRes();
 
+        final long rowPixels = numSteps(getWidth(), resX);
+        listener.setTaskSize(numRows * rowPixels);
+
+        long count = 0;
+        long sinceLastUpdate = 0;
+        final long updateInterval = listener.getUpdateInterval();
+
         listener.start();
-        for (double y = minY; y < maxY - EPS; y += resY) {
-            for (double x = minX; x < maxX - EPS; x += resX) {
-                evaluate(x, y);
-
-                if (pl != null)
-                count++;
-                sinceLastUpdate++;
-                if (sinceLastUpdate >= updateInterval) {
-                    listener.update(count);
-                    sinceLastUpdate = 0;
-                }
+        for (int row = firstRow; row < firstRow + numRows; row++) {
+            // computed from the row index, strips evaluated separately share the same ordinates
+            evaluateRow(minY + row * resY, minX, maxX, resX);
+
+            count += rowPixels;
+            sinceLastUpdate += rowPixels;
+            if (sinceLastUpdate >= updateInterval) {
+                listener.update(count);
+                sinceLastUpdate = 0;
             }
         }
         listener.finish();
     }
 
+    /**
+     * Evaluates the script for a row of the processing area, for all X ordinates from {@code
+     * minX} (inclusive) to {@code maxX} (exclusive). The runtime classes generated by Jiffle
+     * override this method with a single loop, avoiding the per pixel overhead of calling {@link
+     * #evaluate(double, double)}.
+     *
+     * @param y world position Y ordinate
+     * @param minX first world position X ordinate
+     * @param maxX upper bound for the world position X ordinate, exclusive
+     * @param resX step between X ordinates
+     */
+    protected void evaluateRow(double y, double minX, double maxX, double resX) {
+        for (double x = minX; x < maxX; x += resX) {
+            evaluate(x, y);
+        }
+    }
+
     /** {@inheritDoc} */
     public void writeToImage(String destImageName, double x, double y, int band, double value) {
         DestinationImage image = _destImages.get(destImageName);
@@ -44,10 +44,13 @@ package it.geosolutions.jaiext.jiffle.runtime;
 
 import java.awt.*;
 import java.awt.geom.Rectangle2D;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -80,6 +83,35 @@ public abstract class AbstractJiffleRuntime implements JiffleRuntime {
     private static final int DEFAULT_MAX_ITERATIONS = 200;
 
     private enum Dim { XDIM, YDIM };
+
+    private static final byte TILE_NODATA_UNKNOWN = 0;
+
+    private static final byte TILE_NODATA_NONE = 1;
+
+    private static final byte TILE_NODATA_FOUND = 2;
+
+    private static final byte TILE_ROI_OUTSIDE = 0;
+
+    private static final byte TILE_ROI_PARTIAL = 1;
+
+    private static final byte TILE_ROI_FULL = 2;
+
+    /** Maximum number of tiles whose ROI and nodata state is kept by each source image */
+    private static final int TILE_STATE_CACHE_SIZE = 256;
+
+    /** ROI and nodata state of a source tile, resolved once when the tile is first read */
+    private static final class TileState {
+        /** Coverage of the tile by the ROI, one of the TILE_ROI_ constants */
+        final byte roi;
+        /** Per band nodata state, one of the TILE_NODATA_ constants */
+        final byte[] noData;
+
+        TileState(byte roi, int numBands) {
+            this.roi = roi;
+            this.noData = new byte[numBands];
+            Arrays.fill(noData, TILE_NODATA_UNKNOWN);
+        }
+    }
     
     private Map<String, Jiffle.ImageRole> _imageParams;
     
@@ -116,17 +148,45 @@ public abstract class AbstractJiffleRuntime implements JiffleRuntime {
     protected class SourceImage {
         final String imageName;
         final RenderedImage image;
+        final ROI roi;
         final RandomIter roiIterator;
         final Range noDataRange;
         BandTransform bandTransform;
         CoordinateTransform transform;
         boolean defaultTransform;
-        final RandomIter iterator;
         final int minX;
         final int maxX;
         final int minY;
         final int maxY;
 
+        /*
+         * The tile being read, resolved once and then accessed directly until a read
+         * falls outside of it. The bounds are initialized so that the first read loads a tile.
+         */
+        RasterReader tile;
+        int tileMinX = Integer.MAX_VALUE;
+        int tileMaxX = Integer.MIN_VALUE;
+        int tileMinY = Integer.MAX_VALUE;
+        int tileMaxY = Integer.MIN_VALUE;
+        /** The current tile is fully outside the ROI */
+        boolean tileOutsideROI;
+        /** The current tile is partially covered by the ROI, needs checking pixel by pixel */
+        boolean tileCheckROI;
+        /** Per band nodata state of the current tile, one of the TILE_NODATA_ constants */
+        byte[] tileNoData;
+        /**
+         * ROI and nodata state of the tiles read so far, by tile index, so that reads going back
+         * and forth across a tile edge do not check the tiles again. Least recently used ones are
+         * dropped.
+         */
+        final Map<Long, TileState> tileStates =
+                new LinkedHashMap<Long, TileState>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, TileState> eldest) {
+                        return size() > TILE_STATE_CACHE_SIZE;
+                    }
+                };
+
         public SourceImage(String imageName, RenderedImage image) {
             this.imageName = imageName;
             this.image = image;
@@ -134,14 +194,14 @@ public abstract class AbstractJiffleRuntime implements JiffleRuntime {
             this.maxX = image.getMinX() + image.getWidth();
             this.minY = image.getMinY();
             this.maxY = image.getMinY() + image.getHeight();
-            this.iterator = RandomIterFactory.create(image, null, true, true);
 
             Object property = image.getProperty("ROI");
             if (property instanceof ROI) {
-                ROI roi = (ROI) property;
+                this.roi = (ROI) property;
                 RenderedImage roiImage = roi.getAsImage();
                 this.roiIterator = RandomIterFactory.create(roiImage, null, true, true);
             } else {
+                this.roi = null;
                 this.roiIterator = null;
             }
 
@@ -171,34 +231,95 @@ public abstract class AbstractJiffleRuntime implements JiffleRuntime {
                 posy = imgPos.y;
             }
 
-            final boolean inside = posx >= minX && posx < maxX && posy >= minY && posy < maxY;
-            if (!inside) {
-                if (_outsideValueSet) {
-                    return _outsideValue;
-                } else {
-                    throw new JiffleRuntimeException( String.format(
-                            "Position %.4f %.4f is outside bounds of image: %s",
-                            x, y, imageName));
+            // the current tile is inside the image, no need to check the image bounds
+            if (posx < tileMinX || posx >= tileMaxX || posy < tileMinY || posy >= tileMaxY) {
+                final boolean inside =
+                        posx >= minX && posx < maxX && posy >= minY && posy < maxY;
+                if (!inside) {
+                    if (_outsideValueSet) {
+                        return _outsideValue;
+                    } else {
+                        throw new JiffleRuntimeException( String.format(
+                                "Position %.4f %.4f is outside bounds of image: %s",
+                                x, y, imageName));
+                    }
                 }
+                loadTile(posx, posy);
             }
             
             if (bandTransform != null) {
                 band = bandTransform.scriptToImage(x, y, band);
             }
 
-            if (roiIterator != null && (roiIterator.getSample(posx, posy, 0) & 0xff) == 0) {
+            if (tileOutsideROI
+                    || (tileCheckROI && (roiIterator.getSample(posx, posy, 0) & 0xff) == 0)) {
                 return Double.NaN;
             }
             
-            double result = iterator.getSampleDouble(posx, posy, band);
+            double result = tile.getSample(posx, posy, band);
 
-            if (noDataRange != null && noDataRange.contains(result)) {
-                result = Double.NaN;
+            if (noDataRange != null) {
+                if (tileNoData[band] == TILE_NODATA_UNKNOWN) {
+                    tileNoData[band] = scanNoData(band);
+                }
+                if (tileNoData[band] == TILE_NODATA_FOUND && noDataRange.contains(result)) {
+                    result = Double.NaN;
+                }
             }
 
             return result;
         }
 
+        /** Makes the tile containing the given pixel the current one */
+        private void loadTile(int posx, int posy) {
+            int tileWidth = image.getTileWidth();
+            int tileHeight = image.getTileHeight();
+            int tileX = Math.floorDiv(posx - image.getTileGridXOffset(), tileWidth);
+            int tileY = Math.floorDiv(posy - image.getTileGridYOffset(), tileHeight);
+            Raster raster = image.getTile(tileX, tileY);
+            Rectangle bounds = raster.getBounds().intersection(
+                    new Rectangle(minX, minY, maxX - minX, maxY - minY));
+
+            tile = RasterReader.create(raster);
+            tileMinX = bounds.x;
+            tileMaxX = bounds.x + bounds.width;
+            tileMinY = bounds.y;
+            tileMaxY = bounds.y + bounds.height;
+
+            if (roi == null && noDataRange == null) {
+                return;
+            }
+            Long key = ((long) tileX << 32) | (tileY & 0xffffffffL);
+            TileState state = tileStates.get(key);
+            if (state == null) {
+                byte roiState = TILE_ROI_FULL;
+                if (roi != null) {
+                    roiState = !roi.intersects(bounds) ? TILE_ROI_OUTSIDE
+                            : (roi.contains(bounds) ? TILE_ROI_FULL : TILE_ROI_PARTIAL);
+                }
+                state = new TileState(roiState, image.getSampleModel().getNumBands());
+                tileStates.put(key, state);
+            }
+            tileOutsideROI = state.roi == TILE_ROI_OUTSIDE;
+            tileCheckROI = state.roi == TILE_ROI_PARTIAL;
+            tileNoData = state.noData;
+        }
+
+        /**
+         * Checks if a band of the current tile contains any nodata, so that the per sample check
+         * can be skipped for tiles that are fully valid.
+         */
+        private byte scanNoData(int band) {
+            for (int y = tileMinY; y < tileMaxY; y++) {
+                for (int x = tileMinX; x < tileMaxX; x++) {
+                    if (noDataRange.contains(tile.getSample(x, y, band))) {
+                        return TILE_NODATA_FOUND;
+                    }
+                }
+            }
+            return TILE_NODATA_NONE;
+        }
+
         public void setTransform(CoordinateTransform transform, boolean defaultTransform)
                 throws WorldNotSetException {
             if (transform != null && !isWorldSet()) {
@@ -520,10 +641,25 @@ public abstract class AbstractJiffleRuntime implements JiffleRuntime {
         
         _xres = xres;
         _yres = yres;
+        _numPixels = numSteps(bounds.getWidth(), xres) * numSteps(bounds.getHeight(), yres);
         
         _worldSet = true;
+        // image-scope values may depend on the world properties
+        _imageScopeVarsInitialized = false;
     }
     
+    /**
+     * Returns the number of pixels along a processing area dimension, counting a partial pixel
+     * at the end as a whole one.
+     * 
+     * @param extent the dimension length in world units
+     * @param res pixel size in world units
+     * @return the number of pixels
+     */
+    static long numSteps(double extent, double res) {
+        return (long) Math.ceil(extent / res - EPS);
+    }
+
     /**
      * Helper method for {@link #setWorldByResolution(Rectangle2D, double, double)} to
      * check the validity of a pixel dimension.
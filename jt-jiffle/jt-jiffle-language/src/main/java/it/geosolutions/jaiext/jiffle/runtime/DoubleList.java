@@ -0,0 +1,150 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive double values, used by the runtime classes to represent Jiffle
+ * list variables without boxing each element.
+ */
+public class DoubleList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] values;
+
+    private int size;
+
+    /** Creates an empty list. */
+    public DoubleList() {
+        this.values = new double[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Creates a list holding the given values. The array is used as is, without copying it.
+     *
+     * @param values the initial values
+     */
+    public DoubleList(double[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    /**
+     * Creates a copy of the given list.
+     *
+     * @param other the list to copy
+     */
+    public DoubleList(DoubleList other) {
+        this.values = Arrays.copyOf(other.values, Math.max(other.size, DEFAULT_CAPACITY));
+        this.size = other.size;
+    }
+
+    /**
+     * Appends a value at the end of the list.
+     *
+     * @param value the value
+     */
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(size * 2, DEFAULT_CAPACITY));
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Appends all the values of another list at the end of this one.
+     *
+     * @param other the list to append
+     */
+    public void addAll(DoubleList other) {
+        int newSize = size + other.size;
+        if (newSize > values.length) {
+            values = Arrays.copyOf(values, Math.max(newSize, size * 2));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size = newSize;
+    }
+
+    /**
+     * Returns the value at the given position.
+     *
+     * @param index the position
+     * @return the value
+     */
+    public double get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        }
+        return values[index];
+    }
+
+    /** Returns the number of values in the list. */
+    public int size() {
+        return size;
+    }
+
+    /** Removes all the values, keeping the allocated storage. */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the array backing this list. Only the first {@link #size()} elements are
+     * meaningful, and the array is not a copy, changes to it will affect the list.
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /** Returns a copy of the values in the list. */
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DoubleList that = (DoubleList) o;
+        if (size != that.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(values[i]) != Double.doubleToLongBits(that.values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = 1;
+        for (int i = 0; i < size; i++) {
+            long bits = Double.doubleToLongBits(values[i]);
+            result = 31 * result + (int) (bits ^ (bits >>> 32));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -111,12 +111,28 @@ public interface JiffleDirectRuntime extends JiffleRuntime {
     void evaluate(double x, double y);
 
     /**
-     * Evaluates the script for all pixel locations within the world bounds.
+     * Evaluates the script for all pixel locations within the world bounds. This is
+     * equivalent to evaluating all the rows with {@link #evaluateRows(int, int,
+     * JiffleProgressListener)}.
      * 
      * @param pl an optional progress listener (may be {@code null}
      */
     void evaluateAll(JiffleProgressListener pl);
 
+    /**
+     * Evaluates the script for a horizontal strip of the world bounds, made of {@code numRows}
+     * pixel rows starting from {@code firstRow} (row 0 being the one at the minimum Y
+     * ordinate). Distinct strips of the same processing area can be evaluated concurrently by
+     * different runtime instances writing to the same destination images, as done by
+     * {@link JiffleExecutor}. The progress listener task size is the number of pixels in the
+     * strip.
+     *
+     * @param firstRow index of the first row to evaluate
+     * @param numRows number of rows to evaluate
+     * @param pl an optional progress listener (may be {@code null})
+     */
+    void evaluateRows(int firstRow, int numRows, JiffleProgressListener pl);
+
     /**
      * Writes a value to a destination image for a given world position and
      * image band.
@@ -45,13 +45,12 @@ package it.geosolutions.jaiext.jiffle.runtime;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -126,13 +125,29 @@ import java.util.logging.Logger;
  * }
  * </code></pre>
  * 
- * Once the application has finished with th executor it should call one of
- * the shutdown methods which terminate the task and polling threads.
+ * A single large task can also be split into horizontal strips evaluated
+ * concurrently on the executor threads, each one by its own runtime instance,
+ * writing into the same destination images. The progress of the strips is
+ * reported to a single progress listener, and a single event is sent when all
+ * the strips are done:
+ * 
+ * <pre><code>
+ * // each call must return a runtime set up like the first one
+ * Supplier&lt;JiffleDirectRuntime&gt; factory = () -&gt; createRuntime(jiffle, images);
+ * executor.submit(factory.get(), factory, 8, new MyProgressListener());
+ * </code></pre>
+ * 
+ * Event listeners are notified by the thread completing the task, so they
+ * should not run lengthy operations.
+ * <p>
+ * Once the application has finished with the executor it should call one of
+ * the shutdown methods which terminate the task threads.
  * 
  * @author Michael Bedward
  * @since 0.1
  * @version $Id$
- */public class JiffleExecutor {
+ */
+public class JiffleExecutor {
     
     private static final Logger LOGGER = Logger.getLogger(JiffleExecutor.class.getName());
 
@@ -145,7 +160,11 @@ import java.util.logging.Logger;
     /** 
      * The default interval for polling tasks to check for
      * completion (20 mS)
+     * 
+     * @deprecated tasks now notify their completion directly, the polling
+     *             interval is no longer used
      */
+    @Deprecated
     public static final long DEFAULT_POLLING_INTERVAL = 20L;
 
     private long pollingInterval = DEFAULT_POLLING_INTERVAL;
@@ -156,14 +175,13 @@ import java.util.logging.Logger;
     private final Object _lock = new Object();
     
     private final ExecutorService taskService;
-    private final ScheduledExecutorService pollingService;
-    private final ScheduledExecutorService shutdownService;
-    private final ExecutorCompletionService<JiffleExecutorResult> completionService;
     
     private final List<JiffleEventListener> listeners;
     
-    private boolean isPolling;
-    private int numTasksRunning;
+    private boolean taskSubmitted;
+    
+    /* Cleared by shutdownNow, discarded tasks do not send events */
+    private volatile boolean notifying = true;
     
     /* Used by constructors when setting up the task service. */
     private static enum ThreadPoolType {
@@ -214,35 +232,29 @@ import java.util.logging.Logger;
                 throw new IllegalArgumentException("Bad arg to private JiffleExecutor constructor");
         }
         
-        completionService = new ExecutorCompletionService<JiffleExecutorResult>(taskService);
-        
-        pollingService = Executors.newSingleThreadScheduledExecutor(
-                new DaemonThreadFactory(Thread.NORM_PRIORITY, "executor-poll"));
-        
-        shutdownService = Executors.newSingleThreadScheduledExecutor(
-                new DaemonThreadFactory(Thread.NORM_PRIORITY, "executor-shutdown"));
-        
-        listeners = new ArrayList<JiffleEventListener>();
+        // copied on write, tasks notify the listeners without locking the executor
+        listeners = new CopyOnWriteArrayList<JiffleEventListener>();
         
-        isPolling = false;
+        taskSubmitted = false;
     }
     
     /**
-     * Sets the polling interval for task completion. JiffleExecutor uses a 
-     * separate thread to poll tasks for completion (either success
-     * or failure) at a fixed interval. The interval can only be changed 
-     * prior to submitting the first task. After that, any calls to this
-     * method will result in a warning message being logged and the new
+     * Sets the polling interval for task completion. The interval can only 
+     * be changed prior to submitting the first task. After that, any calls to
+     * this method will result in a warning message being logged and the new
      * value being ignored.
      * 
      * @param millis interval between task polling in milliseconds; values
      *        less than 1 are ignored
      * 
      * @see #DEFAULT_POLLING_INTERVAL
+     * @deprecated tasks now notify their completion directly, the polling
+     *             interval is no longer used
      */
+    @Deprecated
     public void setPollingInterval(long millis) {
         synchronized (_lock) {
-            if (isPolling) {
+            if (taskSubmitted) {
                 if (LOGGER.isLoggable(Level.WARNING)) {
                     LOGGER.log(Level.WARNING,
                             "Request to change polling interval ignored");
@@ -261,7 +273,10 @@ import java.util.logging.Logger;
      * Gets the interval in milliseconds for polling task completion.
      * 
      * @return polling interval
+     * @deprecated tasks now notify their completion directly, the polling
+     *             interval is no longer used
      */
+    @Deprecated
     public long getPollingInterval() {
         synchronized (_lock) {
             return pollingInterval;
@@ -327,24 +342,77 @@ import java.util.logging.Logger;
             JiffleProgressListener progressListener) {
 
         synchronized (_lock) {
-            if (taskService.isShutdown()) {
-                throw new IllegalStateException("Submitting task after executor shutdown");
-            }
+            int id = startJob();
+            
+            List<JiffleExecutorTask> tasks = new ArrayList<JiffleExecutorTask>();
+            tasks.add(new JiffleExecutorTask(this, id, runtime, progressListener));
+            execute(new Job(id, runtime, tasks.size()), tasks);
 
-            startPolling();
-            int id = jobID.getAndIncrement();
+            return id;
+        }
+    }
+    
+    /**
+     * Submits a {@code JiffleDirectRuntime} object for execution, splitting
+     * the processing area in up to {@code numStrips} horizontal strips that
+     * are evaluated concurrently, as threads become available. Runtime 
+     * objects hold per-pixel state, so each strip is evaluated by its own
+     * instance: {@code runtime} evaluates the first strip, while 
+     * {@code runtimeFactory} is called for each one of the others, and must
+     * return runtime instances set up with the same images, processing area
+     * and variables.
+     * <p>
+     * The progress listener follows the progress of the whole processing
+     * area, and event listeners receive a single event, reporting a failure 
+     * if any of the strips failed.
+     * 
+     * @param runtime the run-time instance to execute
+     * 
+     * @param runtimeFactory provides the run-time instances for the other 
+     *        strips
+     * 
+     * @param numStrips the maximum number of strips
+     * 
+     * @param progressListener an optional progress listener (may be {@code null})
+     * 
+     * @return the job ID that can be used to query progress
+     */
+    public int submit(JiffleDirectRuntime runtime,
+            Supplier<? extends JiffleDirectRuntime> runtimeFactory,
+            int numStrips,
+            JiffleProgressListener progressListener) {
+        
+        if (numStrips < 1) {
+            throw new IllegalArgumentException("The number of strips must be positive: " + numStrips);
+        }
+        if (!runtime.isWorldSet()) {
+            runtime.setDefaultBounds();
+        }
+        int numRows = (int) AbstractJiffleRuntime.numSteps(runtime.getHeight(), runtime.getYRes());
+        if (numStrips == 1 || numRows < 2) {
+            return submit(runtime, progressListener);
+        }
 
-            if (LOGGER.isLoggable(Level.INFO)) {
-                LOGGER.log(Level.INFO, TASK_SUBMITTED_MSG, id);
-            }
+        synchronized (_lock) {
+            int id = startJob();
 
-            numTasksRunning++ ;
+            int rowsPerStrip = (numRows + numStrips - 1) / numStrips;
+            int stripCount = (numRows + rowsPerStrip - 1) / rowsPerStrip;
+            StripProgress progress = progressListener == null ? null :
+                    new StripProgress(progressListener, runtime.getNumPixels(), stripCount);
 
-            completionService.submit(new JiffleExecutorTask(
-                    this,
-                    id,
-                    runtime,
-                    progressListener));
+            List<JiffleExecutorTask> tasks = new ArrayList<JiffleExecutorTask>();
+            for (int firstRow = 0; firstRow < numRows; firstRow += rowsPerStrip) {
+                JiffleDirectRuntime stripRuntime = tasks.isEmpty() ? runtime : runtimeFactory.get();
+                if (!stripRuntime.isWorldSet()) {
+                    stripRuntime.setDefaultBounds();
+                }
+                int stripRows = Math.min(rowsPerStrip, numRows - firstRow);
+                JiffleProgressListener stripListener = progress == null ? null : progress.new StripListener();
+                tasks.add(new JiffleExecutorTask(
+                        this, id, stripRuntime, stripListener, firstRow, stripRows));
+            }
+            execute(new Job(id, runtime, tasks.size()), tasks);
 
             return id;
         }
@@ -357,7 +425,6 @@ import java.util.logging.Logger;
     public void shutdown() {
         synchronized(_lock) {
             taskService.shutdown();
-            stopPolling(false);
         }
     }
     
@@ -374,19 +441,12 @@ import java.util.logging.Logger;
      *         the time-out period elapsed or the thread was interrupted
      */
     public boolean shutdownAndWait(long timeOut, TimeUnit unit) {
-        synchronized (_lock) {
-            boolean success = false;
-            taskService.shutdown();
-            stopPolling(false);
-            
-            try {
-                success = taskService.awaitTermination(timeOut, unit);
-                
-            } catch (InterruptedException ex) {
-                throw new RuntimeException(ex);
-            }
+        shutdown();
+        try {
+            return taskService.awaitTermination(timeOut, unit);
 
-            return success;
+        } catch (InterruptedException ex) {
+            throw new RuntimeException(ex);
         }
     }
     
@@ -394,79 +454,164 @@ import java.util.logging.Logger;
      * Attempts to shutdown the executor immediately.
      */
     public void shutdownNow() {
+        notifying = false;
         taskService.shutdownNow();
-        stopPolling(true);
     }
-        
+    
     /**
-     * Starts the polling service if it is not already running.
+     * Allocates the ID of a new job. Must be called while holding the lock.
      */
-    private void startPolling() {
-        if (!isPolling) {
-            pollingService.scheduleWithFixedDelay(new PollingTask(),
-                    pollingInterval, pollingInterval, TimeUnit.MILLISECONDS);
-            isPolling = true;
+    private int startJob() {
+        if (taskService.isShutdown()) {
+            throw new IllegalStateException("Submitting task after executor shutdown");
+        }
+        
+        taskSubmitted = true;
+        int id = jobID.getAndIncrement();
+
+        if (LOGGER.isLoggable(Level.INFO)) {
+            LOGGER.log(Level.INFO, TASK_SUBMITTED_MSG, id);
         }
+        
+        return id;
     }
     
     /**
-     * Stops the polling service.
-     * 
-     * @param immediate whether to stop the service immediately or wait
-     *        for any running tasks to complete
+     * Runs the tasks of a job, the last one to finish notifies the listeners.
      */
-    private void stopPolling(boolean immediate) {
-        if (immediate) {
-            pollingService.shutdown();
+    private void execute(final Job job, List<JiffleExecutorTask> tasks) {
+        for (final JiffleExecutorTask task : tasks) {
+            taskService.execute(new Runnable() {
+                public void run() {
+                    job.taskFinished(task.call().isCompleted());
+                }
+            });
+        }
+    }
+    
+    private void notifyListeners(JiffleExecutorResult result) {
+        if (!notifying) {
             return;
         }
-
-        shutdownService.scheduleAtFixedRate(new Runnable() {
-            public void run() {
-                if (numTasksRunning == 0) {
-                    pollingService.shutdown();
-                    shutdownService.shutdown();
-                }
+        
+        if (result.isCompleted()) {
+            if (LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.log(Level.INFO, TASK_SUCCESS_MSG, result.getTaskID());
+            }
+            for (JiffleEventListener listener : listeners) {
+                listener.onCompletionEvent(new JiffleEvent(result));
             }
-        }, pollingInterval, pollingInterval, TimeUnit.MILLISECONDS);
+            
+        } else {
+            if (LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.log(Level.INFO, TASK_FAILURE_MSG, result.getTaskID());
+            }
+            for (JiffleEventListener listener : listeners) {
+                listener.onFailureEvent(new JiffleEvent(result));
+            }
+        }
     }
     
-    private class PollingTask implements Runnable {
-        public void run() {
-            try {
-                Future<JiffleExecutorResult> future = completionService.poll();
-                if (future != null) {
-                    JiffleExecutorResult result = future.get();
-                    numTasksRunning-- ;
-                    
-                    if (result.isCompleted()) {
-                        if (LOGGER.isLoggable(Level.INFO)) {
-                            LOGGER.log(Level.INFO, TASK_SUCCESS_MSG, result.getTaskID());
-                        }
-                        notifySuccess(result);
-                        
-                    } else {
-                        if (LOGGER.isLoggable(Level.INFO)) {
-                            LOGGER.log(Level.INFO, TASK_FAILURE_MSG, result.getTaskID());
-                        }
-                        notifyFailure(result);
-                    }
-                }
-
-            } catch (Exception ex) {
-                throw new RuntimeException(ex);
+    /**
+     * A submitted job, made of one or more tasks.
+     */
+    private class Job {
+        private final int id;
+        private final JiffleDirectRuntime runtime;
+        private final AtomicInteger remaining;
+        private volatile boolean failed;
+        
+        Job(int id, JiffleDirectRuntime runtime, int numTasks) {
+            this.id = id;
+            this.runtime = runtime;
+            this.remaining = new AtomicInteger(numTasks);
+        }
+        
+        void taskFinished(boolean completed) {
+            if (!completed) {
+                failed = true;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                notifyListeners(new JiffleExecutorResult(id, runtime, !failed));
             }
         }
-
-        private void notifySuccess(JiffleExecutorResult result) {
-            for (JiffleEventListener listener : listeners) {
-                listener.onCompletionEvent(new JiffleEvent(result));
+    }
+    
+    /**
+     * Collects the progress of the strips of a job into a single progress
+     * listener. The listener methods are called while holding this object 
+     * lock, so they do not need to be thread safe.
+     */
+    private static class StripProgress {
+        private final JiffleProgressListener target;
+        private final int numStrips;
+        private final long updateInterval;
+        
+        private long done;
+        private long reported;
+        private int started;
+        private int finished;
+        
+        StripProgress(JiffleProgressListener target, long taskSize, int numStrips) {
+            this.target = target;
+            this.numStrips = numStrips;
+            target.setTaskSize(taskSize);
+            this.updateInterval = target.getUpdateInterval();
+        }
+        
+        synchronized void start() {
+            if (started++ == 0) {
+                target.start();
+            }
+        }
+        
+        synchronized void add(long numPixels) {
+            done += numPixels;
+            if (done - reported >= updateInterval) {
+                target.update(done);
+                reported = done;
             }
         }
+        
+        synchronized void finish() {
+            if (++finished == numStrips) {
+                target.finish();
+            }
+        }
+        
+        /**
+         * Receives the progress of a single strip.
+         */
+        class StripListener implements JiffleProgressListener {
+            private long stripDone;
+            
+            public void setUpdateInterval(long numPixels) {
+                // the interval is set by the job listener
+            }
 
-        private void notifyFailure(JiffleExecutorResult result) {
-            for (JiffleEventListener listener : listeners) {
-                listener.onFailureEvent(new JiffleEvent(result));
+            public void setUpdateInterval(double propPixels) {
+                // the interval is set by the job listener
+            }
+
+            public long getUpdateInterval() {
+                return Math.max(1, updateInterval / numStrips);
+            }
+
+            public void setTaskSize(long numPixels) {
+                // the job listener receives the size of the whole area
+            }
+
+            public void start() {
+                StripProgress.this.start();
+            }
+
+            public void update(long done) {
+                add(done - stripDone);
+                stripDone = done;
+            }
+
+            public void finish() {
+                StripProgress.this.finish();
             }
         }
     }
@@ -59,6 +59,8 @@ public class JiffleExecutorTask implements Callable<JiffleExecutorResult> {
     private final int id;
     private final JiffleDirectRuntime runtime;
     private final JiffleProgressListener progressListener;
+    private final int firstRow;
+    private final int numRows;
     
     private boolean completed;
 
@@ -78,10 +80,36 @@ public class JiffleExecutorTask implements Callable<JiffleExecutorResult> {
             JiffleDirectRuntime runtime, 
             JiffleProgressListener progressListener) {
         
+        this(executor, id, runtime, progressListener, 0, -1);
+    }
+
+    /**
+     * Creates a new task evaluating a horizontal strip of the processing area.
+     * 
+     * @param executor the {@code JiffleExecutor} running this task
+     * @param id job ID allocated by the {@link JiffleExecutor}.
+     * @param runtime the {@link JiffleDirectRuntime} instance
+     * @param progressListener  
+     * @param firstRow first row of the strip
+     * @param numRows number of rows in the strip, or a negative value to
+     *        evaluate the whole processing area
+     * 
+     * @see JiffleDirectRuntime#evaluateRows(int, int, JiffleProgressListener)
+     */
+    public JiffleExecutorTask(
+            JiffleExecutor executor,
+            int id, 
+            JiffleDirectRuntime runtime, 
+            JiffleProgressListener progressListener,
+            int firstRow,
+            int numRows) {
+        
         this.executor = executor;
         this.id = id;
         this.runtime = runtime;
         this.progressListener = progressListener;
+        this.firstRow = firstRow;
+        this.numRows = numRows;
         
         completed = false;
     }
@@ -96,7 +124,11 @@ public class JiffleExecutorTask implements Callable<JiffleExecutorResult> {
     public JiffleExecutorResult call() {
         boolean gotEx = false;
         try {
-            runtime.evaluateAll(progressListener);
+            if (numRows < 0) {
+                runtime.evaluateAll(progressListener);
+            } else {
+                runtime.evaluateRows(firstRow, numRows, progressListener);
+            }
             
         } catch (Exception ex) {
             gotEx = true;
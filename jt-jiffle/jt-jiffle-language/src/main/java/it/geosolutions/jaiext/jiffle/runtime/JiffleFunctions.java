@@ -62,6 +62,9 @@ import it.geosolutions.jaiext.numeric.SampleStats;
 public class JiffleFunctions {
     
     private Random rr = new Random();
+
+    /** Work buffer for the statistics functions that reorder the values */
+    private double[] scratch = new double[32];
     
     /**
      * Converts an angle in degrees to radians.
@@ -143,6 +146,15 @@ public class JiffleFunctions {
     public double max(List values) {
         return SampleStats.max(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #max(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double max(DoubleList values) {
+        return SampleStats.max(values.getValues(), values.size(), true);
+    }
     
     /**
      * Gets the mean of the input values. Double.Nan (null)
@@ -154,6 +166,15 @@ public class JiffleFunctions {
     public double mean(List values) {
         return SampleStats.mean(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #mean(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double mean(DoubleList values) {
+        return SampleStats.mean(values.getValues(), values.size(), true);
+    }
     
     /**
      * Gets the median of the input values. Double.Nan (null)
@@ -165,6 +186,15 @@ public class JiffleFunctions {
     public double median(List values) {
         return SampleStats.median(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #median(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double median(DoubleList values) {
+        return SampleStats.median(copyToScratch(values), values.size(), true);
+    }
     
     /**
      * Gets the minimum of the input values. Double.Nan (null)
@@ -176,6 +206,15 @@ public class JiffleFunctions {
     public double min(List values) {
         return SampleStats.min(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #min(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double min(DoubleList values) {
+        return SampleStats.min(values.getValues(), values.size(), true);
+    }
     
     /**
      * Gets the mode of the input values. Double.Nan (null)
@@ -187,6 +226,15 @@ public class JiffleFunctions {
     public double mode(List values) {
         return SampleStats.mode(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #mode(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double mode(DoubleList values) {
+        return SampleStats.mode(copyToScratch(values), values.size(), true);
+    }
     
     /**
      * Converts an angle in radians to degrees.
@@ -229,6 +277,15 @@ public class JiffleFunctions {
     public double range(List values) {
         return SampleStats.range(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #range(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double range(DoubleList values) {
+        return SampleStats.range(values.getValues(), values.size(), true);
+    }
     
     /**
      * Rounds the input value to the given precision.
@@ -250,7 +307,16 @@ public class JiffleFunctions {
      * @return the standard deviation of the input values
      */
     public double sdev(List values) {
-        return SampleStats.range(listToArray(values), true);
+        return SampleStats.sdev(listToArray(values), true);
+    }
+
+    /**
+     * Same as {@link #sdev(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double sdev(DoubleList values) {
+        return SampleStats.sdev(values.getValues(), values.size(), true);
     }
     
     
@@ -265,6 +331,15 @@ public class JiffleFunctions {
         return SampleStats.sum(listToArray(values), true);
     }
 
+    /**
+     * Same as {@link #sum(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double sum(DoubleList values) {
+        return SampleStats.sum(values.getValues(), values.size(), true);
+    }
+
     /**
      * Gets the sample variance of the input values. Double.Nan (null)
      * values are ignored.
@@ -275,6 +350,15 @@ public class JiffleFunctions {
     public double variance(List values) {
         return SampleStats.variance(listToArray(values), true);
     }
+
+    /**
+     * Same as {@link #variance(List)}, without boxing the values.
+     *
+     * @param values the input values
+     */
+    public double variance(DoubleList values) {
+        return SampleStats.variance(values.getValues(), values.size(), true);
+    }
     
     /**
      * Tests if either x or y is non-zero.
@@ -437,20 +521,35 @@ public class JiffleFunctions {
     }
     
     /**
-     * Creates a new list by concatenating {2code x} and {@code list}.
+     * Creates a new list by concatenating {@code x} and {@code list}.
      * 
      * @param x the value
      * @param list the list
      * @return a new list
      */
     public List concatDL(double x, List list) {
-        List copy = new ArrayList(list);
+        List copy = new ArrayList(list.size() + 1);
         copy.add(x);
+        copy.addAll(list);
+        return copy;
+    }
+
+    /**
+     * Same as {@link #concatDL(double, List)}, without boxing the values.
+     *
+     * @param x the value
+     * @param list the list
+     * @return a new list
+     */
+    public DoubleList concatDL(double x, DoubleList list) {
+        DoubleList copy = new DoubleList();
+        copy.add(x);
+        copy.addAll(list);
         return copy;
     }
     
     /**
-     * Creates a new list by concatenating {@code list} and {2code x}.
+     * Creates a new list by concatenating {@code list} and {@code x}.
      * 
      * @param list the list
      * @param x the value
@@ -461,6 +560,19 @@ public class JiffleFunctions {
         copy.add(x);
         return copy;
     }
+
+    /**
+     * Same as {@link #concatLD(List, double)}, without boxing the values.
+     *
+     * @param list the list
+     * @param x the value
+     * @return a new list
+     */
+    public DoubleList concatLD(DoubleList list, double x) {
+        DoubleList copy = new DoubleList(list);
+        copy.add(x);
+        return copy;
+    }
     
     /**
      * Creates a new list by concatenating two existing lists.
@@ -474,7 +586,36 @@ public class JiffleFunctions {
         copy.addAll(list2);
         return copy;
     }
+
+    /**
+     * Same as {@link #concatLL(List, List)}, without boxing the values.
+     *
+     * @param list1 the first list
+     * @param list2 the second list
+     * @return a new list
+     */
+    public DoubleList concatLL(DoubleList list1, DoubleList list2) {
+        DoubleList copy = new DoubleList(list1);
+        copy.addAll(list2);
+        return copy;
+    }
     
+    /**
+     * Copies the list values in a buffer that can be reordered by the statistics functions,
+     * reused across calls.
+     *
+     * @param values input list
+     * @return the buffer, holding the list values in its first elements
+     */
+    private double[] copyToScratch(DoubleList values) {
+        final int N = values.size();
+        if (scratch.length < N) {
+            scratch = new double[Math.max(N, scratch.length * 2)];
+        }
+        System.arraycopy(values.getValues(), 0, scratch, 0, N);
+        return scratch;
+    }
+
     /**
      * Convert a list to a double array.
      * 
@@ -42,6 +42,9 @@
 
 package it.geosolutions.jaiext.jiffle.runtime;
 
+import java.awt.Rectangle;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
 import java.util.Map;
 
 import it.geosolutions.jaiext.jiffle.JiffleException;
@@ -109,4 +112,25 @@ public interface JiffleIndirectRuntime extends JiffleRuntime {
      * @return the result
      */
     void evaluate(double x, double y, double[] result);
+
+    /**
+     * Evaluates the script for all the pixels in the given rectangle, writing the results into
+     * {@code dest}. Pixels for which the script does not set a value are filled with {@code
+     * Double.NaN} (cast to the raster data type). The runtime classes generated by Jiffle
+     * override this method with a loop nest that avoids the per pixel overhead of calling {@link
+     * #evaluate(double, double, double[])}.
+     *
+     * @param destRect the pixels to evaluate, which must be contained in {@code dest}
+     * @param dest the destination raster
+     */
+    default void evaluateRect(Rectangle destRect, WritableRaster dest) {
+        double[] pixel = new double[dest.getNumBands()];
+        for (int y = destRect.y, iy = 0; iy < destRect.height; y++, iy++) {
+            for (int x = destRect.x, ix = 0; ix < destRect.width; x++, ix++) {
+                Arrays.fill(pixel, Double.NaN);
+                evaluate(x, y, pixel);
+                dest.setPixel(x, y, pixel);
+            }
+        }
+    }
 }
@@ -0,0 +1,229 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.Raster;
+import java.awt.image.SampleModel;
+
+/**
+ * Reads samples straight from the data arrays backing a {@link Raster}, skipping the per call
+ * checks and dispatching of {@link Raster#getSampleDouble(int, int, int)}. Used by the source
+ * images of the runtime classes to read the tile currently being accessed.
+ *
+ * <p>No bounds checks are performed, callers are expected to only read positions inside the
+ * raster. Rasters not backed by a {@link ComponentSampleModel} are handled by a fallback that
+ * calls {@link Raster#getSampleDouble(int, int, int)}.
+ */
+public abstract class RasterReader {
+
+    /**
+     * Creates a reader for the given raster.
+     *
+     * @param raster the source raster
+     * @return a new reader
+     */
+    public static RasterReader create(Raster raster) {
+        SampleModel sm = raster.getSampleModel();
+        if (!(sm instanceof ComponentSampleModel)) {
+            return new SampleReader(raster);
+        }
+        DataBuffer db = raster.getDataBuffer();
+        ComponentSampleModel csm = (ComponentSampleModel) sm;
+        if (db instanceof DataBufferByte) {
+            return new ByteReader(raster, csm, (DataBufferByte) db);
+        } else if (db instanceof DataBufferUShort) {
+            return new UShortReader(raster, csm, (DataBufferUShort) db);
+        } else if (db instanceof DataBufferShort) {
+            return new ShortReader(raster, csm, (DataBufferShort) db);
+        } else if (db instanceof DataBufferInt) {
+            return new IntReader(raster, csm, (DataBufferInt) db);
+        } else if (db instanceof DataBufferFloat) {
+            return new FloatReader(raster, csm, (DataBufferFloat) db);
+        } else if (db instanceof DataBufferDouble) {
+            return new DoubleReader(raster, csm, (DataBufferDouble) db);
+        }
+        return new SampleReader(raster);
+    }
+
+    /**
+     * Reads a sample.
+     *
+     * @param x pixel X ordinate in raster coordinates
+     * @param y pixel Y ordinate in raster coordinates
+     * @param band the band
+     * @return the sample value
+     */
+    public abstract double getSample(int x, int y, int band);
+
+    /** Fallback for sample models whose layout is not known */
+    static final class SampleReader extends RasterReader {
+        private final Raster raster;
+
+        SampleReader(Raster raster) {
+            this.raster = raster;
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return raster.getSampleDouble(x, y, band);
+        }
+    }
+
+    /** Base class for readers working on the arrays of a {@link ComponentSampleModel} */
+    abstract static class ComponentReader extends RasterReader {
+        final int[] banks;
+        final int[] offsets;
+        final int pixelStride;
+        final int scanlineStride;
+        final int originX;
+        final int originY;
+
+        ComponentReader(Raster raster, ComponentSampleModel sm, DataBuffer db) {
+            int bands = raster.getNumBands();
+            this.pixelStride = sm.getPixelStride();
+            this.scanlineStride = sm.getScanlineStride();
+            this.originX = raster.getSampleModelTranslateX();
+            this.originY = raster.getSampleModelTranslateY();
+            int[] bankIndices = sm.getBankIndices();
+            int[] bandOffsets = sm.getBandOffsets();
+            int[] bufferOffsets = db.getOffsets();
+            this.banks = new int[bands];
+            this.offsets = new int[bands];
+            for (int b = 0; b < bands; b++) {
+                banks[b] = bankIndices[b];
+                offsets[b] = bandOffsets[b] + bufferOffsets[bankIndices[b]];
+            }
+        }
+
+        /** Returns the array position of the pixel, not including the band offsets */
+        final int position(int x, int y) {
+            return (y - originY) * scanlineStride + (x - originX) * pixelStride;
+        }
+    }
+
+    static final class ByteReader extends ComponentReader {
+        private final byte[][] data;
+
+        ByteReader(Raster raster, ComponentSampleModel sm, DataBufferByte db) {
+            super(raster, sm, db);
+            this.data = new byte[banks.length][];
+            for (int b = 0; b < banks.length; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return data[band][position(x, y) + offsets[band]] & 0xff;
+        }
+    }
+
+    static final class UShortReader extends ComponentReader {
+        private final short[][] data;
+
+        UShortReader(Raster raster, ComponentSampleModel sm, DataBufferUShort db) {
+            super(raster, sm, db);
+            this.data = new short[banks.length][];
+            for (int b = 0; b < banks.length; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return data[band][position(x, y) + offsets[band]] & 0xffff;
+        }
+    }
+
+    static final class ShortReader extends ComponentReader {
+        private final short[][] data;
+
+        ShortReader(Raster raster, ComponentSampleModel sm, DataBufferShort db) {
+            super(raster, sm, db);
+            this.data = new short[banks.length][];
+            for (int b = 0; b < banks.length; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return data[band][position(x, y) + offsets[band]];
+        }
+    }
+
+    static final class IntReader extends ComponentReader {
+        private final int[][] data;
+
+        IntReader(Raster raster, ComponentSampleModel sm, DataBufferInt db) {
+            super(raster, sm, db);
+            this.data = new int[banks.length][];
+            for (int b = 0; b < banks.length; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return data[band][position(x, y) + offsets[band]];
+        }
+    }
+
+    static final class FloatReader extends ComponentReader {
+        private final float[][] data;
+
+        FloatReader(Raster raster, ComponentSampleModel sm, DataBufferFloat db) {
+            super(raster, sm, db);
+            this.data = new float[banks.length][];
+            for (int b = 0; b < banks.length; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return data[band][position(x, y) + offsets[band]];
+        }
+    }
+
+    static final class DoubleReader extends ComponentReader {
+        private final double[][] data;
+
+        DoubleReader(Raster raster, ComponentSampleModel sm, DataBufferDouble db) {
+            super(raster, sm, db);
+            this.data = new double[banks.length][];
+            for (int b = 0; b < banks.length; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public double getSample(int x, int y, int band) {
+            return data[band][position(x, y) + offsets[band]];
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * Writes pixel values straight into the data arrays backing a {@link WritableRaster}, skipping
+ * the per call checks and dispatching of {@link WritableRaster#setPixel(int, int, double[])}.
+ * Used by the runtime classes generated for {@link JiffleIndirectRuntime#evaluateRect}.
+ *
+ * <p>Values are cast to the raster data type the same way {@link WritableRaster} would do it.
+ * Rasters not backed by a {@link ComponentSampleModel} are handled by a fallback that calls
+ * {@link WritableRaster#setSample(int, int, int, double)}.
+ */
+public abstract class RasterWriter {
+
+    /**
+     * Creates a writer for the given raster.
+     *
+     * @param raster the destination raster
+     * @return a new writer
+     */
+    public static RasterWriter create(WritableRaster raster) {
+        SampleModel sm = raster.getSampleModel();
+        if (!(sm instanceof ComponentSampleModel)) {
+            return new SampleWriter(raster);
+        }
+        DataBuffer db = raster.getDataBuffer();
+        ComponentSampleModel csm = (ComponentSampleModel) sm;
+        if (db instanceof DataBufferByte) {
+            return new ByteWriter(raster, csm, (DataBufferByte) db);
+        } else if (db instanceof DataBufferUShort) {
+            return new UShortWriter(raster, csm, (DataBufferUShort) db);
+        } else if (db instanceof DataBufferShort) {
+            return new ShortWriter(raster, csm, (DataBufferShort) db);
+        } else if (db instanceof DataBufferInt) {
+            return new IntWriter(raster, csm, (DataBufferInt) db);
+        } else if (db instanceof DataBufferFloat) {
+            return new FloatWriter(raster, csm, (DataBufferFloat) db);
+        } else if (db instanceof DataBufferDouble) {
+            return new DoubleWriter(raster, csm, (DataBufferDouble) db);
+        }
+        return new SampleWriter(raster);
+    }
+
+    /**
+     * Writes all the bands of a pixel.
+     *
+     * @param x pixel X ordinate in raster coordinates
+     * @param y pixel Y ordinate in raster coordinates
+     * @param values the band values, at least as many as the raster bands
+     */
+    public abstract void setPixel(int x, int y, double[] values);
+
+    /** Fallback for sample models whose layout is not known */
+    static final class SampleWriter extends RasterWriter {
+        private final WritableRaster raster;
+        private final int bands;
+
+        SampleWriter(WritableRaster raster) {
+            this.raster = raster;
+            this.bands = raster.getNumBands();
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            for (int b = 0; b < bands; b++) {
+                raster.setSample(x, y, b, values[b]);
+            }
+        }
+    }
+
+    /** Base class for writers working on the arrays of a {@link ComponentSampleModel} */
+    abstract static class ComponentWriter extends RasterWriter {
+        final int bands;
+        final int[] banks;
+        final int[] offsets;
+        final int pixelStride;
+        final int scanlineStride;
+        final int originX;
+        final int originY;
+
+        ComponentWriter(WritableRaster raster, ComponentSampleModel sm, DataBuffer db) {
+            this.bands = raster.getNumBands();
+            this.pixelStride = sm.getPixelStride();
+            this.scanlineStride = sm.getScanlineStride();
+            this.originX = raster.getSampleModelTranslateX();
+            this.originY = raster.getSampleModelTranslateY();
+            int[] bankIndices = sm.getBankIndices();
+            int[] bandOffsets = sm.getBandOffsets();
+            int[] bufferOffsets = db.getOffsets();
+            this.banks = new int[bands];
+            this.offsets = new int[bands];
+            for (int b = 0; b < bands; b++) {
+                banks[b] = bankIndices[b];
+                offsets[b] = bandOffsets[b] + bufferOffsets[bankIndices[b]];
+            }
+        }
+
+        /** Returns the array position of the pixel, not including the band offsets */
+        final int position(int x, int y) {
+            return (y - originY) * scanlineStride + (x - originX) * pixelStride;
+        }
+    }
+
+    static final class ByteWriter extends ComponentWriter {
+        private final byte[][] data;
+
+        ByteWriter(WritableRaster raster, ComponentSampleModel sm, DataBufferByte db) {
+            super(raster, sm, db);
+            this.data = new byte[bands][];
+            for (int b = 0; b < bands; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            int pos = position(x, y);
+            for (int b = 0; b < bands; b++) {
+                data[b][pos + offsets[b]] = (byte) (int) values[b];
+            }
+        }
+    }
+
+    static final class UShortWriter extends ComponentWriter {
+        private final short[][] data;
+
+        UShortWriter(WritableRaster raster, ComponentSampleModel sm, DataBufferUShort db) {
+            super(raster, sm, db);
+            this.data = new short[bands][];
+            for (int b = 0; b < bands; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            int pos = position(x, y);
+            for (int b = 0; b < bands; b++) {
+                data[b][pos + offsets[b]] = (short) (int) values[b];
+            }
+        }
+    }
+
+    static final class ShortWriter extends ComponentWriter {
+        private final short[][] data;
+
+        ShortWriter(WritableRaster raster, ComponentSampleModel sm, DataBufferShort db) {
+            super(raster, sm, db);
+            this.data = new short[bands][];
+            for (int b = 0; b < bands; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            int pos = position(x, y);
+            for (int b = 0; b < bands; b++) {
+                data[b][pos + offsets[b]] = (short) (int) values[b];
+            }
+        }
+    }
+
+    static final class IntWriter extends ComponentWriter {
+        private final int[][] data;
+
+        IntWriter(WritableRaster raster, ComponentSampleModel sm, DataBufferInt db) {
+            super(raster, sm, db);
+            this.data = new int[bands][];
+            for (int b = 0; b < bands; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            int pos = position(x, y);
+            for (int b = 0; b < bands; b++) {
+                data[b][pos + offsets[b]] = (int) values[b];
+            }
+        }
+    }
+
+    static final class FloatWriter extends ComponentWriter {
+        private final float[][] data;
+
+        FloatWriter(WritableRaster raster, ComponentSampleModel sm, DataBufferFloat db) {
+            super(raster, sm, db);
+            this.data = new float[bands][];
+            for (int b = 0; b < bands; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            int pos = position(x, y);
+            for (int b = 0; b < bands; b++) {
+                data[b][pos + offsets[b]] = (float) values[b];
+            }
+        }
+    }
+
+    static final class DoubleWriter extends ComponentWriter {
+        private final double[][] data;
+
+        DoubleWriter(WritableRaster raster, ComponentSampleModel sm, DataBufferDouble db) {
+            super(raster, sm, db);
+            this.data = new double[bands][];
+            for (int b = 0; b < bands; b++) {
+                data[b] = db.getData(banks[b]);
+            }
+        }
+
+        @Override
+        public void setPixel(int x, int y, double[] values) {
+            int pos = position(x, y);
+            for (int b = 0; b < bands; b++) {
+                data[b][pos + offsets[b]] = values[b];
+            }
+        }
+    }
+}
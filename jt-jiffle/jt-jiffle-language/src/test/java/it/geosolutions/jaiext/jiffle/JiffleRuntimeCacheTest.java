@@ -0,0 +1,164 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import it.geosolutions.jaiext.jiffle.runtime.JiffleDirectRuntime;
+import it.geosolutions.jaiext.jiffle.runtime.JiffleIndirectRuntime;
+import it.geosolutions.jaiext.jiffle.runtime.JiffleRuntime;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests for the compiled runtime class cache.
+ */
+public class JiffleRuntimeCacheTest {
+
+    private JiffleRuntimeCache cache;
+    private Map<String, Jiffle.ImageRole> imageParams;
+
+    @Before
+    public void setup() {
+        cache = new JiffleRuntimeCache(2);
+        imageParams = new HashMap<>();
+        imageParams.put("src", Jiffle.ImageRole.SOURCE);
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+    }
+
+    @Test
+    public void sameScriptCompiledOnce() throws Exception {
+        String script = "dest = src + 1;";
+        JiffleRuntime r1 = cache.getRuntimeInstance(script, imageParams, Jiffle.RuntimeModel.DIRECT);
+        JiffleRuntime r2 = cache.getRuntimeInstance(script, imageParams, Jiffle.RuntimeModel.DIRECT);
+
+        assertTrue(r1 instanceof JiffleDirectRuntime);
+        assertNotSame(r1, r2);
+        assertSame(r1.getClass(), r2.getClass());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void whitespaceIsNormalized() throws Exception {
+        JiffleRuntime r1 =
+                cache.getRuntimeInstance("dest = src + 1;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        JiffleRuntime r2 =
+                cache.getRuntimeInstance(
+                        "  \n  dest = src + 1;  \n\n", imageParams, Jiffle.RuntimeModel.DIRECT);
+
+        assertSame(r1.getClass(), r2.getClass());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void literalsAreNotNormalized() {
+        assertEquals(
+                "a = 1;\nb = \"x\n   y \";\n",
+                JiffleRuntimeCache.normalize("  a = 1;  \n\n b = \"x\n   y \";  "));
+        assertNotEquals(
+                JiffleRuntimeCache.normalize("s = 'a\n  b';"),
+                JiffleRuntimeCache.normalize("s = 'a\nb';"));
+        // quotes in comments do not start a literal
+        assertEquals(
+                "// don't\na = 1;\n",
+                JiffleRuntimeCache.normalize("  // don't\n   a = 1;  "));
+    }
+
+    @Test
+    public void modelAndRolesAreInKey() throws Exception {
+        String script = "dest = src + 1;";
+        JiffleRuntime direct =
+                cache.getRuntimeInstance(script, imageParams, Jiffle.RuntimeModel.DIRECT);
+        JiffleRuntime indirect =
+                cache.getRuntimeInstance(script, imageParams, Jiffle.RuntimeModel.INDIRECT);
+        assertTrue(indirect instanceof JiffleIndirectRuntime);
+        assertNotSame(direct.getClass(), indirect.getClass());
+
+        Map<String, Jiffle.ImageRole> otherParams = new HashMap<>();
+        otherParams.put("src", Jiffle.ImageRole.SOURCE);
+        otherParams.put("dest", Jiffle.ImageRole.DEST);
+        otherParams.put("other", Jiffle.ImageRole.SOURCE);
+        JiffleRuntime other =
+                cache.getRuntimeInstance(script, otherParams, Jiffle.RuntimeModel.DIRECT);
+        assertNotSame(direct.getClass(), other.getClass());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void leastRecentlyUsedEviction() throws Exception {
+        cache.warmUp("dest = 1;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        cache.warmUp("dest = 2;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        // touch the first one, the second becomes the eldest
+        cache.getRuntimeInstance("dest = 1;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        cache.warmUp("dest = 3;", imageParams, Jiffle.RuntimeModel.DIRECT);
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.resetStatistics();
+        cache.getRuntimeInstance("dest = 1;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        cache.getRuntimeInstance("dest = 2;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void shrinkEvicts() throws Exception {
+        cache.warmUp("dest = 1;", imageParams, Jiffle.RuntimeModel.DIRECT, Jiffle.RuntimeModel.INDIRECT);
+        assertEquals(2, cache.getSize());
+
+        cache.setMaxSize(0);
+        assertEquals(0, cache.getSize());
+        assertEquals(2, cache.getEvictionCount());
+
+        // disabled cache always compiles
+        cache.getRuntimeInstance("dest = 1;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        cache.getRuntimeInstance("dest = 1;", imageParams, Jiffle.RuntimeModel.DIRECT);
+        assertEquals(0, cache.getSize());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void jiffleUsesDefaultCache() throws Exception {
+        JiffleRuntimeCache defaultCache = JiffleRuntimeCache.getDefault();
+        String script = "dest = src * 42;";
+        Jiffle jiffle = new Jiffle(script, imageParams);
+        JiffleRuntime r1 = jiffle.getRuntimeInstance();
+        long hits = defaultCache.getHitCount();
+        JiffleRuntime r2 = new Jiffle(script, imageParams).getRuntimeInstance();
+
+        assertSame(r1.getClass(), r2.getClass());
+        assertEquals(hits + 1, defaultCache.getHitCount());
+    }
+
+    @Test(expected = JiffleException.class)
+    public void emptyScript() throws Exception {
+        cache.getRuntimeInstance("  ", imageParams, Jiffle.RuntimeModel.DIRECT);
+    }
+}
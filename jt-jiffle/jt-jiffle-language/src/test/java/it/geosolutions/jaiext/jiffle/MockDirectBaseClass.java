@@ -93,6 +93,10 @@ public abstract class MockDirectBaseClass
         throw new UnsupportedOperationException("Should not be called");
     }
 
+    public void evaluateRows(int firstRow, int numRows, JiffleProgressListener ignored) {
+        throw new UnsupportedOperationException("Should not be called");
+    }
+
     public double readFromImage(String srcImageName, double x, double y, int band) {
         throw new UnsupportedOperationException("Should not be called");
     }
@@ -0,0 +1,284 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import it.geosolutions.jaiext.jiffle.Jiffle;
+import it.geosolutions.jaiext.jiffle.JiffleException;
+
+import java.awt.Rectangle;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.io.File;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.media.jai.TiledImage;
+
+import org.junit.Test;
+
+import it.geosolutions.jaiext.utilities.ImageUtilities;
+
+/**
+ * Runs the scripts used by the parser tests through both compiler backends, checking that the
+ * runtime classes generated as bytecode give the same results as the ones compiled from source,
+ * or fail in the same way.
+ */
+public class BackendConformanceTest {
+
+    private static final int WIDTH = 12;
+    private static final int HEIGHT = 10;
+    private static final int SOURCE_BANDS = 8;
+    private static final int DEST_BANDS = 10;
+
+    @Test
+    public void mandelbrot() throws Exception {
+        assertConformance("mandelbrot.jfl", "result");
+    }
+
+    @Test
+    public void interference() throws Exception {
+        assertConformance("interference.jfl", "result");
+    }
+
+    @Test
+    public void ripple() throws Exception {
+        assertConformance("ripple.jfl", "result");
+    }
+
+    @Test
+    public void squircle() throws Exception {
+        assertConformance("squircle.jfl", "result");
+    }
+
+    @Test
+    public void chessboard() throws Exception {
+        assertConformance("chessboard.jfl", "result");
+    }
+
+    @Test
+    public void lifeEdges() throws Exception {
+        assertConformance("life-edges.jfl", "nextworld", "world");
+    }
+
+    @Test
+    public void lifeToroid() throws Exception {
+        assertConformance("life-toroid.jfl", "nextworld", "world");
+    }
+
+    @Test
+    public void aspect() throws Exception {
+        assertConformance("aspect.jfl", "result", "dtm");
+    }
+
+    @Test
+    public void flow() throws Exception {
+        assertConformance("flow.jfl", "result", "dtm");
+    }
+
+    @Test
+    public void ndvi() throws Exception {
+        assertConformance("ndvi.jfl", "res", "nir", "red");
+    }
+
+    @Test
+    public void ndviBands() throws Exception {
+        assertConformance("ndvi_s2.jfl", "res", "src");
+    }
+
+    @Test
+    public void copyBands() throws Exception {
+        assertConformance("copyBands.jfl", "dst", "src");
+    }
+
+    @Test
+    public void sumBands() throws Exception {
+        assertConformance("sumBands.jfl", "dst", "src");
+    }
+
+    @Test
+    public void imagesBlock() throws Exception {
+        // image roles declared in the script
+        assertConformance("ValidScript.jfl", null);
+    }
+
+    @Test
+    public void fastPathsGenerated() throws Exception {
+        Map<String, Jiffle.ImageRole> imageParams = new HashMap<>();
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+        imageParams.put("src", Jiffle.ImageRole.SOURCE);
+        for (Jiffle.Backend backend : Jiffle.Backend.values()) {
+            Jiffle jiffle = new Jiffle("dest = src + x();", imageParams);
+            jiffle.setBackend(backend);
+            // the script is inlined in the loops, rather than inheriting the per pixel ones
+            Class<?> direct = jiffle.getRuntimeInstance(Jiffle.RuntimeModel.DIRECT).getClass();
+            assertNotNull(
+                    backend.toString(),
+                    direct.getDeclaredMethod(
+                            "evaluateRow", double.class, double.class, double.class, double.class));
+            Class<?> indirect =
+                    jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT).getClass();
+            assertNotNull(
+                    backend.toString(),
+                    indirect.getDeclaredMethod(
+                            "evaluateRect", Rectangle.class, WritableRaster.class));
+        }
+    }
+
+    private void assertConformance(String scriptName, String output, String... inputs)
+            throws Exception {
+        URL url = getClass().getResource("/it/geosolutions/jaiext/jiffle/parser/" + scriptName);
+        assertNotNull(scriptName, url);
+        File script = new File(url.toURI());
+        Map<String, Jiffle.ImageRole> imageParams = new HashMap<>();
+        if (output != null) {
+            imageParams.put(output, Jiffle.ImageRole.DEST);
+        }
+        for (String input : inputs) {
+            imageParams.put(input, Jiffle.ImageRole.SOURCE);
+        }
+
+        for (Jiffle.RuntimeModel model : Jiffle.RuntimeModel.values()) {
+            Object expected = evaluate(script, imageParams, model, Jiffle.Backend.SOURCE, false);
+            for (Jiffle.Backend backend : Jiffle.Backend.values()) {
+                if (backend != Jiffle.Backend.SOURCE) {
+                    Object actual = evaluate(script, imageParams, model, backend, false);
+                    assertSameValues(scriptName + " " + model, expected, actual);
+                }
+                if (model == Jiffle.RuntimeModel.INDIRECT) {
+                    Object actual = evaluate(script, imageParams, model, backend, true);
+                    assertSameValues(scriptName + " evaluateRect " + backend, expected, actual);
+                }
+            }
+        }
+    }
+
+    private void assertSameValues(String message, Object expected, Object actual) {
+        if (expected instanceof Exception || actual instanceof Exception) {
+            assertEquals(message, expected.getClass(), actual.getClass());
+        } else {
+            // NaN values are considered equal
+            assertArrayEquals(message, (double[]) expected, (double[]) actual, 0);
+        }
+    }
+
+    /**
+     * Evaluates the script on the image interior, so that the relative reads of the neighbours
+     * stay inside the sources
+     *
+     * @param rect whether the indirect runtime evaluates the whole interior with evaluateRect,
+     *     rather than pixel by pixel
+     * @return the destination values, or the exception thrown while building or running the
+     *     runtime
+     */
+    private Object evaluate(
+            File script,
+            Map<String, Jiffle.ImageRole> imageParams,
+            Jiffle.RuntimeModel model,
+            Jiffle.Backend backend,
+            boolean rect) {
+        try {
+            Jiffle jiffle = new Jiffle(script, imageParams);
+            jiffle.setBackend(backend);
+            JiffleRuntime runtime = jiffle.getRuntimeInstance(model);
+            String[] sources = runtime.getSourceVarNames();
+            for (int i = 0; i < sources.length; i++) {
+                runtime.setSourceImage(sources[i], createSourceImage(i));
+            }
+            String dest = runtime.getDestinationVarNames()[0];
+            runtime.setWorldByResolution(new Rectangle(0, 0, WIDTH, HEIGHT), 1, 1);
+
+            double[] values = new double[WIDTH * HEIGHT * DEST_BANDS];
+            Arrays.fill(values, Double.NaN);
+            if (model == Jiffle.RuntimeModel.DIRECT) {
+                TiledImage destImage = createImage(DEST_BANDS, Double.NaN);
+                JiffleDirectRuntime direct = (JiffleDirectRuntime) runtime;
+                direct.setDestinationImage(dest, destImage);
+                for (int y = 1; y < HEIGHT - 1; y++) {
+                    for (int x = 1; x < WIDTH - 1; x++) {
+                        direct.evaluate(x, y);
+                        for (int b = 0; b < DEST_BANDS; b++) {
+                            values[(y * WIDTH + x) * DEST_BANDS + b] =
+                                    destImage.getSampleDouble(x, y, b);
+                        }
+                    }
+                }
+            } else {
+                JiffleIndirectRuntime indirect = (JiffleIndirectRuntime) runtime;
+                indirect.setDestinationImage(dest);
+                if (rect) {
+                    WritableRaster raster =
+                            Raster.createWritableRaster(
+                                    new BandedSampleModel(
+                                            DataBuffer.TYPE_DOUBLE, WIDTH, HEIGHT, DEST_BANDS),
+                                    null);
+                    indirect.evaluateRect(new Rectangle(1, 1, WIDTH - 2, HEIGHT - 2), raster);
+                    for (int y = 1; y < HEIGHT - 1; y++) {
+                        for (int x = 1; x < WIDTH - 1; x++) {
+                            for (int b = 0; b < DEST_BANDS; b++) {
+                                values[(y * WIDTH + x) * DEST_BANDS + b] =
+                                        raster.getSampleDouble(x, y, b);
+                            }
+                        }
+                    }
+                    return values;
+                }
+                double[] result = new double[DEST_BANDS];
+                for (int y = 1; y < HEIGHT - 1; y++) {
+                    for (int x = 1; x < WIDTH - 1; x++) {
+                        Arrays.fill(result, Double.NaN);
+                        indirect.evaluate(x, y, result);
+                        System.arraycopy(
+                                result, 0, values, (y * WIDTH + x) * DEST_BANDS, DEST_BANDS);
+                    }
+                }
+            }
+            return values;
+        } catch (JiffleException | RuntimeException e) {
+            return e;
+        }
+    }
+
+    private TiledImage createSourceImage(int index) {
+        TiledImage image = createImage(SOURCE_BANDS, 0d);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                for (int b = 0; b < SOURCE_BANDS; b++) {
+                    // mix of positive, negative and zero values
+                    image.setSample(x, y, b, (x * 7 + y * 13 + b * 5 + index * 3) % 17 - 4);
+                }
+            }
+        }
+        return image;
+    }
+
+    private TiledImage createImage(int numBands, double value) {
+        Number[] values = new Number[numBands];
+        Arrays.fill(values, value);
+        return ImageUtilities.createConstantImage(WIDTH, HEIGHT, values);
+    }
+}
@@ -0,0 +1,162 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.awt.image.BandedSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.PixelInterleavedSampleModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import it.geosolutions.jaiext.jiffle.Jiffle;
+
+public class EvaluateRectTest extends RuntimeTestBase {
+
+    @Test
+    public void doubleRaster() throws Exception {
+        WritableRaster raster =
+                createInterleavedRaster(DataBuffer.TYPE_DOUBLE, 1);
+        assertEvaluateRect("dest = src * 2.5;", raster);
+    }
+
+    @Test
+    public void allDataTypes() throws Exception {
+        int[] types = {
+            DataBuffer.TYPE_BYTE,
+            DataBuffer.TYPE_USHORT,
+            DataBuffer.TYPE_SHORT,
+            DataBuffer.TYPE_INT,
+            DataBuffer.TYPE_FLOAT,
+            DataBuffer.TYPE_DOUBLE
+        };
+        for (int type : types) {
+            WritableRaster raster =
+                    Raster.createWritableRaster(
+                            new BandedSampleModel(type, IMG_WIDTH, IMG_WIDTH, 1), null);
+            assertEvaluateRect("dest = src - 50.7;", raster);
+        }
+    }
+
+    @Test
+    public void unsetPixelsAreNaN() throws Exception {
+        WritableRaster raster =
+                createInterleavedRaster(DataBuffer.TYPE_DOUBLE, 1);
+        JiffleIndirectRuntime runtime = getIndirectRuntime("if (src > 50) dest = src;");
+        runtime.evaluateRect(raster.getBounds(), raster);
+
+        for (int y = 0; y < IMG_WIDTH; y++) {
+            for (int x = 0; x < IMG_WIDTH; x++) {
+                int k = y * IMG_WIDTH + x;
+                double expected = k > 50 ? k : Double.NaN;
+                assertEquals(expected, raster.getSampleDouble(x, y, 0), 0d);
+            }
+        }
+    }
+
+    @Test
+    public void multiBandTranslatedRaster() throws Exception {
+        String script = "dest[0] = x();\n" + "dest[1] = y();\n" + "dest[2] = src;";
+        WritableRaster parent =
+                createInterleavedRaster(DataBuffer.TYPE_INT, 3);
+        // a child raster covering the bottom right quarter, with its own origin
+        WritableRaster raster =
+                parent.createWritableChild(
+                        IMG_WIDTH / 2, IMG_WIDTH / 2, IMG_WIDTH / 2, IMG_WIDTH / 2,
+                        IMG_WIDTH / 2, IMG_WIDTH / 2, null);
+        Rectangle rect = new Rectangle(IMG_WIDTH / 2 + 1, IMG_WIDTH / 2, 3, 2);
+        assertEvaluateRect(script, raster, rect);
+    }
+
+    @Test
+    public void packedRaster() throws Exception {
+        // not a component sample model, goes through the fallback writer
+        WritableRaster raster =
+                Raster.createWritableRaster(
+                        new MultiPixelPackedSampleModel(
+                                DataBuffer.TYPE_BYTE, IMG_WIDTH, IMG_WIDTH, 1),
+                        null);
+        assertEvaluateRect("dest = src % 2;", raster);
+    }
+
+    private WritableRaster createInterleavedRaster(int dataType, int bands) {
+        int[] bandOffsets = new int[bands];
+        for (int b = 0; b < bands; b++) {
+            bandOffsets[b] = b;
+        }
+        return Raster.createWritableRaster(
+                new PixelInterleavedSampleModel(
+                        dataType, IMG_WIDTH, IMG_WIDTH, bands, IMG_WIDTH * bands, bandOffsets),
+                null);
+    }
+
+    private JiffleIndirectRuntime getIndirectRuntime(String script) throws Exception {
+        imageParams = new HashMap<>();
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+        imageParams.put("src", Jiffle.ImageRole.SOURCE);
+        Jiffle jiffle = new Jiffle(script, imageParams);
+        JiffleIndirectRuntime runtime =
+                (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
+        runtime.setSourceImage("src", createSequenceImage());
+        return runtime;
+    }
+
+    private void assertEvaluateRect(String script, WritableRaster raster) throws Exception {
+        assertEvaluateRect(script, raster, raster.getBounds());
+    }
+
+    /**
+     * Checks evaluateRect against the output of the per pixel evaluate, written with the
+     * standard WritableRaster methods
+     */
+    private void assertEvaluateRect(String script, WritableRaster raster, Rectangle rect)
+            throws Exception {
+        JiffleIndirectRuntime runtime = getIndirectRuntime(script);
+        runtime.evaluateRect(rect, raster);
+
+        WritableRaster expected = raster.createCompatibleWritableRaster(raster.getBounds());
+        int bands = raster.getNumBands();
+        double[] pixel = new double[bands];
+        for (int y = rect.y; y < rect.y + rect.height; y++) {
+            for (int x = rect.x; x < rect.x + rect.width; x++) {
+                Arrays.fill(pixel, Double.NaN);
+                runtime.evaluate(x, y, pixel);
+                expected.setPixel(x, y, pixel);
+            }
+        }
+
+        double[] actualPixel = new double[bands];
+        double[] expectedPixel = new double[bands];
+        for (int y = raster.getMinY(); y < raster.getMinY() + raster.getHeight(); y++) {
+            for (int x = raster.getMinX(); x < raster.getMinX() + raster.getWidth(); x++) {
+                assertArrayEquals(
+                        "Pixel " + x + ", " + y + " of data type " + raster.getTransferType(),
+                        expected.getPixel(x, y, expectedPixel),
+                        raster.getPixel(x, y, actualPixel),
+                        0d);
+            }
+        }
+    }
+}
@@ -48,11 +48,15 @@ import java.awt.image.WritableRenderedImage;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import javax.media.jai.iterator.RectIter;
 import javax.media.jai.iterator.RectIterFactory;
 
 import it.geosolutions.jaiext.jiffle.Jiffle;
+import it.geosolutions.jaiext.jiffle.JiffleException;
 
 import org.junit.After;
 import org.junit.Before;
@@ -114,8 +118,86 @@ public class ExecutorSimpleTaskTest {
             fail("Listener time-out period elapsed");
         }
         
-        JiffleExecutorResult result = listener.getResults().get(0);
+        assertResult(listener.getResults().get(0));
+    }
+    
+    @Test
+    public void taskInStrips() throws Exception {
+        Map<String, Jiffle.ImageRole> imageParams;
+        imageParams = new HashMap<>();
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+        
+        final Jiffle jiffle = new Jiffle("dest = x() + y();", imageParams);
+        final WritableRenderedImage destImage = ImageUtilities.createConstantImage(WIDTH, WIDTH, 0d);
+        Supplier<JiffleDirectRuntime> factory = () -> {
+            try {
+                JiffleDirectRuntime rt = jiffle.getRuntimeInstance();
+                rt.setDestinationImage("dest", destImage);
+                return rt;
+            } catch (JiffleException ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+        
+        WaitingListener listener = new WaitingListener();
+        executor.addEventListener(listener);
+        listener.setNumTasks(1);
+        
+        final AtomicInteger starts = new AtomicInteger();
+        final AtomicInteger finishes = new AtomicInteger();
+        final AtomicLong numPixelsSet = new AtomicLong();
+        final AtomicLong lastUpdate = new AtomicLong();
+        JiffleProgressListener progress = new NullProgressListener() {
+            @Override
+            public void setTaskSize(long numPixels) {
+                numPixelsSet.set(numPixels);
+            }
+
+            @Override
+            public void start() {
+                starts.incrementAndGet();
+            }
+
+            @Override
+            public void update(long done) {
+                assertTrue(done > lastUpdate.get());
+                lastUpdate.set(done);
+            }
+
+            @Override
+            public void finish() {
+                finishes.incrementAndGet();
+            }
+        };
+
+        executor.submit(factory.get(), factory, 4, progress);
+        
+        if (!listener.await(2, TimeUnit.SECONDS)) {
+            fail("Listener time-out period elapsed");
+        }
+        
+        assertEquals(1, listener.getResults().size());
+        assertResult(listener.getResults().get(0));
+        
+        assertEquals(WIDTH * WIDTH, numPixelsSet.get());
+        assertEquals(1, starts.get());
+        assertEquals(1, finishes.get());
+        assertTrue(lastUpdate.get() <= WIDTH * WIDTH);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidNumberOfStrips() throws Exception {
+        Map<String, Jiffle.ImageRole> imageParams;
+        imageParams = new HashMap<>();
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+        
+        Jiffle jiffle = new Jiffle("dest = 1;", imageParams);
+        executor.submit(jiffle.getRuntimeInstance(), null, 0, nullListener);
+    }
+    
+    private void assertResult(JiffleExecutorResult result) {
         assertNotNull(result);
+        assertTrue(result.isCompleted());
         
         RenderedImage dest = result.getImages().get("dest");
         assertNotNull(dest);
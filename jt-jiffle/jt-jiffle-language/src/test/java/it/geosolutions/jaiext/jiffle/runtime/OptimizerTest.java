@@ -0,0 +1,176 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+import it.geosolutions.jaiext.jiffle.Jiffle;
+
+/**
+ * Checks the optimizations applied to the generated runtime source, and that they do not change
+ * the script results.
+ */
+public class OptimizerTest extends RuntimeTestBase {
+
+    @Test
+    public void foldConstants() throws Exception {
+        String script = "dest = src + 2 * 3 + sqrt(16);";
+        String source = getRuntimeSource(script);
+        assertTrue(source, source.contains("folded constant: 2.0 * 3.0 -> 6.0"));
+        assertTrue(source, source.contains("folded constant: Math.sqrt(16) -> 4.0"));
+
+        testScript(script, val -> val + 10);
+    }
+
+    @Test
+    public void foldToNaN() throws Exception {
+        String script = "dest = con(src > 50, src, 0 / 0);";
+        String source = getRuntimeSource(script);
+        assertTrue(source, source.contains("0.0 / 0.0 -> Double.NaN"));
+
+        testScript(script, val -> val > 50 ? val : Double.NaN);
+    }
+
+    @Test
+    public void hoistInvariant() throws Exception {
+        String script = "init { k = 3; } dest = src * (k * width());";
+        String source = getRuntimeSource(script);
+        assertTrue(source, source.contains("_inv0 = v_k * getWidth();"));
+
+        testScript(script, val -> val * 3 * IMG_WIDTH);
+    }
+
+    @Test
+    public void assignedGlobalNotHoisted() throws Exception {
+        String script = "init { n = 0; } n = n + 1; dest = n * 2;";
+        String source = getRuntimeSource(script);
+        assertFalse(source, source.contains("_inv"));
+
+        // the source image holds the pixel index
+        testScript(script, val -> (val + 1) * 2);
+    }
+
+    @Test
+    public void invariantFollowsWorld() throws Exception {
+        imageParams = new HashMap<>();
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+        Jiffle jiffle = new Jiffle("dest = width() * 2;", imageParams);
+        JiffleIndirectRuntime runtime =
+                (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
+
+        double[] result = new double[1];
+        runtime.setWorldByResolution(new Rectangle(0, 0, IMG_WIDTH, IMG_WIDTH), 1, 1);
+        runtime.evaluate(0, 0, result);
+        assertEquals(IMG_WIDTH * 2, result[0], TOL);
+
+        runtime.setWorldByResolution(new Rectangle(0, 0, 4, 4), 1, 1);
+        runtime.evaluate(0, 0, result);
+        assertEquals(8, result[0], TOL);
+    }
+
+    @Test
+    public void commonSubexpression() throws Exception {
+        String script = "a = (src + 1) * 2; b = (src + 1) * 2; dest = a + b;";
+        String source = getRuntimeSource(script);
+        assertTrue(source, source.contains("double _cse0 = (sv_src__x__y_0 + 1.0) * 2.0;"));
+        assertTrue(source, source.contains("(2 occurrences)"));
+
+        testScript(script, val -> (val + 1) * 4);
+    }
+
+    @Test
+    public void nestedCommonSubexpressions() throws Exception {
+        String script = "a = sqrt(src + 1) + 2; b = sqrt(src + 1) + 2; c = src + 1; dest = a + b + c;";
+        String source = getRuntimeSource(script);
+        // the inner expression is declared first, as the outer one depends on it
+        int inner = source.indexOf("double _cse1 = sv_src__x__y_0 + 1.0;");
+        int outer = source.indexOf("double _cse0 = Math.sqrt(_cse1) + 2.0;");
+        assertTrue(source, inner > 0 && outer > inner);
+
+        testScript(script, val -> 2 * (Math.sqrt(val + 1) + 2) + val + 1);
+    }
+
+    @Test
+    public void conditionalSubexpressionsNotMoved() throws Exception {
+        // each expression is repeated only in branches that may not be evaluated
+        String script =
+                "if (src > 50) { dest = sqrt(src) * 2 + sqrt(src) * 2; } "
+                        + "else { dest = con(src > 10, (src + 1) * 3, (src + 1) * 3); }";
+        String source = getRuntimeSource(script);
+        assertFalse(source, source.contains("_cse"));
+
+        testScript(script, val -> val > 50 ? 4 * Math.sqrt(val) : (val + 1) * 3);
+    }
+
+    @Test
+    public void conditionalSubexpressionShared() throws Exception {
+        // evaluated on every path by the condition, the branch can reuse it
+        String script = "if (sqrt(src) * 2 > 10) dest = sqrt(src) * 2; else dest = 0;";
+        String source = getRuntimeSource(script);
+        assertTrue(source, source.contains("double _cse0 = Math.sqrt(sv_src__x__y_0) * 2.0;"));
+
+        testScript(script, val -> Math.sqrt(val) * 2 > 10 ? Math.sqrt(val) * 2 : 0);
+    }
+
+    @Test
+    public void loopVariableNotShared() throws Exception {
+        String script =
+                "s = 0; foreach (i in 1:3) { s += src * i; s += src * i; } dest = s;";
+        String source = getRuntimeSource(script);
+        assertFalse(source, source.contains("_cse"));
+
+        testScript(script, val -> 12 * val);
+    }
+
+    @Test
+    public void volatileFunctionsNotMoved() throws Exception {
+        String source = getRuntimeSource("dest = rand(1) + rand(1) + randInt(5) * width();");
+        assertFalse(source, source.contains("_inv"));
+        assertFalse(source, source.contains("_cse"));
+    }
+
+    private void testScript(String script, DoubleUnaryOperator f) throws Exception {
+        testScript(
+                script,
+                new Evaluator() {
+                    @Override
+                    public double eval(double val) {
+                        move();
+                        return f.applyAsDouble(val);
+                    }
+                });
+    }
+
+    private String getRuntimeSource(String script) throws Exception {
+        Map<String, Jiffle.ImageRole> params = new HashMap<>();
+        params.put("dest", Jiffle.ImageRole.DEST);
+        params.put("src", Jiffle.ImageRole.SOURCE);
+        Jiffle jiffle = new Jiffle(script, params);
+        return jiffle.getRuntimeSource(Jiffle.RuntimeModel.DIRECT, false);
+    }
+}
@@ -143,17 +143,23 @@ public abstract class RuntimeTestBase {
         imageParams.put("dest", Jiffle.ImageRole.DEST);
         imageParams.put("src", Jiffle.ImageRole.SOURCE);
 
-        // test the direct runtime
-        Jiffle jiffle = new Jiffle(script, imageParams);
-        directRuntimeInstance = jiffle.getRuntimeInstance();
-        testDirectRuntime(srcImg, directRuntimeInstance, evaluator);
-        
-        // and now the indirect one
-        jiffle = new Jiffle(script, imageParams);
-        indirectRuntimeInstance =
-                (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
-        evaluator.reset();
-        testIndirectRuntime(srcImg, indirectRuntimeInstance, evaluator);
+        // both compiler backends must give the same results
+        for (Jiffle.Backend backend : Jiffle.Backend.values()) {
+            // test the direct runtime
+            Jiffle jiffle = new Jiffle(script, imageParams);
+            jiffle.setBackend(backend);
+            directRuntimeInstance = jiffle.getRuntimeInstance();
+            evaluator.reset();
+            testDirectRuntime(srcImg, directRuntimeInstance, evaluator);
+
+            // and now the indirect one
+            jiffle = new Jiffle(script, imageParams);
+            jiffle.setBackend(backend);
+            indirectRuntimeInstance =
+                    (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
+            evaluator.reset();
+            testIndirectRuntime(srcImg, indirectRuntimeInstance, evaluator);
+        }
     }
 
     protected void testDirectRuntime(RenderedImage srcImg, JiffleDirectRuntime runtime, Evaluator evaluator) {
@@ -264,19 +270,23 @@ public abstract class RuntimeTestBase {
         imageParams.put("dest", Jiffle.ImageRole.DEST);
         imageParams.put("src", Jiffle.ImageRole.SOURCE);
 
-        // test the direct runtime
-        Jiffle jiffle = new Jiffle(script, imageParams);
-        directRuntimeInstance = jiffle.getRuntimeInstance();
-        Exception actual =
-                assertThrows(expected.getClass(), () -> testDirectRuntime(srcImg, directRuntimeInstance, null));
-        assertEquals(expected.getMessage(), actual.getMessage());
+        for (Jiffle.Backend backend : Jiffle.Backend.values()) {
+            // test the direct runtime
+            Jiffle jiffle = new Jiffle(script, imageParams);
+            jiffle.setBackend(backend);
+            directRuntimeInstance = jiffle.getRuntimeInstance();
+            Exception actual =
+                    assertThrows(expected.getClass(), () -> testDirectRuntime(srcImg, directRuntimeInstance, null));
+            assertEquals(expected.getMessage(), actual.getMessage());
 
-        // and now the indirect one
-        jiffle = new Jiffle(script, imageParams);
-        indirectRuntimeInstance =
-                (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
-        actual = assertThrows(expected.getClass(), () -> testIndirectRuntime(srcImg, indirectRuntimeInstance, null));
-        assertEquals(expected.getMessage(), actual.getMessage());
+            // and now the indirect one
+            jiffle = new Jiffle(script, imageParams);
+            jiffle.setBackend(backend);
+            indirectRuntimeInstance =
+                    (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
+            actual = assertThrows(expected.getClass(), () -> testIndirectRuntime(srcImg, indirectRuntimeInstance, null));
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
     }
 }
 
@@ -128,4 +128,51 @@ public class StatsFunctionsTest extends RuntimeTestBase {
         testScript(script, createRowValueImage(), e);
     }
 
+    @Test
+    public void medianListArg() throws Exception {
+        System.out.println("   median(List)");
+        
+        String script = "options { outside = 0; } \n"
+                + "z = [ src[0,1], src, src[0,-1] ]; \n"
+                + "dest = median(z);";
+        
+        Evaluator e = new Evaluator() {
+            final int MAXY = IMG_WIDTH - 1;
+
+            public double eval(double val) {
+                double z = y == 0 ? 0 : (y == MAXY ? MAXY - 1 : y);
+                move();
+                return z;
+            }
+        };
+        
+        testScript(script, createRowValueImage(), e);
+    }
+
+    @Test
+    public void sdevListArg() throws Exception {
+        System.out.println("   sdev(List)");
+        
+        String script = "options { outside = 0; } \n"
+                + "z = [ src[0,-1], src, src[0,1] ]; \n"
+                + "dest = sdev(z);";
+        
+        Evaluator e = new Evaluator() {
+            final int MAXY = IMG_WIDTH - 1;
+
+            public double eval(double val) {
+                double[] z = {y == 0 ? 0 : y - 1, y, y == MAXY ? 0 : y + 1};
+                double mean = (z[0] + z[1] + z[2]) / 3;
+                double ss = 0;
+                for (double v : z) {
+                    ss += (v - mean) * (v - mean);
+                }
+                move();
+                return Math.sqrt(ss / 2);
+            }
+        };
+        
+        testScript(script, createRowValueImage(), e);
+    }
+
 }
@@ -0,0 +1,168 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.jiffle.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.media.jai.ROI;
+import javax.media.jai.TiledImage;
+
+import it.geosolutions.jaiext.jiffle.Jiffle;
+import it.geosolutions.jaiext.range.NoDataContainer;
+import it.geosolutions.jaiext.utilities.ImageUtilities;
+
+/**
+ * Source image reads from images with multiple tiles, checking that reads are correct across
+ * tile boundaries and that ROI and nodata are honoured on a per tile basis.
+ */
+public class TiledSourceTest extends RuntimeTestBase {
+
+    private static final int WIDTH = 20;
+
+    private static final int TILE_WIDTH = 8;
+
+    @Test
+    public void readAcrossTiles() throws Exception {
+        TiledImage srcImg = createTiledSequenceImage();
+        TiledImage destImg = evaluate("options { outside = 0; } dest = src[1, -1];", srcImg);
+
+        for (int y = 0; y < WIDTH; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                double expected = x + 1 < WIDTH && y > 0 ? (y - 1) * WIDTH + x + 1 : 0;
+                assertEquals(x + "," + y, expected, destImg.getSampleDouble(x, y, 0), 0d);
+            }
+        }
+    }
+
+    @Test
+    public void noDataInSomeTiles() throws Exception {
+        TiledImage srcImg = createTiledSequenceImage();
+        // a nodata value found only in the tile 1, 1
+        int noData = 10 * WIDTH + 10;
+        srcImg.setProperty(NoDataContainer.GC_NODATA, new NoDataContainer(noData));
+        TiledImage destImg = evaluate("dest = src;", srcImg);
+
+        for (int y = 0; y < WIDTH; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                double value = y * WIDTH + x;
+                double expected = value == noData ? Double.NaN : value;
+                assertEquals(x + "," + y, expected, destImg.getSampleDouble(x, y, 0), 0d);
+            }
+        }
+    }
+
+    @Test
+    public void noDataAcrossTiles() throws Exception {
+        TiledImage srcImg = createTiledSequenceImage();
+        // a nodata value next to the edge between the tiles 0, 0 and 1, 0
+        int noData = 3 * WIDTH + TILE_WIDTH;
+        srcImg.setProperty(NoDataContainer.GC_NODATA, new NoDataContainer(noData));
+        // every pixel next to a tile edge reads alternately from both tiles
+        TiledImage destImg =
+                evaluate("options { outside = 0; } dest = src[-1, 0] + src[1, 0];", srcImg);
+
+        for (int y = 0; y < WIDTH; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                double left = x > 0 ? y * WIDTH + x - 1 : 0;
+                double right = x + 1 < WIDTH ? y * WIDTH + x + 1 : 0;
+                double expected = left == noData || right == noData ? Double.NaN : left + right;
+                assertEquals(x + "," + y, expected, destImg.getSampleDouble(x, y, 0), 0d);
+            }
+        }
+    }
+
+    @Test
+    public void roiCoveringSomeTiles() throws Exception {
+        TiledImage srcImg = createTiledSequenceImage();
+        // fully covers the first tile, partially covers others, misses the last row of tiles
+        TiledImage roiImage = ImageUtilities.createConstantImage(0, 0, WIDTH, WIDTH, 0);
+        Rectangle roiArea = new Rectangle(0, 0, 12, 12);
+        for (int y = roiArea.y; y < roiArea.y + roiArea.height; y++) {
+            for (int x = roiArea.x; x < roiArea.x + roiArea.width; x++) {
+                roiImage.setSample(x, y, 0, 255);
+            }
+        }
+        srcImg.setProperty("ROI", new ROI(roiImage));
+        TiledImage destImg = evaluate("dest = src;", srcImg);
+
+        for (int y = 0; y < WIDTH; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                double expected = roiArea.contains(x, y) ? y * WIDTH + x : Double.NaN;
+                assertEquals(x + "," + y, expected, destImg.getSampleDouble(x, y, 0), 0d);
+            }
+        }
+    }
+
+    @Test
+    public void roiCheckedOncePerTile() throws Exception {
+        TiledImage srcImg = createTiledSequenceImage();
+        final AtomicInteger checks = new AtomicInteger();
+        ROI roi = new ROI(ImageUtilities.createConstantImage(0, 0, WIDTH, WIDTH, 255)) {
+            @Override
+            public boolean intersects(Rectangle rect) {
+                checks.incrementAndGet();
+                return super.intersects(rect);
+            }
+        };
+        srcImg.setProperty("ROI", roi);
+        // every pixel next to a horizontal tile edge reads alternately from two tiles
+        TiledImage destImg =
+                evaluate("options { outside = 0; } dest = src[0, -1] + src[0, 1];", srcImg);
+
+        assertTrue(checks.get() <= srcImg.getNumXTiles() * srcImg.getNumYTiles());
+        for (int y = 0; y < WIDTH; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                double up = y > 0 ? (y - 1) * WIDTH + x : 0;
+                double down = y + 1 < WIDTH ? (y + 1) * WIDTH + x : 0;
+                assertEquals(x + "," + y, up + down, destImg.getSampleDouble(x, y, 0), 0d);
+            }
+        }
+    }
+
+    private TiledImage createTiledSequenceImage() {
+        TiledImage img =
+                ImageUtilities.createConstantImage(
+                        0, 0, WIDTH, WIDTH, TILE_WIDTH, TILE_WIDTH, new Number[] {0});
+        for (int y = 0; y < WIDTH; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                img.setSample(x, y, 0, y * WIDTH + x);
+            }
+        }
+        return img;
+    }
+
+    private TiledImage evaluate(String script, TiledImage srcImg) throws Exception {
+        imageParams = new HashMap<>();
+        imageParams.put("dest", Jiffle.ImageRole.DEST);
+        imageParams.put("src", Jiffle.ImageRole.SOURCE);
+
+        Jiffle jiffle = new Jiffle(script, imageParams);
+        JiffleDirectRuntime runtime = jiffle.getRuntimeInstance();
+        runtime.setSourceImage("src", srcImg);
+        TiledImage destImg = ImageUtilities.createConstantImage(0, 0, WIDTH, WIDTH, 0d);
+        runtime.setDestinationImage("dest", destImg);
+        runtime.evaluateAll(null);
+        return destImg;
+    }
+}
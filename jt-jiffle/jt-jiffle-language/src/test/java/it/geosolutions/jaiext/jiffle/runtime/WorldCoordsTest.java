@@ -263,6 +263,45 @@ public class WorldCoordsTest extends RuntimeTestBase {
      * Setting an image with a transform without having previously set the world
      * bounds should throw a JiffleException.
      */
+    @Test
+    public void stripsMatchEvaluateAll() throws Exception {
+        System.out.println("   strips and whole area share the same ordinates");
+
+        String script = "images { dest=write; } dest = y();" ;
+        Rectangle2D worldBounds = new Rectangle(0, 0, 1, 1);
+        Rectangle imageBounds = new Rectangle(0, 0, IMG_WIDTH, IMG_WIDTH);
+        CoordinateTransform tr = CoordinateTransforms.getTransform(worldBounds, imageBounds);
+
+        JiffleDirectRuntime runtime = getRuntime(script);
+        runtime.setWorldByNumPixels(worldBounds, IMG_WIDTH, IMG_WIDTH);
+        WritableRenderedImage allImg = ImageUtilities.createConstantImage(IMG_WIDTH, IMG_WIDTH, 0d);
+        runtime.setDestinationImage("dest", allImg, tr);
+        runtime.evaluateAll(null);
+
+        runtime = getRuntime(script);
+        runtime.setWorldByNumPixels(worldBounds, IMG_WIDTH, IMG_WIDTH);
+        WritableRenderedImage stripsImg = ImageUtilities.createConstantImage(IMG_WIDTH, IMG_WIDTH, 0d);
+        runtime.setDestinationImage("dest", stripsImg, tr);
+        for (int row = 0; row < IMG_WIDTH; row += 3) {
+            runtime.evaluateRows(row, Math.min(3, IMG_WIDTH - row), null);
+        }
+
+        final double res = runtime.getYRes();
+        Evaluator e = new Evaluator() {
+            public double eval(double val) {
+                double z = y * res;
+                move();
+                return z;
+            }
+        };
+        assertImage(null, allImg, e);
+        assertImage(allImg, stripsImg, new Evaluator() {
+            public double eval(double val) {
+                return val;
+            }
+        });
+    }
+
     @Test(expected=JiffleException.class)
     public void forgetTheWorldBeforeImageWithTransform() throws Exception {
         System.out.println("   forget to set the world before setting image with transform");
@@ -5,7 +5,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 public class JiffleIndirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runtime.AbstractIndirectRuntime {
+    // Optimizations applied by the Jiffle compiler:
+    //   hoisted pixel invariant: _inv0 = 2.0 * getYRes()
+    //   hoisted pixel invariant: _inv1 = 2.0 * getXRes()
+
     SourceImage s_dtm;
+    double _inv0;
+    double _inv1;
 
     public JiffleIndirectRuntimeImpl() {
         super(new String[] {});
@@ -13,6 +19,8 @@ public class JiffleIndirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.run
 
     protected void initImageScopeVars() {
         s_dtm = (SourceImage) _images.get("dtm");
+        _inv0 = 2.0 * getYRes();
+        _inv1 = 2.0 * getXRes();
         _imageScopeVarsInitialized = true;
     }
 
@@ -43,7 +51,7 @@ public class JiffleIndirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.run
             double v_wIsNovalue = _FN.EQ(v_wValue, v_nv);
             double v_eIsNovalue = _FN.EQ(v_eValue, v_nv);
             if (_FN.isTrue(_FN.AND(_FN.NOT(v_sIsNovalue), _FN.NOT(v_nIsNovalue)))) {
-                v_aData = Math.atan((v_nValue - v_sValue) / (2.0 * getYRes()));
+                v_aData = Math.atan((v_nValue - v_sValue) / _inv0);
             } else {
                 if (_FN.isTrue(_FN.AND(v_nIsNovalue, _FN.NOT(v_sIsNovalue)))) {
                     v_aData = Math.atan((v_centralValue - v_sValue) / (getYRes()));
@@ -58,7 +66,7 @@ public class JiffleIndirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.run
                 }
             }
             if (_FN.isTrue(_FN.AND(_FN.NOT(v_wIsNovalue), _FN.NOT(v_eIsNovalue)))) {
-                v_bData = Math.atan((v_wValue - v_eValue) / (2.0 * getXRes()));
+                v_bData = Math.atan((v_wValue - v_eValue) / _inv1);
             } else {
                 if (_FN.isTrue(_FN.AND(v_wIsNovalue, _FN.NOT(v_eIsNovalue)))) {
                     v_bData = Math.atan((v_centralValue - v_eValue) / (getXRes()));
@@ -120,4 +128,124 @@ public class JiffleIndirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.run
             result[0] = v_nv;
         }
     }
+
+    public void evaluateRect(java.awt.Rectangle _rect, java.awt.image.WritableRaster _dest) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        final RasterWriter _writer = RasterWriter.create(_dest);
+        final int _bands = _dest.getNumBands();
+        final double[] result = new double[_bands];
+        final int _maxIX = _rect.x + _rect.width;
+        final int _maxIY = _rect.y + _rect.height;
+        for (int _iy = _rect.y; _iy < _maxIY; _iy++) {
+            final double _y = _iy;
+            for (int _ix = _rect.x; _ix < _maxIX; _ix++) {
+                final double _x = _ix;
+                for (int _b = 0; _b < _bands; _b++) {
+                    result[_b] = Double.NaN;
+                }
+                _stk.clear();
+                _iterations = 0;
+
+                double v_aData = 0.0;
+                double v_bData = 0.0;
+                double v_centralValue = s_dtm.read(_x, _y, 0);
+                double v_nValue = s_dtm.read(_x + 0.0, _y + -1.0, 0);
+                double v_sValue = s_dtm.read(_x + 0.0, _y + 1.0, 0);
+                double v_wValue = s_dtm.read(_x + -1.0, _y + 0.0, 0);
+                double v_eValue = s_dtm.read(_x + 1.0, _y + 0.0, 0);
+                double v_nv = -9999.0;
+                double v_aspect = v_nv;
+                double v_PI = 3.141592653589793;
+                result[0] = v_nValue;
+                if (_FN.isTrue(_FN.NE(v_centralValue, v_nv))) {
+                    double v_sIsNovalue = _FN.EQ(v_sValue, v_nv);
+                    double v_nIsNovalue = _FN.EQ(v_nValue, v_nv);
+                    double v_wIsNovalue = _FN.EQ(v_wValue, v_nv);
+                    double v_eIsNovalue = _FN.EQ(v_eValue, v_nv);
+                    if (_FN.isTrue(_FN.AND(_FN.NOT(v_sIsNovalue), _FN.NOT(v_nIsNovalue)))) {
+                        v_aData = Math.atan((v_nValue - v_sValue) / _inv0);
+                    } else {
+                        if (_FN.isTrue(_FN.AND(v_nIsNovalue, _FN.NOT(v_sIsNovalue)))) {
+                            v_aData = Math.atan((v_centralValue - v_sValue) / (getYRes()));
+                        } else {
+                            if (_FN.isTrue(_FN.AND(_FN.NOT(v_nIsNovalue), v_sIsNovalue))) {
+                                v_aData = Math.atan((v_nValue - v_centralValue) / (getYRes()));
+                            } else {
+                                if (_FN.isTrue(_FN.AND(v_nIsNovalue, v_sIsNovalue))) {
+                                    v_aData = v_nv;
+                                }
+                            }
+                        }
+                    }
+                    if (_FN.isTrue(_FN.AND(_FN.NOT(v_wIsNovalue), _FN.NOT(v_eIsNovalue)))) {
+                        v_bData = Math.atan((v_wValue - v_eValue) / _inv1);
+                    } else {
+                        if (_FN.isTrue(_FN.AND(v_wIsNovalue, _FN.NOT(v_eIsNovalue)))) {
+                            v_bData = Math.atan((v_centralValue - v_eValue) / (getXRes()));
+                        } else {
+                            if (_FN.isTrue(_FN.AND(_FN.NOT(v_wIsNovalue), v_eIsNovalue))) {
+                                v_bData = Math.atan((v_wValue - v_centralValue) / (getXRes()));
+                            } else {
+                                if (_FN.isTrue(_FN.AND(v_wIsNovalue, v_eIsNovalue))) {
+                                    v_bData = v_nv;
+                                }
+                            }
+                        }
+                    }
+                    if (_FN.isTrue(_FN.AND(_FN.LT(v_aData, 0), _FN.GT(v_bData, 0)))) {
+                        double v_delta = Math.acos(Math.sin(Math.abs(v_aData)) * Math.cos(Math.abs(v_bData)) / (Math.sqrt(1.0 - Math.pow(Math.cos(v_aData), 2.0) * Math.pow(Math.cos(v_bData), 2.0))));
+                        v_aspect = _FN.radToDeg(v_delta);
+                    } else {
+                        if (_FN.isTrue(_FN.AND(_FN.GT(v_aData, 0), _FN.GT(v_bData, 0)))) {
+                            double v_delta = Math.acos(Math.sin(Math.abs(v_aData)) * Math.cos(Math.abs(v_bData)) / (Math.sqrt(1.0 - Math.pow(Math.cos(v_aData), 2.0) * Math.pow(Math.cos(v_bData), 2.0))));
+                            v_aspect = _FN.radToDeg(v_PI - v_delta);
+                        } else {
+                            if (_FN.isTrue(_FN.AND(_FN.GT(v_aData, 0), _FN.LT(v_bData, 0)))) {
+                                double v_delta = Math.acos(Math.sin(Math.abs(v_aData)) * Math.cos(Math.abs(v_bData)) / (Math.sqrt(1.0 - Math.pow(Math.cos(v_aData), 2.0) * Math.pow(Math.cos(v_bData), 2.0))));
+                                v_aspect = _FN.radToDeg(v_PI + v_delta);
+                            } else {
+                                if (_FN.isTrue(_FN.AND(_FN.LT(v_aData, 0), _FN.LT(v_bData, 0)))) {
+                                    double v_delta = Math.acos(Math.sin(Math.abs(v_aData)) * Math.cos(Math.abs(v_bData)) / (Math.sqrt(1.0 - Math.pow(Math.cos(v_aData), 2.0) * Math.pow(Math.cos(v_bData), 2.0))));
+                                    v_aspect = _FN.radToDeg(2.0 * v_PI - v_delta);
+                                } else {
+                                    if (_FN.isTrue(_FN.AND(_FN.EQ(v_aData, 0), _FN.GT(v_bData, 0)))) {
+                                        v_aspect = _FN.radToDeg(v_PI / 2.0);
+                                    } else {
+                                        if (_FN.isTrue(_FN.AND(_FN.EQ(v_aData, 0), _FN.LT(v_bData, 0)))) {
+                                            v_aspect = _FN.radToDeg(v_PI * 3.0 / 2.0);
+                                        } else {
+                                            if (_FN.isTrue(_FN.AND(_FN.GT(v_aData, 0), _FN.EQ(v_bData, 0)))) {
+                                                v_aspect = _FN.radToDeg(v_PI);
+                                            } else {
+                                                if (_FN.isTrue(_FN.AND(_FN.LT(v_aData, 0), _FN.EQ(v_bData, 0)))) {
+                                                    v_aspect = _FN.radToDeg(2.0 * v_PI);
+                                                } else {
+                                                    if (_FN.isTrue(_FN.AND(_FN.EQ(v_aData, 0), _FN.EQ(v_bData, 0)))) {
+                                                        v_aspect = 0.0;
+                                                    } else {
+                                                        if (_FN.isTrue(_FN.OR(_FN.EQ(v_aData, v_nv), _FN.EQ(v_bData, v_nv)))) {
+                                                            v_aspect = v_nv;
+                                                        }
+                                                    }
+                                                }
+                                            }
+                                        }
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    result[0] = Math.round(v_aspect);
+                } else {
+                    result[0] = v_nv;
+                }
+                _writer.setPixel(_ix, _iy, result);
+            }
+        }
+    }
 }
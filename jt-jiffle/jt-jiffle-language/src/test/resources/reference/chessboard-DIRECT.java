@@ -43,4 +43,22 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         double v_inside = _FN.AND(_FN.LT(_x, v_edge_pos), _FN.LT(_y, v_edge_pos));
         d_result.write(_x, _y, 0, (_stk.push(_FN.sign(v_inside)) == null ? Double.NaN : (_stk.peek() != 0 ? ((_FN.XOR(v_odd_row, v_odd_col))) : (Double.NaN))));
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            double v_odd_row = _FN.EQ(Math.floor(_y / v_square) % 2.0, 1);
+            double v_odd_col = _FN.EQ(Math.floor(_x / v_square) % 2.0, 1);
+            double v_inside = _FN.AND(_FN.LT(_x, v_edge_pos), _FN.LT(_y, v_edge_pos));
+            d_result.write(_x, _y, 0, (_stk.push(_FN.sign(v_inside)) == null ? Double.NaN : (_stk.peek() != 0 ? ((_FN.XOR(v_odd_row, v_odd_col))) : (Double.NaN))));
+        }
+    }
 }
@@ -35,4 +35,24 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
             d_dst.write(_x, _y, (int)(v_b), s_src.read(_x, _y, (int)(v_b)));
         }
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            final int _lob = (int) (0);
+            final int _hi_lob = (int) (getBands("src"));
+            for(int v_b = _lob; v_b <= _hi_lob; v_b++) {
+                checkLoopIterations();
+                d_dst.write(_x, _y, (int)(v_b), s_src.read(_x, _y, (int)(v_b)));
+            }
+        }
+    }
 }
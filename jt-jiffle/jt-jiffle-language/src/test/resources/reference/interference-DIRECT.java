@@ -31,4 +31,22 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         double v_dxy = Math.sqrt(Math.pow((v_dx - 0.5), 2.0) + Math.pow((v_dy - 0.5), 2.0));
         d_result.write(_x, _y, 0, Math.sin(v_dx * 100.0) + Math.sin(v_dxy * 100.0));
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            double v_dx = _x / getWidth();
+            double v_dy = _y / getHeight();
+            double v_dxy = Math.sqrt(Math.pow((v_dx - 0.5), 2.0) + Math.pow((v_dy - 0.5), 2.0));
+            d_result.write(_x, _y, 0, Math.sin(v_dx * 100.0) + Math.sin(v_dxy * 100.0));
+        }
+    }
 }
@@ -5,8 +5,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runtime.AbstractDirectRuntime {
+    // Optimizations applied by the Jiffle compiler:
+    //   hoisted pixel invariant: _inv0 = getHeight() - 1.0
+    //   hoisted pixel invariant: _inv1 = getWidth() - 1.0
+
     SourceImage s_world;
     DestinationImage d_nextworld;
+    double _inv0;
+    double _inv1;
 
     public JiffleDirectRuntimeImpl() {
         super(new String[] {});
@@ -15,6 +21,8 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
     protected void initImageScopeVars() {
         s_world = (SourceImage) _images.get("world");
         d_nextworld= (DestinationImage) _destImages.get("nextworld");
+        _inv0 = getHeight() - 1.0;
+        _inv1 = getWidth() - 1.0;
         _imageScopeVarsInitialized = true;
     }
 
@@ -35,14 +43,14 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         for(int v_iy = _loiy; v_iy <= _hi_loiy; v_iy++) {
             checkLoopIterations();
             double v_yy = _y + v_iy;
-            v_yy = (_stk.push(_FN.sign(_FN.LT(v_yy, 0))) == null ? Double.NaN : (_stk.peek() != 0 ? (getHeight() - 1.0) : (v_yy)));
+            v_yy = (_stk.push(_FN.sign(_FN.LT(v_yy, 0))) == null ? Double.NaN : (_stk.peek() != 0 ? (_inv0) : (v_yy)));
             v_yy = (_stk.push(_FN.sign(_FN.GE(v_yy, getHeight()))) == null ? Double.NaN : (_stk.peek() != 0 ? (0) : (v_yy)));
             final int _loix = (int) (-1);
             final int _hi_loix = (int) (1);
             for(int v_ix = _loix; v_ix <= _hi_loix; v_ix++) {
                 checkLoopIterations();
                 double v_xx = _x + v_ix;
-                v_xx = (_stk.push(_FN.sign(_FN.LT(v_xx, 0))) == null ? Double.NaN : (_stk.peek() != 0 ? (getWidth() - 1.0) : (v_xx)));
+                v_xx = (_stk.push(_FN.sign(_FN.LT(v_xx, 0))) == null ? Double.NaN : (_stk.peek() != 0 ? (_inv1) : (v_xx)));
                 v_xx = (_stk.push(_FN.sign(_FN.GE(v_xx, getWidth()))) == null ? Double.NaN : (_stk.peek() != 0 ? (0) : (v_xx)));
                 v_n += s_world.read(v_xx, v_yy, 0);
             }
@@ -50,4 +58,39 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         v_n -= sv_world__x__y_0;
         d_nextworld.write(_x, _y, 0, _FN.OR((_FN.EQ(v_n, 3)), (_FN.AND(sv_world__x__y_0, _FN.EQ(v_n, 2)))));
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+            double sv_world__x__y_0 = s_world.read(_x, _y, 0);
+
+            double v_n = 0.0;
+            final int _loiy = (int) (-1);
+            final int _hi_loiy = (int) (1);
+            for(int v_iy = _loiy; v_iy <= _hi_loiy; v_iy++) {
+                checkLoopIterations();
+                double v_yy = _y + v_iy;
+                v_yy = (_stk.push(_FN.sign(_FN.LT(v_yy, 0))) == null ? Double.NaN : (_stk.peek() != 0 ? (_inv0) : (v_yy)));
+                v_yy = (_stk.push(_FN.sign(_FN.GE(v_yy, getHeight()))) == null ? Double.NaN : (_stk.peek() != 0 ? (0) : (v_yy)));
+                final int _loix = (int) (-1);
+                final int _hi_loix = (int) (1);
+                for(int v_ix = _loix; v_ix <= _hi_loix; v_ix++) {
+                    checkLoopIterations();
+                    double v_xx = _x + v_ix;
+                    v_xx = (_stk.push(_FN.sign(_FN.LT(v_xx, 0))) == null ? Double.NaN : (_stk.peek() != 0 ? (_inv1) : (v_xx)));
+                    v_xx = (_stk.push(_FN.sign(_FN.GE(v_xx, getWidth()))) == null ? Double.NaN : (_stk.peek() != 0 ? (0) : (v_xx)));
+                    v_n += s_world.read(v_xx, v_yy, 0);
+                }
+            }
+            v_n -= sv_world__x__y_0;
+            d_nextworld.write(_x, _y, 0, _FN.OR((_FN.EQ(v_n, 3)), (_FN.AND(sv_world__x__y_0, _FN.EQ(v_n, 2)))));
+        }
+    }
 }
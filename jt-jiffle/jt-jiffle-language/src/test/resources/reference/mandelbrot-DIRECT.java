@@ -72,4 +72,35 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         }
         d_result.write(_x, _y, 0, v_outside);
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            double v_c_im = v_MaxIm - _y * v_Im_scale;
+            double v_c_re = v_MinRe + _x * v_Re_scale;
+            double v_Z_re = v_c_re;
+            double v_Z_im = v_c_im;
+            double v_outside = 0.0;
+            double v_n = 0.0;
+            while (!_FN.isTrue(_FN.GE(v_n, v_MaxIter))) {
+                checkLoopIterations();
+                double v_Z_re2 = v_Z_re * v_Z_re;
+                double v_Z_im2 = v_Z_im * v_Z_im;
+                v_outside = _FN.GT(v_Z_re2 + v_Z_im2, 4);
+                if (_FN.isTrue(v_outside)) break;
+                v_Z_im = 2.0 * v_Z_re * v_Z_im + v_c_im;
+                v_Z_re = v_Z_re2 - v_Z_im2 + v_c_re;
+                v_n++;
+            }
+            d_result.write(_x, _y, 0, v_outside);
+        }
+    }
 }
@@ -70,4 +70,48 @@ public class JiffleIndirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.run
         }
         result[0] = v_outside;
     }
+
+    public void evaluateRect(java.awt.Rectangle _rect, java.awt.image.WritableRaster _dest) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        final RasterWriter _writer = RasterWriter.create(_dest);
+        final int _bands = _dest.getNumBands();
+        final double[] result = new double[_bands];
+        final int _maxIX = _rect.x + _rect.width;
+        final int _maxIY = _rect.y + _rect.height;
+        for (int _iy = _rect.y; _iy < _maxIY; _iy++) {
+            final double _y = _iy;
+            for (int _ix = _rect.x; _ix < _maxIX; _ix++) {
+                final double _x = _ix;
+                for (int _b = 0; _b < _bands; _b++) {
+                    result[_b] = Double.NaN;
+                }
+                _stk.clear();
+                _iterations = 0;
+
+                double v_c_im = v_MaxIm - _y * v_Im_scale;
+                double v_c_re = v_MinRe + _x * v_Re_scale;
+                double v_Z_re = v_c_re;
+                double v_Z_im = v_c_im;
+                double v_outside = 0.0;
+                double v_n = 0.0;
+                while (!_FN.isTrue(_FN.GE(v_n, v_MaxIter))) {
+                    checkLoopIterations();
+                    double v_Z_re2 = v_Z_re * v_Z_re;
+                    double v_Z_im2 = v_Z_im * v_Z_im;
+                    v_outside = _FN.GT(v_Z_re2 + v_Z_im2, 4);
+                    if (_FN.isTrue(v_outside)) break;
+                    v_Z_im = 2.0 * v_Z_re * v_Z_im + v_c_im;
+                    v_Z_re = v_Z_re2 - v_Z_im2 + v_c_re;
+                    v_n++;
+                }
+                result[0] = v_outside;
+                _writer.setPixel(_ix, _iy, result);
+            }
+        }
+    }
 }
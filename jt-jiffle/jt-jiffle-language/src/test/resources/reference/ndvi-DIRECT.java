@@ -34,4 +34,21 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
 
         d_res.write(_x, _y, 0, (sv_nir__x__y_0 - sv_red__x__y_0) / (sv_nir__x__y_0 + sv_red__x__y_0));
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+            double sv_nir__x__y_0 = s_nir.read(_x, _y, 0);
+            double sv_red__x__y_0 = s_red.read(_x, _y, 0);
+
+            d_res.write(_x, _y, 0, (sv_nir__x__y_0 - sv_red__x__y_0) / (sv_nir__x__y_0 + sv_red__x__y_0));
+        }
+    }
 }
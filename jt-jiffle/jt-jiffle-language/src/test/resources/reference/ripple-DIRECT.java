@@ -5,6 +5,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runtime.AbstractDirectRuntime {
+    // Optimizations applied by the Jiffle compiler:
+    //   folded constant: 8.0 * 3.141592653589793 -> 25.132741228718345
+
     DestinationImage d_result;
     double v_xc = Double.NaN;
     double v_yc = Double.NaN;
@@ -37,6 +40,24 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         double v_dx = (_x - v_xc) / v_xc;
         double v_dy = (_y - v_yc) / v_yc;
         double v_d = Math.sqrt(Math.pow(v_dx, 2.0) + Math.pow(v_dy, 2.0));
-        d_result.write(_x, _y, 0, Math.sin(8.0 * 3.141592653589793 * v_d));
+        d_result.write(_x, _y, 0, Math.sin(25.132741228718345 * v_d));
+    }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            double v_dx = (_x - v_xc) / v_xc;
+            double v_dy = (_y - v_yc) / v_yc;
+            double v_d = Math.sqrt(Math.pow(v_dx, 2.0) + Math.pow(v_dy, 2.0));
+            d_result.write(_x, _y, 0, Math.sin(25.132741228718345 * v_d));
+        }
     }
 }
@@ -5,6 +5,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runtime.AbstractDirectRuntime {
+    // Optimizations applied by the Jiffle compiler:
+    //   folded constant: 4.0 * 3.141592653589793 -> 12.566370614359172
+
     DestinationImage d_result;
     double v_w = Double.NaN;
     double v_h = Double.NaN;
@@ -34,8 +37,25 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
         _stk.clear();
         _iterations = 0;
 
-        double v_dx = 4.0 * 3.141592653589793 * (0.5 - _x / v_w);
-        double v_dy = 4.0 * 3.141592653589793 * (0.5 - _y / v_h);
+        double v_dx = 12.566370614359172 * (0.5 - _x / v_w);
+        double v_dy = 12.566370614359172 * (0.5 - _y / v_h);
         d_result.write(_x, _y, 0, Math.sqrt(Math.abs(Math.cos(v_dx) + Math.cos(v_dy))));
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            double v_dx = 12.566370614359172 * (0.5 - _x / v_w);
+            double v_dy = 12.566370614359172 * (0.5 - _y / v_h);
+            d_result.write(_x, _y, 0, Math.sqrt(Math.abs(Math.cos(v_dx) + Math.cos(v_dy))));
+        }
+    }
 }
@@ -5,8 +5,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 
 public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runtime.AbstractDirectRuntime {
+    // Optimizations applied by the Jiffle compiler:
+    //   hoisted pixel invariant: _inv0 = getBands("src") - 1.0
+
     SourceImage s_src;
     DestinationImage d_dst;
+    double _inv0;
 
     public JiffleDirectRuntimeImpl() {
         super(new String[] {});
@@ -15,6 +19,7 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
     protected void initImageScopeVars() {
         s_src = (SourceImage) _images.get("src");
         d_dst= (DestinationImage) _destImages.get("dst");
+        _inv0 = getBands("src") - 1.0;
         _imageScopeVarsInitialized = true;
     }
 
@@ -30,7 +35,7 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
 
         double v_sum = 0.0;
         double v_goodBands = 0.0;
-        double v_maxBand = getBands("src") - 1.0;
+        double v_maxBand = _inv0;
         final int _lob = (int) (0);
         final int _hi_lob = (int) (v_maxBand);
         for(int v_b = _lob; v_b <= _hi_lob; v_b++) {
@@ -50,4 +55,39 @@ public class JiffleDirectRuntimeImpl extends it.geosolutions.jaiext.jiffle.runti
             d_dst.write(_x, _y, (int)(v_maxBand + 2.0), v_sum / v_goodBands);
         }
     }
+
+    protected void evaluateRow(double _y, double _minX, double _maxX, double _resX) {
+        if (!isWorldSet()) {
+            setDefaultBounds();
+        }
+        if (!_imageScopeVarsInitialized) {
+            initImageScopeVars();
+        }
+        for (double _x = _minX; _x < _maxX; _x += _resX) {
+            _stk.clear();
+            _iterations = 0;
+
+            double v_sum = 0.0;
+            double v_goodBands = 0.0;
+            double v_maxBand = _inv0;
+            final int _lob = (int) (0);
+            final int _hi_lob = (int) (v_maxBand);
+            for(int v_b = _lob; v_b <= _hi_lob; v_b++) {
+                checkLoopIterations();
+                double v_value = s_src.read(_x, _y, (int)(v_b));
+                if (_FN.isTrue(_FN.NE(v_value, -9999.0))) {
+                    v_sum += v_value;
+                    v_goodBands += 1.0;
+                }
+                d_dst.write(_x, _y, (int)(v_b), v_value);
+            }
+            if (_FN.isTrue(_FN.EQ(v_goodBands, 0))) {
+                d_dst.write(_x, _y, (int)(v_maxBand + 1.0), -9999.0);
+                d_dst.write(_x, _y, (int)(v_maxBand + 2.0), -9999.0);
+            } else {
+                d_dst.write(_x, _y, (int)(v_maxBand + 1.0), v_sum);
+                d_dst.write(_x, _y, (int)(v_maxBand + 2.0), v_sum / v_goodBands);
+            }
+        }
+    }
 }
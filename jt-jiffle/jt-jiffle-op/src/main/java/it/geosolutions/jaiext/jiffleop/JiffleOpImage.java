@@ -55,9 +55,11 @@ import java.awt.*;
 import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.awt.image.WritableRaster;
-import java.util.Arrays;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -94,19 +96,48 @@ public class JiffleOpImage extends OpImage {
         }
     }
 
-    private final JiffleIndirectRuntime runtime;
+    /** Builds new, fully configured, runtime instances when the pool is empty */
+    private final Supplier<JiffleIndirectRuntime> runtimeFactory;
+
+    /**
+     * Runtime instances not currently in use. The runtime objects hold per-pixel state, so each
+     * tile computation borrows its own instance, allowing tiles to be computed in parallel
+     */
+    private final Queue<JiffleIndirectRuntime> runtimes = new ConcurrentLinkedQueue<>();
 
     private final int band = 0;
 
+    /**
+     * Builds a new Jiffle image using a single runtime instance. Tile computations will be
+     * serialized on the runtime.
+     */
+    public JiffleOpImage(
+            Map<String, ImageSpecification> sourceImages,
+            ImageLayout layout,
+            Map configuration,
+            JiffleIndirectRuntime runtime,
+            String destVarName) {
+        this(sourceImages, layout, configuration, runtime, null, destVarName);
+    }
+
+    /**
+     * Builds a new Jiffle image. The {@code runtimeFactory} is used to create new runtime
+     * instances (configured the same way as {@code runtime}) whenever more tiles than the
+     * available runtimes are being computed in parallel.
+     */
     public JiffleOpImage(
             Map<String, ImageSpecification> sourceImages,
             ImageLayout layout,
             Map configuration,
             JiffleIndirectRuntime runtime,
+            Supplier<JiffleIndirectRuntime> runtimeFactory,
             String destVarName) {
 
         super(specsToImages(sourceImages), layout, configuration, false);
-        this.runtime = runtime;
+        this.runtimeFactory = runtimeFactory;
+        if (runtime != null) {
+            this.runtimes.add(runtime);
+        }
 
         // by default Jiffle does nodata with NaN
         setProperty(NoDataContainer.GC_NODATA, new NoDataContainer(Double.NaN));
@@ -143,19 +174,32 @@ public class JiffleOpImage extends OpImage {
 
     @Override
     protected void computeRect(PlanarImage[] sources, WritableRaster dest, Rectangle destRect) {
-        final int destBands = dest.getNumBands();
-        double[] pixel = new double[destBands];
-        for (int y = destRect.y, iy = 0; iy < destRect.height; y++, iy++) {
-            for (int x = destRect.x, ix = 0; ix < destRect.width; x++, ix++) {
-                // the script might not be always setting the output value, it may be conditional,
-                // the default value should be Double.NaN
-                Arrays.fill(pixel, Double.NaN);
-                runtime.evaluate(x, y, pixel);
-                dest.setPixel(x, y, pixel);
+        if (runtimeFactory == null) {
+            // single runtime, cannot be shared among threads
+            JiffleIndirectRuntime runtime = runtimes.peek();
+            synchronized (runtime) {
+                computeRect(runtime, dest, destRect);
+            }
+        } else {
+            JiffleIndirectRuntime runtime = runtimes.poll();
+            if (runtime == null) {
+                runtime = runtimeFactory.get();
+            }
+            try {
+                computeRect(runtime, dest, destRect);
+            } finally {
+                runtimes.offer(runtime);
             }
         }
     }
 
+    private void computeRect(
+            JiffleIndirectRuntime runtime, WritableRaster dest, Rectangle destRect) {
+        // the script might not be always setting the output value, it may be conditional,
+        // the runtime fills the pixels it did not set with Double.NaN
+        runtime.evaluateRect(destRect, dest);
+    }
+
     @Override
     protected void computeRect(Raster[] sources, WritableRaster dest, Rectangle destRect) {
         super.computeRect(sources, dest, destRect);
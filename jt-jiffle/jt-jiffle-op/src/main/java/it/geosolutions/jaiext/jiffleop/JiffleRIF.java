@@ -51,6 +51,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Vector;
+import java.util.function.Supplier;
 
 import javax.media.jai.ImageLayout;
 import javax.media.jai.JAI;
@@ -59,6 +60,7 @@ import javax.media.jai.RasterFactory;
 
 import it.geosolutions.jaiext.jiffle.Jiffle;
 import it.geosolutions.jaiext.jiffle.JiffleException;
+import it.geosolutions.jaiext.jiffle.JiffleRuntimeCache;
 import it.geosolutions.jaiext.jiffle.runtime.BandTransform;
 import it.geosolutions.jaiext.jiffle.runtime.CoordinateTransform;
 import it.geosolutions.jaiext.jiffle.runtime.JiffleIndirectRuntime;
@@ -99,7 +101,13 @@ public class JiffleRIF implements RenderedImageFactory {
             destBounds = getSourceBounds(paramBlock);
         }
 
-        JiffleIndirectRuntime runtime = getRuntime(script, sourceImages, destVarName, destBounds);
+        // the runtime objects are not thread safe, the image will create more as needed
+        // to compute tiles in parallel
+        Map<String, ImageSpecification> runtimeSources = prepareSourceImages(sourceImages);
+        Rectangle worldBounds = destBounds;
+        Supplier<JiffleIndirectRuntime> runtimeFactory =
+                () -> getRuntime(script, runtimeSources, destVarName, worldBounds);
+        JiffleIndirectRuntime runtime = runtimeFactory.get();
         if (numBands == null) {
             numBands = runtime.getOutputBands();
             if (numBands == JiffleRuntime.DYNAMIC_BANDS) {
@@ -110,49 +118,65 @@ public class JiffleRIF implements RenderedImageFactory {
         // Build an image layout based on the destination bounds, if provided, or the union of the
         // source bounds
         ImageLayout layout = buildLayout(destBounds, getPreferredTileSize(paramBlock), dataType, numBands);
+        setTileGrid(layout, paramBlock);
 
-        return new JiffleOpImage(sourceImages, layout, renderHints, runtime, destVarName);
+        return new JiffleOpImage(
+                sourceImages, layout, renderHints, runtime, runtimeFactory, destVarName);
+    }
+
+    /**
+     * Returns a copy of the source specifications, with the images carrying the eventual nodata
+     * as a property, so that it's done once, instead of once per runtime
+     */
+    private Map<String, ImageSpecification> prepareSourceImages(
+            Map<String, ImageSpecification> sourceImages) {
+        Map<String, ImageSpecification> result = new HashMap<>();
+        for (Map.Entry<String, ImageSpecification> entry : sourceImages.entrySet()) {
+            ImageSpecification spec = entry.getValue();
+            RenderedImage image = spec.image;
+            if (spec.nodata != null) {
+                boolean noDataMatch = false;
+                Object noDataProperty = image.getProperty(NoDataContainer.GC_NODATA);
+                if (noDataProperty instanceof NoDataContainer) {
+                    NoDataContainer noData = (NoDataContainer) noDataProperty;
+                    Range range = noData.getAsRange();
+                    noDataMatch = Objects.equals(range, spec.nodata);
+                }
+                if (!noDataMatch) {
+                    PlanarImage pi = PlanarImage.wrapRenderedImage(image);
+                    pi.setProperty(NoDataContainer.GC_NODATA, new NoDataContainer(spec.nodata));
+                    image = pi;
+                }
+            }
+            result.put(
+                    entry.getKey(),
+                    new ImageSpecification(
+                            image, spec.coordinateTransform, spec.bandTransform, spec.nodata));
+        }
+        return result;
     }
 
     private JiffleIndirectRuntime getRuntime(String script,
             Map<String, ImageSpecification> sourceImages,
             String destVarName, Rectangle destBounds) {
         try {
-            Jiffle jiffle = new Jiffle();
-            jiffle.setScript(script);
-
             Map<String, Jiffle.ImageRole> imageParams = new HashMap<>();
             for (String varName : sourceImages.keySet()) {
                 imageParams.put(varName, Jiffle.ImageRole.SOURCE);
             }
             imageParams.put(destVarName, Jiffle.ImageRole.DEST);
 
-            jiffle.setImageParams(imageParams);
-            jiffle.compile();
+            // the same scripts tend to be run over and over, compile them only once
             JiffleIndirectRuntime runtime =
-                    (JiffleIndirectRuntime) jiffle.getRuntimeInstance(Jiffle.RuntimeModel.INDIRECT);
+                    (JiffleIndirectRuntime)
+                            JiffleRuntimeCache.getDefault()
+                                    .getRuntimeInstance(
+                                            script, imageParams, Jiffle.RuntimeModel.INDIRECT);
 
             for (Map.Entry<String, ImageSpecification> entry : sourceImages.entrySet()) {
                 String name = entry.getKey();
                 ImageSpecification spec = entry.getValue();
-                if (spec.nodata != null) {
-                    RenderedImage image = spec.image;
-                    boolean noDataMatch = false;
-                    Object noDataProperty = image.getProperty(NoDataContainer.GC_NODATA);
-                    if (noDataProperty instanceof NoDataContainer) {
-                        NoDataContainer noData = (NoDataContainer) noDataProperty;
-                        Range range = noData.getAsRange();
-                        noDataMatch = Objects.equals(range, spec.nodata);
-                    }
-                    if (!noDataMatch) {
-                        PlanarImage pi = PlanarImage.wrapRenderedImage(image);
-                        pi.setProperty(NoDataContainer.GC_NODATA, new NoDataContainer(spec.nodata));
-                        image = pi;
-                    }
-                    runtime.setSourceImage(name, image, spec.coordinateTransform);
-                } else {
-                    runtime.setSourceImage(name, spec.image, spec.coordinateTransform);
-                }
+                runtime.setSourceImage(name, spec.image, spec.coordinateTransform);
                 if (spec.bandTransform != null) {
                     runtime.setSourceImageBandTransform(name, spec.bandTransform);
                 }
@@ -175,10 +199,18 @@ public class JiffleRIF implements RenderedImageFactory {
         if (pb.getSources() == null || pb.getSources().size() == 0) {
             return JAI.getDefaultTileSize();
         } else {
-            // align to the first input, should reduce the computation cost as the source
-            // tiles are pulled only once
+            // align to the first input tiles, should reduce the computation cost as the source
+            // tiles are pulled only once, while allowing tiles to be computed in parallel
+            RenderedImage ref = (RenderedImage) pb.getSource(0);
+            return new Dimension(ref.getTileWidth(), ref.getTileHeight());
+        }
+    }
+
+    private void setTileGrid(ImageLayout layout, ParameterBlock pb) {
+        if (pb.getSources() != null && pb.getSources().size() > 0) {
             RenderedImage ref = (RenderedImage) pb.getSource(0);
-            return new Dimension(ref.getWidth(), ref.getHeight());
+            layout.setTileGridXOffset(ref.getTileGridXOffset());
+            layout.setTileGridYOffset(ref.getTileGridYOffset());
         }
     }
 
@@ -274,6 +306,8 @@ public class JiffleRIF implements RenderedImageFactory {
         }
 
         ImageLayout layout = new ImageLayout(bounds.x, bounds.y, bounds.width, bounds.height);
+        layout.setTileWidth(tileSize.width);
+        layout.setTileHeight(tileSize.height);
         SampleModel sm =
                 RasterFactory.createPixelInterleavedSampleModel(
                         dataType, tileSize.width, tileSize.height, numBands);
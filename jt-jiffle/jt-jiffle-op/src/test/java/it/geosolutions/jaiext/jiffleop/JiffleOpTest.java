@@ -26,9 +26,16 @@ import it.geosolutions.rendered.viewer.RenderedImageBrowser;
 import org.junit.Test;
 
 import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.media.jai.RenderedOp;
+import javax.media.jai.TiledImage;
 import javax.media.jai.iterator.RandomIter;
 import javax.media.jai.iterator.RandomIterFactory;
 
@@ -115,6 +122,50 @@ public class JiffleOpTest extends TestBase {
         }
     }
 
+    @Test
+    public void testTiledParallel() throws Exception {
+        TiledImage src = ImageUtilities.createConstantImage(0, 0, 100, 100, 16, 16, new Number[] {0d});
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                src.setSample(x, y, 0, x + y * 100);
+            }
+        }
+        RenderedOp op = JiffleDescriptor.create(new RenderedImage[] {src}, null, null,
+                "dest = src * 2;", null, null, null, null, null);
+
+        // the output is tiled like the source
+        assertEquals(src.getTileWidth(), op.getTileWidth());
+        assertEquals(src.getTileHeight(), op.getTileHeight());
+        assertEquals(src.getTileGridXOffset(), op.getTileGridXOffset());
+        assertEquals(src.getTileGridYOffset(), op.getTileGridYOffset());
+        assertEquals(49, op.getNumXTiles() * op.getNumYTiles());
+
+        // and the tiles can be computed concurrently
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Raster>> tiles = new ArrayList<>();
+            for (int ty = op.getMinTileY(); ty <= op.getMaxTileY(); ty++) {
+                for (int tx = op.getMinTileX(); tx <= op.getMaxTileX(); tx++) {
+                    final int tileX = tx;
+                    final int tileY = ty;
+                    tiles.add(executor.submit(() -> op.getTile(tileX, tileY)));
+                }
+            }
+            for (Future<Raster> future : tiles) {
+                Raster tile = future.get();
+                for (int y = tile.getMinY(); y < tile.getMinY() + tile.getHeight(); y++) {
+                    for (int x = tile.getMinX(); x < tile.getMinX() + tile.getWidth(); x++) {
+                        if (x < 100 && y < 100) {
+                            assertEquals((x + y * 100) * 2, tile.getSampleDouble(x, y, 0), 0d);
+                        }
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private void assertCopy(RenderedImage src, RenderedOp op, int dataType) {
         // check it's a copy with the expected values
         assertEquals(src.getMinX(), op.getMinX());
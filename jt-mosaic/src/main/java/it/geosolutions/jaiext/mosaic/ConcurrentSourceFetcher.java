@@ -0,0 +1,217 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches the sources of a tile on an executor, while the calling thread consumes them in order.
+ * <p>
+ * At most <code>parallelism</code> sources are fetched at the same time, and no more than
+ * <code>window</code> sources beyond the one being consumed, so that fetching can stop early when
+ * the caller does not need the remaining sources. The calling thread fetches itself the sources
+ * no worker has started yet, so a busy executor only reduces the parallelism and nested mosaics
+ * cannot deadlock.
+ */
+final class ConcurrentSourceFetcher<T> {
+
+    /**
+     * Loads a source
+     */
+    interface Loader<T> {
+        T load(int index);
+    }
+
+    private static volatile Executor defaultExecutor;
+
+    private final Loader<T> loader;
+
+    private final int count;
+
+    private final int window;
+
+    private final Object[] results;
+
+    private final Throwable[] errors;
+
+    private final CountDownLatch[] done;
+
+    /** Next source to be fetched, guarded by this */
+    private int next;
+
+    /** Source being consumed, guarded by this */
+    private int consumed;
+
+    /** Whether the caller is done, guarded by this */
+    private boolean cancelled;
+
+    ConcurrentSourceFetcher(int count, int parallelism, int window, Executor executor,
+            Loader<T> loader) {
+        this.loader = loader;
+        this.count = count;
+        this.window = Math.max(1, window);
+        this.results = new Object[count];
+        this.errors = new Throwable[count];
+        this.done = new CountDownLatch[count];
+        for (int i = 0; i < count; i++) {
+            done[i] = new CountDownLatch(1);
+        }
+
+        // the calling thread is one of the fetching threads
+        int workers = Math.min(parallelism, count) - 1;
+        Runnable worker = new Runnable() {
+            public void run() {
+                int index;
+                while ((index = claim()) >= 0) {
+                    load(index);
+                }
+            }
+        };
+        try {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(worker);
+            }
+        } catch (RejectedExecutionException e) {
+            // the calling thread will fetch the remaining sources
+        }
+    }
+
+    /**
+     * Returns the index of the next source a worker should fetch, waiting for the caller to
+     * move forward when the window is full, or -1 when there is nothing left to fetch
+     */
+    private synchronized int claim() {
+        while (!cancelled && next < count && next >= consumed + window) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+        return cancelled || next >= count ? -1 : next++;
+    }
+
+    private void load(int index) {
+        try {
+            results[index] = loader.load(index);
+        } catch (Throwable t) {
+            errors[index] = t;
+        } finally {
+            done[index].countDown();
+        }
+    }
+
+    /**
+     * Returns the source with the given index, fetching it in the calling thread if no worker
+     * has started it yet. Sources must be requested in ascending order.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        while (true) {
+            int claimed;
+            synchronized (this) {
+                if (consumed < index) {
+                    consumed = index;
+                    notifyAll();
+                }
+                if (next > index) {
+                    break;
+                }
+                claimed = next++;
+            }
+            load(claimed);
+        }
+
+        // wait for the worker fetching it
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done[index].await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable error = errors[index];
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+        return (T) results[index];
+    }
+
+    /**
+     * Stops fetching the sources not started yet
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        notifyAll();
+    }
+
+    /**
+     * Returns the executor shared by the mosaics not providing their own one: a virtual thread
+     * per task executor when the JVM supports them, a fixed pool of daemon threads otherwise
+     */
+    static Executor getDefaultExecutor() {
+        Executor executor = defaultExecutor;
+        if (executor == null) {
+            synchronized (ConcurrentSourceFetcher.class) {
+                executor = defaultExecutor;
+                if (executor == null) {
+                    executor = createDefaultExecutor();
+                    defaultExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (Exception e) {
+            // virtual threads are not available
+        }
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        return Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "MosaicSourceFetcher-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
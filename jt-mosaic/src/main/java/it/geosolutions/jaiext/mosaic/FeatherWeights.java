@@ -0,0 +1,135 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import java.awt.Rectangle;
+
+/**
+ * Computes the feathering weights of a source over a destination tile. Each valid pixel is
+ * weighted by its chamfer distance from the closest invalid pixel or source edge, capped to the
+ * feather distance, so that the source contribution fades out towards the seams.
+ * <p>
+ * The distances are computed over the tile expanded by the feather distance, as farther invalid
+ * pixels cannot affect the capped distances, which makes the weights of adjacent tiles match.
+ */
+final class FeatherWeights {
+
+    /** Chamfer distance between orthogonal neighbours */
+    private static final int ORTHOGONAL = 3;
+
+    /** Chamfer distance between diagonal neighbours */
+    private static final int DIAGONAL = 4;
+
+    private FeatherWeights() {
+    }
+
+    /**
+     * Returns the source area needed for computing the weights of a tile, that is, the tile
+     * expanded by the feather distance and clipped to the source bounds
+     */
+    static Rectangle getSourceArea(Rectangle tile, Rectangle sourceBounds, int distance) {
+        Rectangle area = new Rectangle(tile);
+        area.grow(distance, distance);
+        return area.intersection(sourceBounds);
+    }
+
+    /**
+     * Computes the weights of the source pixels over the tile.
+     * 
+     * @param tile the destination tile
+     * @param area the source area, as returned by {@link #getSourceArea}
+     * @param distance the feather distance
+     * @param reader the reader of the valid pixels over the source area
+     * @return the weights, in row order over the tile, between 0 (excluded) and 1 for the valid
+     *         pixels, 0 for the other ones
+     */
+    static float[] compute(Rectangle tile, Rectangle area, int distance, ValidPixelReader reader) {
+        final int minX = tile.x - distance;
+        final int minY = tile.y - distance;
+        final int width = tile.width + 2 * distance;
+        final int height = tile.height + 2 * distance;
+        final int maxDistance = distance * ORTHOGONAL;
+
+        // the pixels outside the source area are out of the source bounds, hence invalid
+        final int[] distances = new int[width * height];
+        final boolean[] valid = new boolean[area.width];
+        for (int y = area.y; y < area.y + area.height; y++) {
+            reader.read(area.x, y, area.width, valid);
+            final int offset = (y - minY) * width + area.x - minX;
+            for (int i = 0; i < area.width; i++) {
+                if (valid[i]) {
+                    distances[offset + i] = maxDistance;
+                }
+            }
+        }
+
+        // forward pass, from the top left neighbours
+        for (int y = 0; y < height; y++) {
+            for (int x = 0, index = y * width; x < width; x++, index++) {
+                int d = distances[index];
+                if (d == 0) {
+                    continue;
+                }
+                if (x > 0) {
+                    d = Math.min(d, distances[index - 1] + ORTHOGONAL);
+                }
+                if (y > 0) {
+                    d = Math.min(d, distances[index - width] + ORTHOGONAL);
+                    if (x > 0) {
+                        d = Math.min(d, distances[index - width - 1] + DIAGONAL);
+                    }
+                    if (x < width - 1) {
+                        d = Math.min(d, distances[index - width + 1] + DIAGONAL);
+                    }
+                }
+                distances[index] = d;
+            }
+        }
+        // backward pass, from the bottom right neighbours
+        for (int y = height - 1; y >= 0; y--) {
+            for (int x = width - 1, index = y * width + x; x >= 0; x--, index--) {
+                int d = distances[index];
+                if (d == 0) {
+                    continue;
+                }
+                if (x < width - 1) {
+                    d = Math.min(d, distances[index + 1] + ORTHOGONAL);
+                }
+                if (y < height - 1) {
+                    d = Math.min(d, distances[index + width] + ORTHOGONAL);
+                    if (x < width - 1) {
+                        d = Math.min(d, distances[index + width + 1] + DIAGONAL);
+                    }
+                    if (x > 0) {
+                        d = Math.min(d, distances[index + width - 1] + DIAGONAL);
+                    }
+                }
+                distances[index] = d;
+            }
+        }
+
+        final float[] weights = new float[tile.width * tile.height];
+        for (int y = 0, k = 0; y < tile.height; y++) {
+            final int offset = (y + distance) * width + distance;
+            for (int x = 0; x < tile.width; x++) {
+                weights[k++] = (float) distances[offset + x] / maxDistance;
+            }
+        }
+        return weights;
+    }
+}
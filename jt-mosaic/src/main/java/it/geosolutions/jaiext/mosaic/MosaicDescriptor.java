@@ -23,6 +23,7 @@ import java.awt.RenderingHints;
 import java.awt.image.RenderedImage;
 import java.awt.image.renderable.ParameterBlock;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import javax.media.jai.JAI;
 import javax.media.jai.OperationDescriptorImpl;
@@ -76,6 +77,11 @@ import javax.media.jai.registry.RenderedRegistryMode;
  * 
  * </ul>
  * <p>
+ * In blend mode the {@link BlendType} tells how the valid source pixels are combined: a weighted
+ * average (the default), a weighted average fading out towards the seams of each source, or the
+ * maximum or minimum value.
+ * </p>
+ * <p>
  * The operation parameters are:
  * <ul>
  * <li>A Java Bean used for storing image data, ROI and alpha channel if
@@ -83,6 +89,7 @@ import javax.media.jai.registry.RenderedRegistryMode;
  * <li>The type of operation executed(Overlay or Blend) .</li>
  * <li>The destination no data value used if all the pixel source in the same
  * location are no data.</li>
+ * <li>The blend type and the feather distance, used in blend mode.</li>
  * </ul>
  * </p>
  * <p>
@@ -104,6 +111,46 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
     /** serialVersionUID */
     private static final long serialVersionUID = 2718297230579888333L;
 
+    /** Default distance, in pixels, over which the {@link BlendType#FEATHER} weights fade out */
+    public static final int DEFAULT_FEATHER_DISTANCE = 32;
+
+    /**
+     * System property setting the default number of sources fetched concurrently by each tile
+     * computation. Values up to 1, the default, fetch them sequentially.
+     */
+    public static final String SOURCE_FETCH_PARALLELISM_PROPERTY = "it.geosolutions.jaiext.mosaic.fetchParallelism";
+
+    /**
+     * Rendering hint, an {@link Integer}, setting the number of sources fetched concurrently by
+     * each tile computation, overriding the {@link #SOURCE_FETCH_PARALLELISM_PROPERTY} default.
+     */
+    public static final RenderingHints.Key KEY_SOURCE_FETCH_PARALLELISM = new HintKey(0,
+            Integer.class);
+
+    /**
+     * Rendering hint, an {@link Executor}, running the concurrent source fetches. When missing,
+     * an executor shared by all the mosaics is used, based on virtual threads if available.
+     */
+    public static final RenderingHints.Key KEY_SOURCE_FETCH_EXECUTOR = new HintKey(1,
+            Executor.class);
+
+    /**
+     * The ways the valid source pixels are combined in blend mode
+     */
+    public enum BlendType {
+        /** Average of the source values, weighted by their alpha */
+        AVERAGE,
+        /**
+         * Average of the source values, weighted by their alpha and by their distance from the
+         * source edges, nodata and areas outside the ROI, up to the feather distance
+         */
+        FEATHER,
+        /** Maximum of the source values */
+        MAX,
+        /** Minimum of the source values */
+        MIN
+    }
+
     /**
      * The resource strings that indicates the global name, local name, vendor, 
      * a simple operation description, the documentation URL, the version
@@ -123,7 +170,9 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
             { "arg2Desc", "The source ROIs" },
             { "arg3Desc", "Thresholds used for the mosaic" },
             { "arg4Desc", "Background values" },
-            { "arg5Desc", "No data  Values" }
+            { "arg5Desc", "No data  Values" },
+            { "arg6Desc", "Blend type used in blend mode" },
+            { "arg7Desc", "Feather distance in pixels" }
             };
 
     /** The parameter class. Used for the constructor. */
@@ -134,6 +183,8 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
         double[][].class,
         double[].class,
         it.geosolutions.jaiext.range.Range[].class,
+        BlendType.class,
+        Integer.class
     };
 
     /** The parameter name list. Used for the constructor. */
@@ -143,7 +194,9 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
         "sourceROI",
         "sourceThreshold",
         "backgroundValues",
-        "nodata"
+        "nodata",
+        "blendType",
+        "featherDistance"
     };
 
     /** The parameter values. Used for the constructor. */
@@ -153,7 +206,27 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
         null,
         new double[][] {{1.0}},
         new double[] {0.0},
-        null };
+        null,
+        BlendType.AVERAGE,
+        DEFAULT_FEATHER_DISTANCE };
+
+    /**
+     * Rendering hint key accepting the values of a given type
+     */
+    private static final class HintKey extends RenderingHints.Key {
+
+        private final Class<?> type;
+
+        HintKey(int key, Class<?> type) {
+            super(key);
+            this.type = type;
+        }
+
+        @Override
+        public boolean isCompatibleValue(Object value) {
+            return type.isInstance(value);
+        }
+    }
 
     /** Constructor. */
     public MosaicDescriptor() {
@@ -191,6 +264,40 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
             double[] backgroundValues,
             Range[] nodata,
             RenderingHints renderingHints) {
+        return create(sources, mosaicType, sourceAlpha, sourceROI, sourceThreshold,
+                backgroundValues, nodata, BlendType.AVERAGE, DEFAULT_FEATHER_DISTANCE,
+                renderingHints);
+    }
+
+    /**
+     * RenderedOp creation method that also takes the blend type and the feather distance used
+     * in blend mode.
+     * 
+     * @param sources The RenderdImage source array used for the operation.
+     * @param mosaicType This field sets which type of mosaic operation must be
+     *        executed.
+     * @param sourceAlpha source alpha bands
+     * @param sourceROI source ROI
+     * @param sourceThreshold source thresholds
+     * @param backgroundValues This value fills the image pixels that contain no
+     *        data.
+     * @param nodata array of NoData {@link Range} used for checking nodata values
+     * @param blendType how the valid source pixels are combined in blend mode
+     * @param featherDistance distance in pixels over which the {@link BlendType#FEATHER}
+     *        weights fade out
+     * @param renderingHints This value sets the rendering hints for the operation.
+     * @return A RenderedOp that performs the mosaic operation with no data support.
+     */
+    public static RenderedOp create(RenderedImage[] sources,
+            MosaicType mosaicType,
+            PlanarImage[] sourceAlpha,
+            ROI[] sourceROI,
+            double[][] sourceThreshold,
+            double[] backgroundValues,
+            Range[] nodata,
+            BlendType blendType,
+            int featherDistance,
+            RenderingHints renderingHints) {
         ParameterBlockJAI pb = new ParameterBlockJAI("Mosaic", RenderedRegistryMode.MODE_NAME);
 
         // All the source images are added to the parameter block.
@@ -205,6 +312,8 @@ public class MosaicDescriptor extends OperationDescriptorImpl {
         pb.setParameter("sourceThreshold", sourceThreshold);
         pb.setParameter("backgroundValues", backgroundValues);
         pb.setParameter("nodata", nodata);
+        pb.setParameter("blendType", blendType);
+        pb.setParameter("featherDistance", featherDistance);
         // JAI operation performed.
         return JAI.create("Mosaic", pb, renderingHints);
     }
@@ -37,6 +37,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.Executor;
 
 import javax.media.jai.BorderExtender;
 import javax.media.jai.BorderExtenderConstant;
@@ -49,11 +50,15 @@ import javax.media.jai.ROI;
 import javax.media.jai.RasterAccessor;
 import javax.media.jai.RasterFormatTag;
 import javax.media.jai.RenderedOp;
+import javax.media.jai.TileCache;
 import javax.media.jai.operator.MosaicDescriptor;
 import javax.media.jai.operator.MosaicType;
 
+import it.geosolutions.concurrent.SingleFlightTileCache;
+import it.geosolutions.concurrent.TileLoader;
 import it.geosolutions.jaiext.lookup.LookupTable;
 import it.geosolutions.jaiext.lookup.LookupTableFactory;
+import it.geosolutions.jaiext.mosaic.MosaicDescriptor.BlendType;
 import it.geosolutions.jaiext.mosaic.PixelIterator.PixelIteratorByte;
 import it.geosolutions.jaiext.mosaic.PixelIterator.PixelIteratorDouble;
 import it.geosolutions.jaiext.mosaic.PixelIterator.PixelIteratorFloat;
@@ -62,6 +67,9 @@ import it.geosolutions.jaiext.mosaic.PixelIterator.PixelIteratorShort;
 import it.geosolutions.jaiext.range.Range;
 import it.geosolutions.jaiext.range.RangeFactory;
 
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+
 /**
  * This class takes an array of <code>RenderedImage</code> and creates a mosaic of them. If the
  * image pixels are No Data values, they are not calculated and the MosaicOpimage searches for the
@@ -85,6 +93,18 @@ public class MosaicOpImage extends OpImage {
     /** mosaic type selected */
     private final MosaicType mosaicTypeSelected;
 
+    /** How the valid source pixels are combined in blend mode */
+    private final BlendType blendType;
+
+    /** Distance in pixels over which the feathering weights fade out */
+    private final int featherDistance;
+
+    /** Boolean indicating if the blend uses the feathering weights */
+    private final boolean featherBlend;
+
+    /** Boolean indicating if the blend takes the maximum or minimum value */
+    private final boolean extremumBlend;
+
     /** Number of bands for every image */
     private final int numBands;
 
@@ -150,9 +170,25 @@ public class MosaicOpImage extends OpImage {
      */
     private final boolean[][][] byteLookupTable;
 
+    /** Spatial index of the source bounds, used for finding the sources intersecting a tile */
+    private final STRtree sourceIndex;
+
     /** The format tag for the destination image */
     private final RasterFormatTag rasterFormatTag;
 
+    /** Number of sources fetched concurrently by each tile computation */
+    private final int fetchParallelism;
+
+    /** Executor running the concurrent source fetches, null for the shared one */
+    private final Executor fetchExecutor;
+
+    /** Computes the tiles missing from a {@link SingleFlightTileCache} */
+    private final TileLoader tileLoader = new TileLoader() {
+        public Raster loadTile(RenderedImage owner, int tileX, int tileY) {
+            return computeTile(tileX, tileY);
+        }
+    };
+
     /** Enumerator for the type of mosaic weigher */
     public enum WeightType {
         WEIGHT_TYPE_ALPHA, WEIGHT_TYPE_ROI, WEIGHT_TYPE_NODATA;
@@ -454,6 +490,18 @@ public class MosaicOpImage extends OpImage {
     public MosaicOpImage(List sources, ImageLayout layout, Map renderingHints,
             MosaicType mosaicTypeSelected, PlanarImage[] alphaImgs, ROI[] rois,
             double[][] thresholds, double[] destinationNoData, Range[] noDatas) {
+        this(sources, layout, renderingHints, mosaicTypeSelected, alphaImgs, rois, thresholds,
+                destinationNoData, noDatas, BlendType.AVERAGE,
+                it.geosolutions.jaiext.mosaic.MosaicDescriptor.DEFAULT_FEATHER_DISTANCE);
+    }
+
+    /**
+     * This constructor also takes the blend type and the feather distance used in blend mode.
+     */
+    public MosaicOpImage(List sources, ImageLayout layout, Map renderingHints,
+            MosaicType mosaicTypeSelected, PlanarImage[] alphaImgs, ROI[] rois,
+            double[][] thresholds, double[] destinationNoData, Range[] noDatas,
+            BlendType blendType, int featherDistance) {
         // OpImage constructor
         super((Vector) sources, checkLayout(sources, layout, noDatas), renderingHints, true);
 
@@ -461,6 +509,26 @@ public class MosaicOpImage extends OpImage {
         this.numBands = sampleModel.getNumBands();
         int numSources = getNumSources();
         this.mosaicTypeSelected = mosaicTypeSelected;
+        this.blendType = blendType != null ? blendType : BlendType.AVERAGE;
+        if (this.blendType == BlendType.FEATHER && featherDistance < 1) {
+            throw new IllegalArgumentException("Feather distance must be positive");
+        }
+        this.featherDistance = featherDistance;
+        boolean blend = mosaicTypeSelected == MosaicDescriptor.MOSAIC_TYPE_BLEND;
+        this.featherBlend = blend && this.blendType == BlendType.FEATHER;
+        this.extremumBlend = blend
+                && (this.blendType == BlendType.MAX || this.blendType == BlendType.MIN);
+        Object parallelism = renderingHints != null ? renderingHints
+                .get(it.geosolutions.jaiext.mosaic.MosaicDescriptor.KEY_SOURCE_FETCH_PARALLELISM)
+                : null;
+        this.fetchParallelism = parallelism instanceof Integer ? (Integer) parallelism
+                : Integer.getInteger(
+                        it.geosolutions.jaiext.mosaic.MosaicDescriptor.SOURCE_FETCH_PARALLELISM_PROPERTY,
+                        1);
+        Object executor = renderingHints != null ? renderingHints
+                .get(it.geosolutions.jaiext.mosaic.MosaicDescriptor.KEY_SOURCE_FETCH_EXECUTOR)
+                : null;
+        this.fetchExecutor = executor instanceof Executor ? (Executor) executor : null;
         this.roiPresent = false;
         this.alphaPresent = false;
 
@@ -626,6 +694,13 @@ public class MosaicOpImage extends OpImage {
             imageBeans[i] = new ImageMosaicBean();
         }
 
+        // Index the source bounds, so that each tile only visits the intersecting sources
+        sourceIndex = new STRtree();
+        for (int i = 0; i < numSources; i++) {
+            sourceIndex.insert(toEnvelope(getSourceImage(i).getBounds()), i);
+        }
+        sourceIndex.build();
+
         // This cycle is used for checking if every alpha channel is single banded
         // and has the same sample model of the source images.
         RasterFormatTag[] tags = getRasterFormatTags();
@@ -797,19 +872,50 @@ public class MosaicOpImage extends OpImage {
         return RasterAccessorExt.findCompatibleTags(sources, this);
     }
 
+    /**
+     * Returns the selected tile. When the tile cache is a {@link SingleFlightTileCache}, the threads
+     * asking for the same missing tile at the same time wait for a single computation of it. As in
+     * {@link OpImage#getTile(int, int)}, the tile is cached with the tile cache metric, and computed
+     * again after flushing the cache if running out of memory.
+     */
+    @Override
+    public Raster getTile(int tileX, int tileY) {
+        TileCache cache = getTileCache();
+        if (!(cache instanceof SingleFlightTileCache) || tileX < getMinTileX()
+                || tileX > getMaxTileX() || tileY < getMinTileY() || tileY > getMaxTileY()) {
+            return super.getTile(tileX, tileY);
+        }
+        SingleFlightTileCache singleFlight = (SingleFlightTileCache) cache;
+        try {
+            return singleFlight.computeIfAbsent(this, tileX, tileY, tileLoader, tileCacheMetric);
+        } catch (OutOfMemoryError e) {
+            cache.flush();
+            System.gc();
+            return singleFlight.computeIfAbsent(this, tileX, tileY, tileLoader, tileCacheMetric);
+        }
+    }
+
     /**
      * This method overrides the OpImage compute tile method and calculates the mosaic operation for
      * the selected tile.
      */
     public Raster computeTile(int tileX, int tileY) {
+        // This method calculates the tile active area.
+        Rectangle destRectangle = getTileRect(tileX, tileY);
+        // Stores the indexes of the sources intersecting the tile, in priority order
+        int[] intersectingSources = getIntersectingSources(destRectangle);
+        int numSources = intersectingSources.length;
+
+        // A tile made of the pixels of a single source is returned without copying them
+        Raster passThrough = getPassThroughTile(intersectingSources, destRectangle);
+        if (passThrough != null) {
+            return passThrough;
+        }
+
         // The destination raster is created as WritableRaster
         WritableRaster destRaster = createWritableRaster(sampleModel,
                 new Point(tileXToX(tileX), tileYToY(tileY)));
 
-        // This method calculates the tile active area.
-        Rectangle destRectangle = getTileRect(tileX, tileY);
-        // Stores the source image number
-        int numSources = getNumSources();
         // Initialization of a new RasterBean for passing all the raster information
         // to the compute rect method
         Raster[] sourceRasters = new Raster[numSources];
@@ -820,54 +926,97 @@ public class MosaicOpImage extends OpImage {
         Raster[] roiRasters = new Raster[numSources];
         Range[] noDataRanges = new Range[numSources];
         ColorModel[] alphaChannelColorModels = new ColorModel[numSources];
+        float[][] featherWeights = featherBlend ? new float[numSources][] : null;
+        int[] sourceIndexes = new int[numSources];
         // The previous array is filled with the source raster data
         int intersectingSourceCount = 0;
+        // In overlay mode the sources are fetched in order until the tile is fully covered,
+        // as the following ones would not contribute any pixel
+        TileCoverage coverage = mosaicTypeSelected == MosaicDescriptor.MOSAIC_TYPE_OVERLAY
+                ? new TileCoverage(destRectangle) : null;
+
+        // The sources data may be fetched concurrently, while they are consumed in order
+        ConcurrentSourceFetcher<FetchedSource> fetcher = null;
+        if (fetchParallelism > 1 && numSources > 1) {
+            final int[] fetchedSources = intersectingSources;
+            final Rectangle fetchedRectangle = destRectangle;
+            // in overlay mode fetching does not run too far ahead of the covered sources
+            int window = coverage != null ? fetchParallelism : numSources;
+            fetcher = new ConcurrentSourceFetcher<FetchedSource>(numSources, fetchParallelism,
+                    window, fetchExecutor != null ? fetchExecutor
+                            : ConcurrentSourceFetcher.getDefaultExecutor(),
+                    new ConcurrentSourceFetcher.Loader<FetchedSource>() {
+                        public FetchedSource load(int index) {
+                            return fetchSource(fetchedSources[index], fetchedRectangle);
+                        }
+                    });
+        }
+
+        try {
+            for (int k = 0; k < numSources; k++) {
+                int i = intersectingSources[k];
+                FetchedSource fetched = fetcher != null ? fetcher.get(k) : fetchSource(i,
+                        destRectangle);
+                Rectangle srcRect = fetched.srcRect;
+                Rectangle sourceArea = fetched.sourceArea;
+                Raster sourceData = fetched.sourceData;
+                Raster data = crop(sourceData, srcRect);
+                // Raster bean initialization
+                // If the data are present then we can check if Alpha and ROI are present
+                if (data != null) {
+                    sourceRasters[intersectingSourceCount] = data;
+                    sourceIndexes[intersectingSourceCount] = i;
+                    sourceRectangles[intersectingSourceCount] = srcRect != null && !srcRect.equals(destRectangle) ? srcRect : null;
+                    sourceTags[intersectingSourceCount] = imageBeans[i].getRasterFormatTag();
+                    sourceColorModels[intersectingSourceCount] = imageBeans[i].getColorModel();
+                    noDataRanges[intersectingSourceCount] = imageBeans[i].getSourceNoData();
+
+                    // Alpha data from the padded alpha image if present
+                    Raster alphaData = fetched.alphaData;
+                    if (alphaData != null) {
+                        alphaRasters[intersectingSourceCount] = crop(alphaData, srcRect);
+                        alphaChannelColorModels[intersectingSourceCount] = imageBeans[i].getAlphaChannel().getColorModel();
+                    }
 
-        for (int i = 0; i < numSources; i++) {
-            PlanarImage source = getSourceImage(i);
-            Rectangle srcRect = mapDestRect(destRectangle, i);
-            Raster data = null;
-            // First, check if the source mapped rectangle is not empty
-            if (!(srcRect != null && srcRect.isEmpty())) {
-                // Get the source data from the source or the padded image.
-                data = source.getData(srcRect);   
-            }
-            // Raster bean initialization
-            // If the data are present then we can check if Alpha and ROI are present
-            if (data != null) {
-                sourceRasters[intersectingSourceCount] = data;
-                sourceRectangles[intersectingSourceCount] = srcRect != null && !srcRect.equals(destRectangle) ? srcRect : null;
-                sourceTags[intersectingSourceCount] = imageBeans[i].getRasterFormatTag();
-                sourceColorModels[intersectingSourceCount] = imageBeans[i].getColorModel();
-                noDataRanges[intersectingSourceCount] = imageBeans[i].getSourceNoData();
-
-                // Get the Alpha data from the padded alpha image if present
-                PlanarImage alpha = imageBeans[i].getAlphaChannel();
-                if (alphaPresent && alpha != null) {
-                    alphaRasters[intersectingSourceCount] = alpha.getData(srcRect);
-                    alphaChannelColorModels[intersectingSourceCount] = imageBeans[i].getAlphaChannel().getColorModel();
-                }
+                    // ROI data from the padded ROI image if present
+                    roiRasters[intersectingSourceCount] = fetched.roiData;
 
-                // Get the ROI data from the padded ROI image if present
-                RenderedImage roi = imageBeans[i].getRoiImage();
-                if (roiPresent && roi != null) {
-                    roiRasters[intersectingSourceCount] =  PlanarImage.wrapRenderedImage(roi).getExtendedData(destRectangle, zeroBorderExtender);
-                }
+                    if (featherWeights != null) {
+                        featherWeights[intersectingSourceCount] = computeFeatherWeights(i,
+                                sourceData, alphaData, destRectangle, sourceArea);
+                    }
+
+                    if (coverage != null && srcRect != null && isCoverageSupported(i, data)) {
+                        coverage.add(data, srcRect, alphaRasters[intersectingSourceCount],
+                                roiRasters[intersectingSourceCount],
+                                noDataRanges[intersectingSourceCount],
+                                byteLookupTable[i]);
+                    }
                 
-                intersectingSourceCount++;
-            }
+                    intersectingSourceCount++;
+
+                    if (coverage != null && coverage.isCovered()) {
+                        break;
+                    }
+                }
 
+            }
+        } finally {
+            if (fetcher != null) {
+                fetcher.cancel();
+            }
         }
         
         // For the given source destination rasters, the mosaic is calculated
-        computeRect(sourceRasters, sourceRectangles, sourceTags, sourceColorModels, destRaster, destRectangle,
-                alphaRasters, roiRasters, noDataRanges, alphaChannelColorModels, intersectingSourceCount);
+        computeRect(sourceRasters, sourceIndexes, sourceRectangles, sourceTags, sourceColorModels, destRaster,
+                destRectangle, alphaRasters, roiRasters, noDataRanges, alphaChannelColorModels, featherWeights,
+                intersectingSourceCount);
 
         // Tile recycling if the Recycle is present
-        for (int i = 0; i < numSources; i++) {
+        for (int i = 0; i < intersectingSourceCount; i++) {
             Raster sourceData = sourceRasters[i];
             if (sourceData != null) {
-                PlanarImage source = getSourceImage(i);
+                PlanarImage source = getSourceImage(sourceIndexes[i]);
 
                 if (source.overlapsMultipleTiles(sourceData.getBounds())) {
                     recycleTile(sourceData);
@@ -879,9 +1028,199 @@ public class MosaicOpImage extends OpImage {
 
     }
 
-    private void computeRect(Raster[] sourceRasters, Rectangle[] sourceRectangles, RasterFormatTag[] rasterFormatTags,
+    /**
+     * Fetches the data of a source, and of its alpha channel and ROI, needed for computing the
+     * destination tile. The data is null when the source does not intersect the tile.
+     */
+    private FetchedSource fetchSource(int sourceIndex, Rectangle destRectangle) {
+        FetchedSource fetched = new FetchedSource();
+        PlanarImage source = getSourceImage(sourceIndex);
+        Rectangle srcRect = mapDestRect(destRectangle, sourceIndex);
+        fetched.srcRect = srcRect;
+        // Feathering also needs the source pixels around the tile
+        Rectangle sourceArea = featherBlend && srcRect != null ? FeatherWeights.getSourceArea(
+                destRectangle, source.getBounds(), featherDistance) : srcRect;
+        fetched.sourceArea = sourceArea;
+        // First, check if the source mapped rectangle is not empty
+        if (srcRect != null && srcRect.isEmpty()) {
+            return fetched;
+        }
+        // Get the source data from the source or the padded image.
+        fetched.sourceData = getData(source, sourceArea);
+
+        PlanarImage alpha = imageBeans[sourceIndex].getAlphaChannel();
+        if (alphaPresent && alpha != null) {
+            fetched.alphaData = getData(alpha, sourceArea);
+        }
+        RenderedImage roi = imageBeans[sourceIndex].getRoiImage();
+        if (roiPresent && roi != null) {
+            fetched.roiData = PlanarImage.wrapRenderedImage(roi).getExtendedData(destRectangle,
+                    zeroBorderExtender);
+        }
+        return fetched;
+    }
+
+    /**
+     * Returns the source data for the tile when it's entirely made of the pixels of a single
+     * source, that is, a source without nodata, ROI and alpha covering the whole tile, which is
+     * either the first one in overlay mode or the only one contributing to the tile. Returns null
+     * if the tile has to be computed or if the source data cannot be returned as is.
+     */
+    private Raster getPassThroughTile(int[] intersectingSources, Rectangle destRectangle) {
+        if (destRectangle.width != tileWidth || destRectangle.height != tileHeight) {
+            return null;
+        }
+        int candidate = -1;
+        for (int i : intersectingSources) {
+            Rectangle srcRect = mapDestRect(destRectangle, i);
+            if (srcRect.isEmpty()) {
+                continue;
+            }
+            if (candidate >= 0 || !srcRect.equals(destRectangle)) {
+                return null;
+            }
+            candidate = i;
+            if (mosaicTypeSelected == MosaicDescriptor.MOSAIC_TYPE_OVERLAY) {
+                break;
+            }
+        }
+        if (candidate < 0) {
+            return null;
+        }
+        ImageMosaicBean bean = imageBeans[candidate];
+        if (bean.getAlphaChannel() != null || bean.getRoiImage() != null
+                || bean.getSourceNoData() != null) {
+            return null;
+        }
+
+        // the source tile layout must match the destination one
+        Raster data = getSingleTileData(getSourceImage(candidate), destRectangle);
+        if (data == null || !isCoverageSupported(candidate, data)
+                || !data.getSampleModel()
+                        .createCompatibleSampleModel(sampleModel.getWidth(),
+                                sampleModel.getHeight())
+                        .equals(sampleModel)) {
+            return null;
+        }
+        return data;
+    }
+
+    /**
+     * Returns the image data inside the rectangle, avoiding the copy when the rectangle falls
+     * inside a single tile
+     */
+    private static Raster getData(PlanarImage image, Rectangle rect) {
+        Raster data = getSingleTileData(image, rect);
+        return data != null ? data : image.getData(rect);
+    }
+
+    /**
+     * Returns the part of the raster inside the rectangle, without copying the data
+     */
+    private static Raster crop(Raster data, Rectangle rect) {
+        if (data == null || rect == null || data.getBounds().equals(rect)) {
+            return data;
+        }
+        return data.createChild(rect.x, rect.y, rect.width, rect.height, rect.x, rect.y, null);
+    }
+
+    /**
+     * Computes the feathering weights of a source over the destination tile.
+     * 
+     * @param sourceIndex the source index
+     * @param data the source data over the source area
+     * @param alpha the alpha data over the source area, or null
+     * @param destRectangle the destination tile
+     * @param sourceArea the source area used for computing the weights
+     */
+    private float[] computeFeatherWeights(int sourceIndex, Raster data, Raster alpha,
+            Rectangle destRectangle, Rectangle sourceArea) {
+        ImageMosaicBean bean = imageBeans[sourceIndex];
+        Raster roi = null;
+        RenderedImage roiImage = bean.getRoiImage();
+        if (alpha == null && roiPresent && roiImage != null) {
+            roi = PlanarImage.wrapRenderedImage(roiImage).getExtendedData(sourceArea,
+                    zeroBorderExtender);
+        }
+        // nodata is checked on the raw samples, only doable when they are not converted
+        Range noData = isCoverageSupported(sourceIndex, data) ? bean.getSourceNoData() : null;
+        ValidPixelReader reader = new ValidPixelReader(data, alpha, roi, noData,
+                byteLookupTable[sourceIndex], sourceArea.width);
+        return FeatherWeights.compute(destRectangle, sourceArea, featherDistance, reader);
+    }
+
+    /**
+     * Adds a source value to the maximum or minimum of a band, when its weight is positive
+     */
+    private void accumulateExtremum(double[] extremum, double[] weights, int band, double value,
+            double weight) {
+        if (weight > 0) {
+            if (weights[band] == 0 || (blendType == BlendType.MAX ? value > extremum[band]
+                    : value < extremum[band])) {
+                extremum[band] = value;
+            }
+            weights[band] += weight;
+        }
+    }
+
+    /**
+     * Returns the blended value of a band, given the accumulated numerator and denominator
+     */
+    private double blendedValue(double[] numerator, double[] denominator, int band) {
+        return extremumBlend ? numerator[band] : numerator[band] / denominator[band];
+    }
+
+    /**
+     * Returns the image tile, or a child of it, covering the rectangle. Returns null if the
+     * rectangle spans multiple tiles.
+     */
+    private static Raster getSingleTileData(PlanarImage image, Rectangle rect) {
+        int tileX = image.XToTileX(rect.x);
+        int tileY = image.YToTileY(rect.y);
+        if (tileX != image.XToTileX(rect.x + rect.width - 1)
+                || tileY != image.YToTileY(rect.y + rect.height - 1)) {
+            return null;
+        }
+        Raster tile = image.getTile(tileX, tileY);
+        if (tile == null || tile.getBounds().equals(rect)) {
+            return tile;
+        }
+        return tile.createChild(rect.x, rect.y, rect.width, rect.height, rect.x, rect.y, null);
+    }
+
+    /**
+     * Returns the indexes of the sources whose bounds intersect the provided rectangle, sorted
+     * in ascending order
+     */
+    private int[] getIntersectingSources(Rectangle rect) {
+        List<?> hits = sourceIndex.query(toEnvelope(rect));
+        int[] indexes = new int[hits.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = (Integer) hits.get(i);
+        }
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    private static Envelope toEnvelope(Rectangle rect) {
+        return new Envelope(rect.getMinX(), rect.getMaxX(), rect.getMinY(), rect.getMaxY());
+    }
+
+    /**
+     * Tells if the source data can be used for tracking the overlay coverage, that is, if the
+     * source values are not going to be expanded or converted when copied to the destination
+     */
+    private boolean isCoverageSupported(int sourceIndex, Raster data) {
+        SampleModel sm = data.getSampleModel();
+        return sm.getDataType() == sampleModel.getDataType() && sm.getNumBands() == numBands
+                && !RasterAccessorExt.isPaletteExpansionRequired(getSourceImage(sourceIndex),
+                        imageBeans[sourceIndex].getRasterFormatTag().getFormatTagID());
+    }
+
+    private void computeRect(Raster[] sourceRasters, int[] sourceIndexes, Rectangle[] sourceRectangles, RasterFormatTag[] rasterFormatTags,
             ColorModel[] sourceColorModels, WritableRaster destRaster, Rectangle destRectangle,
-            Raster[] alphaRasters, Raster[] roiRasters, Range[] noDataRanges, ColorModel[] alphaChannelColorModels, int sourcesNumber) {
+            Raster[] alphaRasters, Raster[] roiRasters, Range[] noDataRanges, ColorModel[] alphaChannelColorModels,
+            float[][] featherWeights, int sourcesNumber) {
         // if all null, just return a constant image
         if (sourcesNumber == 0) {
             ImageUtil.fillBackground(destRaster, destRectangle, destinationNoDataDouble);
@@ -919,13 +1258,16 @@ public class MosaicOpImage extends OpImage {
 
             helpAccessor.setRoiRaster(roiRasters[i]);
             helpAccessor.setSourceNoDataRange(noDataRanges[i]);
+            if (featherWeights != null) {
+                helpAccessor.setFeatherWeights(featherWeights[i]);
+            }
 
             sourceAccessorsArrayBean[i] = helpAccessor;
         }
 
         switch (destinationDataType) {
         case DataBuffer.TYPE_BYTE:
-            byteLoop(sourceAccessorsArrayBean, destinationAccessor, destRectangle);
+            byteLoop(sourceAccessorsArrayBean, sourceIndexes, destinationAccessor, destRectangle);
             break;
         case DataBuffer.TYPE_USHORT:
             ushortLoop(sourceAccessorsArrayBean, destinationAccessor, destRectangle);
@@ -948,7 +1290,8 @@ public class MosaicOpImage extends OpImage {
 
     }
 
-    private void byteLoop(final RasterBeanAccessor[] srcBeans, final RasterAccessor dst, final Rectangle destBounds) {
+    private void byteLoop(final RasterBeanAccessor[] srcBeans, final int[] sourceIndexes, final RasterAccessor dst,
+            final Rectangle destBounds) {
         // Stores the source number
         final int sourcesNumber = srcBeans.length;
 
@@ -1067,7 +1410,7 @@ public class MosaicOpImage extends OpImage {
                         byte[] pixel = srcReader.read();
                         for (int b = 0; b < dstBands; b++) {
                             byte value = pixel[b];
-                            if (!setDestinationFlag && byteLookupTable[s][b][value & 0xFF]) {
+                            if (!setDestinationFlag && byteLookupTable[sourceIndexes[s]][b][value & 0xFF]) {
                                 setDestinationFlag = true;
                             }
                         }
@@ -1130,7 +1473,7 @@ public class MosaicOpImage extends OpImage {
                         // is set to 1 or 0 if the pixel has or not a No Data value
                         if (srcBeans[s].getSourceNoDataRange()!=null) {
                             for (int b = 0; b < dstBands; b++) {
-                                if (!byteLookupTable[s][b][pixel[b] & 0xFF]) {
+                                if (!byteLookupTable[sourceIndexes[s]][b][pixel[b] & 0xFF]) {
                                     dataCount--;
                                 }
                             }
@@ -1160,11 +1503,22 @@ public class MosaicOpImage extends OpImage {
                                 weight = 1.0F;
                             }
                         }
+                        // Feathering fades out the source contribution towards its seams
+                        final float[] feather = srcBeans[s].getFeatherWeights();
+                        if (feather != null) {
+                            weight *= feather[(dstY - dstMinY) * dstWidth + dstX - dstMinX];
+                        }
                         // The above calculated weight are added to the
                         // numerator and denominator
-                        for (int b = 0; b < dstBands; b++) {
-                            numerator[b] += (weight * (pixel[b] & 0xff));
-                            denominator[b] += weight;
+                        if (extremumBlend) {
+                            for (int b = 0; b < dstBands; b++) {
+                                accumulateExtremum(numerator, denominator, b, pixel[b] & 0xff, weight);
+                            }
+                        } else {
+                            for (int b = 0; b < dstBands; b++) {
+                                numerator[b] += (weight * (pixel[b] & 0xff));
+                                denominator[b] += weight;
+                            }
                         }
                     }
 
@@ -1181,7 +1535,7 @@ public class MosaicOpImage extends OpImage {
                             dBandDataByteS[b][dPixelOffsetS[b]] = destinationNoDataByte[b];
                         } else {
                             dBandDataByteS[b][dPixelOffsetS[b]] = ImageUtil
-                                    .clampRoundByte(numerator[b] / denominator[b]);
+                                    .clampRoundByte(blendedValue(numerator, denominator, b));
                         }
                         // Offset update
                         dPixelOffsetS[b] += dstPixelStride;
@@ -1456,11 +1810,22 @@ public class MosaicOpImage extends OpImage {
                                 weight = 1.0F;
                             }
                         }
+                        // Feathering fades out the source contribution towards its seams
+                        final float[] feather = srcBeans[s].getFeatherWeights();
+                        if (feather != null) {
+                            weight *= feather[(dstY - dstMinY) * dstWidth + dstX - dstMinX];
+                        }
                         // The above calculated weight are added to the
                         // numerator and denominator
-                        for (int b = 0; b < dstBands; b++) {
-                            numerator[b] += (weight * (sourceValueUshortS[b]));
-                            denominator[b] += weight;
+                        if (extremumBlend) {
+                            for (int b = 0; b < dstBands; b++) {
+                                accumulateExtremum(numerator, denominator, b, sourceValueUshortS[b], weight);
+                            }
+                        } else {
+                            for (int b = 0; b < dstBands; b++) {
+                                numerator[b] += (weight * (sourceValueUshortS[b]));
+                                denominator[b] += weight;
+                            }
                         }
                     }
 
@@ -1479,7 +1844,7 @@ public class MosaicOpImage extends OpImage {
 
                         } else {
                             dBandDataUshortS[b][dPixelOffsetS[b]] = ImageUtil
-                                    .clampRoundUShort(numerator[b] / denominator[b]);
+                                    .clampRoundUShort(blendedValue(numerator, denominator, b));
                         }
                         // Offset update
                         dPixelOffsetS[b] += dstPixelStride;
@@ -1709,11 +2074,22 @@ public class MosaicOpImage extends OpImage {
                                 weight = 1.0F;
                             }
                         }
+                        // Feathering fades out the source contribution towards its seams
+                        final float[] feather = srcBeans[s].getFeatherWeights();
+                        if (feather != null) {
+                            weight *= feather[(dstY - dstMinY) * dstWidth + dstX - dstMinX];
+                        }
                         // The above calculated weight are added to the
                         // numerator and denominator
-                        for (int b = 0; b < dstBands; b++) {
-                            numerator[b] += (weight * (sourceValueShortS[b]));
-                            denominator[b] += weight;
+                        if (extremumBlend) {
+                            for (int b = 0; b < dstBands; b++) {
+                                accumulateExtremum(numerator, denominator, b, sourceValueShortS[b], weight);
+                            }
+                        } else {
+                            for (int b = 0; b < dstBands; b++) {
+                                numerator[b] += (weight * (sourceValueShortS[b]));
+                                denominator[b] += weight;
+                            }
                         }
                     }
 
@@ -1732,7 +2108,7 @@ public class MosaicOpImage extends OpImage {
 
                         } else {
                             dBandDataShortS[b][dPixelOffsetS[b]] = ImageUtil
-                                    .clampRoundShort(numerator[b] / denominator[b]);
+                                    .clampRoundShort(blendedValue(numerator, denominator, b));
                         }
                         // Offset update
                         dPixelOffsetS[b] += dstPixelStride;
@@ -1960,11 +2336,22 @@ public class MosaicOpImage extends OpImage {
                                 weight = 1.0F;
                             }
                         }
+                        // Feathering fades out the source contribution towards its seams
+                        final float[] feather = srcBeans[s].getFeatherWeights();
+                        if (feather != null) {
+                            weight *= feather[(dstY - dstMinY) * dstWidth + dstX - dstMinX];
+                        }
                         // The above calculated weight are added to the
                         // numerator and denominator
-                        for (int b = 0; b < dstBands; b++) {
-                            numerator[b] += (weight * (pixel[b]));
-                            denominator[b] += weight;
+                        if (extremumBlend) {
+                            for (int b = 0; b < dstBands; b++) {
+                                accumulateExtremum(numerator, denominator, b, pixel[b], weight);
+                            }
+                        } else {
+                            for (int b = 0; b < dstBands; b++) {
+                                numerator[b] += (weight * (pixel[b]));
+                                denominator[b] += weight;
+                            }
                         }
                     }
 
@@ -1983,7 +2370,7 @@ public class MosaicOpImage extends OpImage {
 
                         } else {
                             dBandDataIntS[b][dPixelOffsetS[b]] = ImageUtil
-                                    .clampRoundInt(numerator[b] / denominator[b]);
+                                    .clampRoundInt(blendedValue(numerator, denominator, b));
                         }
                         // Offset update
                         dPixelOffsetS[b] += dstPixelStride;
@@ -2208,11 +2595,22 @@ public class MosaicOpImage extends OpImage {
                                 weight = 1.0F;
                             }
                         }
+                        // Feathering fades out the source contribution towards its seams
+                        final float[] feather = srcBeans[s].getFeatherWeights();
+                        if (feather != null) {
+                            weight *= feather[(dstY - dstMinY) * dstWidth + dstX - dstMinX];
+                        }
                         // The above calculated weight are added to the
                         // numerator and denominator
-                        for (int b = 0; b < dstBands; b++) {
-                            numerator[b] += (weight > 0.0F ? (weight * (pixel[b])) : 0);
-                            denominator[b] += weight;
+                        if (extremumBlend) {
+                            for (int b = 0; b < dstBands; b++) {
+                                accumulateExtremum(numerator, denominator, b, pixel[b], weight);
+                            }
+                        } else {
+                            for (int b = 0; b < dstBands; b++) {
+                                numerator[b] += (weight > 0.0F ? (weight * (pixel[b])) : 0);
+                                denominator[b] += weight;
+                            }
                         }
                     }
 
@@ -2231,7 +2629,7 @@ public class MosaicOpImage extends OpImage {
 
                         } else {
                             dBandDataFloatS[b][dPixelOffsetS[b]] = ImageUtil
-                                    .clampFloat(numerator[b] / denominator[b]);
+                                    .clampFloat(blendedValue(numerator, denominator, b));
                         }
                         // Offset update
                         dPixelOffsetS[b] += dstPixelStride;
@@ -2454,11 +2852,22 @@ public class MosaicOpImage extends OpImage {
                                 weight = 1.0F;
                             }
                         }
+                        // Feathering fades out the source contribution towards its seams
+                        final float[] feather = srcBeans[s].getFeatherWeights();
+                        if (feather != null) {
+                            weight *= feather[(dstY - dstMinY) * dstWidth + dstX - dstMinX];
+                        }
                         // The above calculated weight are added to the
                         // numerator and denominator
-                        for (int b = 0; b < dstBands; b++) {
-                            numerator[b] += (weight > 0.0F ? (weight * (pixel[b])) : 0);
-                            denominator[b] += weight;
+                        if (extremumBlend) {
+                            for (int b = 0; b < dstBands; b++) {
+                                accumulateExtremum(numerator, denominator, b, pixel[b], weight);
+                            }
+                        } else {
+                            for (int b = 0; b < dstBands; b++) {
+                                numerator[b] += (weight > 0.0F ? (weight * (pixel[b])) : 0);
+                                denominator[b] += weight;
+                            }
                         }
                     }
 
@@ -2475,7 +2884,7 @@ public class MosaicOpImage extends OpImage {
                         if (denominatorSum == 0.0) {
                             dBandDataDoubleS[b][dPixelOffsetS[b]] = destinationNoDataDouble[b];
                         } else {
-                            dBandDataDoubleS[b][dPixelOffsetS[b]] = (numerator[b] / denominator[b]);
+                            dBandDataDoubleS[b][dPixelOffsetS[b]] = blendedValue(numerator, denominator, b);
                         }
                         // Offset update
                         dPixelOffsetS[b] += dstPixelStride;
@@ -2547,6 +2956,24 @@ public class MosaicOpImage extends OpImage {
         }
     }
 
+    /**
+     * Data of a source fetched for computing a destination tile
+     */
+    private static class FetchedSource {
+
+        /** Source rectangle mapped on the tile */
+        private Rectangle srcRect;
+
+        /** Source area fetched, larger than the tile when feathering */
+        private Rectangle sourceArea;
+
+        private Raster sourceData;
+
+        private Raster alphaData;
+
+        private Raster roiData;
+    }
+
     /** Java bean for saving all the rasterAccessor informations */
     private static class RasterBeanAccessor {
         
@@ -2565,6 +2992,9 @@ public class MosaicOpImage extends OpImage {
         private Range sourceNoDataRange;
         private Rectangle bounds;
 
+        // Feathering weights over the destination tile
+        private float[] featherWeights;
+
         // No-argument constructor as requested for the java beans
         RasterBeanAccessor() {
         }
@@ -2607,6 +3037,14 @@ public class MosaicOpImage extends OpImage {
             this.bounds = bounds;
         }
 
+        public float[] getFeatherWeights() {
+            return featherWeights;
+        }
+
+        public void setFeatherWeights(float[] featherWeights) {
+            this.featherWeights = featherWeights;
+        }
+
         public Rectangle getBounds() {
             return bounds;
         }
@@ -17,6 +17,8 @@
 */
 package it.geosolutions.jaiext.mosaic;
 
+import it.geosolutions.concurrent.TilePartitionResolvers;
+import it.geosolutions.jaiext.mosaic.MosaicDescriptor.BlendType;
 import it.geosolutions.jaiext.range.Range;
 
 import java.awt.RenderingHints;
@@ -41,7 +43,7 @@ public class MosaicRIF implements RenderedImageFactory {
      * This method implements the RenderedImageFactory create method and return the MosaicOpImage using the parameters defined by the parameterBlock
      */
     public RenderedImage create(ParameterBlock paramBlock, RenderingHints hints) {
-        return
+        MosaicOpImage image =
                 new MosaicOpImage(paramBlock.getSources(),
                                   RIFUtil.getImageLayoutHint(hints),
                                   hints,
@@ -50,7 +52,12 @@ public class MosaicRIF implements RenderedImageFactory {
                                   (ROI[])paramBlock.getObjectParameter(2),
                                   (double[][])paramBlock.getObjectParameter(3),
                                   (double[])paramBlock.getObjectParameter(4),
-                                  (Range[])paramBlock.getObjectParameter(5));
+                                  (Range[])paramBlock.getObjectParameter(5),
+                                  (BlendType)paramBlock.getObjectParameter(6),
+                                  paramBlock.getIntParameter(7));
+        // the tiles are cached under this image, let the tile cache know the operation and hints
+        TilePartitionResolvers.setOperationProperties(image, "Mosaic", hints);
+        return image;
     }
 
 }
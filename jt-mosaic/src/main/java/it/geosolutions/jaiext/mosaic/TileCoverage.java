@@ -0,0 +1,95 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import it.geosolutions.jaiext.range.Range;
+
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.util.BitSet;
+
+/**
+ * Keeps track of the destination tile pixels that already got a value during an overlay mosaic,
+ * so that the sources coming later in order can be skipped once the whole tile is covered.
+ * <p>
+ * A source only marks the pixels inside its bounds that the overlay loops are going to take from
+ * it, as told by a {@link ValidPixelReader}. The raw raster samples are checked, so the caller
+ * must only feed sources whose data type and band count match the destination ones.
+ */
+final class TileCoverage {
+
+    private final int minX;
+
+    private final int minY;
+
+    private final int width;
+
+    private final BitSet covered;
+
+    private int uncovered;
+
+    TileCoverage(Rectangle bounds) {
+        this.minX = bounds.x;
+        this.minY = bounds.y;
+        this.width = bounds.width;
+        this.uncovered = bounds.width * bounds.height;
+        this.covered = new BitSet(uncovered);
+    }
+
+    /**
+     * Returns true when every pixel of the tile has been covered
+     */
+    boolean isCovered() {
+        return uncovered == 0;
+    }
+
+    /**
+     * Marks the pixels of the tile that get their value from the provided source.
+     * 
+     * @param data the source data, covering the source rectangle
+     * @param srcRect the intersection between the tile and the source bounds
+     * @param alpha the alpha raster, covering the source rectangle, or null
+     * @param roi the ROI raster, covering the tile, or null
+     * @param noData the source nodata range, or null
+     * @param byteValidity the byte lookup table telling the valid values for each band
+     */
+    void add(Raster data, Rectangle srcRect, Raster alpha, Raster roi, Range noData,
+            boolean[][] byteValidity) {
+        final int x0 = srcRect.x;
+        final int w = srcRect.width;
+        final ValidPixelReader reader = new ValidPixelReader(data, alpha, roi, noData,
+                byteValidity, w);
+        final boolean[] valid = new boolean[w];
+
+        final int maxY = srcRect.y + srcRect.height;
+        for (int y = srcRect.y; y < maxY; y++) {
+            final int offset = (y - minY) * width + (x0 - minX);
+            // skip the rows already covered by the previous sources
+            if (covered.nextClearBit(offset) >= offset + w) {
+                continue;
+            }
+            reader.read(x0, y, w, valid);
+            for (int i = 0; i < w; i++) {
+                if (valid[i] && !covered.get(offset + i)) {
+                    covered.set(offset + i);
+                    uncovered--;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import it.geosolutions.jaiext.range.Range;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+
+/**
+ * Reads, one row at a time, which pixels of a source provide a value to the mosaic: pixels with a
+ * non zero alpha (or inside the ROI, when no alpha is available) and with at least one band
+ * outside of the nodata range.
+ * <p>
+ * The raw raster samples are checked against the nodata range, so it should only be provided
+ * when the source data type and band count match the destination ones. The row buffers are
+ * allocated once, for rows up to the width provided at construction time.
+ */
+final class ValidPixelReader {
+
+    private final Raster data;
+
+    private final Raster alpha;
+
+    private final Raster roi;
+
+    private final Range noData;
+
+    private final boolean[][] byteValidity;
+
+    private final int dataType;
+
+    private final int bands;
+
+    private final double[] alphaRow;
+
+    private final int[] roiRow;
+
+    private int[][] intRows;
+
+    private float[][] floatRows;
+
+    private double[][] doubleRows;
+
+    /**
+     * @param data the source data
+     * @param alpha the alpha raster, or null
+     * @param roi the ROI raster, or null. Ignored when the alpha is available
+     * @param noData the source nodata range, or null
+     * @param byteValidity the byte lookup table telling the valid values for each band
+     * @param width the maximum row width
+     */
+    ValidPixelReader(Raster data, Raster alpha, Raster roi, Range noData,
+            boolean[][] byteValidity, int width) {
+        this.data = data;
+        this.alpha = alpha;
+        this.roi = alpha == null ? roi : null;
+        this.noData = noData;
+        this.byteValidity = byteValidity;
+        this.dataType = data.getSampleModel().getDataType();
+        this.bands = data.getNumBands();
+        this.alphaRow = this.alpha != null ? new double[width] : null;
+        this.roiRow = this.roi != null ? new int[width] : null;
+        if (noData != null) {
+            if (dataType == DataBuffer.TYPE_FLOAT) {
+                floatRows = new float[bands][width];
+            } else if (dataType == DataBuffer.TYPE_DOUBLE) {
+                doubleRows = new double[bands][width];
+            } else {
+                intRows = new int[bands][width];
+            }
+        }
+    }
+
+    /**
+     * Tells which pixels of a row provide a value, storing the result in the first w elements of
+     * the valid array
+     */
+    void read(int x, int y, int w, boolean[] valid) {
+        if (alphaRow != null) {
+            alpha.getSamples(x, y, w, 1, 0, alphaRow);
+        } else if (roiRow != null) {
+            roi.getSamples(x, y, w, 1, 0, roiRow);
+        }
+        for (int b = 0; b < bands; b++) {
+            if (intRows != null) {
+                data.getSamples(x, y, w, 1, b, intRows[b]);
+            } else if (floatRows != null) {
+                data.getSamples(x, y, w, 1, b, floatRows[b]);
+            } else if (doubleRows != null) {
+                data.getSamples(x, y, w, 1, b, doubleRows[b]);
+            }
+        }
+
+        for (int i = 0; i < w; i++) {
+            if ((alphaRow != null && alphaRow[i] == 0) || (roiRow != null && roiRow[i] == 0)) {
+                valid[i] = false;
+                continue;
+            }
+            boolean isValid = noData == null;
+            for (int b = 0; b < bands && !isValid; b++) {
+                switch (dataType) {
+                case DataBuffer.TYPE_BYTE:
+                    isValid = byteValidity[b][intRows[b][i] & 0xFF];
+                    break;
+                case DataBuffer.TYPE_SHORT:
+                    isValid = !noData.contains((short) intRows[b][i]);
+                    break;
+                case DataBuffer.TYPE_USHORT:
+                case DataBuffer.TYPE_INT:
+                    isValid = !noData.contains(intRows[b][i]);
+                    break;
+                case DataBuffer.TYPE_FLOAT:
+                    isValid = !noData.contains(floatRows[b][i]);
+                    break;
+                case DataBuffer.TYPE_DOUBLE:
+                    isValid = !noData.contains(doubleRows[b][i]);
+                    break;
+                }
+            }
+            valid[i] = isValid;
+        }
+    }
+}
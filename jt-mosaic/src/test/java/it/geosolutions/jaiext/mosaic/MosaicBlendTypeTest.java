@@ -0,0 +1,95 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import static it.geosolutions.jaiext.testclasses.TestBase.createByteImage;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_BLEND;
+import static org.junit.Assert.assertEquals;
+
+import it.geosolutions.jaiext.mosaic.MosaicDescriptor.BlendType;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.Vector;
+
+import javax.media.jai.TiledImage;
+
+import org.junit.Test;
+
+/**
+ * Checks the blend types of the mosaic, using two images overlapping on half of their width.
+ */
+public class MosaicBlendTypeTest {
+
+    private static final int TILE_SIZE = 32;
+
+    private static final int FEATHER_DISTANCE = 16;
+
+    private final TiledImage left = createByteImage(0, 0, TILE_SIZE * 2, TILE_SIZE * 2, TILE_SIZE,
+            100);
+
+    private final TiledImage right = createByteImage(TILE_SIZE, 0, TILE_SIZE * 2, TILE_SIZE * 2,
+            TILE_SIZE, 200);
+
+    @Test
+    public void testAverage() {
+        Raster result = mosaic(BlendType.AVERAGE, FEATHER_DISTANCE);
+        assertEquals(100, result.getSample(10, 32, 0));
+        assertEquals(150, result.getSample(40, 32, 0));
+        assertEquals(200, result.getSample(90, 32, 0));
+    }
+
+    @Test
+    public void testMaxMin() {
+        Raster max = mosaic(BlendType.MAX, FEATHER_DISTANCE);
+        Raster min = mosaic(BlendType.MIN, FEATHER_DISTANCE);
+        for (int x = TILE_SIZE; x < TILE_SIZE * 2; x++) {
+            assertEquals(200, max.getSample(x, 32, 0));
+            assertEquals(100, min.getSample(x, 32, 0));
+        }
+        assertEquals(100, max.getSample(10, 32, 0));
+        assertEquals(200, min.getSample(90, 32, 0));
+    }
+
+    @Test
+    public void testFeather() {
+        Raster result = mosaic(BlendType.FEATHER, FEATHER_DISTANCE);
+        // outside of the overlap, a single source is used
+        assertEquals(100, result.getSample(10, 32, 0));
+        assertEquals(100, result.getSample(TILE_SIZE - 1, 32, 0));
+        assertEquals(200, result.getSample(90, 32, 0));
+        // the right image weight grows from 1/16 at its edge, up to 1 at the feather distance
+        assertEquals(106, result.getSample(TILE_SIZE, 32, 0));
+        assertEquals(136, result.getSample(TILE_SIZE + 8, 32, 0));
+        assertEquals(150, result.getSample(TILE_SIZE + FEATHER_DISTANCE, 32, 0));
+        assertEquals(194, result.getSample(TILE_SIZE * 2 - 1, 32, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFeatherDistance() {
+        mosaic(BlendType.FEATHER, 0);
+    }
+
+    private Raster mosaic(BlendType blendType, int featherDistance) {
+        MosaicOpImage mosaic = new MosaicOpImage(new Vector<RenderedImage>(Arrays.asList(left,
+                right)), null, null, MOSAIC_TYPE_BLEND, null, null, null, new double[] { 0 },
+                null, blendType, featherDistance);
+        return mosaic.getData();
+    }
+}
@@ -0,0 +1,138 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import static it.geosolutions.jaiext.testclasses.TestBase.createByteImage;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.range.RangeFactory;
+
+import java.awt.Rectangle;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.Vector;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.media.jai.ROI;
+import javax.media.jai.ROIShape;
+import javax.media.jai.TiledImage;
+
+import org.junit.Test;
+
+/**
+ * Checks that an overlay mosaic stops reading the sources once the destination tile is covered,
+ * and that the result is the same as reading all of them.
+ */
+public class MosaicOverlayCoverageTest {
+
+    private static final int SIZE = 64;
+
+    private static final int TILE_SIZE = 32;
+
+    @Test
+    public void testCoveredTileSkipsSources() {
+        CountingImage first = new CountingImage(10, 10);
+        CountingImage second = new CountingImage(20, 20);
+        Raster result = mosaic(new RenderedImage[] { first, second }, null, null);
+
+        assertValues(result, 10, 10);
+        assertTrue(first.requests.get() > 0);
+        assertEquals(0, second.requests.get());
+    }
+
+    @Test
+    public void testNoDataReadsNextSource() {
+        // the left half of the first image is nodata
+        CountingImage first = new CountingImage(0, 10);
+        CountingImage second = new CountingImage(20, 20);
+        Range noData = RangeFactory.create((byte) 0, (byte) 0);
+        Raster result = mosaic(new RenderedImage[] { first, second }, null, new Range[] {
+                noData, null });
+
+        assertValues(result, 20, 10);
+        assertTrue(second.requests.get() > 0);
+    }
+
+    @Test
+    public void testRoiReadsNextSource() {
+        // the ROI of the first image only covers its right half
+        CountingImage first = new CountingImage(10, 10);
+        CountingImage second = new CountingImage(20, 20);
+        ROI roi = new ROIShape(new Rectangle(SIZE / 2, 0, SIZE / 2, SIZE));
+        Raster result = mosaic(new RenderedImage[] { first, second }, new ROI[] { roi, null },
+                null);
+
+        assertValues(result, 20, 10);
+        assertTrue(second.requests.get() > 0);
+    }
+
+    @Test
+    public void testNoDataOfSecondSourceAlone() {
+        // the first image only covers the left tiles, the right tiles only intersect the second
+        RenderedImage first = createByteImage(0, 0, SIZE / 2, SIZE, TILE_SIZE, 10);
+        CountingImage second = new CountingImage(5, 7);
+        Range noData = RangeFactory.create((byte) 0, (byte) 0);
+        Range secondNoData = RangeFactory.create((byte) 7, (byte) 7);
+        Raster result = mosaic(new RenderedImage[] { first, second }, null, new Range[] {
+                noData, secondNoData });
+
+        // the nodata of the second image gives the destination nodata
+        assertValues(result, 10, 0);
+    }
+
+    private static Raster mosaic(RenderedImage[] sources, ROI[] rois, Range[] noData) {
+        MosaicOpImage mosaic = new MosaicOpImage(new Vector<RenderedImage>(Arrays.asList(sources)),
+                null, null, MOSAIC_TYPE_OVERLAY, null, rois, null, new double[] { 0 }, noData);
+        return mosaic.getData();
+    }
+
+    private static void assertValues(Raster raster, int left, int right) {
+        for (int y = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                assertEquals(x < SIZE / 2 ? left : right, raster.getSample(x, y, 0));
+            }
+        }
+    }
+
+    /**
+     * Byte image counting the data requests, the left and right halves get different values
+     */
+    private static class CountingImage extends TiledImage {
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        CountingImage(int left, int right) {
+            super(createByteImage(0, 0, SIZE, SIZE, TILE_SIZE, left), TILE_SIZE, TILE_SIZE);
+            for (int y = 0; y < SIZE; y++) {
+                for (int x = SIZE / 2; x < SIZE; x++) {
+                    setSample(x, y, 0, right);
+                }
+            }
+        }
+
+        @Override
+        public Raster getData(Rectangle rect) {
+            requests.incrementAndGet();
+            return super.getData(rect);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import static it.geosolutions.jaiext.testclasses.TestBase.createByteImage;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_BLEND;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.range.RangeFactory;
+
+import java.awt.RenderingHints;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.Vector;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.media.jai.TiledImage;
+import javax.media.jai.operator.MosaicType;
+
+import org.junit.Test;
+
+/**
+ * Checks that fetching the sources concurrently does not change the mosaic result.
+ */
+public class MosaicParallelFetchTest {
+
+    private static final int TILE_SIZE = 32;
+
+    private static final int SOURCES = 6;
+
+    @Test
+    public void testBlend() {
+        checkParallelFetch(MOSAIC_TYPE_BLEND);
+    }
+
+    @Test
+    public void testOverlay() {
+        checkParallelFetch(MOSAIC_TYPE_OVERLAY);
+    }
+
+    @Test
+    public void testRejectingExecutor() {
+        Executor rejecting = new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        // the calling thread fetches all the sources
+        Raster expected = mosaic(MOSAIC_TYPE_BLEND, null).getData();
+        Raster actual = mosaic(MOSAIC_TYPE_BLEND, hints(4, rejecting)).getData();
+        checkEquals(expected, actual);
+    }
+
+    private void checkParallelFetch(MosaicType type) {
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            final AtomicInteger tasks = new AtomicInteger();
+            final Executor executor = pool;
+            Executor counting = new Executor() {
+                public void execute(Runnable command) {
+                    tasks.incrementAndGet();
+                    executor.execute(command);
+                }
+            };
+            Raster expected = mosaic(type, null).getData();
+            Raster actual = mosaic(type, hints(4, counting)).getData();
+            checkEquals(expected, actual);
+            assertTrue(tasks.get() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static RenderingHints hints(int parallelism, Executor executor) {
+        RenderingHints hints = new RenderingHints(
+                MosaicDescriptor.KEY_SOURCE_FETCH_PARALLELISM, parallelism);
+        hints.put(MosaicDescriptor.KEY_SOURCE_FETCH_EXECUTOR, executor);
+        return hints;
+    }
+
+    private static MosaicOpImage mosaic(MosaicType type, RenderingHints hints) {
+        // staggered sources, each with a nodata hole, so that every tile is computed
+        RenderedImage[] sources = new RenderedImage[SOURCES];
+        Range[] noData = new Range[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            sources[i] = createImage(i * 5, i * 7, TILE_SIZE * 3, 10 + i * 20);
+            noData[i] = RangeFactory.create((byte) 0, (byte) 0);
+        }
+        return new MosaicOpImage(new Vector<RenderedImage>(Arrays.asList(sources)), null, hints,
+                type, null, null, null, new double[] { 0 }, noData);
+    }
+
+    /** Creates a constant image crossed by a grid of nodata lines, placed after the value */
+    private static TiledImage createImage(int minX, int minY, int size, int value) {
+        TiledImage image = createByteImage(minX, minY, size, size, TILE_SIZE, value);
+        for (int y = minY; y < minY + size; y++) {
+            for (int x = minX; x < minX + size; x++) {
+                if ((x - minX) % 11 == value % 11 || (y - minY) % 13 == value % 13) {
+                    image.setSample(x, y, 0, 0);
+                }
+            }
+        }
+        return image;
+    }
+
+    private static void checkEquals(Raster expected, Raster actual) {
+        assertEquals(expected.getBounds(), actual.getBounds());
+        for (int y = expected.getMinY(); y < expected.getMinY() + expected.getHeight(); y++) {
+            for (int x = expected.getMinX(); x < expected.getMinX() + expected.getWidth(); x++) {
+                assertEquals(expected.getSample(x, y, 0), actual.getSample(x, y, 0));
+            }
+        }
+    }
+}
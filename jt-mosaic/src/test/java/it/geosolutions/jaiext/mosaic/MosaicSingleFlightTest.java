@@ -0,0 +1,113 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import static it.geosolutions.jaiext.testclasses.TestBase.createByteImage;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import it.geosolutions.concurrent.ConcurrentTileCache;
+
+import java.awt.RenderingHints;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.media.jai.JAI;
+
+import org.junit.Test;
+
+/**
+ * Checks that the threads asking for the same tile through a single-flight tile cache share a
+ * single computation of it.
+ */
+public class MosaicSingleFlightTest {
+
+    private static final int TILE_SIZE = 32;
+
+    private static final int THREADS = 4;
+
+    /** Mosaic counting its tile computations, which are slow enough for the requests to overlap */
+    private static class CountingMosaic extends MosaicOpImage {
+
+        private final AtomicInteger computations = new AtomicInteger();
+
+        CountingMosaic(List sources, RenderingHints hints) {
+            super(sources, null, hints, MOSAIC_TYPE_OVERLAY, null, null, null,
+                    new double[] { 0 }, null);
+        }
+
+        @Override
+        public Raster computeTile(int tileX, int tileY) {
+            computations.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.computeTile(tileX, tileY);
+        }
+    }
+
+    @Test
+    public void testSingleComputation() throws Exception {
+        RenderedImage left = createByteImage(0, 0, TILE_SIZE * 2, TILE_SIZE * 2, TILE_SIZE, 100);
+        RenderedImage right = createByteImage(TILE_SIZE / 2, 0, TILE_SIZE * 2, TILE_SIZE * 2,
+                TILE_SIZE, 200);
+        RenderingHints hints = new RenderingHints(JAI.KEY_TILE_CACHE, new ConcurrentTileCache());
+        final CountingMosaic mosaic = new CountingMosaic(new Vector<RenderedImage>(Arrays.asList(
+                left, right)), hints);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Raster>> tiles = new ArrayList<Future<Raster>>();
+            for (int i = 0; i < THREADS; i++) {
+                tiles.add(pool.submit(new Callable<Raster>() {
+                    public Raster call() throws Exception {
+                        start.await();
+                        return mosaic.getTile(0, 0);
+                    }
+                }));
+            }
+            start.countDown();
+            Raster tile = tiles.get(0).get();
+            for (Future<Raster> other : tiles) {
+                assertSame(tile, other.get());
+            }
+            assertEquals(1, mosaic.computations.get());
+            assertEquals(100, tile.getSample(TILE_SIZE - 1, 0, 0));
+
+            // later requests are served by the cache
+            assertSame(tile, mosaic.getTile(0, 0));
+            assertEquals(1, mosaic.computations.get());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import static it.geosolutions.jaiext.testclasses.TestBase.createByteImage;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY;
+import static org.junit.Assert.assertEquals;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Vector;
+
+import javax.media.jai.TiledImage;
+
+import org.junit.Test;
+
+/**
+ * Checks that the mosaic picks the right sources, in the right order, when many granules are
+ * involved.
+ */
+public class MosaicSourceIndexTest {
+
+    private static final int GRANULE_SIZE = 16;
+
+    private static final int GRANULES = 8;
+
+    @Test
+    public void testGranuleGrid() {
+        Vector<RenderedImage> sources = new Vector<RenderedImage>();
+        // the first granule overlaps the top left ones and takes precedence on them
+        sources.add(createGranule(0, 0, GRANULE_SIZE * 3, 255));
+        for (int row = 0; row < GRANULES; row++) {
+            for (int col = 0; col < GRANULES; col++) {
+                sources.add(createGranule(col * GRANULE_SIZE, row * GRANULE_SIZE, GRANULE_SIZE,
+                        row * GRANULES + col));
+            }
+        }
+        MosaicOpImage mosaic = new MosaicOpImage(sources, null, null, MOSAIC_TYPE_OVERLAY, null,
+                null, null, new double[] { 0 }, null);
+        Raster result = mosaic.getData();
+
+        int size = GRANULE_SIZE * GRANULES;
+        assertEquals(size, result.getWidth());
+        assertEquals(size, result.getHeight());
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int expected = x < GRANULE_SIZE * 3 && y < GRANULE_SIZE * 3 ? 255
+                        : (y / GRANULE_SIZE) * GRANULES + x / GRANULE_SIZE;
+                assertEquals(expected, result.getSample(x, y, 0));
+            }
+        }
+    }
+
+    /** A granule is made of a single tile */
+    private static TiledImage createGranule(int minX, int minY, int size, int value) {
+        return createByteImage(minX, minY, size, size, size, value);
+    }
+}
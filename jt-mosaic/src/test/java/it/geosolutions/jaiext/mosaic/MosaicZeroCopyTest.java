@@ -0,0 +1,91 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+
+
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+
+ * http://www.apache.org/licenses/LICENSE-2.0
+
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.mosaic;
+
+import static it.geosolutions.jaiext.testclasses.TestBase.createByteImage;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_BLEND;
+import static javax.media.jai.operator.MosaicDescriptor.MOSAIC_TYPE_OVERLAY;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.range.RangeFactory;
+
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.util.Arrays;
+import java.util.Vector;
+
+import javax.media.jai.TiledImage;
+import javax.media.jai.operator.MosaicType;
+
+import org.junit.Test;
+
+/**
+ * Checks that the mosaic tiles fully covered by a single source share its data.
+ */
+public class MosaicZeroCopyTest {
+
+    private static final int TILE_SIZE = 32;
+
+    @Test
+    public void testSingleSourceSharesData() {
+        TiledImage source = createByteImage(0, 0, TILE_SIZE * 2, TILE_SIZE * 2, TILE_SIZE, 7);
+        MosaicOpImage mosaic = mosaic(MOSAIC_TYPE_BLEND, null, source);
+        for (int tileY = 0; tileY < 2; tileY++) {
+            for (int tileX = 0; tileX < 2; tileX++) {
+                Raster tile = mosaic.getTile(tileX, tileY);
+                assertSame(source.getTile(tileX, tileY).getDataBuffer(), tile.getDataBuffer());
+                assertEquals(source.getTile(tileX, tileY).getBounds(), tile.getBounds());
+            }
+        }
+    }
+
+    @Test
+    public void testOverlayFirstSourceSharesData() {
+        TiledImage first = createByteImage(0, 0, TILE_SIZE * 2, TILE_SIZE * 2, TILE_SIZE, 7);
+        // the second image overlaps the bottom right corner of the first one
+        TiledImage second = createByteImage(TILE_SIZE, TILE_SIZE, TILE_SIZE * 2, TILE_SIZE * 2,
+                TILE_SIZE, 9);
+        MosaicOpImage mosaic = mosaic(MOSAIC_TYPE_OVERLAY, null, first, second);
+
+        assertSame(first.getTile(1, 1).getDataBuffer(), mosaic.getTile(1, 1).getDataBuffer());
+        assertSame(second.getTile(2, 2).getDataBuffer(), mosaic.getTile(2, 2).getDataBuffer());
+        Raster data = mosaic.getData();
+        assertEquals(7, data.getSample(TILE_SIZE, TILE_SIZE, 0));
+        assertEquals(9, data.getSample(TILE_SIZE * 2, TILE_SIZE * 2, 0));
+        assertEquals(0, data.getSample(TILE_SIZE * 2, 0, 0));
+    }
+
+    @Test
+    public void testNoDataCopiesData() {
+        TiledImage source = createByteImage(0, 0, TILE_SIZE, TILE_SIZE, TILE_SIZE, 7);
+        Range noData = RangeFactory.create((byte) 0, (byte) 0);
+        MosaicOpImage mosaic = mosaic(MOSAIC_TYPE_OVERLAY, new Range[] { noData }, source);
+
+        Raster tile = mosaic.getTile(0, 0);
+        assertNotSame(source.getTile(0, 0).getDataBuffer(), tile.getDataBuffer());
+        assertEquals(7, tile.getSample(0, 0, 0));
+    }
+
+    private static MosaicOpImage mosaic(MosaicType type, Range[] noData, RenderedImage... sources) {
+        return new MosaicOpImage(new Vector<RenderedImage>(Arrays.asList(sources)), null, null,
+                type, null, null, null, new double[] { 0 }, noData);
+    }
+}
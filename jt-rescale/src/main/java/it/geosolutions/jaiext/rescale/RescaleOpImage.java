@@ -19,6 +19,7 @@ package it.geosolutions.jaiext.rescale;
 
 import it.geosolutions.jaiext.iterators.RandomIterFactory;
 import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.simd.PointKernels;
 import java.awt.Rectangle;
 import java.awt.image.DataBuffer;
 import java.awt.image.Raster;
@@ -1671,20 +1672,12 @@ public class RescaleOpImage extends PointOpImage {
                 int srcLineOffset = srcBandOffsets[b];
                 // Cycle on the y-axis
                 for (int y = 0; y < dstHeight; y++) {
-                    // creation of the pixel offsets
-                    int dstPixelOffset = dstLineOffset;
-                    int srcPixelOffset = srcLineOffset;
+                    // Rescale operation on the whole line
+                    PointKernels.rescale(srcData[b], srcLineOffset, srcPixelStride, dstData[b],
+                            dstLineOffset, dstPixelStride, dstWidth, scale, offset);
                     // update of the line offsets
                     dstLineOffset += dstLineStride;
                     srcLineOffset += srcLineStride;
-                    // Cycle on the x-axis
-                    for (int x = 0; x < dstWidth; x++) {
-                        // Rescale operation
-                        dstData[b][dstPixelOffset] = (float) ((srcData[b][srcPixelOffset]) * scale + offset);
-                        // update of the pixel offsets
-                        dstPixelOffset += dstPixelStride;
-                        srcPixelOffset += srcPixelStride;
-                    }
                 }
             }
             // ROI WITHOUT NODATA
@@ -1993,20 +1986,12 @@ public class RescaleOpImage extends PointOpImage {
                 int srcLineOffset = srcBandOffsets[b];
                 // Cycle on the y-axis
                 for (int y = 0; y < dstHeight; y++) {
-                    // creation of the pixel offsets
-                    int dstPixelOffset = dstLineOffset;
-                    int srcPixelOffset = srcLineOffset;
+                    // Rescale operation on the whole line
+                    PointKernels.rescale(srcData[b], srcLineOffset, srcPixelStride, dstData[b],
+                            dstLineOffset, dstPixelStride, dstWidth, scale, offset);
                     // update of the line offsets
                     dstLineOffset += dstLineStride;
                     srcLineOffset += srcLineStride;
-                    // Cycle on the x-axis
-                    for (int x = 0; x < dstWidth; x++) {
-                        // Rescale operation
-                        dstData[b][dstPixelOffset] = (srcData[b][srcPixelOffset]) * scale + offset;
-                        // update of the pixel offsets
-                        dstPixelOffset += dstPixelStride;
-                        srcPixelOffset += srcPixelStride;
-                    }
                 }
             }
             // ROI WITHOUT NODATA
@@ -18,6 +18,7 @@
 package it.geosolutions.jaiext.threshold;
 
 import it.geosolutions.jaiext.range.Range;
+import it.geosolutions.jaiext.simd.PointKernels;
 
 import java.awt.Rectangle;
 import java.awt.image.ColorModel;
@@ -293,36 +294,18 @@ public class ThresholdOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-                        double co = constant[b];
-
-                        byte flo = (byte) lo;
-                        byte fhi = (byte) hi;
-                        byte fco = (byte) co;
-
-                        byte sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample >= flo && sample <= fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fco;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                byte lo = (byte) low[b];
+                byte hi = (byte) high[b];
+                byte co = (byte) constant[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.threshold(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi, co);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -663,36 +646,18 @@ public class ThresholdOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-                        double co = constant[b];
-
-                        short flo = (short) lo;
-                        short fhi = (short) hi;
-                        short fco = (short) co;
-
-                        short sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample >= flo && sample <= fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fco;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                short lo = (short) low[b];
+                short hi = (short) high[b];
+                short co = (short) constant[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.threshold(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi, co);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -846,36 +811,18 @@ public class ThresholdOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-                        double co = constant[b];
-
-                        int flo = (int) lo;
-                        int fhi = (int) hi;
-                        int fco = (int) co;
-
-                        int sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample >= flo && sample <= fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fco;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                int lo = (int) low[b];
+                int hi = (int) high[b];
+                int co = (int) constant[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.threshold(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi, co);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -1029,36 +976,18 @@ public class ThresholdOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-                        double co = constant[b];
-
-                        float flo = (float) lo;
-                        float fhi = (float) hi;
-                        float fco = (float) co;
-
-                        float sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample >= flo && sample <= fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fco;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                float lo = (float) low[b];
+                float hi = (float) high[b];
+                float co = (float) constant[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.threshold(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi, co);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -1212,36 +1141,18 @@ public class ThresholdOpImage extends PointOpImage {
         int srcY = src.getY();
 
         if (caseA || (caseB && roiContainsTile)) {
-            for (int h = 0; h < dstHeight; h++) {
-                int srcPixelOffset = srcLineOffset;
-                int dstPixelOffset = dstLineOffset;
-
-                for (int w = 0; w < dstWidth; w++) {
-
-                    for (int b = 0; b < dstBands; b++) {
-                        double lo = low[b];
-                        double hi = high[b];
-                        double co = constant[b];
-
-                        double flo = (double) lo;
-                        double fhi = (double) hi;
-                        double fco = (double) co;
-
-                        double sample = srcData[b][srcPixelOffset + srcBandOffsets[b]];
-                        if (sample >= flo && sample <= fhi) {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = fco;
-                        } else {
-                            dstData[b][dstPixelOffset + dstBandOffsets[b]] = sample;
-                        }
-
-                    }
-
-                    srcPixelOffset += srcPixelStride;
-                    dstPixelOffset += dstPixelStride;
+            for (int b = 0; b < dstBands; b++) {
+                double lo = (double) low[b];
+                double hi = (double) high[b];
+                double co = (double) constant[b];
+                int srcOffset = srcBandOffsets[b];
+                int dstOffset = dstBandOffsets[b];
+                for (int h = 0; h < dstHeight; h++) {
+                    PointKernels.threshold(srcData[b], srcOffset, srcPixelStride, dstData[b],
+                            dstOffset, dstPixelStride, dstWidth, lo, hi, co);
+                    srcOffset += srcLineStride;
+                    dstOffset += dstLineStride;
                 }
-
-                srcLineOffset += srcLineStride;
-                dstLineOffset += dstLineStride;
             }
         } else if (caseB) {
             for (int h = 0; h < dstHeight; h++) {
@@ -362,4 +362,370 @@ public class SampleStats {
         
         return sum;
     }
+
+    /*
+     * Overloads working on primitive arrays. They only consider the first n elements of the
+     * array, so that growable buffers can be passed in directly, and do not allocate.
+     */
+
+    /**
+     * Return the maximum of the first {@code n} values.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return max value or Double.NaN if the sample is empty
+     */
+    public static double max(double[] values, int n, boolean ignoreNaN) {
+        if (values == null || n == 0) {
+            return Double.NaN;
+        } else if (n == 1) {
+            return values[0];
+        }
+
+        // Double.NaN is considered greater than any other value, as in Double.compare
+        double max = Double.NaN;
+        boolean found = false;
+        for (int i = 0; i < n; i++) {
+            double val = values[i];
+            if (Double.isNaN(val)) {
+                if (!ignoreNaN) return Double.NaN;
+            } else if (!found || val > max) {
+                max = val;
+                found = true;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Return the mean of the first {@code n} values.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return mean value or Double.NaN if the sample is empty
+     */
+    public static double mean(double[] values, int n, boolean ignoreNaN) {
+        if (values == null || n == 0) {
+            return Double.NaN;
+        } else if (n == 1) {
+            return values[0];
+        }
+
+        double sum = 0.0d;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double val = values[i];
+            if (Double.isNaN(val)) {
+                if (!ignoreNaN) return Double.NaN;
+            } else {
+                sum += val;
+                count++ ;
+            }
+        }
+
+        return sum / count;
+    }
+
+    /**
+     * Calculates the minimum of the first {@code n} values.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return min value or Double.NaN if the sample is empty
+     */
+    public static double min(double[] values, int n, boolean ignoreNaN) {
+        if (values == null || n == 0) {
+            return Double.NaN;
+        } else if (n == 1) {
+            return values[0];
+        }
+
+        // Double.NaN is considered greater than any other value, so it's never the minimum
+        double min = Double.NaN;
+        boolean found = false;
+        for (int i = 0; i < n; i++) {
+            double val = values[i];
+            if (!Double.isNaN(val) && (!found || val < min)) {
+                min = val;
+                found = true;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Calculates the median of the first {@code n} values, using a quickselect. For a sample
+     * with an odd number of elements the median is the mid-point value of the sorted sample.
+     * For an even number of elements it is the mean of the two values on either side of the
+     * mid-point.
+     *
+     * <p>The first {@code n} elements of the array are reordered, callers that need to preserve
+     * the original order should pass a copy.
+     *
+     * @param values sample values (need not be pre-sorted)
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return median value or Double.NaN if the sample is empty
+     */
+    public static double median(double[] values, int n, boolean ignoreNaN) {
+        if (values == null) {
+            return Double.NaN;
+        }
+
+        // move NaN values at the end, as sorting would do, and leave them out of the selection
+        int valid = moveNaNToEnd(values, n);
+        int size = ignoreNaN ? valid : n;
+
+        if (size == 0) {
+            return Double.NaN;
+        } else if (size == 1) {
+            return values[0];
+        }
+
+        int midHi = size / 2;
+        double hi = midHi < valid ? select(values, 0, valid - 1, midHi) : Double.NaN;
+        if (size % 2 != 0) {
+            return hi;
+        }
+
+        // after the selection all the values before midHi are less than or equal to it
+        int midLo = midHi - 1;
+        double lo;
+        if (midLo < valid) {
+            lo = values[0];
+            for (int i = 1; i <= midLo; i++) {
+                if (values[i] > lo) lo = values[i];
+            }
+        } else {
+            lo = Double.NaN;
+        }
+        return (lo + hi) / 2;
+    }
+
+    /**
+     * Calculates the empirical mode (highest frequency value) of the first {@code n} values,
+     * with the same tie-break rules as {@link #mode(Double[], boolean)}.
+     *
+     * <p>The first {@code n} elements of the array are sorted in place, callers that need to
+     * preserve the original order should pass a copy.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return calculated mode or Double.NaN if the sample is empty
+     */
+    public static double mode(double[] values, int n, boolean ignoreNaN) {
+        if (values == null) {
+            return Double.NaN;
+        }
+
+        int size = ignoreNaN ? moveNaNToEnd(values, n) : n;
+        if (size == 0) {
+            return Double.NaN;
+        } else if (size == 1) {
+            return values[0];
+        }
+
+        Arrays.sort(values, 0, size);
+
+        // first pass, find the max frequency and how many values have it
+        int maxFreq = 0;
+        int tied = 0;
+        for (int start = 0; start < size; ) {
+            int end = runEnd(values, start, size);
+            int freq = end - start;
+            if (freq > maxFreq) {
+                maxFreq = freq;
+                tied = 1;
+            } else if (freq == maxFreq) {
+                tied++ ;
+            }
+            start = end;
+        }
+
+        // second pass, pick the tied value in the middle
+        int target = tied / 2;
+        if (tied % 2 == 0) target-- ;
+        for (int start = 0; start < size; ) {
+            int end = runEnd(values, start, size);
+            if (end - start == maxFreq && target-- == 0) {
+                return values[start];
+            }
+            start = end;
+        }
+
+        return Double.NaN;  // to suppress compiler warning
+    }
+
+    /**
+     * Calculates the range (max - min) of the first {@code n} values.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return the range or Double.NaN if the set is empty
+     */
+    public static double range(double[] values, int n, boolean ignoreNaN) {
+        if (values == null || n == 0) {
+            return Double.NaN;
+        } else if (n == 1) {
+            return 0d;
+        }
+
+        return max(values, n, ignoreNaN) - min(values, n, ignoreNaN);
+    }
+
+    /**
+     * Calculates sample variance of the first {@code n} values, see {@link #variance(Double[],
+     * boolean)}.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return sample variance
+     */
+    public static double variance(double[] values, int n, boolean ignoreNaN) {
+        if (n < 2) {
+            return Double.NaN;
+        }
+
+        double mNew, mOld = 0.0d, s = 0.0d;
+
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double val = values[i];
+            if (Double.isNaN(val)) {
+                if (!ignoreNaN) {
+                    return Double.NaN;
+                }
+
+            } else {
+                count++;
+                if (count == 1) {
+                    mNew = mOld = val;
+                } else {
+                    mNew = mOld + (val - mOld) / count;
+                    s = s + (val - mOld) * (val - mNew);
+                    mOld = mNew;
+                }
+            }
+        }
+
+        if (count > 1) {
+            return s / (count - 1);
+        } else if (count == 1) {
+            return 0.0d;
+        } else {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Calculates sample standard deviation of the first {@code n} values.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return sample standard deviation as a double
+     */
+    public static double sdev(double[] values, int n, boolean ignoreNaN) {
+        double var = variance(values, n, ignoreNaN);
+        return (Double.isNaN(var) ? Double.NaN : Math.sqrt(var));
+    }
+
+    /**
+     * Calculates the sum of the first {@code n} values.
+     *
+     * @param values sample values
+     * @param n number of values to consider
+     * @param ignoreNaN specifies whether to ignore NaN values
+     * @return sum of the values
+     */
+    public static double sum(double[] values, int n, boolean ignoreNaN) {
+        double sum = 0.0d;
+
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(values[i])) {
+                if (!ignoreNaN) {
+                    return Double.NaN;
+                }
+            } else {
+              sum = sum + values[i];
+            }
+        }
+
+        return sum;
+    }
+
+    /**
+     * Moves the NaN values at the end of the first {@code n} elements.
+     *
+     * @return the number of values that are not NaN
+     */
+    private static int moveNaNToEnd(double[] values, int n) {
+        int valid = 0;
+        for (int i = 0; i < n; i++) {
+            double val = values[i];
+            if (!Double.isNaN(val)) {
+                values[i] = values[valid];
+                values[valid++] = val;
+            }
+        }
+        return valid;
+    }
+
+    /** Returns the end (exclusive) of the run of values equal to values[start] */
+    private static int runEnd(double[] values, int start, int size) {
+        double runValue = values[start];
+        int end = start + 1;
+        while (end < size && CompareOp.aequal(runValue, values[end])) {
+            end++ ;
+        }
+        return end;
+    }
+
+    /**
+     * Quickselect: partially reorders the values between {@code left} and {@code right}
+     * (inclusive) so that the element at position {@code k} is the one that would be there if
+     * the range was sorted, with no greater value before it, and returns it.
+     */
+    private static double select(double[] values, int left, int right, int k) {
+        while (right > left) {
+            // median of three pivot, protects from the worst case on sorted input
+            int mid = (left + right) >>> 1;
+            if (values[mid] < values[left]) swap(values, left, mid);
+            if (values[right] < values[left]) swap(values, left, right);
+            if (values[right] < values[mid]) swap(values, mid, right);
+            double pivot = values[mid];
+
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) i++ ;
+                while (values[j] > pivot) j-- ;
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++ ;
+                    j-- ;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                break;
+            }
+        }
+        return values[k];
+    }
+
+    private static void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
 }
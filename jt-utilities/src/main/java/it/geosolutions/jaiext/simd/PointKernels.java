@@ -0,0 +1,208 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.simd;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Row kernels for the no-ROI, no-NoData paths of the point operations (clamp, threshold,
+ * rescale, binarize and arithmetic with constants).
+ * <p>
+ * Each method processes {@code len} samples of a single band, reading {@code src} from
+ * {@code srcOff} every {@code srcStride} elements and writing {@code dst} the same way, which
+ * maps directly onto a {@code RasterAccessor} line: the pixel stride is the stride and the
+ * line offset plus the band offset is the offset. Rows whose strides are both 1 (single band
+ * or banded layouts) are processed with the JDK Vector API when it is available, all other
+ * rows with plain loops; both produce exactly the same samples.
+ * <p>
+ * The vector kernels live in the Java 17 layer of this multi-release jar and need the
+ * {@code jdk.incubator.vector} module ({@code --add-modules jdk.incubator.vector}). On Java 8,
+ * or when the module is not resolved, the scalar kernels are used. The
+ * {@value #VECTOR_KEY} system property (default {@code true}) or
+ * {@link #setVectorEnabled(boolean)} turn the vector kernels off.
+ */
+public final class PointKernels {
+
+    private static final Logger LOGGER = Logger.getLogger(PointKernels.class.getName());
+
+    /** System property enabling the vector kernels, when available */
+    public static final String VECTOR_KEY = "it.geosolutions.jaiext.vector";
+
+    /** Arithmetic operations supported by the {@code arithmetic} kernels */
+    public static enum Arithmetic {
+        ADD, SUBTRACT, MULTIPLY, DIVIDE
+    }
+
+    private static final ScalarKernels SCALAR = new ScalarKernels();
+
+    private static final ScalarKernels VECTOR = VectorSupport.load();
+
+    private static volatile ScalarKernels kernels;
+
+    static {
+        setVectorEnabled(Boolean.parseBoolean(System.getProperty(VECTOR_KEY, "true")));
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Vector point kernels " + (isVectorEnabled() ? "enabled" : "disabled"));
+        }
+    }
+
+    private PointKernels() {
+    }
+
+    /**
+     * @return {@code true} if the running JVM can use the vector kernels
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR != null;
+    }
+
+    /**
+     * @return {@code true} if the vector kernels are in use
+     */
+    public static boolean isVectorEnabled() {
+        return kernels != SCALAR;
+    }
+
+    /**
+     * Switches between the vector and the scalar kernels. Enabling has no effect when the
+     * vector kernels are not available.
+     * 
+     * @param enabled whether to use the vector kernels
+     */
+    public static void setVectorEnabled(boolean enabled) {
+        kernels = enabled && VECTOR != null ? VECTOR : SCALAR;
+    }
+
+    /**
+     * Clamps samples to {@code [lo, hi]}: values below {@code lo} become {@code lo}, values
+     * above {@code hi} become {@code hi}.
+     */
+    public static void clamp(byte[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int dstStride, int len, byte lo, byte hi) {
+        kernels.clamp(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi);
+    }
+
+    /** See {@link #clamp(byte[], int, int, byte[], int, int, int, byte, byte)}. */
+    public static void clamp(short[] src, int srcOff, int srcStride, short[] dst, int dstOff,
+            int dstStride, int len, short lo, short hi) {
+        kernels.clamp(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi);
+    }
+
+    /** See {@link #clamp(byte[], int, int, byte[], int, int, int, byte, byte)}. */
+    public static void clamp(int[] src, int srcOff, int srcStride, int[] dst, int dstOff,
+            int dstStride, int len, int lo, int hi) {
+        kernels.clamp(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi);
+    }
+
+    /** See {@link #clamp(byte[], int, int, byte[], int, int, int, byte, byte)}. */
+    public static void clamp(float[] src, int srcOff, int srcStride, float[] dst, int dstOff,
+            int dstStride, int len, float lo, float hi) {
+        kernels.clamp(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi);
+    }
+
+    /** See {@link #clamp(byte[], int, int, byte[], int, int, int, byte, byte)}. */
+    public static void clamp(double[] src, int srcOff, int srcStride, double[] dst,
+            int dstOff, int dstStride, int len, double lo, double hi) {
+        kernels.clamp(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi);
+    }
+
+    /**
+     * Replaces samples within {@code [lo, hi]} with {@code value}, copying the others.
+     */
+    public static void threshold(byte[] src, int srcOff, int srcStride, byte[] dst,
+            int dstOff, int dstStride, int len, byte lo, byte hi, byte value) {
+        kernels.threshold(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi, value);
+    }
+
+    /** See {@link #threshold(byte[], int, int, byte[], int, int, int, byte, byte, byte)}. */
+    public static void threshold(short[] src, int srcOff, int srcStride, short[] dst,
+            int dstOff, int dstStride, int len, short lo, short hi, short value) {
+        kernels.threshold(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi, value);
+    }
+
+    /** See {@link #threshold(byte[], int, int, byte[], int, int, int, byte, byte, byte)}. */
+    public static void threshold(int[] src, int srcOff, int srcStride, int[] dst, int dstOff,
+            int dstStride, int len, int lo, int hi, int value) {
+        kernels.threshold(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi, value);
+    }
+
+    /** See {@link #threshold(byte[], int, int, byte[], int, int, int, byte, byte, byte)}. */
+    public static void threshold(float[] src, int srcOff, int srcStride, float[] dst,
+            int dstOff, int dstStride, int len, float lo, float hi, float value) {
+        kernels.threshold(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi, value);
+    }
+
+    /** See {@link #threshold(byte[], int, int, byte[], int, int, int, byte, byte, byte)}. */
+    public static void threshold(double[] src, int srcOff, int srcStride, double[] dst,
+            int dstOff, int dstStride, int len, double lo, double hi, double value) {
+        kernels.threshold(src, srcOff, srcStride, dst, dstOff, dstStride, len, lo, hi, value);
+    }
+
+    /**
+     * Computes {@code (float) (src * scale + offset)}, the product and sum being evaluated in
+     * double precision.
+     */
+    public static void rescale(float[] src, int srcOff, int srcStride, float[] dst,
+            int dstOff, int dstStride, int len, double scale, double offset) {
+        kernels.rescale(src, srcOff, srcStride, dst, dstOff, dstStride, len, scale, offset);
+    }
+
+    /** Computes {@code src * scale + offset}. */
+    public static void rescale(double[] src, int srcOff, int srcStride, double[] dst,
+            int dstOff, int dstStride, int len, double scale, double offset) {
+        kernels.rescale(src, srcOff, srcStride, dst, dstOff, dstStride, len, scale, offset);
+    }
+
+    /**
+     * Applies {@code op} between each sample and {@code constant} in double precision, then
+     * clamps the result to the float range as {@code ImageUtil.clampFloat} does.
+     */
+    public static void arithmetic(Arithmetic op, float[] src, int srcOff, int srcStride,
+            float[] dst, int dstOff, int dstStride, int len, double constant) {
+        kernels.arithmetic(op, src, srcOff, srcStride, dst, dstOff, dstStride, len, constant);
+    }
+
+    /** Applies {@code op} between each sample and {@code constant}. */
+    public static void arithmetic(Arithmetic op, double[] src, int srcOff, int srcStride,
+            double[] dst, int dstOff, int dstStride, int len, double constant) {
+        kernels.arithmetic(op, src, srcOff, srcStride, dst, dstOff, dstStride, len, constant);
+    }
+
+    /**
+     * Sets the bits of a packed binary row where the sample is greater than or equal to
+     * {@code threshold}. Bit {@code bitOffset} is the most significant bit of
+     * {@code dst[dstOff + bitOffset / 8]}; bits are only ever set, never cleared.
+     */
+    public static void binarize(int[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int bitOffset, int len, double threshold) {
+        kernels.binarize(src, srcOff, srcStride, dst, dstOff, bitOffset, len, threshold);
+    }
+
+    /** See {@link #binarize(int[], int, int, byte[], int, int, int, double)}. */
+    public static void binarize(float[] src, int srcOff, int srcStride, byte[] dst,
+            int dstOff, int bitOffset, int len, double threshold) {
+        kernels.binarize(src, srcOff, srcStride, dst, dstOff, bitOffset, len, threshold);
+    }
+
+    /** See {@link #binarize(int[], int, int, byte[], int, int, int, double)}. */
+    public static void binarize(double[] src, int srcOff, int srcStride, byte[] dst,
+            int dstOff, int bitOffset, int len, double threshold) {
+        kernels.binarize(src, srcOff, srcStride, dst, dstOff, bitOffset, len, threshold);
+    }
+}
@@ -0,0 +1,184 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.simd;
+
+import it.geosolutions.jaiext.simd.PointKernels.Arithmetic;
+
+/**
+ * Reference implementation of the {@link PointKernels} row operations, a plain loop over
+ * strided arrays. The vectorized implementation extends this class and falls back on these
+ * methods for strided rows and for the tail of contiguous ones.
+ */
+class ScalarKernels {
+
+    void clamp(byte[] src, int srcOff, int srcStride, byte[] dst, int dstOff, int dstStride,
+            int len, byte lo, byte hi) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            byte s = src[srcOff];
+            dst[dstOff] = s < lo ? lo : (s > hi ? hi : s);
+        }
+    }
+
+    void clamp(short[] src, int srcOff, int srcStride, short[] dst, int dstOff, int dstStride,
+            int len, short lo, short hi) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            short s = src[srcOff];
+            dst[dstOff] = s < lo ? lo : (s > hi ? hi : s);
+        }
+    }
+
+    void clamp(int[] src, int srcOff, int srcStride, int[] dst, int dstOff, int dstStride,
+            int len, int lo, int hi) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            int s = src[srcOff];
+            dst[dstOff] = s < lo ? lo : (s > hi ? hi : s);
+        }
+    }
+
+    void clamp(float[] src, int srcOff, int srcStride, float[] dst, int dstOff, int dstStride,
+            int len, float lo, float hi) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            float s = src[srcOff];
+            dst[dstOff] = s < lo ? lo : (s > hi ? hi : s);
+        }
+    }
+
+    void clamp(double[] src, int srcOff, int srcStride, double[] dst, int dstOff,
+            int dstStride, int len, double lo, double hi) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            double s = src[srcOff];
+            dst[dstOff] = s < lo ? lo : (s > hi ? hi : s);
+        }
+    }
+
+    void threshold(byte[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int dstStride, int len, byte lo, byte hi, byte value) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            byte s = src[srcOff];
+            dst[dstOff] = s >= lo && s <= hi ? value : s;
+        }
+    }
+
+    void threshold(short[] src, int srcOff, int srcStride, short[] dst, int dstOff,
+            int dstStride, int len, short lo, short hi, short value) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            short s = src[srcOff];
+            dst[dstOff] = s >= lo && s <= hi ? value : s;
+        }
+    }
+
+    void threshold(int[] src, int srcOff, int srcStride, int[] dst, int dstOff, int dstStride,
+            int len, int lo, int hi, int value) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            int s = src[srcOff];
+            dst[dstOff] = s >= lo && s <= hi ? value : s;
+        }
+    }
+
+    void threshold(float[] src, int srcOff, int srcStride, float[] dst, int dstOff,
+            int dstStride, int len, float lo, float hi, float value) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            float s = src[srcOff];
+            dst[dstOff] = s >= lo && s <= hi ? value : s;
+        }
+    }
+
+    void threshold(double[] src, int srcOff, int srcStride, double[] dst, int dstOff,
+            int dstStride, int len, double lo, double hi, double value) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            double s = src[srcOff];
+            dst[dstOff] = s >= lo && s <= hi ? value : s;
+        }
+    }
+
+    void rescale(float[] src, int srcOff, int srcStride, float[] dst, int dstOff,
+            int dstStride, int len, double scale, double offset) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            dst[dstOff] = (float) (src[srcOff] * scale + offset);
+        }
+    }
+
+    void rescale(double[] src, int srcOff, int srcStride, double[] dst, int dstOff,
+            int dstStride, int len, double scale, double offset) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            dst[dstOff] = src[srcOff] * scale + offset;
+        }
+    }
+
+    void arithmetic(Arithmetic op, float[] src, int srcOff, int srcStride, float[] dst,
+            int dstOff, int dstStride, int len, double constant) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            dst[dstOff] = clampFloat(apply(op, src[srcOff], constant));
+        }
+    }
+
+    void arithmetic(Arithmetic op, double[] src, int srcOff, int srcStride, double[] dst,
+            int dstOff, int dstStride, int len, double constant) {
+        for (int i = 0; i < len; i++, srcOff += srcStride, dstOff += dstStride) {
+            dst[dstOff] = apply(op, src[srcOff], constant);
+        }
+    }
+
+    void binarize(int[] src, int srcOff, int srcStride, byte[] dst, int dstOff, int bitOffset,
+            int len, double threshold) {
+        for (int i = 0, bit = bitOffset; i < len; i++, bit++, srcOff += srcStride) {
+            if (src[srcOff] >= threshold) {
+                dst[dstOff + (bit >> 3)] |= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+    }
+
+    void binarize(float[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int bitOffset, int len, double threshold) {
+        for (int i = 0, bit = bitOffset; i < len; i++, bit++, srcOff += srcStride) {
+            if (src[srcOff] >= threshold) {
+                dst[dstOff + (bit >> 3)] |= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+    }
+
+    void binarize(double[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int bitOffset, int len, double threshold) {
+        for (int i = 0, bit = bitOffset; i < len; i++, bit++, srcOff += srcStride) {
+            if (src[srcOff] >= threshold) {
+                dst[dstOff + (bit >> 3)] |= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+    }
+
+    static double apply(Arithmetic op, double value, double constant) {
+        switch (op) {
+        case ADD:
+            return value + constant;
+        case SUBTRACT:
+            return value - constant;
+        case MULTIPLY:
+            return value * constant;
+        case DIVIDE:
+            return value / constant;
+        default:
+            throw new IllegalArgumentException("Unsupported operation " + op);
+        }
+    }
+
+    /** Same clamping as JAI's {@code ImageUtil.clampFloat}, NaN included. */
+    static float clampFloat(double value) {
+        return value > Float.MAX_VALUE ? Float.MAX_VALUE
+                : (value >= -Float.MAX_VALUE ? (float) value : -Float.MAX_VALUE);
+    }
+}
@@ -0,0 +1,35 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.simd;
+
+/**
+ * Loads the vectorized kernels. This Java 8 version has none: the multi-release jar carries a
+ * Java 17 version of this class under {@code META-INF/versions/17} which does.
+ */
+class VectorSupport {
+
+    private VectorSupport() {
+    }
+
+    /**
+     * @return the vectorized kernels, or {@code null} if the running JVM cannot provide them
+     */
+    static ScalarKernels load() {
+        return null;
+    }
+}
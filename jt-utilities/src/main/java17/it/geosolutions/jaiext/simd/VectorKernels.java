@@ -0,0 +1,415 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.simd;
+
+import static jdk.incubator.vector.VectorOperators.GE;
+import static jdk.incubator.vector.VectorOperators.GT;
+import static jdk.incubator.vector.VectorOperators.LE;
+
+import it.geosolutions.jaiext.simd.PointKernels.Arithmetic;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementation of the point kernels. Contiguous rows are processed a full vector
+ * at a time, using only lane-wise comparisons, blends and correctly rounded arithmetic so that
+ * the output is identical to {@link ScalarKernels}; strided rows and the row tails are left to
+ * the scalar loops.
+ */
+final class VectorKernels extends ScalarKernels {
+
+    private static final VectorSpecies<Byte> B = ByteVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Short> S = ShortVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Integer> I = IntVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+
+    /** Float species with as many lanes as {@link #D}, for computing floats in double precision */
+    private static final VectorSpecies<Float> FD = VectorSpecies.of(float.class,
+            VectorShape.forBitSize(D.vectorBitSize() / 2));
+
+    /** Bit-reversed bytes, turning a lane mask (lane 0 lowest) into a packed row byte */
+    private static final byte[] REVERSED = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            REVERSED[i] = (byte) (Integer.reverse(i) >>> 24);
+        }
+    }
+
+    static boolean isProfitable() {
+        return D.length() > 1;
+    }
+
+    @Override
+    void clamp(byte[] src, int srcOff, int srcStride, byte[] dst, int dstOff, int dstStride,
+            int len, byte lo, byte hi) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            ByteVector vlo = ByteVector.broadcast(B, lo);
+            ByteVector vhi = ByteVector.broadcast(B, hi);
+            for (int bound = B.loopBound(len); i < bound; i += B.length()) {
+                ByteVector s = ByteVector.fromArray(B, src, srcOff + i);
+                VectorMask<Byte> below = s.lt(vlo);
+                VectorMask<Byte> above = s.compare(GT, vhi).andNot(below);
+                s.blend(vlo, below).blend(vhi, above).intoArray(dst, dstOff + i);
+            }
+        }
+        super.clamp(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo, hi);
+    }
+
+    @Override
+    void clamp(short[] src, int srcOff, int srcStride, short[] dst, int dstOff, int dstStride,
+            int len, short lo, short hi) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            ShortVector vlo = ShortVector.broadcast(S, lo);
+            ShortVector vhi = ShortVector.broadcast(S, hi);
+            for (int bound = S.loopBound(len); i < bound; i += S.length()) {
+                ShortVector s = ShortVector.fromArray(S, src, srcOff + i);
+                VectorMask<Short> below = s.lt(vlo);
+                VectorMask<Short> above = s.compare(GT, vhi).andNot(below);
+                s.blend(vlo, below).blend(vhi, above).intoArray(dst, dstOff + i);
+            }
+        }
+        super.clamp(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo, hi);
+    }
+
+    @Override
+    void clamp(int[] src, int srcOff, int srcStride, int[] dst, int dstOff, int dstStride,
+            int len, int lo, int hi) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            IntVector vlo = IntVector.broadcast(I, lo);
+            IntVector vhi = IntVector.broadcast(I, hi);
+            for (int bound = I.loopBound(len); i < bound; i += I.length()) {
+                IntVector s = IntVector.fromArray(I, src, srcOff + i);
+                VectorMask<Integer> below = s.lt(vlo);
+                VectorMask<Integer> above = s.compare(GT, vhi).andNot(below);
+                s.blend(vlo, below).blend(vhi, above).intoArray(dst, dstOff + i);
+            }
+        }
+        super.clamp(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo, hi);
+    }
+
+    @Override
+    void clamp(float[] src, int srcOff, int srcStride, float[] dst, int dstOff, int dstStride,
+            int len, float lo, float hi) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            FloatVector vlo = FloatVector.broadcast(F, lo);
+            FloatVector vhi = FloatVector.broadcast(F, hi);
+            for (int bound = F.loopBound(len); i < bound; i += F.length()) {
+                FloatVector s = FloatVector.fromArray(F, src, srcOff + i);
+                VectorMask<Float> below = s.lt(vlo);
+                VectorMask<Float> above = s.compare(GT, vhi).andNot(below);
+                s.blend(vlo, below).blend(vhi, above).intoArray(dst, dstOff + i);
+            }
+        }
+        super.clamp(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo, hi);
+    }
+
+    @Override
+    void clamp(double[] src, int srcOff, int srcStride, double[] dst, int dstOff,
+            int dstStride, int len, double lo, double hi) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            DoubleVector vlo = DoubleVector.broadcast(D, lo);
+            DoubleVector vhi = DoubleVector.broadcast(D, hi);
+            for (int bound = D.loopBound(len); i < bound; i += D.length()) {
+                DoubleVector s = DoubleVector.fromArray(D, src, srcOff + i);
+                VectorMask<Double> below = s.lt(vlo);
+                VectorMask<Double> above = s.compare(GT, vhi).andNot(below);
+                s.blend(vlo, below).blend(vhi, above).intoArray(dst, dstOff + i);
+            }
+        }
+        super.clamp(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo, hi);
+    }
+
+    @Override
+    void threshold(byte[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int dstStride, int len, byte lo, byte hi, byte value) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            ByteVector vvalue = ByteVector.broadcast(B, value);
+            for (int bound = B.loopBound(len); i < bound; i += B.length()) {
+                ByteVector s = ByteVector.fromArray(B, src, srcOff + i);
+                s.blend(vvalue, s.compare(GE, lo).and(s.compare(LE, hi))).intoArray(dst,
+                        dstOff + i);
+            }
+        }
+        super.threshold(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo,
+                hi, value);
+    }
+
+    @Override
+    void threshold(short[] src, int srcOff, int srcStride, short[] dst, int dstOff,
+            int dstStride, int len, short lo, short hi, short value) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            ShortVector vvalue = ShortVector.broadcast(S, value);
+            for (int bound = S.loopBound(len); i < bound; i += S.length()) {
+                ShortVector s = ShortVector.fromArray(S, src, srcOff + i);
+                s.blend(vvalue, s.compare(GE, lo).and(s.compare(LE, hi))).intoArray(dst,
+                        dstOff + i);
+            }
+        }
+        super.threshold(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo,
+                hi, value);
+    }
+
+    @Override
+    void threshold(int[] src, int srcOff, int srcStride, int[] dst, int dstOff, int dstStride,
+            int len, int lo, int hi, int value) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            IntVector vvalue = IntVector.broadcast(I, value);
+            for (int bound = I.loopBound(len); i < bound; i += I.length()) {
+                IntVector s = IntVector.fromArray(I, src, srcOff + i);
+                s.blend(vvalue, s.compare(GE, lo).and(s.compare(LE, hi))).intoArray(dst,
+                        dstOff + i);
+            }
+        }
+        super.threshold(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo,
+                hi, value);
+    }
+
+    @Override
+    void threshold(float[] src, int srcOff, int srcStride, float[] dst, int dstOff,
+            int dstStride, int len, float lo, float hi, float value) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            FloatVector vvalue = FloatVector.broadcast(F, value);
+            for (int bound = F.loopBound(len); i < bound; i += F.length()) {
+                FloatVector s = FloatVector.fromArray(F, src, srcOff + i);
+                s.blend(vvalue, s.compare(GE, lo).and(s.compare(LE, hi))).intoArray(dst,
+                        dstOff + i);
+            }
+        }
+        super.threshold(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo,
+                hi, value);
+    }
+
+    @Override
+    void threshold(double[] src, int srcOff, int srcStride, double[] dst, int dstOff,
+            int dstStride, int len, double lo, double hi, double value) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            DoubleVector vvalue = DoubleVector.broadcast(D, value);
+            for (int bound = D.loopBound(len); i < bound; i += D.length()) {
+                DoubleVector s = DoubleVector.fromArray(D, src, srcOff + i);
+                s.blend(vvalue, s.compare(GE, lo).and(s.compare(LE, hi))).intoArray(dst,
+                        dstOff + i);
+            }
+        }
+        super.threshold(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, lo,
+                hi, value);
+    }
+
+    @Override
+    void rescale(float[] src, int srcOff, int srcStride, float[] dst, int dstOff,
+            int dstStride, int len, double scale, double offset) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            for (int bound = D.loopBound(len); i < bound; i += D.length()) {
+                DoubleVector s = widen(FloatVector.fromArray(FD, src, srcOff + i));
+                narrow(s.mul(scale).add(offset)).intoArray(dst, dstOff + i);
+            }
+        }
+        super.rescale(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, scale,
+                offset);
+    }
+
+    @Override
+    void rescale(double[] src, int srcOff, int srcStride, double[] dst, int dstOff,
+            int dstStride, int len, double scale, double offset) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            for (int bound = D.loopBound(len); i < bound; i += D.length()) {
+                DoubleVector s = DoubleVector.fromArray(D, src, srcOff + i);
+                s.mul(scale).add(offset).intoArray(dst, dstOff + i);
+            }
+        }
+        super.rescale(src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i, scale,
+                offset);
+    }
+
+    @Override
+    void arithmetic(Arithmetic op, float[] src, int srcOff, int srcStride, float[] dst,
+            int dstOff, int dstStride, int len, double constant) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            VectorOperators.Binary vop = operator(op);
+            DoubleVector max = DoubleVector.broadcast(D, Float.MAX_VALUE);
+            DoubleVector min = DoubleVector.broadcast(D, -Float.MAX_VALUE);
+            for (int bound = D.loopBound(len); i < bound; i += D.length()) {
+                DoubleVector r = widen(FloatVector.fromArray(FD, src, srcOff + i)).lanewise(vop,
+                        constant);
+                // same as clampFloat: NaN fails both tests and ends up as -Float.MAX_VALUE
+                r = min.blend(r, r.compare(GE, min)).blend(max, r.compare(GT, max));
+                narrow(r).intoArray(dst, dstOff + i);
+            }
+        }
+        super.arithmetic(op, src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i,
+                constant);
+    }
+
+    @Override
+    void arithmetic(Arithmetic op, double[] src, int srcOff, int srcStride, double[] dst,
+            int dstOff, int dstStride, int len, double constant) {
+        int i = 0;
+        if (srcStride == 1 && dstStride == 1) {
+            VectorOperators.Binary vop = operator(op);
+            for (int bound = D.loopBound(len); i < bound; i += D.length()) {
+                DoubleVector.fromArray(D, src, srcOff + i).lanewise(vop, constant).intoArray(dst,
+                        dstOff + i);
+            }
+        }
+        super.arithmetic(op, src, srcOff + i, srcStride, dst, dstOff + i, dstStride, len - i,
+                constant);
+    }
+
+    @Override
+    void binarize(int[] src, int srcOff, int srcStride, byte[] dst, int dstOff, int bitOffset,
+            int len, double threshold) {
+        if (srcStride != 1 || !(threshold <= Integer.MAX_VALUE)) {
+            // a NaN or too large threshold sets no bits, leave it to the scalar loop
+            super.binarize(src, srcOff, srcStride, dst, dstOff, bitOffset, len, threshold);
+            return;
+        }
+        // smallest int satisfying value >= threshold
+        int t = threshold <= Integer.MIN_VALUE ? Integer.MIN_VALUE : (int) Math.ceil(threshold);
+        IntVector vt = IntVector.broadcast(I, t);
+        int lanes = I.length();
+        int step = Math.max(8, lanes);
+
+        int i = head(len, bitOffset);
+        super.binarize(src, srcOff, 1, dst, dstOff, bitOffset, i, threshold);
+        int index = dstOff + ((bitOffset + i) >> 3);
+        for (; i + step <= len; i += step) {
+            long bits = 0;
+            for (int j = 0; j < step; j += lanes) {
+                bits |= IntVector.fromArray(I, src, srcOff + i + j).compare(GE, vt).toLong() << j;
+            }
+            index = pack(bits, step, dst, index);
+        }
+        super.binarize(src, srcOff + i, 1, dst, dstOff, bitOffset + i, len - i, threshold);
+    }
+
+    @Override
+    void binarize(float[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int bitOffset, int len, double threshold) {
+        if (srcStride != 1) {
+            super.binarize(src, srcOff, srcStride, dst, dstOff, bitOffset, len, threshold);
+            return;
+        }
+        // smallest float satisfying value >= threshold
+        float t = (float) threshold;
+        if (t < threshold) {
+            t = Math.nextUp(t);
+        }
+        FloatVector vt = FloatVector.broadcast(F, t);
+        int lanes = F.length();
+        int step = Math.max(8, lanes);
+
+        int i = head(len, bitOffset);
+        super.binarize(src, srcOff, 1, dst, dstOff, bitOffset, i, threshold);
+        int index = dstOff + ((bitOffset + i) >> 3);
+        for (; i + step <= len; i += step) {
+            long bits = 0;
+            for (int j = 0; j < step; j += lanes) {
+                bits |= FloatVector.fromArray(F, src, srcOff + i + j).compare(GE, vt).toLong()
+                        << j;
+            }
+            index = pack(bits, step, dst, index);
+        }
+        super.binarize(src, srcOff + i, 1, dst, dstOff, bitOffset + i, len - i, threshold);
+    }
+
+    @Override
+    void binarize(double[] src, int srcOff, int srcStride, byte[] dst, int dstOff,
+            int bitOffset, int len, double threshold) {
+        if (srcStride != 1) {
+            super.binarize(src, srcOff, srcStride, dst, dstOff, bitOffset, len, threshold);
+            return;
+        }
+        DoubleVector vt = DoubleVector.broadcast(D, threshold);
+        int lanes = D.length();
+        int step = Math.max(8, lanes);
+
+        int i = head(len, bitOffset);
+        super.binarize(src, srcOff, 1, dst, dstOff, bitOffset, i, threshold);
+        int index = dstOff + ((bitOffset + i) >> 3);
+        for (; i + step <= len; i += step) {
+            long bits = 0;
+            for (int j = 0; j < step; j += lanes) {
+                bits |= DoubleVector.fromArray(D, src, srcOff + i + j).compare(GE, vt).toLong()
+                        << j;
+            }
+            index = pack(bits, step, dst, index);
+        }
+        super.binarize(src, srcOff + i, 1, dst, dstOff, bitOffset + i, len - i, threshold);
+    }
+
+    /** Number of leading samples to process before the row reaches a byte boundary */
+    private static int head(int len, int bitOffset) {
+        return Math.min(len, (8 - (bitOffset & 7)) & 7);
+    }
+
+    /** ORs {@code count / 8} bytes of mask bits into the packed row, returns the next index */
+    private static int pack(long bits, int count, byte[] dst, int index) {
+        for (int k = 0; k < count; k += 8) {
+            dst[index++] |= REVERSED[(int) (bits >>> k) & 0xFF];
+        }
+        return index;
+    }
+
+    private static DoubleVector widen(FloatVector v) {
+        return (DoubleVector) v.convertShape(VectorOperators.F2D, D, 0);
+    }
+
+    private static FloatVector narrow(DoubleVector v) {
+        return (FloatVector) v.convertShape(VectorOperators.D2F, FD, 0);
+    }
+
+    private static VectorOperators.Binary operator(Arithmetic op) {
+        switch (op) {
+        case ADD:
+            return VectorOperators.ADD;
+        case SUBTRACT:
+            return VectorOperators.SUB;
+        case MULTIPLY:
+            return VectorOperators.MUL;
+        case DIVIDE:
+            return VectorOperators.DIV;
+        default:
+            throw new IllegalArgumentException("Unsupported operation " + op);
+        }
+    }
+}
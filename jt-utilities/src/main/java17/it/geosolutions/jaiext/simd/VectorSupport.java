@@ -0,0 +1,49 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.simd;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loads the vectorized kernels when the {@code jdk.incubator.vector} module is resolved and
+ * the platform vectors hold more than one double.
+ */
+class VectorSupport {
+
+    private static final Logger LOGGER = Logger.getLogger(VectorSupport.class.getName());
+
+    private VectorSupport() {
+    }
+
+    /**
+     * @return the vectorized kernels, or {@code null} if the running JVM cannot provide them
+     */
+    static ScalarKernels load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            LOGGER.fine("jdk.incubator.vector not resolved, using scalar point kernels");
+            return null;
+        }
+        try {
+            return VectorKernels.isProfitable() ? new VectorKernels() : null;
+        } catch (LinkageError e) {
+            LOGGER.log(Level.FINE, "Vector point kernels not available", e);
+            return null;
+        }
+    }
+}
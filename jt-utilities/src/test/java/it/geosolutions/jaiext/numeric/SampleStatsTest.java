@@ -0,0 +1,130 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package it.geosolutions.jaiext.numeric;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the primitive array overloads of {@link SampleStats} return the same results as the
+ * boxed ones.
+ */
+public class SampleStatsTest {
+
+    private static final double TOL = 1e-9;
+
+    @Test
+    public void primitiveMatchesBoxed() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            int n = 1 + random.nextInt(30);
+            double[] values = new double[n];
+            for (int j = 0; j < n; j++) {
+                // few distinct values so that the mode has ties, and some NaN
+                values[j] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(8);
+            }
+            // the boxed max/min/range fail if all values are NaN and ignored
+            values[random.nextInt(n)] = random.nextInt(8);
+            assertSameStats(values, true);
+            assertSameStats(values, false);
+        }
+    }
+
+    @Test
+    public void medianLargeSample() {
+        Random random = new Random(7);
+        for (int n : new int[] {1000, 1001}) {
+            double[] values = new double[n];
+            for (int j = 0; j < n; j++) {
+                values[j] = random.nextGaussian();
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            double expected =
+                    n % 2 == 0 ? (sorted[n / 2 - 1] + sorted[n / 2]) / 2 : sorted[n / 2];
+            assertEquals(expected, SampleStats.median(values, n, true), 0d);
+        }
+    }
+
+    @Test
+    public void usesOnlyFirstValues() {
+        double[] values = {3, 1, 2, 100, 100, 100};
+        assertEquals(3, SampleStats.max(values, 3, true), 0d);
+        assertEquals(2, SampleStats.mean(values, 3, true), 0d);
+        assertEquals(2, SampleStats.median(values, 3, true), 0d);
+        assertEquals(6, SampleStats.sum(values, 3, true), 0d);
+        assertEquals(Double.NaN, SampleStats.median(values, 0, true), 0d);
+    }
+
+    private void assertSameStats(double[] values, boolean ignoreNaN) {
+        Double[] boxed = new Double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        String message = Arrays.toString(values) + ", ignoreNaN: " + ignoreNaN;
+        int n = values.length;
+        assertEquals(
+                message,
+                SampleStats.max(boxed, ignoreNaN),
+                SampleStats.max(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.min(boxed, ignoreNaN),
+                SampleStats.min(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.mean(boxed, ignoreNaN),
+                SampleStats.mean(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.median(boxed, ignoreNaN),
+                SampleStats.median(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.mode(boxed, ignoreNaN),
+                SampleStats.mode(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.range(boxed, ignoreNaN),
+                SampleStats.range(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.variance(boxed, ignoreNaN),
+                SampleStats.variance(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.sdev(boxed, ignoreNaN),
+                SampleStats.sdev(values.clone(), n, ignoreNaN),
+                TOL);
+        assertEquals(
+                message,
+                SampleStats.sum(boxed, ignoreNaN),
+                SampleStats.sum(values.clone(), n, ignoreNaN),
+                TOL);
+    }
+}
@@ -0,0 +1,438 @@
+/* JAI-Ext - OpenSource Java Advanced Image Extensions Library
+ *    http://www.geo-solutions.it/
+ *    Copyright 2026 GeoSolutions
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.geosolutions.jaiext.simd;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import it.geosolutions.jaiext.simd.PointKernels.Arithmetic;
+
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks the {@link PointKernels} against plain per-sample loops, on contiguous and strided rows
+ * and with both the vector and scalar kernels. The vector kernels are only checked when the
+ * {@value #VECTOR_REQUIRED_KEY} system property is set, as done by the build when running the
+ * tests on the Java 17 classes with the vector module.
+ */
+public class PointKernelsTest {
+
+    /** System property telling that the vector kernels must be available */
+    static final String VECTOR_REQUIRED_KEY = "it.geosolutions.jaiext.vector.required";
+
+    private static final boolean VECTOR_REQUIRED = Boolean.getBoolean(VECTOR_REQUIRED_KEY);
+
+    private static final int RUNS = 200;
+
+    private static final double[] SPECIAL = { Double.NaN, 0d, -0d, Double.POSITIVE_INFINITY,
+            Double.NEGATIVE_INFINITY, Float.MAX_VALUE, 1e300, -1e300 };
+
+    private final boolean vectorDefault = PointKernels.isVectorEnabled();
+
+    @After
+    public void restore() {
+        PointKernels.setVectorEnabled(vectorDefault);
+    }
+
+    @Test
+    public void clamp() {
+        for (boolean vector : kernelModes()) {
+            setVectorEnabled(vector);
+            Random random = new Random(1);
+            for (int r = 0; r < RUNS; r++) {
+                Row row = new Row(random);
+                byte[] bs = bytes(random, row.srcLength());
+                byte[] bd = new byte[row.dstLength()];
+                byte blo = (byte) random.nextInt(), bhi = (byte) random.nextInt();
+                PointKernels.clamp(bs, row.srcOff, row.srcStride, bd, row.dstOff,
+                        row.dstStride, row.len, blo, bhi);
+                byte[] be = new byte[bd.length];
+                for (int i = 0; i < row.len; i++) {
+                    byte s = bs[row.src(i)];
+                    be[row.dst(i)] = s < blo ? blo : (s > bhi ? bhi : s);
+                }
+                assertArrayEquals(be, bd);
+
+                short[] ss = shorts(random, row.srcLength());
+                short[] sd = new short[row.dstLength()];
+                short slo = (short) random.nextInt(), shi = (short) random.nextInt();
+                PointKernels.clamp(ss, row.srcOff, row.srcStride, sd, row.dstOff,
+                        row.dstStride, row.len, slo, shi);
+                short[] se = new short[sd.length];
+                for (int i = 0; i < row.len; i++) {
+                    short s = ss[row.src(i)];
+                    se[row.dst(i)] = s < slo ? slo : (s > shi ? shi : s);
+                }
+                assertArrayEquals(se, sd);
+
+                int[] is = ints(random, row.srcLength());
+                int[] id = new int[row.dstLength()];
+                int ilo = random.nextInt(), ihi = random.nextInt();
+                PointKernels.clamp(is, row.srcOff, row.srcStride, id, row.dstOff,
+                        row.dstStride, row.len, ilo, ihi);
+                int[] ie = new int[id.length];
+                for (int i = 0; i < row.len; i++) {
+                    int s = is[row.src(i)];
+                    ie[row.dst(i)] = s < ilo ? ilo : (s > ihi ? ihi : s);
+                }
+                assertArrayEquals(ie, id);
+
+                float[] fs = floats(random, row.srcLength());
+                float[] fd = new float[row.dstLength()];
+                float flo = (float) value(random), fhi = (float) value(random);
+                PointKernels.clamp(fs, row.srcOff, row.srcStride, fd, row.dstOff,
+                        row.dstStride, row.len, flo, fhi);
+                float[] fe = new float[fd.length];
+                for (int i = 0; i < row.len; i++) {
+                    float s = fs[row.src(i)];
+                    fe[row.dst(i)] = s < flo ? flo : (s > fhi ? fhi : s);
+                }
+                assertArrayEquals(fe, fd, 0f);
+
+                double[] ds = doubles(random, row.srcLength());
+                double[] dd = new double[row.dstLength()];
+                double dlo = value(random), dhi = value(random);
+                PointKernels.clamp(ds, row.srcOff, row.srcStride, dd, row.dstOff,
+                        row.dstStride, row.len, dlo, dhi);
+                double[] de = new double[dd.length];
+                for (int i = 0; i < row.len; i++) {
+                    double s = ds[row.src(i)];
+                    de[row.dst(i)] = s < dlo ? dlo : (s > dhi ? dhi : s);
+                }
+                assertArrayEquals(de, dd, 0d);
+            }
+        }
+    }
+
+    @Test
+    public void threshold() {
+        for (boolean vector : kernelModes()) {
+            setVectorEnabled(vector);
+            Random random = new Random(2);
+            for (int r = 0; r < RUNS; r++) {
+                Row row = new Row(random);
+                byte[] bs = bytes(random, row.srcLength());
+                byte[] bd = new byte[row.dstLength()];
+                byte blo = (byte) random.nextInt(), bhi = (byte) random.nextInt(), bv = 7;
+                PointKernels.threshold(bs, row.srcOff, row.srcStride, bd, row.dstOff,
+                        row.dstStride, row.len, blo, bhi, bv);
+                byte[] be = new byte[bd.length];
+                for (int i = 0; i < row.len; i++) {
+                    byte s = bs[row.src(i)];
+                    be[row.dst(i)] = s >= blo && s <= bhi ? bv : s;
+                }
+                assertArrayEquals(be, bd);
+
+                short[] ss = shorts(random, row.srcLength());
+                short[] sd = new short[row.dstLength()];
+                short slo = (short) random.nextInt(), shi = (short) random.nextInt(), sv = -3;
+                PointKernels.threshold(ss, row.srcOff, row.srcStride, sd, row.dstOff,
+                        row.dstStride, row.len, slo, shi, sv);
+                short[] se = new short[sd.length];
+                for (int i = 0; i < row.len; i++) {
+                    short s = ss[row.src(i)];
+                    se[row.dst(i)] = s >= slo && s <= shi ? sv : s;
+                }
+                assertArrayEquals(se, sd);
+
+                int[] is = ints(random, row.srcLength());
+                int[] id = new int[row.dstLength()];
+                int ilo = random.nextInt(), ihi = random.nextInt(), iv = 42;
+                PointKernels.threshold(is, row.srcOff, row.srcStride, id, row.dstOff,
+                        row.dstStride, row.len, ilo, ihi, iv);
+                int[] ie = new int[id.length];
+                for (int i = 0; i < row.len; i++) {
+                    int s = is[row.src(i)];
+                    ie[row.dst(i)] = s >= ilo && s <= ihi ? iv : s;
+                }
+                assertArrayEquals(ie, id);
+
+                float[] fs = floats(random, row.srcLength());
+                float[] fd = new float[row.dstLength()];
+                float flo = (float) value(random), fhi = (float) value(random), fv = 0.5f;
+                PointKernels.threshold(fs, row.srcOff, row.srcStride, fd, row.dstOff,
+                        row.dstStride, row.len, flo, fhi, fv);
+                float[] fe = new float[fd.length];
+                for (int i = 0; i < row.len; i++) {
+                    float s = fs[row.src(i)];
+                    fe[row.dst(i)] = s >= flo && s <= fhi ? fv : s;
+                }
+                assertArrayEquals(fe, fd, 0f);
+
+                double[] ds = doubles(random, row.srcLength());
+                double[] dd = new double[row.dstLength()];
+                double dlo = value(random), dhi = value(random), dv = Double.NaN;
+                PointKernels.threshold(ds, row.srcOff, row.srcStride, dd, row.dstOff,
+                        row.dstStride, row.len, dlo, dhi, dv);
+                double[] de = new double[dd.length];
+                for (int i = 0; i < row.len; i++) {
+                    double s = ds[row.src(i)];
+                    de[row.dst(i)] = s >= dlo && s <= dhi ? dv : s;
+                }
+                assertArrayEquals(de, dd, 0d);
+            }
+        }
+    }
+
+    @Test
+    public void rescale() {
+        for (boolean vector : kernelModes()) {
+            setVectorEnabled(vector);
+            Random random = new Random(3);
+            for (int r = 0; r < RUNS; r++) {
+                Row row = new Row(random);
+                double scale = value(random), offset = value(random);
+
+                float[] fs = floats(random, row.srcLength());
+                float[] fd = new float[row.dstLength()];
+                PointKernels.rescale(fs, row.srcOff, row.srcStride, fd, row.dstOff,
+                        row.dstStride, row.len, scale, offset);
+                float[] fe = new float[fd.length];
+                for (int i = 0; i < row.len; i++) {
+                    fe[row.dst(i)] = (float) (fs[row.src(i)] * scale + offset);
+                }
+                assertArrayEquals(fe, fd, 0f);
+
+                double[] ds = doubles(random, row.srcLength());
+                double[] dd = new double[row.dstLength()];
+                PointKernels.rescale(ds, row.srcOff, row.srcStride, dd, row.dstOff,
+                        row.dstStride, row.len, scale, offset);
+                double[] de = new double[dd.length];
+                for (int i = 0; i < row.len; i++) {
+                    de[row.dst(i)] = ds[row.src(i)] * scale + offset;
+                }
+                assertArrayEquals(de, dd, 0d);
+            }
+        }
+    }
+
+    @Test
+    public void arithmetic() {
+        for (boolean vector : kernelModes()) {
+            setVectorEnabled(vector);
+            Random random = new Random(4);
+            for (int r = 0; r < RUNS; r++) {
+                Row row = new Row(random);
+                Arithmetic op = Arithmetic.values()[random.nextInt(Arithmetic.values().length)];
+                double constant = value(random);
+
+                float[] fs = floats(random, row.srcLength());
+                float[] fd = new float[row.dstLength()];
+                PointKernels.arithmetic(op, fs, row.srcOff, row.srcStride, fd, row.dstOff,
+                        row.dstStride, row.len, constant);
+                float[] fe = new float[fd.length];
+                for (int i = 0; i < row.len; i++) {
+                    double v = apply(op, fs[row.src(i)], constant);
+                    fe[row.dst(i)] = v > Float.MAX_VALUE ? Float.MAX_VALUE
+                            : (v >= -Float.MAX_VALUE ? (float) v : -Float.MAX_VALUE);
+                }
+                assertArrayEquals(fe, fd, 0f);
+
+                double[] ds = doubles(random, row.srcLength());
+                double[] dd = new double[row.dstLength()];
+                PointKernels.arithmetic(op, ds, row.srcOff, row.srcStride, dd, row.dstOff,
+                        row.dstStride, row.len, constant);
+                double[] de = new double[dd.length];
+                for (int i = 0; i < row.len; i++) {
+                    de[row.dst(i)] = apply(op, ds[row.src(i)], constant);
+                }
+                assertArrayEquals(de, dd, 0d);
+            }
+        }
+    }
+
+    @Test
+    public void binarize() {
+        for (boolean vector : kernelModes()) {
+            setVectorEnabled(vector);
+            Random random = new Random(5);
+            for (int r = 0; r < RUNS; r++) {
+                Row row = new Row(random);
+                int bitOffset = random.nextInt(16);
+                int bytes = 2 + (bitOffset + row.len + 7) / 8;
+                double threshold = random.nextInt(4) == 0 ? value(random)
+                        : random.nextGaussian() * 100;
+
+                int[] is = ints(random, row.srcLength());
+                for (int i = 0; i < is.length; i++) {
+                    is[i] %= 300;
+                }
+                byte[] id = new byte[bytes];
+                byte[] ie = new byte[bytes];
+                // bits already set must be kept
+                id[1] = ie[1] = (byte) 0x81;
+                PointKernels.binarize(is, row.srcOff, row.srcStride, id, 1, bitOffset,
+                        row.len, threshold);
+                for (int i = 0; i < row.len; i++) {
+                    if (is[row.src(i)] >= threshold) {
+                        setBit(ie, 1, bitOffset + i);
+                    }
+                }
+                assertArrayEquals(ie, id);
+
+                float[] fs = floats(random, row.srcLength());
+                byte[] fd = new byte[bytes];
+                byte[] fe = new byte[bytes];
+                PointKernels.binarize(fs, row.srcOff, row.srcStride, fd, 1, bitOffset,
+                        row.len, threshold);
+                for (int i = 0; i < row.len; i++) {
+                    if (fs[row.src(i)] >= threshold) {
+                        setBit(fe, 1, bitOffset + i);
+                    }
+                }
+                assertArrayEquals(fe, fd);
+
+                double[] ds = doubles(random, row.srcLength());
+                byte[] dd = new byte[bytes];
+                byte[] de = new byte[bytes];
+                PointKernels.binarize(ds, row.srcOff, row.srcStride, dd, 1, bitOffset,
+                        row.len, threshold);
+                for (int i = 0; i < row.len; i++) {
+                    if (ds[row.src(i)] >= threshold) {
+                        setBit(de, 1, bitOffset + i);
+                    }
+                }
+                assertArrayEquals(de, dd);
+            }
+        }
+    }
+
+    @Test
+    public void vectorRequired() {
+        if (VECTOR_REQUIRED) {
+            assertTrue(PointKernels.isVectorAvailable());
+        }
+    }
+
+    @Test
+    public void switchFallsBackWhenUnavailable() {
+        PointKernels.setVectorEnabled(true);
+        assertEquals(PointKernels.isVectorAvailable(), PointKernels.isVectorEnabled());
+        PointKernels.setVectorEnabled(false);
+        assertFalse(PointKernels.isVectorEnabled());
+    }
+
+    /** The scalar kernels, followed by the vector ones when required */
+    private static boolean[] kernelModes() {
+        return VECTOR_REQUIRED ? new boolean[] { false, true } : new boolean[] { false };
+    }
+
+    private static void setVectorEnabled(boolean vector) {
+        PointKernels.setVectorEnabled(vector);
+        assertEquals(vector, PointKernels.isVectorEnabled());
+    }
+
+    /** Random row layout: mostly contiguous, sometimes strided, with arbitrary offsets */
+    private static final class Row {
+
+        final int len;
+
+        final int srcOff, srcStride, dstOff, dstStride;
+
+        Row(Random random) {
+            len = random.nextInt(100);
+            srcOff = random.nextInt(5);
+            dstOff = random.nextInt(5);
+            srcStride = random.nextInt(4) == 0 ? 3 : 1;
+            dstStride = random.nextInt(4) == 0 ? 2 : 1;
+        }
+
+        int srcLength() {
+            return srcOff + len * srcStride + 3;
+        }
+
+        int dstLength() {
+            return dstOff + len * dstStride + 3;
+        }
+
+        int src(int i) {
+            return srcOff + i * srcStride;
+        }
+
+        int dst(int i) {
+            return dstOff + i * dstStride;
+        }
+    }
+
+    private static double apply(Arithmetic op, double v, double c) {
+        switch (op) {
+        case ADD:
+            return v + c;
+        case SUBTRACT:
+            return v - c;
+        case MULTIPLY:
+            return v * c;
+        default:
+            return v / c;
+        }
+    }
+
+    private static void setBit(byte[] data, int offset, int bit) {
+        data[offset + bit / 8] |= (byte) (0x80 >> (bit % 8));
+    }
+
+    private static double value(Random random) {
+        if (random.nextInt(8) == 0) {
+            return SPECIAL[random.nextInt(SPECIAL.length)];
+        }
+        return random.nextGaussian() * 1000;
+    }
+
+    private static byte[] bytes(Random random, int n) {
+        byte[] values = new byte[n];
+        random.nextBytes(values);
+        return values;
+    }
+
+    private static short[] shorts(Random random, int n) {
+        short[] values = new short[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = (short) random.nextInt();
+        }
+        return values;
+    }
+
+    private static int[] ints(Random random, int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextInt();
+        }
+        return values;
+    }
+
+    private static float[] floats(Random random, int n) {
+        float[] values = new float[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = (float) value(random);
+        }
+        return values;
+    }
+
+    private static double[] doubles(Random random, int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = value(random);
+        }
+        return values;
+    }
+}
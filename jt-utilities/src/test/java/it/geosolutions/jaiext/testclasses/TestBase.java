@@ -27,10 +27,12 @@ import java.awt.image.ComponentSampleModel;
 import java.awt.image.DataBuffer;
 import java.awt.image.IndexColorModel;
 import java.awt.image.MultiPixelPackedSampleModel;
+import java.awt.image.PixelInterleavedSampleModel;
 import java.awt.image.RenderedImage;
 import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
 
+import javax.media.jai.PlanarImage;
 import javax.media.jai.ROIShape;
 import javax.media.jai.TiledImage;
 
@@ -453,6 +455,24 @@ public abstract class TestBase {
         return used;
     }
 
+    /**
+     * Creates a single band byte image filled with a constant value, with square tiles on a grid
+     * starting at the origin
+     */
+    public static TiledImage createByteImage(int minX, int minY, int width, int height,
+            int tileSize, int value) {
+        SampleModel sm = new PixelInterleavedSampleModel(DataBuffer.TYPE_BYTE, tileSize,
+                tileSize, 1, tileSize, new int[] { 0 });
+        TiledImage image = new TiledImage(minX, minY, width, height, 0, 0, sm,
+                PlanarImage.createColorModel(sm));
+        for (int y = minY; y < minY + height; y++) {
+            for (int x = minX; x < minX + width; x++) {
+                image.setSample(x, y, 0, value);
+            }
+        }
+        return image;
+    }
+
     protected static RenderedImage createIndexedImage(int defaultWidth, int defaultHeight, boolean transparentPixel, boolean addAlpha) {
         IndexColorModel icm;
         int SIZE = 255;